@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.github.imasahiro.stringformatter.runtime.async.AsyncRenderer;
+import com.github.imasahiro.stringformatter.runtime.async.FormatRingBuffer;
+
+/**
+ * Measures the latency of producers under contention, formatting on the producer threads and writing to a
+ * shared writer, or publishing the arguments to a ring buffer which is rendered by a background thread.
+ */
+@State(Scope.Benchmark)
+@Threads(4)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AsyncBench {
+    private static final AsyncBenchFormatter_Formatter formatter = new AsyncBenchFormatter_Formatter();
+
+    private final Writer writer = new DiscardingWriter();
+    private FormatRingBuffer ring;
+    private AsyncRenderer renderer;
+
+    private long id = 1234567890L;
+    private String symbol = "ACME";
+    private int quantity = 300;
+    private long price = 1999L;
+    private long timestamp = 1514764800000L;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ring = formatter.newRingBuffer(64 * 1024);
+        renderer = new AsyncRenderer(ring, formatter, writer, 64 * 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        renderer.close();
+    }
+
+    @Benchmark
+    public void formatOnProducer() throws IOException {
+        String message = formatter.order(id, symbol, quantity, price, timestamp);
+        synchronized (writer) {
+            writer.write(message);
+            writer.write('\n');
+        }
+    }
+
+    @Benchmark
+    public void publishToRingBuffer() {
+        formatter.publishOrder(ring, id, symbol, quantity, price, timestamp);
+    }
+
+    private static final class DiscardingWriter extends Writer {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void write(String str) {
+        }
+
+        @Override
+        public Writer append(CharSequence csq) {
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares formatting rows one by one into a buffer with formatting the columns of all rows at once.
+ */
+@State(Scope.Thread)
+public class BatchBench {
+    private static final BatchBenchFormatter_Formatter formatter = new BatchBenchFormatter_Formatter();
+
+    @Param({ "1000", "100000" })
+    private int rows;
+
+    private long[] ids;
+    private int[] quantities;
+    private long[] prices;
+    private long[] timestamps;
+    private final StringBuilder out = new StringBuilder();
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ids = new long[rows];
+        quantities = new int[rows];
+        prices = new long[rows];
+        timestamps = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = random.nextLong(1L << 40);
+            quantities[i] = random.nextInt(10000);
+            prices[i] = random.nextLong(1000000);
+            timestamps[i] = 1514764800000L + i;
+        }
+    }
+
+    @Benchmark
+    public StringBuilder formatPerRow() {
+        out.setLength(0);
+        for (int i = 0; i < rows; i++) {
+            out.append(formatter.row(ids[i], quantities[i], prices[i], timestamps[i])).append('\n');
+        }
+        return out;
+    }
+
+    @Benchmark
+    public StringBuilder formatAll() {
+        out.setLength(0);
+        return formatter.rowAll(ids, quantities, prices, timestamps, out, "\n");
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class BigNumberBench {
+    private static final BigNumberBenchFormatter.Formatter formatter =
+            new BigNumberBenchFormatter_Formatter();
+
+    private static final BigInteger ID = new BigInteger("123456789012345678901234567890");
+    private static final BigInteger BALANCE = new BigInteger("-98765432109876543210");
+    private static final BigDecimal AMOUNT = new BigDecimal("1234567.891");
+
+    @Benchmark
+    public void javaStringFormat(Blackhole blackhole) {
+        blackhole.consume(String.format(BigNumberBenchFormatter.FORMAT, ID, BALANCE, AMOUNT));
+    }
+
+    @Benchmark
+    public void autoStringFormatter(Blackhole blackhole) {
+        blackhole.consume(formatter.format(ID, BALANCE, AMOUNT));
+    }
+}
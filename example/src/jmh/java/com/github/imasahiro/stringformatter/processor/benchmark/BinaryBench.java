@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares writing a formatted line in UTF-8 to a buffer with encoding the arguments to a binary log, and
+ * measures decoding a binary record back to text offline.
+ */
+@State(Scope.Thread)
+public class BinaryBench {
+    private static final BinaryBenchFormatter_Formatter formatter = new BinaryBenchFormatter_Formatter();
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+    private final ByteBuffer record = ByteBuffer.allocate(1024);
+    private final StringBuilder sb = new StringBuilder(64);
+
+    private long id = 1234567890L;
+    private String symbol = "ACME";
+    private int quantity = 300;
+    private long price = 1999L;
+    private long timestamp = 1514764800000L;
+
+    @Setup
+    public void setUp() {
+        formatter.encodeOrder(record, id, symbol, quantity, price, timestamp);
+        record.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer writeText() {
+        buffer.clear();
+        return buffer.put(formatter.order(id, symbol, quantity, price, timestamp)
+                                   .getBytes(StandardCharsets.UTF_8))
+                     .put((byte) '\n');
+    }
+
+    @Benchmark
+    public ByteBuffer writeBinary() {
+        buffer.clear();
+        formatter.encodeOrder(buffer, id, symbol, quantity, price, timestamp);
+        return buffer;
+    }
+
+    @Benchmark
+    public void decodeBinary(Blackhole blackhole) {
+        record.rewind();
+        sb.setLength(0);
+        formatter.decode(record, sb);
+        blackhole.consume(sb);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares encoding a formatted {@link String} into a direct buffer with formatting straight into it.
+ */
+@State(Scope.Thread)
+public class ByteBufferBench {
+    private static final ByteBufferBenchFormatter_Formatter formatter =
+            new ByteBufferBenchFormatter_Formatter();
+
+    private long id = 1234567890L;
+    private String symbol = "ACME";
+    private int quantity = 300;
+    private long price = 1999L;
+    private long timestamp = 1514764800000L;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 12);
+
+    @Benchmark
+    public ByteBuffer stringGetBytes() {
+        buffer.clear();
+        return buffer.put(formatter.order(id, symbol, quantity, price, timestamp)
+                                   .getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public ByteBuffer byteBuffer() {
+        buffer.clear();
+        formatter.order(buffer, id, symbol, quantity, price, timestamp);
+        return buffer;
+    }
+}
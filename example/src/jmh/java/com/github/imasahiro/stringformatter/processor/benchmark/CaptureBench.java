@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.imasahiro.stringformatter.runtime.lazy.CapturedFormat;
+
+/**
+ * Compares capturing arguments to format later into an {@code Object[]}, which boxes the primitives, and
+ * into a generated capture class.
+ */
+@State(Scope.Thread)
+public class CaptureBench {
+    private static final CaptureBenchFormatter_Formatter formatter = new CaptureBenchFormatter_Formatter();
+
+    private long id = 1234567890L;
+    private int quantity = 300;
+    private long price = 1999L;
+    private long timestamp = 1514764800000L;
+
+    @Benchmark
+    public void captureObjectArray(Blackhole blackhole) {
+        blackhole.consume(new Object[] { id, quantity, price, timestamp });
+    }
+
+    @Benchmark
+    public void captureGenerated(Blackhole blackhole) {
+        blackhole.consume(formatter.captureOrder(id, quantity, price, timestamp));
+    }
+
+    @Benchmark
+    public void captureAndFormatObjectArray(Blackhole blackhole) {
+        Object[] args = { id, quantity, price, timestamp };
+        blackhole.consume(String.format(CaptureBenchFormatter.FORMAT, args));
+    }
+
+    @Benchmark
+    public void captureAndFormatGenerated(Blackhole blackhole) {
+        CapturedFormat captured = formatter.captureOrder(id, quantity, price, timestamp);
+        blackhole.consume(captured.formatTo(new StringBuilder(64)).toString());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.imasahiro.stringformatter.runtime.flow.Flow;
+import com.github.imasahiro.stringformatter.runtime.flow.FormattingProcessor;
+import com.github.imasahiro.stringformatter.runtime.lazy.CapturedFormat;
+
+/**
+ * Compares encoding a stream of captured records to byte buffers by a {@link String} per record with
+ * formatting them through a {@link FormattingProcessor}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlowBench {
+    private static final CaptureBenchFormatter_Formatter formatter = new CaptureBenchFormatter_Formatter();
+
+    @Param({ "10000" })
+    private int records;
+
+    private CapturedFormat[] captured;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(65536);
+    private FormattingProcessor processor;
+
+    @Setup
+    public void setUp() {
+        captured = new CapturedFormat[records];
+        for (int i = 0; i < records; i++) {
+            captured[i] = formatter.captureOrder(i, 300, 1999L, 1514764800000L + i);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void newProcessor() {
+        processor = new FormattingProcessor(65536, 4, 1024);
+    }
+
+    @Benchmark
+    public void encodeStrings(Blackhole blackhole) {
+        buffer.clear();
+        for (CapturedFormat record : captured) {
+            byte[] bytes = record.formatTo(new StringBuilder(64)).toString().getBytes(StandardCharsets.UTF_8);
+            if (buffer.remaining() < bytes.length) {
+                buffer.flip();
+                blackhole.consume(buffer);
+                buffer.clear();
+            }
+            buffer.put(bytes);
+        }
+        buffer.flip();
+        blackhole.consume(buffer);
+    }
+
+    @Benchmark
+    public void processor(Blackhole blackhole) {
+        processor.onSubscribe(new ArraySubscription(processor, captured));
+        processor.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                blackhole.consume(item);
+                processor.release(item);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    /**
+     * Signals the records of an array on the thread requesting them.
+     */
+    private static final class ArraySubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super CapturedFormat> subscriber;
+        private final CapturedFormat[] records;
+        private long demand;
+        private int next;
+        private boolean emitting;
+        private boolean completed;
+
+        ArraySubscription(Flow.Subscriber<? super CapturedFormat> subscriber, CapturedFormat[] records) {
+            this.subscriber = subscriber;
+            this.records = records;
+        }
+
+        @Override
+        public void request(long n) {
+            demand += n;
+            if (emitting) {
+                return;
+            }
+            emitting = true;
+            while (demand > 0 && next < records.length) {
+                demand--;
+                subscriber.onNext(records[next++]);
+            }
+            emitting = false;
+            if (next == records.length && !completed) {
+                completed = true;
+                subscriber.onComplete();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            next = records.length;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.github.imasahiro.stringformatter.runtime.io.GatheringSink;
+
+/**
+ * Compares writing records of a verbose template to a file by encoding each formatted {@link String} into a
+ * buffer with writing the shared literals of the template with {@link GatheringSink}.
+ */
+@State(Scope.Thread)
+public class GatheringBench {
+    private static final GatheringBenchFormatter_Formatter formatter = new GatheringBenchFormatter_Formatter();
+
+    private long id = 1234567890L;
+    private String symbol = "ACME";
+    private int quantity = 300;
+    private long price = 1999L;
+
+    private Path path;
+    private FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(65536);
+    private GatheringSink sink;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        path = Files.createTempFile("gathering", ".xml");
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        sink = new GatheringSink(channel, 1024, 65536);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        sink.flush();
+        channel.close();
+        Files.delete(path);
+    }
+
+    @Benchmark
+    public void writeString() throws IOException {
+        byte[] bytes = formatter.order(id, symbol, quantity, price).getBytes(StandardCharsets.UTF_8);
+        if (buffer.remaining() < bytes.length) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        buffer.put(bytes);
+    }
+
+    @Benchmark
+    public void writeGathering() throws IOException {
+        formatter.writeOrder(sink, id, symbol, quantity, price);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.io.BaseEncoding;
+
+public class HexDumpBench {
+    private static final HexDumpBenchFormatter.Formatter formatter = new HexDumpBenchFormatter_Formatter();
+
+    private static final BaseEncoding BASE16 = BaseEncoding.base16().lowerCase();
+
+    private static final byte[] DIGEST = new byte[32];
+
+    static {
+        new Random(0).nextBytes(DIGEST);
+    }
+
+    @Benchmark
+    public void guavaBaseEncoding(Blackhole blackhole) {
+        blackhole.consume("digest=" + BASE16.encode(DIGEST));
+    }
+
+    @Benchmark
+    public void autoStringFormatter(Blackhole blackhole) {
+        blackhole.consume(formatter.format(DIGEST));
+    }
+}
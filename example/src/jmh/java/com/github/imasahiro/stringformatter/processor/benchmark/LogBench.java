@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares a log message which is formatted eagerly and lazily, when the message is dropped by the level of
+ * a logger and when it is written.
+ */
+@State(Scope.Benchmark)
+public class LogBench {
+    private static final LogBenchFormatter.Formatter formatter = new LogBenchFormatter_Formatter();
+
+    // The level of a logger, which is not a constant for the JIT compiler.
+    private volatile boolean debugEnabled;
+
+    @Benchmark
+    public void eagerDropped(Blackhole blackhole) {
+        String message = formatter.eager("alice", "192.0.2.1", 3);
+        if (debugEnabled) {
+            blackhole.consume(message);
+        }
+    }
+
+    @Benchmark
+    public void lazyDropped(Blackhole blackhole) {
+        CharSequence message = formatter.lazy("alice", "192.0.2.1", 3);
+        if (debugEnabled) {
+            blackhole.consume(message.toString());
+        }
+    }
+
+    @Benchmark
+    public void eagerWritten(Blackhole blackhole) {
+        blackhole.consume(formatter.eager("alice", "192.0.2.1", 3));
+    }
+
+    @Benchmark
+    public void lazyWritten(Blackhole blackhole) {
+        blackhole.consume(formatter.lazy("alice", "192.0.2.1", 3).toString());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.github.imasahiro.stringformatter.runtime.io.MappedFileSink;
+
+/**
+ * Compares writing formatted records to a file through a {@link BufferedWriter} with encoding them directly
+ * into a memory-mapped file.
+ */
+@State(Scope.Thread)
+public class MappedSinkBench {
+    private static final BinaryBenchFormatter_Formatter formatter = new BinaryBenchFormatter_Formatter();
+
+    private long id = 1234567890L;
+    private String symbol = "ACME";
+    private int quantity = 300;
+    private long price = 1999L;
+    private long timestamp = 1514764800000L;
+
+    private Path writerPath;
+    private Path sinkPath;
+    private BufferedWriter writer;
+    private MappedFileSink sink;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        writerPath = Files.createTempFile("writer", ".log");
+        sinkPath = Files.createTempFile("sink", ".bin");
+        writer = Files.newBufferedWriter(writerPath, StandardCharsets.UTF_8);
+        sink = new MappedFileSink(sinkPath, 1 << 24);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        writer.close();
+        sink.close();
+        Files.delete(writerPath);
+        Files.delete(sinkPath);
+    }
+
+    @Benchmark
+    public void bufferedWriter() throws IOException {
+        writer.write(formatter.order(id, symbol, quantity, price, timestamp));
+        writer.write('\n');
+    }
+
+    @Benchmark
+    public void mappedSink() throws IOException {
+        formatter.encodeOrder(sink.reserve(64), id, symbol, quantity, price, timestamp);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class MessageBench {
+    private static final MessageBenchFormatter.Formatter formatter = new MessageBenchFormatter_Formatter();
+
+    private static final MessageFormat messageFormat = new MessageFormat(MessageBenchFormatter.PATTERN,
+                                                                         Locale.US);
+
+    @Benchmark
+    public void javaMessageFormat(Blackhole blackhole) {
+        blackhole.consume(MessageFormat.format(MessageBenchFormatter.PATTERN, "alice", 12345, "inbox", 42L));
+    }
+
+    @Benchmark
+    public void cachedMessageFormat(Blackhole blackhole) {
+        synchronized (messageFormat) {
+            blackhole.consume(messageFormat.format(new Object[] { "alice", 12345, "inbox", 42L }));
+        }
+    }
+
+    @Benchmark
+    public void autoStringFormatter(Blackhole blackhole) {
+        blackhole.consume(formatter.format("alice", 12345, "inbox", 42L));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.github.imasahiro.stringformatter.runtime.batch.ParallelExporter;
+
+/**
+ * Measures how exporting columns to a channel scales with the parallelism of a {@link ForkJoinPool},
+ * against formatting all rows on the calling thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelBench {
+    private static final BatchBenchFormatter_Formatter formatter = new BatchBenchFormatter_Formatter();
+
+    @Param({ "1000000" })
+    private int rows;
+
+    @Param({ "1", "2", "4", "8" })
+    private int parallelism;
+
+    private long[] ids;
+    private int[] quantities;
+    private long[] prices;
+    private long[] timestamps;
+    private final WritableByteChannel channel = new DiscardingChannel();
+    private ForkJoinPool pool;
+    private ParallelExporter exporter;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ids = new long[rows];
+        quantities = new int[rows];
+        prices = new long[rows];
+        timestamps = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = random.nextLong(1L << 40);
+            quantities[i] = random.nextInt(10000);
+            prices[i] = random.nextLong(1000000);
+            timestamps[i] = 1514764800000L + i;
+        }
+        pool = new ForkJoinPool(parallelism);
+        exporter = new ParallelExporter(pool, 16384);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void exportOnCallingThread() throws IOException {
+        StringBuilder out = formatter.rowAll(ids, quantities, prices, timestamps, new StringBuilder(), "\n");
+        channel.write(StandardCharsets.UTF_8.encode(CharBuffer.wrap(out)));
+    }
+
+    @Benchmark
+    public void exportParallel() throws IOException {
+        exporter.writeTo(channel, StandardCharsets.UTF_8, rows,
+                         (fromRow, toRow, out) -> formatter.rowAll(ids, quantities, prices, timestamps,
+                                                                   fromRow, toRow, out, "\n"));
+    }
+
+    private static final class DiscardingChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer src) {
+            int remaining = src.remaining();
+            src.position(src.limit());
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.imasahiro.stringformatter.processor.benchmark.ParseBenchFormatter.IdConsumer;
+import com.github.imasahiro.stringformatter.processor.benchmark.ParseBenchFormatter.Order;
+
+/**
+ * Compares parsing formatted text with a regular expression and substrings, and with a generated parser.
+ */
+@State(Scope.Thread)
+public class ParseBench {
+    private static final ParseBenchFormatter_Formatter formatter = new ParseBenchFormatter_Formatter();
+    private static final Pattern ID_PATTERN = Pattern.compile("([0-9a-f]{16})([0-9a-f]{16})");
+    private static final Pattern ORDER_PATTERN = Pattern.compile("order (-?\\d+): (.*) x (-?\\d+)");
+
+    private final String id = formatter.formatId(0x0123456789abcdefL, 0xfedcba9876543210L);
+    private final String order = formatter.formatOrder(1234567890L, "ACME", 300);
+    private final Order parsedOrder = new Order();
+    private final IdConsumer idConsumer = this::setId;
+
+    private long upper;
+    private long lower;
+
+    @Benchmark
+    public long parseIdWithPattern() {
+        Matcher matcher = ID_PATTERN.matcher(id);
+        if (!matcher.matches()) {
+            throw new IllegalStateException();
+        }
+        return Long.parseUnsignedLong(matcher.group(1), 16) ^ Long.parseUnsignedLong(matcher.group(2), 16);
+    }
+
+    @Benchmark
+    public long parseIdGenerated() {
+        if (!formatter.parseId(id, idConsumer)) {
+            throw new IllegalStateException();
+        }
+        return upper ^ lower;
+    }
+
+    @Benchmark
+    public void parseOrderWithPattern(Blackhole blackhole) {
+        Matcher matcher = ORDER_PATTERN.matcher(order);
+        if (!matcher.matches()) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(Long.parseLong(matcher.group(1)));
+        blackhole.consume(matcher.group(2));
+        blackhole.consume(Integer.parseInt(matcher.group(3)));
+    }
+
+    @Benchmark
+    public void parseOrderGenerated(Blackhole blackhole) {
+        if (!formatter.parseOrder(order, parsedOrder)) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(parsedOrder.getId());
+        blackhole.consume(parsedOrder.getSymbol());
+        blackhole.consume(parsedOrder.getQuantity());
+    }
+
+    private void setId(long upper, long lower) {
+        this.upper = upper;
+        this.lower = lower;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.imasahiro.stringformatter.runtime.io.FormatWriter;
+
+/**
+ * Compares writing a formatted {@link String} to a {@link BufferedWriter} with formatting directly into a
+ * {@link FormatWriter}, and to an unbuffered writer by a single call per record.
+ */
+@State(Scope.Thread)
+public class WriterBench {
+    private static final WriterBenchFormatter_Formatter formatter = new WriterBenchFormatter_Formatter();
+
+    private long id = 1234567890L;
+    private String symbol = "ACME";
+    private int quantity = 300;
+    private long price = 1999L;
+    private long timestamp = 1514764800000L;
+
+    private final Writer discarding = new DiscardingWriter();
+    private final BufferedWriter bufferedWriter = new BufferedWriter(discarding, 8192);
+    private final FormatWriter formatWriter = new FormatWriter(discarding, 8192);
+
+    @Benchmark
+    public void bufferedWriter() throws IOException {
+        bufferedWriter.write(formatter.order(id, symbol, quantity, price, timestamp));
+    }
+
+    @Benchmark
+    public void formatWriter() throws IOException {
+        formatter.order(formatWriter, id, symbol, quantity, price, timestamp);
+    }
+
+    @Benchmark
+    public void unbufferedWriter() throws IOException {
+        formatter.order(discarding, id, symbol, quantity, price, timestamp);
+    }
+
+    private static final class DiscardingWriter extends Writer {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
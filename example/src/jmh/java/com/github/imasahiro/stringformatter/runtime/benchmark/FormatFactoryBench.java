@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.imasahiro.stringformatter.runtime.benchmark;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.imasahiro.stringformatter.runtime.format.FormatFactory;
+
+/**
+ * Compares a call site linked by {@link FormatFactory#bootstrap} with {@link String#format}, with string
+ * concatenation, which javac compiles to a {@link StringBuilder} chain for the 1.8 target of this build,
+ * and with a call site linked by {@code StringConcatFactory}, which javac 9 or later emits for newer targets.
+ */
+@State(Scope.Thread)
+public class FormatFactoryBench {
+    private static final String FORMAT = "user=%s retries=%d elapsed=%dns";
+    private static final MethodType TYPE = MethodType.methodType(String.class, String.class, int.class,
+                                                                 long.class);
+
+    // The same as what an invokedynamic instruction links to.
+    private static final MethodHandle format =
+            FormatFactory.bootstrap(MethodHandles.lookup(), "format", TYPE, FORMAT).dynamicInvoker();
+
+    /**
+     * The call site which {@code "user=" + user + " retries=" + retries + " elapsed=" + elapsed + "ns"}
+     * links to on Java 9 or later, or {@code null} on Java 8. It is a constant as {@link #format} is, so that
+     * the JIT compiler can inline both.
+     */
+    private static final MethodHandle concat = linkStringConcat();
+
+    private static MethodHandle linkStringConcat() {
+        try {
+            Class<?> factory = Class.forName("java.lang.invoke.StringConcatFactory");
+            Method bootstrap = factory.getMethod("makeConcatWithConstants", Lookup.class, String.class,
+                                                 MethodType.class, String.class, Object[].class);
+            // The recipe marks where each argument goes with the char 1.
+            CallSite site = (CallSite) bootstrap.invoke(null, MethodHandles.lookup(), "concat", TYPE,
+                                                        "user=\u0001 retries=\u0001 elapsed=\u0001ns",
+                                                        new Object[0]);
+            return site.dynamicInvoker();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Skips the benchmark using {@link #concat} on Java 8, where its setup fails.
+     */
+    @State(Scope.Benchmark)
+    public static class StringConcatSupport {
+        @Setup
+        public void setUp() {
+            if (concat == null) {
+                throw new UnsupportedOperationException("StringConcatFactory requires Java 9 or later.");
+            }
+        }
+    }
+
+    private String user = "alice";
+    private int retries = 3;
+    private long elapsed = 1234567L;
+
+    @Benchmark
+    public void javaStringFormat(Blackhole bh) {
+        bh.consume(String.format(FORMAT, user, retries, elapsed));
+    }
+
+    @Benchmark
+    public void stringBuilderConcatenation(Blackhole bh) {
+        bh.consume("user=" + user + " retries=" + retries + " elapsed=" + elapsed + "ns");
+    }
+
+    @Benchmark
+    public void stringConcatFactory(StringConcatSupport support, Blackhole bh) throws Throwable {
+        bh.consume((String) concat.invokeExact(user, retries, elapsed));
+    }
+
+    @Benchmark
+    public void formatFactory(Blackhole bh) throws Throwable {
+        bh.consume((String) format.invokeExact(user, retries, elapsed));
+    }
+}
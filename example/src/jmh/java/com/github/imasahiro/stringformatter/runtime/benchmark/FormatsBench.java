@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.imasahiro.stringformatter.runtime.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Locale;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.imasahiro.stringformatter.runtime.format.FormatCompiler;
+import com.github.imasahiro.stringformatter.runtime.format.FormatPlan;
+import com.github.imasahiro.stringformatter.runtime.format.Formats;
+
+public class FormatsBench {
+    // Read from a configuration file in practice.
+    private static String format = "user=%s id=%08x retries=%d elapsed=%,dns";
+
+    private static final FormatPlan plan = FormatPlan.parse(format);
+    private static final MethodHandle compiled =
+            FormatCompiler.compile(format, String.class, int.class, int.class, long.class);
+
+    @Benchmark
+    public void javaStringFormat(Blackhole bh) {
+        bh.consume(String.format(Locale.ROOT, format, "alice", 0xcafe, 3, 1234567L));
+    }
+
+    @Benchmark
+    public void formats(Blackhole bh) {
+        bh.consume(Formats.format(format, "alice", 0xcafe, 3, 1234567L));
+    }
+
+    @Benchmark
+    public void formatPlan(Blackhole bh) {
+        bh.consume(plan.format("alice", 0xcafe, 3, 1234567L));
+    }
+
+    @Benchmark
+    public void compiled(Blackhole bh) throws Throwable {
+        bh.consume((String) compiled.invokeExact("alice", 0xcafe, 3, 1234567L));
+    }
+}
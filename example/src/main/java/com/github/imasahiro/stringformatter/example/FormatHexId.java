@@ -18,6 +18,7 @@ package com.github.imasahiro.stringformatter.example;
 
 import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;
 import com.github.imasahiro.stringformatter.annotation.Format;
+import com.github.imasahiro.stringformatter.annotation.Parse;
 
 /**
  * An example usage of {@link AutoStringFormatter}.
@@ -30,12 +31,22 @@ public class FormatHexId {
     public static void main(String... args) {
         long upperId = 0x0123456789abcdefL;
         long lowerId = 0x0123456789abcdefL;
-        System.out.println(new FormatHexId_Formatter().formatTo(upperId, lowerId));
+        FormatHexId_Formatter formatter = new FormatHexId_Formatter();
+        String id = formatter.formatTo(upperId, lowerId);
+        System.out.println(id);
+        formatter.parse(id, (upper, lower) -> System.out.println(upper == upperId && lower == lowerId));
+    }
+
+    interface IdConsumer {
+        void accept(long upper, long lower);
     }
 
     @AutoStringFormatter
     interface Formatter {
         @Format(value = "%016x%016x", capacity = 32)
         String formatTo(long upper, long lower);
+
+        @Parse("%016x%016x")
+        boolean parse(CharSequence text, IdConsumer consumer);
     }
 }
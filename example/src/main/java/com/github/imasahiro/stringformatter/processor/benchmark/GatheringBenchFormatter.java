@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;
+import com.github.imasahiro.stringformatter.annotation.Format;
+
+/**
+ * Definition of formatter for benchmarking gathering writes of a verbose template.
+ */
+public final class GatheringBenchFormatter {
+    private GatheringBenchFormatter() {
+    }
+
+    @AutoStringFormatter(gathering = true)
+    interface Formatter {
+        @Format(value = "<order>\n  <id>%d</id>\n  <symbol>%s</symbol>\n  <quantity>%d</quantity>\n" +
+                        "  <price currency=\"USD\" scale=\"2\">%d</price>\n" +
+                        "  <venue>XNYS</venue>\n  <account type=\"institutional\">ACCT-0001</account>\n" +
+                        "</order>\n", capacity = 256)
+        String order(long id, String symbol, int quantity, long price);
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;
+import com.github.imasahiro.stringformatter.annotation.LogFormat;
+
+/**
+ * Definition of formatter for benchmarking SLF4J message patterns.
+ */
+public final class LogBenchFormatter {
+    public static final String PATTERN = "{} logged in from {} after {} attempts.";
+
+    private LogBenchFormatter() {
+    }
+
+    @AutoStringFormatter
+    interface Formatter {
+        @LogFormat(value = PATTERN, capacity = 64)
+        String eager(String user, String address, int attempts);
+
+        @LogFormat(value = PATTERN, capacity = 64)
+        CharSequence lazy(String user, String address, int attempts);
+    }
+}
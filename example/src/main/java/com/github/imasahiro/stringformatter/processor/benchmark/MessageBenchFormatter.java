@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;
+import com.github.imasahiro.stringformatter.annotation.MessagePattern;
+
+/**
+ * Definition of formatter for benchmarking {@link java.text.MessageFormat} patterns.
+ */
+public final class MessageBenchFormatter {
+    public static final String PATTERN = "{0} has {1} new messages in ''{2}'' (id {3,number,#}).";
+
+    private MessageBenchFormatter() {
+    }
+
+    @AutoStringFormatter
+    interface Formatter {
+        @MessagePattern(value = PATTERN, capacity = 64)
+        String format(String user, int count, String folder, long id);
+    }
+}
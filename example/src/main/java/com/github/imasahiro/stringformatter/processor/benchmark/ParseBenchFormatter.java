@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor.benchmark;
+
+import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;
+import com.github.imasahiro.stringformatter.annotation.Format;
+import com.github.imasahiro.stringformatter.annotation.Parse;
+
+/**
+ * Definition of formatter for benchmarking generated parsers.
+ */
+public final class ParseBenchFormatter {
+    public static final String ID_FORMAT = "%016x%016x";
+    public static final String ORDER_FORMAT = "order %d: %s x %d";
+
+    private ParseBenchFormatter() {
+    }
+
+    /**
+     * The fields parsed from an order.
+     */
+    public static final class Order {
+        long id;
+        String symbol;
+        int quantity;
+
+        public long getId() {
+            return id;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+
+    /**
+     * Receives the halves of an id.
+     */
+    public interface IdConsumer {
+        void accept(long upper, long lower);
+    }
+
+    @AutoStringFormatter
+    interface Formatter {
+        @Format(value = ID_FORMAT, capacity = 32)
+        String formatId(long upper, long lower);
+
+        @Parse(ID_FORMAT)
+        boolean parseId(CharSequence text, IdConsumer consumer);
+
+        @Format(ORDER_FORMAT)
+        String formatOrder(long id, String symbol, int quantity);
+
+        @Parse(ORDER_FORMAT)
+        boolean parseOrder(CharSequence text, Order order);
+    }
+}
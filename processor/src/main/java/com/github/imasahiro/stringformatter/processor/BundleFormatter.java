@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.imasahiro.stringformatter.processor;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import com.github.imasahiro.stringformatter.annotation.Format;
+import com.github.imasahiro.stringformatter.annotation.FormatBundle;
+import com.github.imasahiro.stringformatter.annotation.LogFormat;
+import com.github.imasahiro.stringformatter.annotation.MessagePattern;
+import com.github.imasahiro.stringformatter.processor.util.ErrorReporter;
+import com.github.imasahiro.stringformatter.runtime.bundle.LocaleSwitch;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates the methods of an {@link FormatBundle} interface. A method is generated per distinct value of
+ * its key in the bundles, and the interface method calls one of them by the bundle chosen by
+ * {@link LocaleSwitch}.
+ */
+final class BundleFormatter {
+    private static final String LOCALE_SWITCH_FIELD = "LOCALES";
+    private static final TypeName JAVA_LANG_STRING = TypeName.get(String.class);
+    private static final TypeName LOCALE_TYPE = TypeName.get(Locale.class);
+    private static final StandardLocation[] BUNDLE_LOCATIONS = {
+            StandardLocation.SOURCE_PATH, StandardLocation.CLASS_PATH
+    };
+
+    private final TypeElement element;
+    private final FormatBundle bundle;
+    // The locale of @AutoStringFormatter for the numbers of a method which takes no Locale.
+    private final String defaultLocale;
+    private final ProcessingEnvironment processingEnv;
+    private final ErrorReporter errorReporter;
+    // The base bundle.
+    private final Properties baseBundle;
+    // locales.get(i) -> bundles.get(i)
+    private final List<String> locales;
+    private final List<Properties> bundles;
+
+    BundleFormatter(TypeElement element, FormatBundle bundle, String defaultLocale,
+                    ProcessingEnvironment processingEnv, ErrorReporter errorReporter) {
+        this.element = element;
+        this.bundle = bundle;
+        this.defaultLocale = defaultLocale;
+        this.processingEnv = processingEnv;
+        this.errorReporter = errorReporter;
+        baseBundle = load("");
+        locales = ImmutableList.copyOf(bundle.locales());
+        bundles = locales.stream().map(this::load).collect(toImmutableList());
+    }
+
+    /**
+     * Returns {@code true} if {@code method} is formatted by a bundle.
+     */
+    static boolean isBundleMethod(ExecutableElement method) {
+        return JAVA_LANG_STRING.equals(TypeName.get(method.getReturnType())) &&
+               method.getModifiers().contains(Modifier.ABSTRACT) &&
+               method.getAnnotation(Format.class) == null &&
+               method.getAnnotation(MessagePattern.class) == null &&
+               method.getAnnotation(LogFormat.class) == null;
+    }
+
+    /**
+     * Adds the methods for {@code methods} to {@code builder}.
+     */
+    void addTo(TypeSpec.Builder builder, List<ExecutableElement> methods) {
+        if (methods.isEmpty()) {
+            return;
+        }
+        if (!locales.isEmpty()) {
+            String args = Joiner.on(", ").join(locales.stream()
+                                                      .map(locale -> CodeBlock.of("$S", locale))
+                                                      .collect(toImmutableList()));
+            builder.addField(FieldSpec.builder(LocaleSwitch.class, LOCALE_SWITCH_FIELD,
+                                               Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                                      .initializer("new $T($L)", LocaleSwitch.class, args)
+                                      .build());
+        }
+        methods.forEach(method -> addMethods(builder, method));
+    }
+
+    private void addMethods(TypeSpec.Builder builder, ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        List<? extends VariableElement> parameters = method.getParameters();
+        boolean hasLocale = !parameters.isEmpty() &&
+                            LOCALE_TYPE.equals(TypeName.get(parameters.get(0).asType()));
+        String baseFormat = baseBundle.getProperty(name);
+        if (baseFormat == null) {
+            errorReporter.fatal(fileName("") + " does not have the key " + name + '.', method);
+        }
+        // formats.get(0) is the format in the base bundle, and the others are distinct formats of locales.
+        List<String> formats = new ArrayList<>();
+        formats.add(baseFormat);
+        int[] formatIndexes = new int[locales.size()];
+        for (int i = 0; i < locales.size(); i++) {
+            String format = lookup(locales.get(i), name);
+            int index = formats.indexOf(format);
+            if (index < 0) {
+                index = formats.size();
+                formats.add(format);
+            }
+            formatIndexes[i] = index;
+        }
+
+        // A helper takes the Locale as well, so that it localizes the numbers as a @Format method does.
+        List<TypeMirror> argumentTypes = parameters.stream()
+                                                   .map(Element::asType)
+                                                   .collect(toImmutableList());
+        for (int i = 0; i < formats.size(); i++) {
+            FormatterMethod.Builder formatter = FormatterMethod.builder();
+            if (bundle.messagePattern()) {
+                formatter.messagePattern(formats.get(i));
+            } else {
+                formatter.formatter(formats.get(i));
+            }
+            builder.addMethod(formatter.name(helperName(name, i))
+                                       .bufferCapacity(bundle.capacity())
+                                       .visibility(Modifier.PRIVATE)
+                                       .locale(defaultLocale)
+                                       .argumentTypeNames(ImmutableList.copyOf(argumentTypes))
+                                       .unsignedArguments(
+                                               StringFormatterProcessor.findUnsignedArguments(parameters))
+                                       .scaledArguments(
+                                               StringFormatterProcessor.findScaledArguments(parameters))
+                                       .element(method)
+                                       .errorReporter(errorReporter)
+                                       .build()
+                                       .getMethod(processingEnv));
+        }
+
+        MethodSpec.Builder switcher = MethodSpec.methodBuilder(name)
+                                                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                                                .returns(String.class);
+        for (int i = 0; i < parameters.size(); i++) {
+            switcher.addParameter(ParameterSpec.builder(TypeName.get(parameters.get(i).asType()), "arg" + i,
+                                                        Modifier.FINAL)
+                                               .build());
+        }
+        String args = Joiner.on(", ").join(IntStream.range(0, parameters.size())
+                                                    .mapToObj(i -> "arg" + i)
+                                                    .iterator());
+        if (formats.size() == 1) {
+            switcher.addStatement("return $N($L)", helperName(name, 0), args);
+        } else {
+            CodeBlock locale = hasLocale ? CodeBlock.of("arg0") : CodeBlock.of("$T.getDefault()", Locale.class);
+            switcher.beginControlFlow("switch ($N.indexOf($L))", LOCALE_SWITCH_FIELD, locale);
+            for (int i = 1; i < formats.size(); i++) {
+                for (int j = 0; j < formatIndexes.length; j++) {
+                    if (formatIndexes[j] == i) {
+                        switcher.addCode("case $L:\n", j);
+                    }
+                }
+                switcher.addCode("$>").addStatement("return $N($L)", helperName(name, i), args).addCode("$<");
+            }
+            switcher.addCode("default:\n$>")
+                    .addStatement("return $N($L)", helperName(name, 0), args)
+                    .addCode("$<")
+                    .endControlFlow();
+        }
+        builder.addMethod(switcher.build());
+    }
+
+    private static String helperName(String name, int index) {
+        return name + '$' + index;
+    }
+
+    // Looks up key in the bundle of locale and its parents, e.g. "fr_CA", "fr" and the base bundle.
+    private String lookup(String locale, String key) {
+        for (String candidate = locale; !candidate.isEmpty();
+             candidate = candidate.substring(0, Math.max(candidate.lastIndexOf('_'), 0))) {
+            int index = locales.indexOf(candidate);
+            if (index >= 0) {
+                String value = bundles.get(index).getProperty(key);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return baseBundle.getProperty(key);
+    }
+
+    private String packageName() {
+        String baseName = bundle.value();
+        int dot = baseName.lastIndexOf('.');
+        return dot < 0 ? "" : baseName.substring(0, dot);
+    }
+
+    private String fileName(String locale) {
+        String baseName = bundle.value();
+        return baseName.substring(baseName.lastIndexOf('.') + 1) + (locale.isEmpty() ? "" : '_' + locale) +
+               ".properties";
+    }
+
+    private Properties load(String locale) {
+        String packageName = packageName();
+        String fileName = fileName(locale);
+        for (StandardLocation location : BUNDLE_LOCATIONS) {
+            try {
+                FileObject file = processingEnv.getFiler().getResource(location, packageName, fileName);
+                try (InputStream in = file.openInputStream()) {
+                    return load(in);
+                }
+            } catch (IOException | RuntimeException ignored) {
+                // Try the next location. javac wraps failures of a non-standard file manager, such as
+                // a null file object for a missing resource, into an unchecked exception.
+            }
+        }
+        String path = packageName.isEmpty() ? fileName : packageName.replace('.', '/') + '/' + fileName;
+        ClassLoader classLoader = BundleFormatter.class.getClassLoader();
+        try (InputStream in = classLoader.getResourceAsStream(path)) {
+            if (in != null) {
+                return load(in);
+            }
+        } catch (IOException ignored) {
+            // Report below.
+        }
+        errorReporter.fatal("Cannot find " + path + " in the source path or the class path.", element);
+        return null;
+    }
+
+    private static Properties load(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        return properties;
+    }
+}
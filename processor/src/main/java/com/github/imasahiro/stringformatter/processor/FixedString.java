@@ -31,9 +31,13 @@ class FixedString implements FormatString {
         return -1;
     }
 
+    String getText() {
+        return text;
+    }
+
     @Override
     public void emit(Builder codeBlockBuilder, TypeMirror ignored) {
-        codeBlockBuilder.add("sb.append(\"" + text + "\");\n");
+        codeBlockBuilder.add("sb.append($S);\n", text);
     }
 
     @Override
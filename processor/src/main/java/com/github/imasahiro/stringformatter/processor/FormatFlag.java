@@ -26,4 +26,7 @@ public enum FormatFlag {
     PARENTHESIS,
     COMMA,
     MINUS,
+
+    // Given by an annotation on the argument.
+    UNSIGNED,
 }
@@ -40,21 +40,15 @@ final class FormatParser {
     public static List<FormatString> parse(String fmt, Element element, ErrorReporter errorReporter) {
         ArrayList<FormatString> formatStrings = new ArrayList<>();
         Matcher m = FORMAT_SPECIFIER_PATTERN.matcher(fmt);
-        int index = 0;
         FormatStringBuilder formatStringBuilder = new FormatStringBuilder(element, errorReporter);
         for (int i = 0; i < fmt.length();) {
             if (m.find(i)) {
                 if (m.start() != i) {
                     formatStrings.add(formatStringBuilder.newFixedString(fmt, i, m.start()));
                 }
-                FormatString specifier = formatStringBuilder.format(fmt)
-                                                            .matcher(m)
-                                                            .index(index)
-                                                            .build();
-                if (specifier instanceof FormatSpecifier && index == specifier.getIndex()) {
-                    index++;
-                }
-                formatStrings.add(specifier);
+                formatStrings.add(formatStringBuilder.format(fmt)
+                                                     .matcher(m)
+                                                     .build());
                 i = m.end();
             } else {
                 formatStrings.add(formatStringBuilder.newFixedString(fmt, i, fmt.length()));
@@ -15,6 +15,7 @@
  */
 package com.github.imasahiro.stringformatter.processor;
 
+import java.util.EnumSet;
 import java.util.Set;
 
 import javax.lang.model.type.TypeMirror;
@@ -49,6 +50,32 @@ class FormatSpecifier implements FormatString {
         codeBlockBuilder.add(type.emit("arg" + index, width, precision, flags, argumentType));
     }
 
+    FormatSpecifier withFlag(FormatFlag flag) {
+        Set<FormatFlag> newFlags = EnumSet.of(flag);
+        newFlags.addAll(flags);
+        return new FormatSpecifier(index, width, precision, newFlags, type);
+    }
+
+    FormatSpecifier withIndex(int newIndex) {
+        return new FormatSpecifier(newIndex, width, precision, flags, type);
+    }
+
+    FormatSpecifier withConversionType(FormatConversionType newType) {
+        return new FormatSpecifier(index, width, precision, flags, newType);
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getPrecision() {
+        return precision;
+    }
+
+    Set<FormatFlag> getFlags() {
+        return flags;
+    }
+
     public FormatConversionType getConversionType() {
         return type;
     }
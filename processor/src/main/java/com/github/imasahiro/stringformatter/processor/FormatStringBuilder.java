@@ -28,8 +28,11 @@ import com.github.imasahiro.stringformatter.processor.specifier.FloatFormatConve
 import com.github.imasahiro.stringformatter.processor.specifier.FormatConversionType;
 import com.github.imasahiro.stringformatter.processor.specifier.HexIntegerFormatConversionType;
 import com.github.imasahiro.stringformatter.processor.specifier.IntegerFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.RadixIntegerFormatConversionType;
 import com.github.imasahiro.stringformatter.processor.specifier.StringFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.TimeFormatConversionType;
 import com.github.imasahiro.stringformatter.processor.util.ErrorReporter;
+import com.github.imasahiro.stringformatter.runtime.integers.IntegerUtils;
 import com.google.common.primitives.Ints;
 
 class FormatStringBuilder {
@@ -38,19 +41,19 @@ class FormatStringBuilder {
 
     private String format;
     private Matcher matcher;
-    private int index;
+    // The index of the next ordinary (not explicitly indexed) argument.
+    private int ordinaryIndex;
+    // The index of the argument of the previous format specifier, for the relative index '<'.
+    private int lastIndex = -1;
 
     FormatStringBuilder(Element element, ErrorReporter errorReporter) {
         this.element = element;
         this.errorReporter = errorReporter;
     }
 
-    // "(\\d+\\$)" -> index
-    private static int parseIndex(int index, String s, int start, int end) {
-        if (start < 0) {
-            return index;
-        }
-        return Ints.tryParse(s.substring(start, end - 1));
+    // "(\\d+\\$)" -> zero-based index
+    private static int parseIndex(String s, int start, int end) {
+        return Ints.tryParse(s.substring(start, end - 1)) - 1;
     }
 
     // "([-#+ 0,(\\<]*)" -> [MINUS, SHARP, PLUS, ZERO, ...]
@@ -106,12 +109,8 @@ class FormatStringBuilder {
     }
 
     // "([a-zA-Z%])"
-    private static char parseConversion(String s, int index, Set<FormatFlag> flags) {
-        char c = s.charAt(index);
-        if (flags.contains(FormatFlag.TIME)) {
-            throw new RuntimeException("Time conversion is not implemented");
-        }
-        return c;
+    private static char parseConversion(String s, int index) {
+        return s.charAt(index);
     }
 
     FormatStringBuilder format(String format) {
@@ -124,11 +123,6 @@ class FormatStringBuilder {
         return this;
     }
 
-    FormatStringBuilder index(int index) {
-        this.index = index;
-        return this;
-    }
-
     FormatString newFixedString(String s, int begin, int end) {
         for (int i = begin; i < end; i++) {
             if (s.charAt(i) == '%') {
@@ -139,8 +133,22 @@ class FormatStringBuilder {
         return new FixedString(s.substring(begin, end));
     }
 
+    private int nextIndex() {
+        int index;
+        if (matcher.start(2) >= 0 && format.substring(matcher.start(2), matcher.end(2)).indexOf('<') >= 0) {
+            checkArgument(lastIndex < 0, "relative index requires a preceding format specifier.");
+            index = lastIndex;
+        } else if (matcher.start(1) >= 0) {
+            index = parseIndex(format, matcher.start(1), matcher.end(1));
+            checkArgument(index < 0, "argument index must start from 1.");
+        } else {
+            index = ordinaryIndex++;
+        }
+        lastIndex = index;
+        return index;
+    }
+
     FormatString build() {
-        index = parseIndex(index, format, matcher.start(1), matcher.end(1));
         Set<FormatFlag> flags = parseFlags(format, matcher.start(2), matcher.end(2));
         int width = parseWidth(format, matcher.start(3), matcher.end(3));
         int precision = parsePrecision(format, matcher.start(4), matcher.end(4));
@@ -152,7 +160,15 @@ class FormatStringBuilder {
                 flags.add(FormatFlag.UPPER_CASE);
             }
         }
-        char conversion = parseConversion(format, matcher.start(6), flags);
+        char conversion = parseConversion(format, matcher.start(6));
+        if (flags.contains(FormatFlag.TIME)) {
+            checkArgument(!TimeFormatConversionType.isSupported(conversion),
+                          "Unrecognized time conversion : " + conversion);
+            checkArgument(width >= 0, "width is not supported for date/time conversion.");
+            checkArgument(precision >= 0, "precision is not applicable for date/time conversion.");
+            return new FormatSpecifier(nextIndex(), width, precision, flags,
+                                       new TimeFormatConversionType(conversion));
+        }
         if (Character.isUpperCase(conversion)) {
             flags.add(FormatFlag.UPPER_CASE);
         }
@@ -197,21 +213,31 @@ class FormatStringBuilder {
                 checkArgument(precision >= 0, "precision is not applicable for integer conversion.");
                 type = new HexIntegerFormatConversionType();
                 break;
+            case 'r':
+            case 'R':
+                checkArgument(precision >= 0 &&
+                              (precision < IntegerUtils.MIN_RADIX || precision > IntegerUtils.MAX_RADIX),
+                              "radix must be between " + IntegerUtils.MIN_RADIX + " and " +
+                              IntegerUtils.MAX_RADIX + '.');
+                type = new RadixIntegerFormatConversionType();
+                break;
             case 'e':
             case 'E':
-                type = new FloatFormatConversionType();
+                type = new FloatFormatConversionType('e');
                 break;
             case 'f':
-                type = new FloatFormatConversionType();
+                type = new FloatFormatConversionType('f');
                 break;
             case 'g':
             case 'G':
+                type = new FloatFormatConversionType('g');
+                break;
             case 'a':
             case 'A':
-                type = new FloatFormatConversionType();
+                type = new FloatFormatConversionType('a');
                 break;
         }
-        return new FormatSpecifier(index, width, precision, flags, type);
+        return new FormatSpecifier(nextIndex(), width, precision, flags, type);
     }
 
     private void checkArgument(boolean condition, String message) {
@@ -17,68 +17,286 @@ package com.github.imasahiro.stringformatter.processor;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IllformedLocaleException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
 
+import com.github.imasahiro.stringformatter.annotation.Scaled;
+import com.github.imasahiro.stringformatter.annotation.Unsigned;
+import com.github.imasahiro.stringformatter.processor.specifier.FixedPointFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.FloatFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.FormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.HexIntegerFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.IntegerFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.StringFormatConversionType;
 import com.github.imasahiro.stringformatter.processor.util.ErrorReporter;
+import com.github.imasahiro.stringformatter.runtime.async.FormatRingBuffer;
+import com.github.imasahiro.stringformatter.runtime.batch.BatchCapacity;
+import com.github.imasahiro.stringformatter.runtime.binary.BinaryLog;
+import com.github.imasahiro.stringformatter.runtime.integers.AsciiIntegerFormatter;
+import com.github.imasahiro.stringformatter.runtime.integers.FixedPointFormatter;
+import com.github.imasahiro.stringformatter.runtime.integers.HexIntegerFormatter;
+import com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter;
+import com.github.imasahiro.stringformatter.runtime.integers.NumberSymbols;
+import com.github.imasahiro.stringformatter.runtime.io.FormatWriter;
+import com.github.imasahiro.stringformatter.runtime.io.GatheringSink;
+import com.github.imasahiro.stringformatter.runtime.io.Utf8;
+import com.github.imasahiro.stringformatter.runtime.lazy.CapturedFormat;
+import com.github.imasahiro.stringformatter.runtime.lazy.LazyMessage;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
 
 class FormatterMethod {
+    private static final TypeName LOCALE_TYPE = ClassName.get(Locale.class);
+    private static final TypeName STRING_TYPE = ClassName.get(String.class);
+    private static final TypeName CHAR_SEQUENCE_TYPE = ClassName.get(CharSequence.class);
+    // The return types of a method which returns a LazyMessage.
+    private static final Set<TypeName> LAZY_TYPES = ImmutableSet.of(
+            CHAR_SEQUENCE_TYPE, ClassName.get(LazyMessage.class),
+            ParameterizedTypeName.get(Supplier.class, String.class));
+    // A shorter literal is copied to the text of a record, which is cheaper than a segment of its own.
+    static final int MIN_SHARED_LITERAL_LENGTH = 16;
+    private static final Set<TypeKind> INTEGER_KINDS = Sets.immutableEnumSet(TypeKind.BYTE, TypeKind.SHORT,
+                                                                             TypeKind.INT, TypeKind.LONG);
+    private static final Set<FormatFlag> DECIMAL_FLAGS = Sets.immutableEnumSet(FormatFlag.ZERO,
+                                                                               FormatFlag.UNSIGNED);
+    private static final Set<FormatFlag> HEX_FLAGS = Sets.immutableEnumSet(FormatFlag.ZERO,
+                                                                           FormatFlag.UPPER_CASE);
+
+    /**
+     * The syntax of a format.
+     */
+    enum Syntax {
+        // java.util.Formatter
+        FORMAT,
+        // java.text.MessageFormat
+        MESSAGE_PATTERN,
+        // org.slf4j.helpers.MessageFormatter
+        LOG_FORMAT
+    }
+
     private final String name;
     private final String format;
+    private final Syntax syntax;
+    private final TypeName returnType;
     private final int bufferCapacity;
+    // Modifier.PUBLIC, or Modifier.PRIVATE for a method called by another generated method.
+    private final Modifier visibility;
+    // The language tag of the locale for numbers, or an empty string for no localization.
+    private final String locale;
     private final List<TypeMirror> argumentTypes;
+    private final Set<Integer> unsignedArguments;
+    // argument index -> scale
+    private final Map<Integer, Integer> scaledArguments;
     private final Element element;
     private final ErrorReporter errorReporter;
 
-    FormatterMethod(String name, String format, int bufferCapacity, List<TypeMirror> argumentTypes,
-                    Element element, ErrorReporter errorReporter) {
+    FormatterMethod(String name, String format, Syntax syntax, TypeName returnType, int bufferCapacity,
+                    Modifier visibility, String locale, List<TypeMirror> argumentTypes,
+                    Set<Integer> unsignedArguments, Map<Integer, Integer> scaledArguments, Element element,
+                    ErrorReporter errorReporter) {
         this.name = name;
         this.format = format;
+        this.syntax = syntax;
+        this.returnType = returnType;
         this.bufferCapacity = bufferCapacity;
+        this.visibility = visibility;
+        this.locale = locale;
         this.argumentTypes = argumentTypes;
+        this.unsignedArguments = unsignedArguments;
+        this.scaledArguments = scaledArguments;
         this.element = element;
         this.errorReporter = errorReporter;
     }
 
-    private static List<ParameterSpec> buildParamTypes(List<TypeMirror> argumentTypes) {
+    private List<ParameterSpec> buildParamTypes(List<TypeMirror> argumentTypes) {
         ImmutableList.Builder<ParameterSpec> builder = ImmutableList.builder();
         for (int i = 0; i < argumentTypes.size(); i++) {
-            builder.add(ParameterSpec.builder(TypeName.get(argumentTypes.get(i)),
-                                              "arg" + i, Modifier.FINAL).build());
+            ParameterSpec.Builder param = ParameterSpec.builder(TypeName.get(argumentTypes.get(i)),
+                                                                "arg" + i, Modifier.FINAL);
+            if (unsignedArguments.contains(i)) {
+                param.addAnnotation(Unsigned.class);
+            }
+            if (scaledArguments.containsKey(i)) {
+                param.addAnnotation(AnnotationSpec.builder(Scaled.class)
+                                                  .addMember("value", "$L", scaledArguments.get(i))
+                                                  .build());
+            }
+            builder.add(param.build());
         }
         return builder.build();
     }
 
+    /**
+     * Applies the annotations on the arguments, e.g. {@link Unsigned}, to the format specifiers.
+     */
+    private FormatString applyArgumentAnnotations(FormatString formatString) {
+        if (!(formatString instanceof FormatSpecifier)) {
+            return formatString;
+        }
+        FormatSpecifier specifier = (FormatSpecifier) formatString;
+        int index = specifier.getIndex();
+        if (unsignedArguments.contains(index)) {
+            specifier = specifier.withFlag(FormatFlag.UNSIGNED);
+        }
+        Integer scale = scaledArguments.get(index);
+        if (scale != null) {
+            FormatConversionType type = specifier.getConversionType();
+            if (type instanceof FloatFormatConversionType &&
+                ((FloatFormatConversionType) type).getConversion() == 'f') {
+                specifier = specifier.withConversionType(new FixedPointFormatConversionType(
+                        scale, FloatFormatConversionType.DEFAULT_PRECISION));
+            } else if (type instanceof StringFormatConversionType) {
+                specifier = specifier.withConversionType(new FixedPointFormatConversionType(scale, scale));
+            }
+        }
+        return specifier;
+    }
+
+    /**
+     * Returns {@code true} if a formatter method can return {@code type}. A method which returns other than
+     * {@link String} returns a {@link LazyMessage}.
+     */
+    static boolean isSupportedReturnType(TypeName type) {
+        return STRING_TYPE.equals(type) || LAZY_TYPES.contains(type);
+    }
+
+    /**
+     * Returns {@code true} if the first parameter is the {@link Locale} for numbers, as
+     * {@link String#format(Locale, String, Object...)}.
+     */
+    static boolean hasLocaleParameter(List<? extends TypeMirror> argumentTypes) {
+        return !argumentTypes.isEmpty() && LOCALE_TYPE.equals(TypeName.get(argumentTypes.get(0)));
+    }
+
+    /**
+     * Returns the function which gives the statement to localize a number written from the given position
+     * of {@code sb}, or {@code null} if numbers are not localized.
+     */
+    private Function<String, CodeBlock> getLocalizer(CodeBlock.Builder builder) {
+        if (firstArgument() > 0) {
+            builder.add("final $T symbols = $T.of(arg0);\n", NumberSymbols.class, NumberSymbols.class);
+            return start -> CodeBlock.of("symbols.localize(sb, $L);\n", start);
+        }
+        if (locale.isEmpty() || syntax == Syntax.LOG_FORMAT) {
+            return null;
+        }
+        NumberSymbols symbols;
+        try {
+            symbols = NumberSymbols.of(new Locale.Builder().setLanguageTag(locale).build());
+        } catch (IllformedLocaleException ignored) {
+            errorReporter.fatal("Invalid locale : " + locale, element);
+            return null;
+        }
+        if (symbols.isRoot()) {
+            return null;
+        }
+        // Resolved at compile time, so that a call has no lookup.
+        String groupingSeparator = charLiteral(symbols.getGroupingSeparator());
+        String decimalSeparator = charLiteral(symbols.getDecimalSeparator());
+        String zeroDigit = charLiteral(symbols.getZeroDigit());
+        return start -> CodeBlock.of("$T.localize(sb, $L, $L, $L, $L);\n", NumberSymbols.class, start,
+                                     groupingSeparator, decimalSeparator, zeroDigit);
+    }
+
+    private static String charLiteral(char c) {
+        if (c >= ' ' && c <= '~' && c != '\'' && c != '\\') {
+            return "'" + c + '\'';
+        }
+        if (c < 0x80) {
+            // Unicode escapes are translated before lexing, so a line terminator or a quote must use octal.
+            return String.format("'\\%o'", (int) c);
+        }
+        return String.format("'\\u%04x'", (int) c);
+    }
+
     public static Builder builder() {
         return new Builder();
     }
 
     private CodeBlock buildBody(List<FormatString> formatStringList, List<TypeMirror> argumentTypes) {
-        CodeBlock.Builder builder = CodeBlock.builder()
-                                             .add("final StringBuilder sb = new StringBuilder(" +
-                                                  bufferCapacity + ");\n");
-        int idx = 0;
-        for (FormatString formatString : formatStringList) {
-            if (formatString instanceof FormatSpecifier) {
-                formatString.emit(builder, argumentTypes.get(idx++));
+        if (STRING_TYPE.equals(returnType)) {
+            CodeBlock.Builder builder = CodeBlock.builder();
+            Function<String, CodeBlock> localizer = getLocalizer(builder);
+            builder.add("final StringBuilder sb = new StringBuilder(" + bufferCapacity + ");\n");
+            appendTo(builder, localizer, formatStringList, argumentTypes);
+            return builder.add("return sb.toString();\n")
+                          .build();
+        }
+        // The anonymous class captures the arguments, which are final, without boxing.
+        CodeBlock.Builder builder = CodeBlock.builder();
+        Function<String, CodeBlock> localizer = getLocalizer(builder);
+        appendTo(builder, localizer, formatStringList, argumentTypes);
+        MethodSpec appendTo = MethodSpec.methodBuilder("appendTo")
+                                        .addAnnotation(Override.class)
+                                        .addModifiers(Modifier.PUBLIC)
+                                        .addParameter(ParameterSpec.builder(StringBuilder.class, "sb",
+                                                                            Modifier.FINAL)
+                                                                   .build())
+                                        .addCode(builder.add("return sb;\n")
+                                                        .build())
+                                        .returns(StringBuilder.class)
+                                        .build();
+        return CodeBlock.of("return $L;\n", TypeSpec.anonymousClassBuilder("$L", bufferCapacity)
+                                                    .superclass(LazyMessage.class)
+                                                    .addMethod(appendTo)
+                                                    .build());
+    }
+
+    private static void appendTo(CodeBlock.Builder builder, Function<String, CodeBlock> localizer,
+                                 List<FormatString> formatStringList, List<TypeMirror> argumentTypes) {
+        for (int i = 0; i < formatStringList.size(); i++) {
+            appendTo(builder, localizer, formatStringList.get(i), i, argumentTypes);
+        }
+    }
+
+    private static void appendTo(CodeBlock.Builder builder, Function<String, CodeBlock> localizer,
+                                 FormatString formatString, int position, List<TypeMirror> argumentTypes) {
+        if (formatString instanceof FormatSpecifier) {
+            TypeMirror argumentType = argumentTypes.get(formatString.getIndex());
+            if (localizer != null &&
+                ((FormatSpecifier) formatString).getConversionType().isLocaleSensitive()) {
+                String start = "start" + position;
+                builder.add("int $L = sb.length();\n", start);
+                formatString.emit(builder, argumentType);
+                builder.add(localizer.apply(start));
             } else {
-                formatString.emit(builder, null);
+                formatString.emit(builder, argumentType);
             }
+        } else {
+            formatString.emit(builder, null);
         }
-        return builder.add("return sb.toString();\n")
-                      .build();
     }
 
     private void checkArgumentTypes(ProcessingEnvironment processingEnv, List<FormatString> formatStringList,
@@ -88,57 +306,700 @@ class FormatterMethod {
                                                                  .map(FormatSpecifier.class::cast)
                                                                  .collect(toImmutableList());
 
-        if (formatSpecifiers.size() != expectedTypeList.size()) {
+        // The indexes of the specifiers include the Locale parameter if it exists.
+        int numArguments = formatSpecifiers.stream()
+                                           .mapToInt(FormatSpecifier::getIndex)
+                                           .max()
+                                           .orElse(firstArgument() - 1) + 1;
+        if (numArguments != expectedTypeList.size()) {
             throw new RuntimeException(name + " cannot not acceptable to " + expectedTypeList);
         }
 
-        Set<List<TypeMirror>> candidateArgumentTypes = Sets.cartesianProduct(
-                formatSpecifiers.stream()
-                                .map(FormatSpecifier::getConversionType)
-                                .map(e -> e.getType(processingEnv.getTypeUtils(),
-                                                    processingEnv.getElementUtils()))
-                                .collect(toImmutableList()));
+        for (int index : unsignedArguments) {
+            TypeKind kind = expectedTypeList.get(index).getKind();
+            if (kind != TypeKind.INT && kind != TypeKind.LONG) {
+                errorReporter.fatal("@" + Unsigned.class.getSimpleName() + " only applies to int or long. " +
+                                    name + " got " + expectedTypeList.get(index), element);
+            }
+        }
+        scaledArguments.forEach((index, scale) -> {
+            TypeKind kind = expectedTypeList.get(index).getKind();
+            if (kind != TypeKind.INT && kind != TypeKind.LONG) {
+                errorReporter.fatal("@" + Scaled.class.getSimpleName() + " only applies to int or long. " +
+                                    name + " got " + expectedTypeList.get(index), element);
+            }
+            if (scale < 0 || scale > FixedPointFormatter.MAX_SCALE) {
+                errorReporter.fatal("@" + Scaled.class.getSimpleName() + " value must be between 0 and " +
+                                    FixedPointFormatter.MAX_SCALE + '.', element);
+            }
+        });
 
-        if (candidateArgumentTypes.stream().noneMatch(
-                candidate -> isAssignableArguments(processingEnv, candidate, expectedTypeList))) {
-            errorReporter.fatal(name + " cannot not apply to " + expectedTypeList, element);
+        // An argument may be referred by several format specifiers, e.g. "%1$tF %1$tT".
+        for (FormatSpecifier formatSpecifier : formatSpecifiers) {
+            TypeMirror expectedType = expectedTypeList.get(formatSpecifier.getIndex());
+            Set<TypeMirror> candidates = formatSpecifier.getConversionType()
+                                                        .getType(processingEnv.getTypeUtils(),
+                                                                 processingEnv.getElementUtils());
+            if (!isAssignable(processingEnv, expectedType, candidates)) {
+                errorReporter.fatal(name + " cannot not apply to " + expectedTypeList, element);
+            }
+            if (formatSpecifier.getConversionType() instanceof StringFormatConversionType &&
+                !StringFormatConversionType.supportsLayout(expectedType, formatSpecifier.getWidth(),
+                                                           formatSpecifier.getPrecision(),
+                                                           formatSpecifier.getFlags())) {
+                errorReporter.fatal("%s does not support a width, a precision or the '-' flag for " +
+                                    expectedType + " in " + name + '.', element);
+            }
         }
     }
 
-    private boolean isAssignableArguments(ProcessingEnvironment processingEnv, List<TypeMirror> candidate,
-                                          List<TypeMirror> expectedTypeList) {
+    private static boolean isAssignable(ProcessingEnvironment processingEnv, TypeMirror expectedType,
+                                        Set<TypeMirror> candidates) {
         Types typeUtils = processingEnv.getTypeUtils();
-        for (int i = 0; i < candidate.size(); i++) {
-            if (!typeUtils.isAssignable(expectedTypeList.get(i),
-                                        candidate.get(i))) {
-                return false;
-            }
+        return candidates.stream().anyMatch(candidate -> typeUtils.isAssignable(expectedType, candidate));
+    }
+
+    private int firstArgument() {
+        // An SLF4J pattern prints all arguments as they are.
+        return syntax != Syntax.LOG_FORMAT && hasLocaleParameter(argumentTypes) ? 1 : 0;
+    }
+
+    private static FormatString shiftIndex(FormatString formatString, int offset) {
+        if (offset == 0 || !(formatString instanceof FormatSpecifier)) {
+            return formatString;
         }
-        return true;
+        FormatSpecifier specifier = (FormatSpecifier) formatString;
+        return specifier.withIndex(specifier.getIndex() + offset);
     }
 
-    public MethodSpec getMethod(ProcessingEnvironment processingEnv) {
-        List<FormatString> formatStringList = FormatParser.parse(format, element, errorReporter);
+    String getName() {
+        return name;
+    }
+
+    private List<FormatString> parseFormat(ProcessingEnvironment processingEnv) {
+        int firstArgument = firstArgument();
+        List<TypeMirror> formatArgumentTypes = argumentTypes.subList(firstArgument, argumentTypes.size());
+        List<FormatString> parsed;
+        switch (syntax) {
+            case MESSAGE_PATTERN:
+                parsed = MessagePatternParser.parse(format, formatArgumentTypes, processingEnv, element,
+                                                    errorReporter);
+                break;
+            case LOG_FORMAT:
+                parsed = LogFormatParser.parse(format, formatArgumentTypes, element, errorReporter);
+                break;
+            default:
+                parsed = FormatParser.parse(format, element, errorReporter);
+                break;
+        }
+        List<FormatString> formatStringList = parsed.stream()
+                                                    .map(string -> shiftIndex(string, firstArgument))
+                                                    .map(this::applyArgumentAnnotations)
+                                                    .collect(toImmutableList());
         checkArgumentTypes(processingEnv, formatStringList, argumentTypes);
+        return formatStringList;
+    }
+
+    public MethodSpec getMethod(ProcessingEnvironment processingEnv) {
+        List<FormatString> formatStringList = parseFormat(processingEnv);
+        MethodSpec.Builder method = MethodSpec.methodBuilder(name);
+        if (visibility == Modifier.PUBLIC) {
+            method.addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+        } else {
+            method.addModifiers(visibility);
+        }
+        return method.addParameters(buildParamTypes(argumentTypes))
+                     .addCode(buildBody(formatStringList, argumentTypes))
+                     .returns(returnType)
+                     .build();
+    }
+
+    /**
+     * Returns the immutable class which captures the arguments of this method in fields, and formats them
+     * by {@link CapturedFormat#formatTo(StringBuilder)} later.
+     */
+    public TypeSpec getCaptureClass(ProcessingEnvironment processingEnv, String className) {
+        List<FormatString> formatStringList = parseFormat(processingEnv);
+        TypeSpec.Builder type = TypeSpec.classBuilder(className)
+                                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                                        .addSuperinterface(CapturedFormat.class);
+        List<ParameterSpec> parameters = buildParamTypes(argumentTypes);
+        MethodSpec.Builder constructor = MethodSpec.constructorBuilder()
+                                                   .addModifiers(Modifier.PRIVATE)
+                                                   .addParameters(parameters);
+        for (ParameterSpec parameter : parameters) {
+            // The fields have the names of the parameters, so the same code formats them.
+            type.addField(parameter.type, parameter.name, Modifier.PRIVATE, Modifier.FINAL);
+            constructor.addStatement("this.$N = $N", parameter.name, parameter.name);
+        }
+        CodeBlock.Builder body = CodeBlock.builder();
+        Function<String, CodeBlock> localizer = getLocalizer(body);
+        appendTo(body, localizer, formatStringList, argumentTypes);
+        return type.addMethod(constructor.build())
+                   .addMethod(MethodSpec.methodBuilder("formatTo")
+                                        .addAnnotation(Override.class)
+                                        .addModifiers(Modifier.PUBLIC)
+                                        .addParameter(ParameterSpec.builder(StringBuilder.class, "sb",
+                                                                            Modifier.FINAL)
+                                                                   .build())
+                                        .addCode(body.add("return sb;\n")
+                                                     .build())
+                                        .returns(StringBuilder.class)
+                                        .build())
+                   .addMethod(MethodSpec.methodBuilder("toString")
+                                        .addAnnotation(Override.class)
+                                        .addModifiers(Modifier.PUBLIC)
+                                        .addStatement("return formatTo(new StringBuilder($L)).toString()",
+                                                      bufferCapacity)
+                                        .returns(String.class)
+                                        .build())
+                   .build();
+    }
+
+    /**
+     * Returns the method which creates the class given by {@link #getCaptureClass}.
+     */
+    public MethodSpec getCaptureFactory(String methodName, ClassName captureType) {
+        List<ParameterSpec> parameters = buildParamTypes(argumentTypes);
+        return MethodSpec.methodBuilder(methodName)
+                         .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                         .addParameters(parameters)
+                         .addStatement("return new $T($L)", captureType,
+                                       parameters.stream()
+                                                 .map(parameter -> parameter.name)
+                                                 .collect(Collectors.joining(", ")))
+                         .returns(captureType)
+                         .build();
+    }
+
+    /**
+     * Returns the methods which format the rows given by an array per argument of this method to
+     * {@code out}, and append {@code rowSeparator} after each row: one for all rows, and one for the rows
+     * from {@code fromRow} to {@code toRow}. A {@link Locale} parameter is not an array, and its symbols are
+     * looked up once. Returns an empty list if this method has no argument to make a column of.
+     */
+    public List<MethodSpec> getBatchMethods(ProcessingEnvironment processingEnv, String methodName) {
+        int firstColumn = firstArgument();
+        if (firstColumn == argumentTypes.size()) {
+            return ImmutableList.of();
+        }
+        List<FormatString> formatStringList = parseFormat(processingEnv);
+        List<ParameterSpec> parameters = new ArrayList<>();
+        for (int i = 0; i < argumentTypes.size(); i++) {
+            TypeName type = TypeName.get(argumentTypes.get(i));
+            if (i < firstColumn) {
+                parameters.add(ParameterSpec.builder(type, "arg" + i, Modifier.FINAL).build());
+            } else {
+                parameters.add(ParameterSpec.builder(ArrayTypeName.of(type), "column" + i, Modifier.FINAL)
+                                            .build());
+            }
+        }
+        String arguments = parameters.stream()
+                                     .map(parameter -> parameter.name)
+                                     .collect(Collectors.joining(", "));
+
+        CodeBlock.Builder all = CodeBlock.builder()
+                                         .addStatement("final int rows = column$L.length", firstColumn);
+        for (int i = firstColumn + 1; i < argumentTypes.size(); i++) {
+            all.beginControlFlow("if (column$L.length != rows)", i)
+               .addStatement("throw new $T($S)", IllegalArgumentException.class,
+                             "All columns must have the same length.")
+               .endControlFlow();
+        }
+        all.addStatement("return $L($L, 0, rows, out, rowSeparator)", methodName, arguments);
+
+        String columnBounds = IntStream.range(firstColumn, argumentTypes.size())
+                                       .mapToObj(i -> " || toRow > column" + i + ".length")
+                                       .collect(Collectors.joining());
+        CodeBlock.Builder range = CodeBlock.builder();
+        range.beginControlFlow("if (fromRow < 0 || fromRow > toRow$L)", columnBounds)
+             .addStatement("throw new $T($S + fromRow + $S + toRow)", IndexOutOfBoundsException.class,
+                           "fromRow: ", ", toRow: ")
+             .endControlFlow()
+             // Grows the buffer once, by the capacity of a row for each row.
+             .addStatement("$T.reserve(out, toRow - fromRow, $L + rowSeparator.length())", BatchCapacity.class,
+                           bufferCapacity)
+             .addStatement("final $T sb = out", StringBuilder.class);
+        Function<String, CodeBlock> localizer = getLocalizer(range);
+        range.beginControlFlow("for (int row = fromRow; row < toRow; row++)");
+        for (int i = firstColumn; i < argumentTypes.size(); i++) {
+            range.addStatement("final $T arg$L = column$L[row]", TypeName.get(argumentTypes.get(i)), i, i);
+        }
+        appendTo(range, localizer, formatStringList, argumentTypes);
+        range.addStatement("sb.append(rowSeparator)")
+             .endControlFlow()
+             .addStatement("return out");
+
+        return ImmutableList.of(
+                MethodSpec.methodBuilder(methodName)
+                          .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                          .addParameters(parameters)
+                          .addParameter(StringBuilder.class, "out", Modifier.FINAL)
+                          .addParameter(String.class, "rowSeparator", Modifier.FINAL)
+                          .addCode(all.build())
+                          .returns(StringBuilder.class)
+                          .build(),
+                MethodSpec.methodBuilder(methodName)
+                          .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                          .addParameters(parameters)
+                          .addParameter(int.class, "fromRow", Modifier.FINAL)
+                          .addParameter(int.class, "toRow", Modifier.FINAL)
+                          .addParameter(StringBuilder.class, "out", Modifier.FINAL)
+                          .addParameter(String.class, "rowSeparator", Modifier.FINAL)
+                          .addCode(range.build())
+                          .returns(StringBuilder.class)
+                          .build());
+    }
+
+    private static boolean isSharedLiteral(FormatString formatString) {
+        return formatString instanceof FixedString &&
+               ((FixedString) formatString).getText().length() >= MIN_SHARED_LITERAL_LENGTH;
+    }
+
+    /**
+     * Returns the constants of the literals of this method shared by the records written by
+     * {@link #getGatheringMethod}, named {@code fieldPrefix} followed by the position in the format.
+     */
+    public List<FieldSpec> getSharedLiterals(ProcessingEnvironment processingEnv, String fieldPrefix) {
+        List<FormatString> formatStringList = parseFormat(processingEnv);
+        ImmutableList.Builder<FieldSpec> fields = ImmutableList.builder();
+        for (int i = 0; i < formatStringList.size(); i++) {
+            if (isSharedLiteral(formatStringList.get(i))) {
+                fields.add(FieldSpec.builder(ByteBuffer.class, fieldPrefix + i, Modifier.PRIVATE,
+                                             Modifier.STATIC, Modifier.FINAL)
+                                    .initializer("$T.literal($S)", GatheringSink.class,
+                                                 ((FixedString) formatStringList.get(i)).getText())
+                                    .build());
+            }
+        }
+        return fields.build();
+    }
+
+    /**
+     * Returns the method which writes a record to a {@link GatheringSink}. The literals of at least
+     * {@value #MIN_SHARED_LITERAL_LENGTH} chars are written as the constants of {@link #getSharedLiterals},
+     * and the others are formatted to the text of the sink with the arguments.
+     */
+    public MethodSpec getGatheringMethod(ProcessingEnvironment processingEnv, String methodName,
+                                         String fieldPrefix) {
+        List<FormatString> formatStringList = parseFormat(processingEnv);
+        CodeBlock.Builder body = CodeBlock.builder();
+        Function<String, CodeBlock> localizer = getLocalizer(body);
+        body.addStatement("final $T sb = sink.text()", StringBuilder.class);
+        for (int i = 0; i < formatStringList.size(); i++) {
+            if (isSharedLiteral(formatStringList.get(i))) {
+                body.addStatement("sink.putLiteral($L$L)", fieldPrefix, i);
+            } else {
+                appendTo(body, localizer, formatStringList.get(i), i, argumentTypes);
+            }
+        }
+        return MethodSpec.methodBuilder(methodName)
+                         .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                         .addParameter(GatheringSink.class, "sink", Modifier.FINAL)
+                         .addParameters(buildParamTypes(argumentTypes))
+                         .addException(IOException.class)
+                         .addCode(body.addStatement("sink.endRecord()")
+                                      .build())
+                         .build();
+    }
+
+    private static boolean isSingleAsciiChar(FixedString fixedString) {
+        return fixedString.getText().length() == 1 && fixedString.getText().charAt(0) < 0x80;
+    }
+
+    /**
+     * Returns the constants of the literals of this method in UTF-8 written by {@link #getByteBufferMethod},
+     * named {@code fieldPrefix} followed by the position in the format. A literal of a single ASCII char is
+     * written as a byte instead.
+     */
+    public List<FieldSpec> getLiteralBytes(ProcessingEnvironment processingEnv, String fieldPrefix) {
+        List<FormatString> formatStringList = parseFormat(processingEnv);
+        ImmutableList.Builder<FieldSpec> fields = ImmutableList.builder();
+        for (int i = 0; i < formatStringList.size(); i++) {
+            FormatString formatString = formatStringList.get(i);
+            if (formatString instanceof FixedString && !isSingleAsciiChar((FixedString) formatString)) {
+                String text = ((FixedString) formatString).getText();
+                fields.add(FieldSpec.builder(byte[].class, fieldPrefix + i, Modifier.PRIVATE, Modifier.STATIC,
+                                             Modifier.FINAL)
+                                    .initializer("$S.getBytes($T.UTF_8)", text, StandardCharsets.class)
+                                    .build());
+            }
+        }
+        return fields.build();
+    }
+
+    /**
+     * Returns the statement which writes {@code specifier} directly to {@code out}, or {@code null} if it
+     * must be formatted to a {@link StringBuilder}: decimal and hex integers without grouping or localization,
+     * and strings without width, precision or flags.
+     */
+    private static CodeBlock getByteBufferStatement(FormatSpecifier specifier, TypeMirror argumentType,
+                                                    boolean localized) {
+        String arg = "arg" + specifier.getIndex();
+        Set<FormatFlag> flags = specifier.getFlags();
+        boolean integer = INTEGER_KINDS.contains(argumentType.getKind());
+        Class<?> type = specifier.getConversionType().getClass();
+        if (type == IntegerFormatConversionType.class && integer && !localized &&
+            DECIMAL_FLAGS.containsAll(flags)) {
+            int formatterFlags = (flags.contains(FormatFlag.ZERO) ? IntegerFormatter.PADDED_WITH_ZEROS : 0) |
+                                 (flags.contains(FormatFlag.UNSIGNED) ? IntegerFormatter.UNSIGNED : 0);
+            return CodeBlock.of("$T.formatTo(out, $L, $L, $L);\n", AsciiIntegerFormatter.class, arg,
+                                formatterFlags, Math.max(specifier.getWidth(), 0));
+        }
+        if (type == HexIntegerFormatConversionType.class && integer && HEX_FLAGS.containsAll(flags)) {
+            int formatterFlags =
+                    (flags.contains(FormatFlag.ZERO) ? HexIntegerFormatter.PADDED_WITH_ZEROS : 0) |
+                    (flags.contains(FormatFlag.UPPER_CASE) ? HexIntegerFormatter.UPPER_CASE : 0);
+            return CodeBlock.of("$T.formatHexTo(out, $L, $L, $L);\n", AsciiIntegerFormatter.class, arg,
+                                formatterFlags, Math.max(specifier.getWidth(), 0));
+        }
+        if (type == StringFormatConversionType.class && STRING_TYPE.equals(TypeName.get(argumentType)) &&
+            specifier.getWidth() < 0 && specifier.getPrecision() < 0 && flags.isEmpty()) {
+            return CodeBlock.of("$T.encode($T.valueOf($L), out);\n", Utf8.class, String.class, arg);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the overload of this method which writes the formatted text in UTF-8 to a {@link ByteBuffer}
+     * from its position, with the constants of {@link #getLiteralBytes}. A run of the specifiers which are
+     * not written directly is formatted to a {@link StringBuilder} and encoded. The position of the buffer is
+     * restored if it overflows.
+     */
+    public MethodSpec getByteBufferMethod(ProcessingEnvironment processingEnv, String fieldPrefix) {
+        List<FormatString> formatStringList = parseFormat(processingEnv);
+        CodeBlock.Builder body = CodeBlock.builder();
+        Function<String, CodeBlock> localizer = getLocalizer(body);
+        List<CodeBlock> statements = new ArrayList<>();
+        for (int i = 0; i < formatStringList.size(); i++) {
+            FormatString formatString = formatStringList.get(i);
+            if (formatString instanceof FixedString) {
+                FixedString fixedString = (FixedString) formatString;
+                if (isSingleAsciiChar(fixedString)) {
+                    statements.add(CodeBlock.of("out.put((byte) $L);\n",
+                                                charLiteral(fixedString.getText().charAt(0))));
+                } else {
+                    statements.add(CodeBlock.of("out.put($L$L);\n", fieldPrefix, i));
+                }
+            } else {
+                statements.add(getByteBufferStatement((FormatSpecifier) formatString,
+                                                      argumentTypes.get(formatString.getIndex()),
+                                                      localizer != null));
+            }
+        }
+        if (statements.contains(null)) {
+            body.addStatement("final $T sb = new $T($L)", StringBuilder.class, StringBuilder.class,
+                              bufferCapacity);
+        }
+        body.addStatement("final int start = out.position()")
+            .beginControlFlow("try");
+        int i = 0;
+        while (i < formatStringList.size()) {
+            if (statements.get(i) != null) {
+                body.add(statements.get(i++));
+                continue;
+            }
+            body.addStatement("sb.setLength(0)");
+            while (i < formatStringList.size() && statements.get(i) == null) {
+                appendTo(body, localizer, formatStringList.get(i), i, argumentTypes);
+                i++;
+            }
+            body.addStatement("$T.encode(sb, out)", Utf8.class);
+        }
+        body.nextControlFlow("catch ($T e)", BufferOverflowException.class)
+            .addStatement("out.position(start)")
+            .addStatement("throw e")
+            .endControlFlow();
+        return MethodSpec.methodBuilder(name)
+                         .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                         .addParameter(ByteBuffer.class, "out", Modifier.FINAL)
+                         .addParameters(buildParamTypes(argumentTypes))
+                         .addCode(body.build())
+                         .build();
+    }
+
+    /**
+     * Returns the overload of this method which formats to a {@link Writer} through the buffer of
+     * {@link FormatWriter#stage}. A record is discarded from the buffer if formatting it fails.
+     */
+    public MethodSpec getWriterMethod(ProcessingEnvironment processingEnv) {
+        List<FormatString> formatStringList = parseFormat(processingEnv);
+        CodeBlock.Builder body = CodeBlock.builder();
+        Function<String, CodeBlock> localizer = getLocalizer(body);
+        body.addStatement("final $T sb = $T.stage(out)", StringBuilder.class, FormatWriter.class)
+            .addStatement("final int start = sb.length()")
+            .beginControlFlow("try");
+        appendTo(body, localizer, formatStringList, argumentTypes);
+        body.nextControlFlow("catch ($T e)", Throwable.class)
+            .addStatement("sb.setLength(start)")
+            .addStatement("throw e")
+            .endControlFlow()
+            .addStatement("$T.commit(out, start)", FormatWriter.class);
         return MethodSpec.methodBuilder(name)
                          .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                         .addParameter(Writer.class, "out", Modifier.FINAL)
                          .addParameters(buildParamTypes(argumentTypes))
-                         .addCode(buildBody(formatStringList, argumentTypes))
-                         .returns(TypeName.get(String.class))
+                         .addException(IOException.class)
+                         .addCode(body.build())
                          .build();
     }
 
+    /**
+     * Returns the number of the arguments stored in the {@code long} slots of a {@link FormatRingBuffer}.
+     */
+    int getPrimitiveArgumentCount() {
+        return (int) argumentTypes.stream().filter(type -> type.getKind().isPrimitive()).count();
+    }
+
+    /**
+     * Returns the number of the arguments stored in the {@code Object} slots of a {@link FormatRingBuffer}.
+     */
+    int getReferenceArgumentCount() {
+        return argumentTypes.size() - getPrimitiveArgumentCount();
+    }
+
+    /**
+     * Returns the method which publishes the arguments of this method to a {@link FormatRingBuffer}.
+     */
+    public MethodSpec getPublisher(String methodName, int methodId) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder(methodName)
+                                              .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                                              .addParameter(FormatRingBuffer.class, "ring", Modifier.FINAL)
+                                              .addParameters(buildParamTypes(argumentTypes))
+                                              .addStatement("final long sequence = ring.claim()");
+        int longIndex = 0;
+        int objectIndex = 0;
+        for (int i = 0; i < argumentTypes.size(); i++) {
+            String arg = "arg" + i;
+            switch (argumentTypes.get(i).getKind()) {
+                case BOOLEAN:
+                    method.addStatement("ring.putLong(sequence, $L, $L ? 1 : 0)", longIndex++, arg);
+                    break;
+                case FLOAT:
+                    method.addStatement("ring.putLong(sequence, $L, $T.floatToRawIntBits($L))", longIndex++,
+                                        Float.class, arg);
+                    break;
+                case DOUBLE:
+                    method.addStatement("ring.putLong(sequence, $L, $T.doubleToRawLongBits($L))", longIndex++,
+                                        Double.class, arg);
+                    break;
+                case BYTE:
+                case SHORT:
+                case CHAR:
+                case INT:
+                case LONG:
+                    method.addStatement("ring.putLong(sequence, $L, $L)", longIndex++, arg);
+                    break;
+                default:
+                    method.addStatement("ring.putObject(sequence, $L, $L)", objectIndex++, arg);
+                    break;
+            }
+        }
+        return method.addStatement("ring.publish(sequence, $L)", methodId)
+                     .build();
+    }
+
+    /**
+     * Returns the method which formats an event published by {@link #getPublisher}.
+     */
+    public MethodSpec getRenderer(ProcessingEnvironment processingEnv, String methodName) {
+        List<FormatString> formatStringList = parseFormat(processingEnv);
+        CodeBlock.Builder body = CodeBlock.builder();
+        boolean unchecked = false;
+        int longIndex = 0;
+        int objectIndex = 0;
+        for (int i = 0; i < argumentTypes.size(); i++) {
+            TypeName type = TypeName.get(argumentTypes.get(i));
+            switch (argumentTypes.get(i).getKind()) {
+                case BOOLEAN:
+                    body.addStatement("final $T arg$L = ring.getLong(sequence, $L) != 0", type, i, longIndex++);
+                    break;
+                case FLOAT:
+                    body.addStatement("final $T arg$L = $T.intBitsToFloat((int) ring.getLong(sequence, $L))",
+                                      type, i, Float.class, longIndex++);
+                    break;
+                case DOUBLE:
+                    body.addStatement("final $T arg$L = $T.longBitsToDouble(ring.getLong(sequence, $L))",
+                                      type, i, Double.class, longIndex++);
+                    break;
+                case BYTE:
+                case SHORT:
+                case CHAR:
+                case INT:
+                    body.addStatement("final $T arg$L = ($T) ring.getLong(sequence, $L)", type, i, type,
+                                      longIndex++);
+                    break;
+                case LONG:
+                    body.addStatement("final $T arg$L = ring.getLong(sequence, $L)", type, i, longIndex++);
+                    break;
+                default:
+                    unchecked |= !(type instanceof ClassName) && !(type instanceof ArrayTypeName);
+                    body.addStatement("final $T arg$L = ($T) ring.getObject(sequence, $L)", type, i, type,
+                                      objectIndex++);
+                    break;
+            }
+        }
+        Function<String, CodeBlock> localizer = getLocalizer(body);
+        appendTo(body, localizer, formatStringList, argumentTypes);
+        MethodSpec.Builder method = MethodSpec.methodBuilder(methodName)
+                                              .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                                              .addParameter(FormatRingBuffer.class, "ring", Modifier.FINAL)
+                                              .addParameter(long.class, "sequence", Modifier.FINAL)
+                                              .addParameter(StringBuilder.class, "sb", Modifier.FINAL)
+                                              .addCode(body.build());
+        if (unchecked) {
+            method.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+                                               .addMember("value", "$S", "unchecked")
+                                               .build());
+        }
+        return method.build();
+    }
+
+    /**
+     * Returns the signature of this method, e.g. {@code order(long,java.lang.String)}.
+     */
+    String getSignature() {
+        return name + argumentTypes.stream()
+                                   .map(TypeMirror::toString)
+                                   .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    /**
+     * Returns the id of the records of this method in a {@link BinaryLog}, which is the hash code of
+     * {@link #getSignature()}.
+     */
+    int getBinaryId() {
+        return getSignature().hashCode();
+    }
+
+    /**
+     * Returns the method which encodes the arguments of this method to a {@link BinaryLog}. The position of
+     * the buffer is restored if it overflows, so that the record can be encoded again to another buffer.
+     */
+    public MethodSpec getEncoder(String methodName) {
+        CodeBlock.Builder body = CodeBlock.builder()
+                                          .addStatement("final int start = buffer.position()")
+                                          .beginControlFlow("try")
+                                          .addStatement("buffer.putInt($L)", getBinaryId());
+        for (int i = 0; i < argumentTypes.size(); i++) {
+            String arg = "arg" + i;
+            switch (argumentTypes.get(i).getKind()) {
+                case BOOLEAN:
+                    body.addStatement("buffer.put((byte) ($L ? 1 : 0))", arg);
+                    break;
+                case BYTE:
+                    body.addStatement("buffer.put($L)", arg);
+                    break;
+                case SHORT:
+                    body.addStatement("buffer.putShort($L)", arg);
+                    break;
+                case CHAR:
+                    body.addStatement("buffer.putChar($L)", arg);
+                    break;
+                case INT:
+                    body.addStatement("buffer.putInt($L)", arg);
+                    break;
+                case LONG:
+                    body.addStatement("buffer.putLong($L)", arg);
+                    break;
+                case FLOAT:
+                    body.addStatement("buffer.putFloat($L)", arg);
+                    break;
+                case DOUBLE:
+                    body.addStatement("buffer.putDouble($L)", arg);
+                    break;
+                default:
+                    checkBinaryArgumentType(argumentTypes.get(i));
+                    body.addStatement("$T.putString(buffer, $L)", BinaryLog.class, arg);
+                    break;
+            }
+        }
+        body.nextControlFlow("catch ($T e)", BufferOverflowException.class)
+            .addStatement("buffer.position(start)")
+            .addStatement("throw e")
+            .endControlFlow();
+        return MethodSpec.methodBuilder(methodName)
+                         .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                         .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                         .addParameters(buildParamTypes(argumentTypes))
+                         .addCode(body.build())
+                         .build();
+    }
+
+    /**
+     * Returns the method which formats a record encoded by {@link #getEncoder}, after its id.
+     */
+    public MethodSpec getDecoder(ProcessingEnvironment processingEnv, String methodName) {
+        List<FormatString> formatStringList = parseFormat(processingEnv);
+        CodeBlock.Builder body = CodeBlock.builder();
+        for (int i = 0; i < argumentTypes.size(); i++) {
+            TypeName type = TypeName.get(argumentTypes.get(i));
+            switch (argumentTypes.get(i).getKind()) {
+                case BOOLEAN:
+                    body.addStatement("final $T arg$L = buffer.get() != 0", type, i);
+                    break;
+                case BYTE:
+                    body.addStatement("final $T arg$L = buffer.get()", type, i);
+                    break;
+                case SHORT:
+                    body.addStatement("final $T arg$L = buffer.getShort()", type, i);
+                    break;
+                case CHAR:
+                    body.addStatement("final $T arg$L = buffer.getChar()", type, i);
+                    break;
+                case INT:
+                    body.addStatement("final $T arg$L = buffer.getInt()", type, i);
+                    break;
+                case LONG:
+                    body.addStatement("final $T arg$L = buffer.getLong()", type, i);
+                    break;
+                case FLOAT:
+                    body.addStatement("final $T arg$L = buffer.getFloat()", type, i);
+                    break;
+                case DOUBLE:
+                    body.addStatement("final $T arg$L = buffer.getDouble()", type, i);
+                    break;
+                default:
+                    checkBinaryArgumentType(argumentTypes.get(i));
+                    body.addStatement("final $T arg$L = $T.getString(buffer)", type, i, BinaryLog.class);
+                    break;
+            }
+        }
+        Function<String, CodeBlock> localizer = getLocalizer(body);
+        appendTo(body, localizer, formatStringList, argumentTypes);
+        return MethodSpec.methodBuilder(methodName)
+                         .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                         .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                         .addParameter(StringBuilder.class, "sb", Modifier.FINAL)
+                         .addCode(body.build())
+                         .build();
+    }
+
+    private void checkBinaryArgumentType(TypeMirror type) {
+        TypeName typeName = TypeName.get(type);
+        if (!STRING_TYPE.equals(typeName) && !CHAR_SEQUENCE_TYPE.equals(typeName)) {
+            errorReporter.fatal("binary = true supports only primitive, String and CharSequence arguments : " +
+                                type, element);
+        }
+    }
+
     @Override
     public String toString() {
-        return "FormatterMethod(name:" + name + ", format:" + format +
-               ", bufferCapacity:" + bufferCapacity + ')';
+        return "FormatterMethod(name:" + name + ", format:" + format + ", syntax:" + syntax +
+               ", bufferCapacity:" + bufferCapacity + ", locale:" + locale + ')';
     }
 
     static class Builder {
         private String name;
         private int bufferCapacity;
+        private Modifier visibility = Modifier.PUBLIC;
+        private String locale = "";
         private String format;
+        private Syntax syntax = Syntax.FORMAT;
+        private TypeName returnType = STRING_TYPE;
         private ImmutableList<TypeMirror> argumentTypes;
+        private ImmutableSet<Integer> unsignedArguments = ImmutableSet.of();
+        private ImmutableMap<Integer, Integer> scaledArguments = ImmutableMap.of();
         private Element element;
         private ErrorReporter errorReporter;
 
@@ -152,16 +1013,53 @@ class FormatterMethod {
             return this;
         }
 
+        public Builder messagePattern(String pattern) {
+            format = pattern;
+            syntax = Syntax.MESSAGE_PATTERN;
+            return this;
+        }
+
+        public Builder logFormat(String pattern) {
+            format = pattern;
+            syntax = Syntax.LOG_FORMAT;
+            return this;
+        }
+
+        public Builder returnType(TypeName returnType) {
+            this.returnType = returnType;
+            return this;
+        }
+
         public Builder bufferCapacity(int bufferCapacity) {
             this.bufferCapacity = bufferCapacity;
             return this;
         }
 
+        public Builder visibility(Modifier visibility) {
+            this.visibility = visibility;
+            return this;
+        }
+
+        public Builder locale(String locale) {
+            this.locale = locale;
+            return this;
+        }
+
         public Builder argumentTypeNames(ImmutableList<TypeMirror> argumentTypeNames) {
             this.argumentTypes = argumentTypeNames;
             return this;
         }
 
+        public Builder unsignedArguments(ImmutableSet<Integer> unsignedArguments) {
+            this.unsignedArguments = unsignedArguments;
+            return this;
+        }
+
+        public Builder scaledArguments(ImmutableMap<Integer, Integer> scaledArguments) {
+            this.scaledArguments = scaledArguments;
+            return this;
+        }
+
         public Builder element(Element element) {
             this.element = element;
             return this;
@@ -173,7 +1071,9 @@ class FormatterMethod {
         }
 
         public FormatterMethod build() {
-            return new FormatterMethod(name, format, bufferCapacity, argumentTypes, element, errorReporter);
+            return new FormatterMethod(name, format, syntax, returnType, bufferCapacity, visibility, locale,
+                                       argumentTypes, unsignedArguments, scaledArguments, element,
+                                       errorReporter);
         }
     }
 }
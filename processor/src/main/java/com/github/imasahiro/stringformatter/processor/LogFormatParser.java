@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.imasahiro.stringformatter.processor;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+import com.github.imasahiro.stringformatter.processor.specifier.FormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.IntegerFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.StringFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.util.ErrorReporter;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Parses an SLF4J message pattern, e.g. {@code "{} has {} messages"}, into the same {@link FormatString}s
+ * as {@code "%s has %d messages"}. Escaping follows {@code org.slf4j.helpers.MessageFormatter}.
+ */
+final class LogFormatParser {
+    private static final Set<TypeKind> INTEGER_KINDS = ImmutableSet.of(TypeKind.SHORT, TypeKind.INT,
+                                                                       TypeKind.LONG);
+
+    private LogFormatParser() {
+    }
+
+    /**
+     * Parse placeholders in the message pattern.
+     */
+    static List<FormatString> parse(String pattern, List<TypeMirror> argumentTypes, Element element,
+                                    ErrorReporter errorReporter) {
+        List<FormatString> formatStrings = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        int index = 0;
+        int start = 0;
+        int placeholder;
+        while ((placeholder = pattern.indexOf("{}", start)) >= 0) {
+            text.append(pattern, start, placeholder);
+            start = placeholder + 2;
+            if (isEscaped(pattern, placeholder)) {
+                text.setLength(text.length() - 1);
+                if (!isEscaped(pattern, placeholder - 1)) {
+                    // "\{}" is "{}".
+                    text.append("{}");
+                    continue;
+                }
+                // "\\{}" is "\" and an argument.
+            }
+            if (text.length() > 0) {
+                formatStrings.add(new FixedString(text.toString()));
+                text.setLength(0);
+            }
+            if (index < argumentTypes.size()) {
+                formatStrings.add(newArgument(index, argumentTypes.get(index)));
+            }
+            index++;
+        }
+        text.append(pattern, start, pattern.length());
+        if (text.length() > 0) {
+            formatStrings.add(new FixedString(text.toString()));
+        }
+        if (index != argumentTypes.size()) {
+            errorReporter.fatal("The pattern has " + index + " placeholders for " + argumentTypes.size() +
+                                " arguments.", element);
+        }
+        return formatStrings;
+    }
+
+    private static boolean isEscaped(String pattern, int index) {
+        return index > 0 && pattern.charAt(index - 1) == '\\';
+    }
+
+    private static FormatString newArgument(int index, TypeMirror argumentType) {
+        FormatConversionType type;
+        if (INTEGER_KINDS.contains(argumentType.getKind())) {
+            type = new IntegerFormatConversionType();
+        } else {
+            type = new StringFormatConversionType();
+        }
+        return new FormatSpecifier(index, -1, -1, EnumSet.noneOf(FormatFlag.class), type);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.imasahiro.stringformatter.processor;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.github.imasahiro.stringformatter.processor.specifier.IntegerFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.StringFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.util.ErrorReporter;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+
+/**
+ * Parses a {@link java.text.MessageFormat} pattern into the same {@link FormatString}s as the equivalent
+ * format string, e.g. {@code "{0} has {1} messages"} into {@code "%s has %,d messages"} for
+ * {@code (String, int)}.
+ */
+final class MessagePatternParser {
+    private static final Set<TypeKind> INTEGER_KINDS = ImmutableSet.of(TypeKind.BYTE, TypeKind.SHORT,
+                                                                       TypeKind.INT, TypeKind.LONG);
+    // Number styles which are the same as "%d" and "%,d" for integers.
+    private static final Set<String> PLAIN_STYLES = ImmutableSet.of("#", "0", "#0");
+    private static final Set<String> GROUPING_STYLES = ImmutableSet.of("", "integer", "#,##0", "#,###");
+
+    private final List<TypeMirror> argumentTypes;
+    private final Types typeUtils;
+    private final Elements elementUtils;
+    private final Element element;
+    private final ErrorReporter errorReporter;
+
+    private MessagePatternParser(List<TypeMirror> argumentTypes, ProcessingEnvironment processingEnv,
+                                 Element element, ErrorReporter errorReporter) {
+        this.argumentTypes = argumentTypes;
+        typeUtils = processingEnv.getTypeUtils();
+        elementUtils = processingEnv.getElementUtils();
+        this.element = element;
+        this.errorReporter = errorReporter;
+    }
+
+    /**
+     * Parse arguments in the message pattern.
+     */
+    static List<FormatString> parse(String pattern, List<TypeMirror> argumentTypes,
+                                    ProcessingEnvironment processingEnv, Element element,
+                                    ErrorReporter errorReporter) {
+        return new MessagePatternParser(argumentTypes, processingEnv, element, errorReporter).parse(pattern);
+    }
+
+    private List<FormatString> parse(String pattern) {
+        List<FormatString> formatStrings = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    text.append('\'');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == '{' && !quoted) {
+                int end = findArgumentEnd(pattern, i);
+                if (text.length() > 0) {
+                    formatStrings.add(new FixedString(text.toString()));
+                    text.setLength(0);
+                }
+                formatStrings.add(newArgument(pattern.substring(i + 1, end)));
+                i = end;
+            } else {
+                text.append(c);
+            }
+        }
+        if (text.length() > 0) {
+            formatStrings.add(new FixedString(text.toString()));
+        }
+        return formatStrings;
+    }
+
+    private int findArgumentEnd(String pattern, int start) {
+        int depth = 0;
+        for (int i = start; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        errorReporter.fatal("Unmatched braces in the pattern.", element);
+        return -1;
+    }
+
+    // "index[,type[,style]]"
+    private FormatString newArgument(String argument) {
+        String[] segments = argument.split(",", 3);
+        Integer index = Ints.tryParse(segments[0]);
+        checkArgument(index == null || index < 0, "can't parse argument number: " + segments[0]);
+        checkArgument(index >= argumentTypes.size(), "argument number " + index + " is out of range.");
+        String type = segments.length > 1 ? segments[1].trim().toLowerCase(Locale.ROOT) : "";
+        String style = segments.length > 2 ? segments[2].trim() : "";
+
+        TypeMirror argumentType = argumentTypes.get(index);
+        boolean integer = isInteger(argumentType);
+        if (type.isEmpty()) {
+            if (!integer) {
+                checkArgument(isLocaleSensitive(argumentType),
+                              "{" + index + "} of " + argumentType + " is formatted for the default locale.");
+                return new FormatSpecifier(index, -1, -1, EnumSet.noneOf(FormatFlag.class),
+                                           new StringFormatConversionType());
+            }
+        } else {
+            checkArgument(!"number".equals(type), "Unsupported format type : " + segments[1]);
+            checkArgument(!integer, "number format only applies to byte, short, int, long or BigInteger. " +
+                                    "got " + argumentType);
+        }
+
+        Set<FormatFlag> flags = EnumSet.noneOf(FormatFlag.class);
+        String lowerCaseStyle = style.toLowerCase(Locale.ROOT);
+        if (GROUPING_STYLES.contains(lowerCaseStyle)) {
+            flags.add(FormatFlag.COMMA);
+        } else {
+            checkArgument(!PLAIN_STYLES.contains(style), "Unsupported number style : " + style);
+        }
+        return new FormatSpecifier(index, -1, -1, flags, new IntegerFormatConversionType());
+    }
+
+    private boolean isInteger(TypeMirror type) {
+        return INTEGER_KINDS.contains(type.getKind()) ||
+               typeUtils.isSameType(type, elementUtils.getTypeElement(BigInteger.class.getCanonicalName())
+                                                      .asType());
+    }
+
+    private boolean isLocaleSensitive(TypeMirror type) {
+        if (type.getKind() == TypeKind.FLOAT || type.getKind() == TypeKind.DOUBLE) {
+            return true;
+        }
+        return typeUtils.isAssignable(type, elementUtils.getTypeElement(Number.class.getCanonicalName())
+                                                        .asType()) ||
+               typeUtils.isAssignable(type, elementUtils.getTypeElement(Date.class.getCanonicalName())
+                                                        .asType());
+    }
+
+    private void checkArgument(boolean condition, String message) {
+        if (condition) {
+            errorReporter.fatal(message, element);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.processor;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+
+import com.github.imasahiro.stringformatter.annotation.Parse;
+import com.github.imasahiro.stringformatter.processor.specifier.BooleanFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.CharacterFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.FormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.HexIntegerFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.IntegerFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.specifier.StringFormatConversionType;
+import com.github.imasahiro.stringformatter.processor.util.ErrorReporter;
+import com.github.imasahiro.stringformatter.runtime.parse.ParseUtils;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+
+/**
+ * Generates a method annotated with {@link Parse}, which reads the arguments of a format string from a
+ * {@link CharSequence} with {@link ParseUtils}, and gives them to the fields or the method of the target.
+ */
+final class ParserMethod {
+    private static final TypeName STRING_TYPE = ClassName.get(String.class);
+    private static final TypeName CHAR_SEQUENCE_TYPE = ClassName.get(CharSequence.class);
+    private static final Set<FormatFlag> UNSUPPORTED_FLAGS = ImmutableSet.of(
+            FormatFlag.COMMA, FormatFlag.PARENTHESIS, FormatFlag.SHARP);
+
+    private final ExecutableElement method;
+    private final ProcessingEnvironment processingEnv;
+    private final ErrorReporter errorReporter;
+
+    ParserMethod(ExecutableElement method, ProcessingEnvironment processingEnv, ErrorReporter errorReporter) {
+        this.method = method;
+        this.processingEnv = processingEnv;
+        this.errorReporter = errorReporter;
+    }
+
+    /**
+     * Returns {@code true} if {@code method} is annotated with {@link Parse}.
+     */
+    static boolean isParserMethod(ExecutableElement method) {
+        return method.getAnnotation(Parse.class) != null;
+    }
+
+    MethodSpec getMethod() {
+        Types types = processingEnv.getTypeUtils();
+        List<? extends VariableElement> parameters = method.getParameters();
+        TypeMirror charSequence = processingEnv.getElementUtils()
+                                               .getTypeElement(CharSequence.class.getCanonicalName())
+                                               .asType();
+        if (method.getReturnType().getKind() != TypeKind.BOOLEAN || parameters.size() != 2 ||
+            !types.isAssignable(parameters.get(0).asType(), charSequence) ||
+            parameters.get(1).asType().getKind() != TypeKind.DECLARED) {
+            errorReporter.fatal("@Parse method must be boolean (CharSequence, target).", method);
+        }
+        TypeMirror inputType = parameters.get(0).asType();
+        DeclaredType targetType = (DeclaredType) parameters.get(1).asType();
+
+        List<FormatString> formatStrings = FormatParser.parse(method.getAnnotation(Parse.class).value(),
+                                                              method, errorReporter);
+        CodeBlock.Builder deliver = CodeBlock.builder();
+        List<TypeMirror> argumentTypes = resolveTarget(targetType, deliver);
+        List<Integer> indexes = formatStrings.stream()
+                                             .filter(FormatSpecifier.class::isInstance)
+                                             .map(FormatString::getIndex)
+                                             .collect(toImmutableList());
+        if (!indexes.stream().sorted().collect(toImmutableList())
+                    .equals(IntStream.range(0, argumentTypes.size()).boxed().collect(toImmutableList()))) {
+            errorReporter.fatal("The format must read each of the " + argumentTypes.size() +
+                                " arguments of the target once.", method);
+        }
+
+        boolean readsNumber = false;
+        CodeBlock.Builder body = CodeBlock.builder();
+        for (int i = 0; i < formatStrings.size(); i++) {
+            FormatString formatString = formatStrings.get(i);
+            if (formatString instanceof FixedString) {
+                String text = ((FixedString) formatString).getText();
+                body.beginControlFlow("if (!$T.matches(input, pos, $S))", ParseUtils.class, text)
+                    .addStatement("return false")
+                    .endControlFlow()
+                    .addStatement("pos += $L", text.length());
+                continue;
+            }
+            FormatSpecifier specifier = (FormatSpecifier) formatString;
+            FormatString next = i + 1 < formatStrings.size() ? formatStrings.get(i + 1) : null;
+            readsNumber |= read(body, specifier, argumentTypes.get(specifier.getIndex()), next);
+            if (specifier.getConversionType() instanceof StringFormatConversionType &&
+                next instanceof FixedString) {
+                // The literal was found by indexOf(), and skipped.
+                i++;
+            }
+        }
+        body.beginControlFlow("if (pos != length)")
+            .addStatement("return false")
+            .endControlFlow()
+            .add(deliver.build())
+            .addStatement("return true");
+
+        CodeBlock.Builder code = CodeBlock.builder()
+                                          .addStatement("final int length = input.length()")
+                                          .addStatement("int pos = 0");
+        if (formatStrings.stream().anyMatch(ParserMethod::readsRegion)) {
+            code.addStatement("int end");
+        }
+        if (readsNumber) {
+            // A number overflows the type of its argument.
+            code.beginControlFlow("try")
+                .add(body.build())
+                .nextControlFlow("catch ($T e)", NumberFormatException.class)
+                .addStatement("return false")
+                .endControlFlow();
+        } else {
+            code.add(body.build());
+        }
+        return MethodSpec.methodBuilder(method.getSimpleName().toString())
+                         .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                         .addParameter(TypeName.get(inputType), "input", Modifier.FINAL)
+                         .addParameter(TypeName.get(targetType), "target", Modifier.FINAL)
+                         .addCode(code.build())
+                         .returns(boolean.class)
+                         .build();
+    }
+
+    /**
+     * Returns the types of the arguments which the target takes, and adds the code to give them to
+     * {@code deliver}.
+     */
+    private List<TypeMirror> resolveTarget(DeclaredType targetType, CodeBlock.Builder deliver) {
+        Types types = processingEnv.getTypeUtils();
+        TypeElement target = (TypeElement) targetType.asElement();
+        if (target.getKind() == ElementKind.INTERFACE) {
+            List<ExecutableElement> callbacks =
+                    ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(target))
+                                 .stream()
+                                 .filter(m -> m.getModifiers().contains(Modifier.ABSTRACT) &&
+                                              !isObjectMethod(m))
+                                 .collect(toImmutableList());
+            if (callbacks.size() != 1) {
+                errorReporter.fatal("The target interface must have a single abstract method : " + target,
+                                    method);
+            }
+            ExecutableElement callback = callbacks.get(0);
+            List<? extends TypeMirror> parameterTypes =
+                    ((ExecutableType) types.asMemberOf(targetType, callback)).getParameterTypes();
+            deliver.addStatement("target.$N($L)", callback.getSimpleName().toString(),
+                                 IntStream.range(0, parameterTypes.size())
+                                          .mapToObj(i -> "arg" + i)
+                                          .collect(Collectors.joining(", ")));
+            return ImmutableList.copyOf(parameterTypes);
+        }
+        List<VariableElement> fields = ElementFilter.fieldsIn(target.getEnclosedElements())
+                                                    .stream()
+                                                    .filter(f -> !f.getModifiers().contains(Modifier.STATIC))
+                                                    .collect(toImmutableList());
+        for (int i = 0; i < fields.size(); i++) {
+            VariableElement field = fields.get(i);
+            if (field.getModifiers().contains(Modifier.FINAL) ||
+                field.getModifiers().contains(Modifier.PRIVATE)) {
+                errorReporter.fatal("The fields of the target must not be private or final : " + field,
+                                    method);
+            }
+            deliver.addStatement("target.$N = arg$L", field.getSimpleName().toString(), i);
+        }
+        return fields.stream()
+                     .map(field -> types.asMemberOf(targetType, field))
+                     .collect(toImmutableList());
+    }
+
+    // %s and numbers find the end of their region before reading it.
+    private static boolean readsRegion(FormatString formatString) {
+        if (!(formatString instanceof FormatSpecifier)) {
+            return false;
+        }
+        FormatConversionType conversion = ((FormatSpecifier) formatString).getConversionType();
+        return !(conversion instanceof CharacterFormatConversionType) &&
+               !(conversion instanceof BooleanFormatConversionType);
+    }
+
+    private static boolean isObjectMethod(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        int parameters = method.getParameters().size();
+        return "equals".equals(name) && parameters == 1 ||
+               ("hashCode".equals(name) || "toString".equals(name)) && parameters == 0;
+    }
+
+    /**
+     * Adds the code to read the argument of {@code specifier} to {@code body}, and returns {@code true} if
+     * it is a number.
+     */
+    private boolean read(CodeBlock.Builder body, FormatSpecifier specifier, TypeMirror type,
+                         FormatString next) {
+        FormatConversionType conversion = specifier.getConversionType();
+        Set<FormatFlag> flags = specifier.getFlags();
+        String arg = "arg" + specifier.getIndex();
+        TypeName typeName = TypeName.get(type);
+        if (flags.stream().anyMatch(UNSUPPORTED_FLAGS::contains)) {
+            errorReporter.fatal("@Parse does not support the ',', '(' and '#' flags.", method);
+        }
+        if (conversion instanceof StringFormatConversionType) {
+            checkType(STRING_TYPE.equals(typeName) || CHAR_SEQUENCE_TYPE.equals(typeName), "%s", type);
+            if (next instanceof FixedString) {
+                body.addStatement("end = $T.indexOf(input, $S, pos)", ParseUtils.class,
+                                  ((FixedString) next).getText())
+                    .beginControlFlow("if (end < 0)")
+                    .addStatement("return false")
+                    .endControlFlow();
+            } else if (next == null) {
+                body.addStatement("end = length");
+            } else {
+                errorReporter.fatal("%s must be followed by a literal or the end of the format.", method);
+            }
+            if (STRING_TYPE.equals(typeName)) {
+                body.addStatement("final $T $L = input.subSequence(pos, end).toString()", typeName, arg);
+            } else {
+                body.addStatement("final $T $L = input.subSequence(pos, end)", typeName, arg);
+            }
+            if (next instanceof FixedString) {
+                body.addStatement("pos = end + $L", ((FixedString) next).getText().length());
+            } else {
+                body.addStatement("pos = end");
+            }
+            return false;
+        }
+
+        int width = specifier.getWidth();
+        boolean zeroPadded = width > 0 && flags.contains(FormatFlag.ZERO);
+        boolean leftJustified = width > 0 && flags.contains(FormatFlag.MINUS);
+        if (width > 0 && !zeroPadded && !leftJustified || flags.contains(FormatFlag.SPACE)) {
+            body.addStatement("pos = $T.skipSpaces(input, pos, length)", ParseUtils.class);
+        }
+        boolean number = false;
+        if (conversion instanceof CharacterFormatConversionType) {
+            checkType(type.getKind() == TypeKind.CHAR, "%c", type);
+            body.beginControlFlow("if (pos == length)")
+                .addStatement("return false")
+                .endControlFlow()
+                .addStatement("final char $L = input.charAt(pos++)", arg);
+        } else if (conversion instanceof BooleanFormatConversionType) {
+            checkType(type.getKind() == TypeKind.BOOLEAN, "%b", type);
+            boolean upperCase = flags.contains(FormatFlag.UPPER_CASE);
+            body.addStatement("final boolean $L", arg)
+                .beginControlFlow("if ($T.matches(input, pos, $S))", ParseUtils.class,
+                                  upperCase ? "TRUE" : "true")
+                .addStatement("$L = true", arg)
+                .addStatement("pos += 4")
+                .nextControlFlow("else if ($T.matches(input, pos, $S))", ParseUtils.class,
+                                 upperCase ? "FALSE" : "false")
+                .addStatement("$L = false", arg)
+                .addStatement("pos += 5")
+                .nextControlFlow("else")
+                .addStatement("return false")
+                .endControlFlow();
+        } else if (conversion.getClass() == IntegerFormatConversionType.class ||
+                   conversion instanceof HexIntegerFormatConversionType) {
+            boolean hex = conversion instanceof HexIntegerFormatConversionType;
+            TypeKind kind = type.getKind();
+            checkType(kind == TypeKind.BYTE || kind == TypeKind.SHORT || kind == TypeKind.INT ||
+                      kind == TypeKind.LONG, hex ? "%x" : "%d", type);
+            String scan = hex ? "hexEnd" : "decimalEnd";
+            if (zeroPadded && next instanceof FormatSpecifier) {
+                // The width is only a minimum, but it is the only boundary between adjacent specifiers.
+                body.addStatement("end = pos + $L", width)
+                    .beginControlFlow("if (end > length || $T.$L(input, pos, end) != end)", ParseUtils.class,
+                                      scan)
+                    .addStatement("return false")
+                    .endControlFlow();
+            } else if (zeroPadded) {
+                body.addStatement("end = $T.$L(input, pos, length)", ParseUtils.class, scan)
+                    .beginControlFlow("if (end < pos + $L)", width)
+                    .addStatement("return false")
+                    .endControlFlow();
+            } else {
+                body.addStatement("end = $T.$L(input, pos, length)", ParseUtils.class, scan)
+                    .beginControlFlow("if (end < 0)")
+                    .addStatement("return false")
+                    .endControlFlow();
+            }
+            String cast = kind == TypeKind.LONG ? "" : "(" + typeName + ") ";
+            if (hex) {
+                body.addStatement("final $T $L = $L$T.parseHex(input, pos, end, $L)", typeName, arg, cast,
+                                  ParseUtils.class, bits(kind));
+            } else {
+                TypeName boxed = typeName.box();
+                body.addStatement("final $T $L = $L$T.parseDecimal(input, pos, end, $T.MIN_VALUE, " +
+                                  "$T.MAX_VALUE)", typeName, arg, cast, ParseUtils.class, boxed, boxed);
+            }
+            body.addStatement("pos = end");
+            number = true;
+        } else {
+            errorReporter.fatal("@Parse supports only %d, %x, %s, %c and %b.", method);
+        }
+        if (leftJustified) {
+            body.addStatement("pos = $T.skipSpaces(input, pos, length)", ParseUtils.class);
+        }
+        return number;
+    }
+
+    private static int bits(TypeKind kind) {
+        switch (kind) {
+            case BYTE:
+                return Byte.SIZE;
+            case SHORT:
+                return Short.SIZE;
+            case INT:
+                return Integer.SIZE;
+            default:
+                return Long.SIZE;
+        }
+    }
+
+    private void checkType(boolean condition, String conversion, TypeMirror type) {
+        if (!condition) {
+            errorReporter.fatal("@Parse cannot read " + conversion + " into " + type + '.', method);
+        }
+    }
+}
@@ -16,11 +16,19 @@
 package com.github.imasahiro.stringformatter.processor;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import javax.annotation.Generated;
 import javax.annotation.processing.AbstractProcessor;
@@ -34,17 +42,32 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.ElementFilter;
 
 import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;
 import com.github.imasahiro.stringformatter.annotation.Format;
+import com.github.imasahiro.stringformatter.annotation.FormatBundle;
+import com.github.imasahiro.stringformatter.annotation.LogFormat;
+import com.github.imasahiro.stringformatter.annotation.MessagePattern;
+import com.github.imasahiro.stringformatter.annotation.Scaled;
+import com.github.imasahiro.stringformatter.annotation.Unsigned;
 import com.github.imasahiro.stringformatter.processor.util.AbortProcessingException;
 import com.github.imasahiro.stringformatter.processor.util.ErrorReporter;
 import com.github.imasahiro.stringformatter.processor.util.TypeUtils;
+import com.github.imasahiro.stringformatter.runtime.async.FormatEventRenderer;
+import com.github.imasahiro.stringformatter.runtime.async.FormatRingBuffer;
+import com.github.imasahiro.stringformatter.runtime.binary.BinaryLogDecoder;
 import com.google.auto.common.MoreElements;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
@@ -52,14 +75,15 @@ import com.squareup.javapoet.TypeSpec;
 @SupportedSourceVersion(SourceVersion.RELEASE_8)
 public class StringFormatterProcessor extends AbstractProcessor {
 
-    private static final TypeName JAVA_LANG_STRING = TypeName.get(String.class);
     private ErrorReporter errorReporter;
 
     private static List<ExecutableElement> filterFormatAnnotatedMethods(Set<ExecutableElement> methods) {
         ImmutableList.Builder<ExecutableElement> targetMethods = ImmutableList.builder();
         methods.stream()
-               .filter(method -> JAVA_LANG_STRING.equals(TypeName.get(method.getReturnType())) &&
-                                 method.getAnnotation(Format.class) != null)
+               .filter(method -> FormatterMethod.isSupportedReturnType(TypeName.get(method.getReturnType())) &&
+                                 (method.getAnnotation(Format.class) != null ||
+                                  method.getAnnotation(MessagePattern.class) != null ||
+                                  method.getAnnotation(LogFormat.class) != null))
                .forEach(targetMethods::add);
         return targetMethods.build();
     }
@@ -103,9 +127,196 @@ public class StringFormatterProcessor extends AbstractProcessor {
                                                      .build())
                         .addAnnotation(AnnotationSpec.builder(Named.class).build());
         formatterMethodList.forEach(formatter -> builder.addMethod(formatter.getMethod(processingEnv)));
+        if (TypeUtils.isInterface(superInterface)) {
+            MoreElements.getLocalAndInheritedMethods(superInterface, processingEnv.getTypeUtils(),
+                                                     processingEnv.getElementUtils())
+                        .stream()
+                        .filter(ParserMethod::isParserMethod)
+                        .forEach(method -> builder.addMethod(
+                                new ParserMethod(method, processingEnv, errorReporter).getMethod()));
+        }
+        AutoStringFormatter type = superInterface.getAnnotation(AutoStringFormatter.class);
+        if (type.capture()) {
+            addCaptureClasses(builder, ClassName.get(MoreElements.getPackage(superInterface)
+                                                                 .getQualifiedName().toString(), className),
+                              formatterMethodList);
+        }
+        if (type.batch()) {
+            formatterMethodList.forEach(formatter -> builder.addMethods(
+                    formatter.getBatchMethods(processingEnv, formatter.getName() + "All")));
+        }
+        if (type.async()) {
+            addAsyncMethods(builder, formatterMethodList);
+        }
+        if (type.binary()) {
+            addBinaryMethods(builder, superInterface, formatterMethodList);
+        }
+        if (type.gathering()) {
+            addGatheringMethods(builder, formatterMethodList);
+        }
+        if (type.byteBuffer()) {
+            addByteBufferMethods(builder, formatterMethodList);
+        }
+        if (type.writer()) {
+            formatterMethodList.forEach(
+                    formatter -> builder.addMethod(formatter.getWriterMethod(processingEnv)));
+        }
+        FormatBundle bundle = superInterface.getAnnotation(FormatBundle.class);
+        if (bundle != null && TypeUtils.isInterface(superInterface)) {
+            new BundleFormatter(superInterface, bundle, type.locale(), processingEnv, errorReporter)
+                    .addTo(builder, MoreElements.getLocalAndInheritedMethods(superInterface,
+                                                                             processingEnv.getTypeUtils(),
+                                                                             processingEnv.getElementUtils())
+                                                .stream()
+                                                .filter(BundleFormatter::isBundleMethod)
+                                                .collect(toImmutableList()));
+        }
         return builder.build();
     }
 
+    /**
+     * Returns the capitalized names of the methods to name the generated members for them. Overloaded
+     * methods get numbered names, e.g. {@code Format} and {@code Format2}.
+     */
+    private static List<String> uniqueSuffixes(List<FormatterMethod> formatterMethodList) {
+        Set<String> names = new HashSet<>();
+        ImmutableList.Builder<String> suffixes = ImmutableList.builder();
+        for (FormatterMethod formatter : formatterMethodList) {
+            String name = formatter.getName();
+            String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            String uniqueSuffix = suffix;
+            for (int i = 2; !names.add(uniqueSuffix); i++) {
+                uniqueSuffix = suffix + i;
+            }
+            suffixes.add(uniqueSuffix);
+        }
+        return suffixes.build();
+    }
+
+    private void addCaptureClasses(TypeSpec.Builder builder, ClassName formatterClass,
+                                   List<FormatterMethod> formatterMethodList) {
+        List<String> suffixes = uniqueSuffixes(formatterMethodList);
+        for (int i = 0; i < formatterMethodList.size(); i++) {
+            FormatterMethod formatter = formatterMethodList.get(i);
+            ClassName captureClass = formatterClass.nestedClass(suffixes.get(i) + "Capture");
+            builder.addType(formatter.getCaptureClass(processingEnv, captureClass.simpleName()))
+                   .addMethod(formatter.getCaptureFactory("capture" + suffixes.get(i), captureClass));
+        }
+    }
+
+    private void addAsyncMethods(TypeSpec.Builder builder, List<FormatterMethod> formatterMethodList) {
+        List<String> suffixes = uniqueSuffixes(formatterMethodList);
+        CodeBlock.Builder dispatch = CodeBlock.builder()
+                                              .beginControlFlow("switch (ring.getMethodId(sequence))");
+        int primitiveSlots = 0;
+        int referenceSlots = 0;
+        List<MethodSpec> renderers = new ArrayList<>();
+        for (int i = 0; i < formatterMethodList.size(); i++) {
+            FormatterMethod formatter = formatterMethodList.get(i);
+            // The index of a method is the id of its events.
+            builder.addMethod(formatter.getPublisher("publish" + suffixes.get(i), i));
+            renderers.add(formatter.getRenderer(processingEnv, "render" + suffixes.get(i)));
+            dispatch.add("case $L:\n", i)
+                    .indent()
+                    .addStatement("render$L(ring, sequence, sb)", suffixes.get(i))
+                    .addStatement("break")
+                    .unindent();
+            primitiveSlots = Math.max(primitiveSlots, formatter.getPrimitiveArgumentCount());
+            referenceSlots = Math.max(referenceSlots, formatter.getReferenceArgumentCount());
+        }
+        dispatch.add("default:\n")
+                .indent()
+                .addStatement("throw new $T($S + ring.getMethodId(sequence))", IllegalArgumentException.class,
+                              "Unknown method id: ")
+                .unindent()
+                .endControlFlow();
+        builder.addSuperinterface(FormatEventRenderer.class)
+               .addMethod(MethodSpec.methodBuilder("newRingBuffer")
+                                    .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                                    .addParameter(int.class, "capacity", Modifier.FINAL)
+                                    .addStatement("return new $T(capacity, $L, $L)", FormatRingBuffer.class,
+                                                  primitiveSlots, referenceSlots)
+                                    .returns(FormatRingBuffer.class)
+                                    .build())
+               .addMethod(MethodSpec.methodBuilder("render")
+                                    .addAnnotation(Override.class)
+                                    .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                                    .addParameter(FormatRingBuffer.class, "ring", Modifier.FINAL)
+                                    .addParameter(long.class, "sequence", Modifier.FINAL)
+                                    .addParameter(StringBuilder.class, "sb", Modifier.FINAL)
+                                    .addCode(dispatch.build())
+                                    .build())
+               .addMethods(renderers);
+    }
+
+    private void addBinaryMethods(TypeSpec.Builder builder, TypeElement superInterface,
+                                  List<FormatterMethod> formatterMethodList) {
+        List<String> suffixes = uniqueSuffixes(formatterMethodList);
+        CodeBlock.Builder dispatch = CodeBlock.builder()
+                                              .addStatement("final int id = buffer.getInt()")
+                                              .beginControlFlow("switch (id)");
+        Map<Integer, FormatterMethod> ids = new HashMap<>();
+        List<MethodSpec> decoders = new ArrayList<>();
+        for (int i = 0; i < formatterMethodList.size(); i++) {
+            FormatterMethod formatter = formatterMethodList.get(i);
+            int id = formatter.getBinaryId();
+            FormatterMethod other = ids.put(id, formatter);
+            if (other != null) {
+                errorReporter.fatal(other.getSignature() + " and " + formatter.getSignature() +
+                                    " have the same binary id " + id + '.', superInterface);
+            }
+            builder.addMethod(formatter.getEncoder("encode" + suffixes.get(i)));
+            decoders.add(formatter.getDecoder(processingEnv, "decode" + suffixes.get(i)));
+            dispatch.add("case $L: // $L\n", id, formatter.getSignature())
+                    .indent()
+                    .addStatement("decode$L(buffer, sb)", suffixes.get(i))
+                    .addStatement("break")
+                    .unindent();
+        }
+        dispatch.add("default:\n")
+                .indent()
+                .addStatement("throw new $T($S + id)", IllegalArgumentException.class, "Unknown method id: ")
+                .unindent()
+                .endControlFlow();
+        builder.addSuperinterface(BinaryLogDecoder.class)
+               .addMethod(MethodSpec.methodBuilder("decode")
+                                    .addAnnotation(Override.class)
+                                    .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                                    .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                                    .addParameter(StringBuilder.class, "sb", Modifier.FINAL)
+                                    .addCode(dispatch.build())
+                                    .build())
+               .addMethods(decoders);
+    }
+
+    /**
+     * Returns the name of a constant for the given suffix, e.g. {@code FORMAT_TO} for {@code FormatTo}.
+     */
+    private static String constantName(String suffix) {
+        return suffix.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+    }
+
+    private void addGatheringMethods(TypeSpec.Builder builder, List<FormatterMethod> formatterMethodList) {
+        List<String> suffixes = uniqueSuffixes(formatterMethodList);
+        for (int i = 0; i < formatterMethodList.size(); i++) {
+            FormatterMethod formatter = formatterMethodList.get(i);
+            String fieldPrefix = constantName(suffixes.get(i)) + "_LITERAL";
+            builder.addFields(formatter.getSharedLiterals(processingEnv, fieldPrefix))
+                   .addMethod(formatter.getGatheringMethod(processingEnv, "write" + suffixes.get(i),
+                                                           fieldPrefix));
+        }
+    }
+
+    private void addByteBufferMethods(TypeSpec.Builder builder, List<FormatterMethod> formatterMethodList) {
+        List<String> suffixes = uniqueSuffixes(formatterMethodList);
+        for (int i = 0; i < formatterMethodList.size(); i++) {
+            FormatterMethod formatter = formatterMethodList.get(i);
+            String fieldPrefix = constantName(suffixes.get(i)) + "_BYTES";
+            builder.addFields(formatter.getLiteralBytes(processingEnv, fieldPrefix))
+                   .addMethod(formatter.getByteBufferMethod(processingEnv, fieldPrefix));
+        }
+    }
+
     private List<FormatterMethod> buildFormatterMethods(TypeElement element) {
         AutoStringFormatter type = element.getAnnotation(AutoStringFormatter.class);
         if (!TypeUtils.isInterface(element)) {
@@ -118,22 +329,69 @@ public class StringFormatterProcessor extends AbstractProcessor {
                                                          processingEnv.getTypeUtils(),
                                                          processingEnv.getElementUtils()))
                 .stream()
-                .map(this::buildFormatterMethod)
+                .map(method -> buildFormatterMethod(method, type.locale()))
                 .collect(toImmutableList());
     }
 
-    private FormatterMethod buildFormatterMethod(ExecutableElement method) {
+    private FormatterMethod buildFormatterMethod(ExecutableElement method, String defaultLocale) {
         Format fmt = method.getAnnotation(Format.class);
-        return FormatterMethod.builder()
-                              .name(method.getSimpleName().toString())
-                              .formatter(fmt.value())
-                              .bufferCapacity(fmt.capacity())
-                              .argumentTypeNames(method.getParameters().stream()
-                                                       .map(Element::asType)
-                                                       .collect(toImmutableList()))
-                              .element(method)
-                              .errorReporter(errorReporter)
-                              .build();
+        MessagePattern pattern = method.getAnnotation(MessagePattern.class);
+        LogFormat logFormat = method.getAnnotation(LogFormat.class);
+        if ((fmt != null ? 1 : 0) + (pattern != null ? 1 : 0) + (logFormat != null ? 1 : 0) > 1) {
+            errorReporter.fatal("Only one of @" + Format.class.getSimpleName() + ", @" +
+                                MessagePattern.class.getSimpleName() + " and @" +
+                                LogFormat.class.getSimpleName() + " can be used.", method);
+        }
+        List<? extends VariableElement> parameters = method.getParameters();
+        ImmutableList<TypeMirror> argumentTypes = parameters.stream()
+                                                   .map(Element::asType)
+                                                   .collect(toImmutableList());
+        FormatterMethod.Builder builder = FormatterMethod.builder();
+        builder.locale(defaultLocale);
+        if (fmt != null) {
+            builder.formatter(fmt.value())
+                   .bufferCapacity(fmt.capacity());
+            if (!fmt.locale().isEmpty()) {
+                if (FormatterMethod.hasLocaleParameter(argumentTypes)) {
+                    errorReporter.fatal("locale cannot be specified for a method which takes a Locale.",
+                                        method);
+                }
+                builder.locale(fmt.locale());
+            }
+        } else if (pattern != null) {
+            builder.messagePattern(pattern.value())
+                   .bufferCapacity(pattern.capacity());
+        } else {
+            builder.logFormat(logFormat.value())
+                   .bufferCapacity(logFormat.capacity());
+        }
+        return builder.name(method.getSimpleName().toString())
+                      .returnType(TypeName.get(method.getReturnType()))
+                      .argumentTypeNames(argumentTypes)
+                      .unsignedArguments(findUnsignedArguments(parameters))
+                      .scaledArguments(findScaledArguments(parameters))
+                      .element(method)
+                      .errorReporter(errorReporter)
+                      .build();
+    }
+
+    static ImmutableSet<Integer> findUnsignedArguments(List<? extends VariableElement> parameters) {
+        return IntStream.range(0, parameters.size())
+                        .filter(i -> parameters.get(i).getAnnotation(Unsigned.class) != null)
+                        .boxed()
+                        .collect(toImmutableSet());
+    }
+
+    static ImmutableMap<Integer, Integer> findScaledArguments(
+            List<? extends VariableElement> parameters) {
+        ImmutableMap.Builder<Integer, Integer> builder = ImmutableMap.builder();
+        for (int i = 0; i < parameters.size(); i++) {
+            Scaled scaled = parameters.get(i).getAnnotation(Scaled.class);
+            if (scaled != null) {
+                builder.put(i, scaled.value());
+            }
+        }
+        return builder.build();
     }
 
     private static class SourceData {
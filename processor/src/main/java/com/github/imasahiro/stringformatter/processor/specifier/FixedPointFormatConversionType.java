@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.imasahiro.stringformatter.processor.specifier;
+
+import java.util.Set;
+
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.github.imasahiro.stringformatter.processor.FormatFlag;
+import com.github.imasahiro.stringformatter.runtime.integers.FixedPointFormatter;
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Fixed-point decimal conversion of an {@code int} or {@code long} argument annotated with
+ * {@link com.github.imasahiro.stringformatter.annotation.Scaled}, used for {@code %f} and {@code %s}.
+ */
+public class FixedPointFormatConversionType extends FormatConversionType {
+    private static final String FORMATTER_NAME = FixedPointFormatter.class.getCanonicalName();
+
+    private static final Mustache TEMPLATE =
+            new DefaultMustacheFactory().compile("template/fixed_point.mustache");
+
+    private final int scale;
+    private final int defaultPrecision;
+
+    public FixedPointFormatConversionType(int scale, int defaultPrecision) {
+        this.scale = scale;
+        this.defaultPrecision = defaultPrecision;
+    }
+
+    private static String convertFlags(Set<FormatFlag> flags) {
+        // TODO Support left-justified.
+        if (flags.contains(FormatFlag.ZERO)) {
+            return String.valueOf(FixedPointFormatter.PADDED_WITH_ZEROS);
+        }
+        return "0";
+    }
+
+    @Override
+    public Set<TypeMirror> getType(Types typeUtil, Elements elementUtil) {
+        return ImmutableSet.of(typeUtil.getPrimitiveType(TypeKind.INT),
+                               typeUtil.getPrimitiveType(TypeKind.LONG));
+    }
+
+    @Override
+    public boolean isLocaleSensitive() {
+        return true;
+    }
+
+    @Override
+    public String emit(String arg, int width, int precision, Set<FormatFlag> flags, TypeMirror argumentType) {
+        return getCode(TEMPLATE, ImmutableMap.<String, String>builder()
+                                             .put("FORMATTER_NAME", FORMATTER_NAME)
+                                             .put("ARG", arg)
+                                             .put("scale", String.valueOf(scale))
+                                             .put("precision", String.valueOf(
+                                                     precision >= 0 ? precision : defaultPrecision))
+                                             .put("flags", convertFlags(flags))
+                                             .put("width", String.valueOf(Math.max(width, 0)))
+                                             .build());
+    }
+}
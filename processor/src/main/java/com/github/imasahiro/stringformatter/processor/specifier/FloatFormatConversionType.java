@@ -16,6 +16,7 @@
 
 package com.github.imasahiro.stringformatter.processor.specifier;
 
+import java.math.BigDecimal;
 import java.util.Set;
 
 import javax.lang.model.type.TypeKind;
@@ -23,12 +24,75 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
+import com.github.imasahiro.stringformatter.processor.FormatFlag;
+import com.github.imasahiro.stringformatter.runtime.integers.BigDecimalFormatter;
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.squareup.javapoet.TypeName;
 
 public class FloatFormatConversionType extends FormatConversionType {
+    // The default precision of %f in java.util.Formatter.
+    public static final int DEFAULT_PRECISION = 6;
+    private static final TypeName BIG_DECIMAL_TYPE = TypeName.get(BigDecimal.class);
+
+    private static final Mustache BIG_DECIMAL_TEMPLATE =
+            new DefaultMustacheFactory().compile("template/big_decimal.mustache");
+
+    private final char conversion;
+
+    public FloatFormatConversionType(char conversion) {
+        this.conversion = conversion;
+    }
+
+    /**
+     * Returns the conversion character in lower case, one of {@code 'e'}, {@code 'f'}, {@code 'g'} and
+     * {@code 'a'}.
+     */
+    public char getConversion() {
+        return conversion;
+    }
+
+    private static String convertFlags(Set<FormatFlag> flags) {
+        // TODO Support left-justified.
+        int formatterFlags = 0;
+        if (flags.contains(FormatFlag.ZERO)) {
+            formatterFlags |= BigDecimalFormatter.PADDED_WITH_ZEROS;
+        }
+        if (flags.contains(FormatFlag.COMMA)) {
+            formatterFlags |= BigDecimalFormatter.GROUPING;
+        }
+        return String.valueOf(formatterFlags);
+    }
+
     @Override
     public Set<TypeMirror> getType(Types typeUtil, Elements elementUtil) {
+        if (conversion == 'f') {
+            return ImmutableSet.of(typeUtil.getPrimitiveType(TypeKind.FLOAT),
+                                   typeUtil.getPrimitiveType(TypeKind.DOUBLE),
+                                   elementUtil.getTypeElement(BigDecimal.class.getCanonicalName()).asType());
+        }
         return ImmutableSet.of(typeUtil.getPrimitiveType(TypeKind.FLOAT),
                                typeUtil.getPrimitiveType(TypeKind.DOUBLE));
     }
+
+    @Override
+    public boolean isLocaleSensitive() {
+        // java.util.Formatter does not localize hexadecimal floating-point numbers.
+        return conversion != 'a';
+    }
+
+    @Override
+    public String emit(String arg, int width, int precision, Set<FormatFlag> flags, TypeMirror argumentType) {
+        if (BIG_DECIMAL_TYPE.equals(TypeName.get(argumentType))) {
+            return getCode(BIG_DECIMAL_TEMPLATE, ImmutableMap.of(
+                    "FORMATTER_NAME", BigDecimalFormatter.class.getCanonicalName(),
+                    "ARG", arg,
+                    "precision", String.valueOf(precision >= 0 ? precision : DEFAULT_PRECISION),
+                    "flags", convertFlags(flags),
+                    "width", String.valueOf(Math.max(width, 0))));
+        }
+        return super.emit(arg, width, precision, flags, argumentType);
+    }
 }
@@ -35,6 +35,13 @@ public abstract class FormatConversionType {
 
     public abstract Set<TypeMirror> getType(Types typeUtil, Elements elementUtil);
 
+    /**
+     * Returns {@code true} if the output has digits or separators which depend on the locale.
+     */
+    public boolean isLocaleSensitive() {
+        return false;
+    }
+
     public String emit(String arg, int width, int precision, Set<FormatFlag> flags, TypeMirror argumentType) {
         return "sb.append(" + arg + ");\n";
     }
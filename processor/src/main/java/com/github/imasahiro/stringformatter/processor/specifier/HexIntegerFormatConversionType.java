@@ -16,34 +16,81 @@
 
 package com.github.imasahiro.stringformatter.processor.specifier;
 
+import java.nio.ByteBuffer;
 import java.util.Set;
 
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
 
 import com.github.imasahiro.stringformatter.processor.FormatFlag;
 import com.github.imasahiro.stringformatter.runtime.integers.HexIntegerFormatter;
-import com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.TypeName;
 
+/**
+ * Hex integer conversion ({@code %x}). Also accepts {@code byte[]} and {@link ByteBuffer} arguments,
+ * which are formatted as two hex digits per byte; the {@code ','} flag separates bytes with {@code ':'}.
+ */
 public class HexIntegerFormatConversionType extends IntegerFormatConversionType {
     private static final String FORMATTER_NAME = HexIntegerFormatter.class.getCanonicalName();
+    private static final TypeName BYTE_ARRAY_TYPE = ArrayTypeName.of(TypeName.BYTE);
+    private static final TypeName BYTE_BUFFER_TYPE = TypeName.get(ByteBuffer.class);
+    private static final char BYTE_SEPARATOR = ':';
 
     private static final Mustache TEMPLATE =
             new DefaultMustacheFactory().compile("template/int_with_width.mustache");
+    private static final Mustache BYTES_TEMPLATE =
+            new DefaultMustacheFactory().compile("template/bytes.mustache");
+    private static final Mustache BYTES_TEMPLATE_WITH_SEPARATOR =
+            new DefaultMustacheFactory().compile("template/bytes_with_separator.mustache");
 
     private static String convertFlags(Set<FormatFlag> flags) {
         // TODO Support left-justified.
+        int formatterFlags = 0;
         if (flags.contains(FormatFlag.ZERO)) {
-            return String.valueOf(
-                    IntegerFormatter.PADDED_WITH_ZEROS);
+            formatterFlags |= HexIntegerFormatter.PADDED_WITH_ZEROS;
+        }
+        if (flags.contains(FormatFlag.UPPER_CASE)) {
+            formatterFlags |= HexIntegerFormatter.UPPER_CASE;
         }
-        return "0";
+        return String.valueOf(formatterFlags);
+    }
+
+    @Override
+    public Set<TypeMirror> getType(Types typeUtil, Elements elementUtil) {
+        return ImmutableSet.<TypeMirror>builder()
+                           .addAll(getPrimitiveTypes(typeUtil))
+                           .add(typeUtil.getArrayType(typeUtil.getPrimitiveType(TypeKind.BYTE)))
+                           .add(elementUtil.getTypeElement(ByteBuffer.class.getCanonicalName()).asType())
+                           .build();
+    }
+
+    @Override
+    public boolean isLocaleSensitive() {
+        return false;
     }
 
     @Override
     public String emit(String arg, int width, int precision, Set<FormatFlag> flags, TypeMirror argumentType) {
+        TypeName typeName = TypeName.get(argumentType);
+        if (BYTE_ARRAY_TYPE.equals(typeName) || BYTE_BUFFER_TYPE.equals(typeName)) {
+            if (flags.contains(FormatFlag.COMMA)) {
+                return getCode(BYTES_TEMPLATE_WITH_SEPARATOR,
+                               ImmutableMap.of("FORMATTER_NAME", FORMATTER_NAME,
+                                               "ARG", arg,
+                                               "flags", convertFlags(flags),
+                                               "separator", String.valueOf(BYTE_SEPARATOR)));
+            }
+            return getCode(BYTES_TEMPLATE, ImmutableMap.of("FORMATTER_NAME", FORMATTER_NAME,
+                                                           "ARG", arg,
+                                                           "flags", convertFlags(flags)));
+        }
         return getCode(TEMPLATE, ImmutableMap.of("FORMATTER_NAME", FORMATTER_NAME,
                                                  "ARG", arg,
                                                  "flags", convertFlags(flags),
@@ -16,6 +16,7 @@
 
 package com.github.imasahiro.stringformatter.processor.specifier;
 
+import java.math.BigInteger;
 import java.util.Set;
 
 import javax.lang.model.type.TypeKind;
@@ -24,14 +25,18 @@ import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
 import com.github.imasahiro.stringformatter.processor.FormatFlag;
+import com.github.imasahiro.stringformatter.runtime.integers.BigIntegerFormatter;
 import com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.squareup.javapoet.TypeName;
 
 public class IntegerFormatConversionType extends FormatConversionType {
     private static final String FORMATTER_NAME = IntegerFormatter.class.getCanonicalName();
+    private static final String BIG_INTEGER_FORMATTER_NAME = BigIntegerFormatter.class.getCanonicalName();
+    private static final TypeName BIG_INTEGER_TYPE = TypeName.get(BigInteger.class);
 
     private static final Mustache TEMPLATE =
             new DefaultMustacheFactory().compile("template/int.mustache");
@@ -40,26 +45,54 @@ public class IntegerFormatConversionType extends FormatConversionType {
 
     private static String convertFlags(Set<FormatFlag> flags) {
         // TODO Support left-justified.
+        int formatterFlags = 0;
         if (flags.contains(FormatFlag.ZERO)) {
-            return String.valueOf(IntegerFormatter.PADDED_WITH_ZEROS);
+            formatterFlags |= IntegerFormatter.PADDED_WITH_ZEROS;
         }
-        return "0";
+        if (flags.contains(FormatFlag.UNSIGNED)) {
+            formatterFlags |= IntegerFormatter.UNSIGNED;
+        }
+        if (flags.contains(FormatFlag.COMMA)) {
+            formatterFlags |= IntegerFormatter.GROUPING;
+        }
+        return String.valueOf(formatterFlags);
     }
 
-    @Override
-    public Set<TypeMirror> getType(Types typeUtil, Elements elementUtil) {
+    /**
+     * Returns the primitive integer types.
+     */
+    static Set<TypeMirror> getPrimitiveTypes(Types typeUtil) {
         return ImmutableSet.of(typeUtil.getPrimitiveType(TypeKind.SHORT),
                                typeUtil.getPrimitiveType(TypeKind.INT),
                                typeUtil.getPrimitiveType(TypeKind.LONG));
     }
 
+    @Override
+    public Set<TypeMirror> getType(Types typeUtil, Elements elementUtil) {
+        return ImmutableSet.<TypeMirror>builder()
+                           .addAll(getPrimitiveTypes(typeUtil))
+                           .add(elementUtil.getTypeElement(BigInteger.class.getCanonicalName()).asType())
+                           .build();
+    }
+
+    @Override
+    public boolean isLocaleSensitive() {
+        return true;
+    }
+
     @Override
     public String emit(String arg, int width, int precision, Set<FormatFlag> flags, TypeMirror argumentType) {
-        if (width >= 0) {
+        String formatterFlags = convertFlags(flags);
+        if (BIG_INTEGER_TYPE.equals(TypeName.get(argumentType))) {
+            return getCode(TEMPLATE_WIDTH, ImmutableMap.of("FORMATTER_NAME", BIG_INTEGER_FORMATTER_NAME,
+                                                           "ARG", arg,
+                                                           "flags", formatterFlags,
+                                                           "width", String.valueOf(Math.max(width, 0))));
+        } else if (width >= 0 || !"0".equals(formatterFlags)) {
             return getCode(TEMPLATE_WIDTH, ImmutableMap.of("FORMATTER_NAME", FORMATTER_NAME,
                                                            "ARG", arg,
-                                                           "flags", convertFlags(flags),
-                                                           "width", String.valueOf(width)));
+                                                           "flags", formatterFlags,
+                                                           "width", String.valueOf(Math.max(width, 0))));
         } else {
             return getCode(TEMPLATE, ImmutableMap.of("ARG", arg));
         }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.imasahiro.stringformatter.processor.specifier;
+
+import java.util.Set;
+
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.github.imasahiro.stringformatter.processor.FormatFlag;
+import com.github.imasahiro.stringformatter.runtime.integers.RadixIntegerFormatter;
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Radix integer conversion ({@code %r}). The precision specifies the radix, e.g. {@code %.62r}, and
+ * defaults to {@value #DEFAULT_RADIX}.
+ */
+public class RadixIntegerFormatConversionType extends IntegerFormatConversionType {
+    public static final int DEFAULT_RADIX = 36;
+
+    private static final String FORMATTER_NAME = RadixIntegerFormatter.class.getCanonicalName();
+
+    private static final Mustache TEMPLATE =
+            new DefaultMustacheFactory().compile("template/radix_int.mustache");
+
+    private static String convertFlags(Set<FormatFlag> flags) {
+        // TODO Support left-justified.
+        int formatterFlags = 0;
+        if (flags.contains(FormatFlag.ZERO)) {
+            formatterFlags |= RadixIntegerFormatter.PADDED_WITH_ZEROS;
+        }
+        if (flags.contains(FormatFlag.UPPER_CASE)) {
+            formatterFlags |= RadixIntegerFormatter.UPPER_CASE;
+        }
+        return String.valueOf(formatterFlags);
+    }
+
+    @Override
+    public Set<TypeMirror> getType(Types typeUtil, Elements elementUtil) {
+        return getPrimitiveTypes(typeUtil);
+    }
+
+    @Override
+    public boolean isLocaleSensitive() {
+        return false;
+    }
+
+    @Override
+    public String emit(String arg, int width, int precision, Set<FormatFlag> flags, TypeMirror argumentType) {
+        int radix = precision >= 0 ? precision : DEFAULT_RADIX;
+        return getCode(TEMPLATE, ImmutableMap.of("FORMATTER_NAME", FORMATTER_NAME,
+                                                 "ARG", arg,
+                                                 "radix", String.valueOf(radix),
+                                                 "flags", convertFlags(flags),
+                                                 "width", String.valueOf(width)));
+    }
+}
@@ -21,12 +21,20 @@ import java.util.FormattableFlags;
 import java.util.Formatter;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
 import com.github.imasahiro.stringformatter.processor.FormatFlag;
+import com.github.imasahiro.stringformatter.runtime.integers.HexIntegerFormatter;
+import com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter;
+import com.github.imasahiro.stringformatter.runtime.integers.UuidFormatter;
+import com.github.imasahiro.stringformatter.runtime.objects.EnumFormatter;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.google.common.base.Joiner;
@@ -38,11 +46,22 @@ import com.squareup.javapoet.TypeName;
 public class StringFormatConversionType extends FormatConversionType {
     private static final TypeName FORMATTABLE_TYPE = TypeName.get(Formattable.class);
     private static final TypeName FORMATTER_TYPE = TypeName.get(Formatter.class);
+    private static final TypeName UUID_TYPE = TypeName.get(UUID.class);
+    private static final Set<TypeName> INTEGER_TYPES = ImmutableSet.of(TypeName.BYTE, TypeName.SHORT,
+                                                                       TypeName.INT, TypeName.LONG);
 
     private static final Mustache STRING_TEMPLATE =
             new DefaultMustacheFactory().compile("template/string.mustache");
     private static final Mustache FORMATTABLE_TEMPLATE =
             new DefaultMustacheFactory().compile("template/formattable.mustache");
+    private static final Mustache UUID_TEMPLATE =
+            new DefaultMustacheFactory().compile("template/uuid.mustache");
+    private static final Mustache ENUM_TEMPLATE =
+            new DefaultMustacheFactory().compile("template/enum.mustache");
+    private static final Mustache BOXED_TEMPLATE =
+            new DefaultMustacheFactory().compile("template/boxed.mustache");
+    private static final Mustache BOXED_TEMPLATE_WITH_WIDTH =
+            new DefaultMustacheFactory().compile("template/boxed_with_width.mustache");
 
     private static String convertToFormattableFlags(Set<FormatFlag> flags) {
         ImmutableList.Builder<Integer> flagBuilder = ImmutableList.builder();
@@ -62,6 +81,46 @@ public class StringFormatConversionType extends FormatConversionType {
         return Joiner.on("|").join(formatterFlags);
     }
 
+    private static boolean isEnum(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED &&
+               ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM;
+    }
+
+    private static String emitBoxed(String arg, int width, Set<FormatFlag> flags, TypeName unboxed) {
+        String unbox = unboxed + "Value";
+        // TODO Support left-justified.
+        if (width >= 0 && !flags.contains(FormatFlag.MINUS) && INTEGER_TYPES.contains(unboxed)) {
+            return getCode(BOXED_TEMPLATE_WITH_WIDTH,
+                           ImmutableMap.of("FORMATTER_NAME", IntegerFormatter.class.getCanonicalName(),
+                                           "ARG", arg,
+                                           "UNBOX", unbox,
+                                           "flags", "0",
+                                           "width", String.valueOf(width)));
+        }
+        return getCode(BOXED_TEMPLATE, ImmutableMap.of("ARG", arg, "UNBOX", unbox));
+    }
+
+    /**
+     * Returns {@code true} if the code emitted for {@code argumentType} applies the width, the precision and
+     * the {@code '-'} flag of the specifier. The code for enums and {@link UUID}s supports none of them, and
+     * the code for boxed primitives supports only a width of right-justified integers.
+     */
+    public static boolean supportsLayout(TypeMirror argumentType, int width, int precision,
+                                         Set<FormatFlag> flags) {
+        if (width < 0 && precision < 0 && !flags.contains(FormatFlag.MINUS)) {
+            return true;
+        }
+        TypeName typeName = TypeName.get(argumentType);
+        if (UUID_TYPE.equals(typeName) || isEnum(argumentType)) {
+            return false;
+        }
+        if (typeName.isBoxedPrimitive()) {
+            return precision < 0 && !flags.contains(FormatFlag.MINUS) &&
+                   INTEGER_TYPES.contains(typeName.unbox());
+        }
+        return true;
+    }
+
     @Override
     public Set<TypeMirror> getType(Types typeUtil, Elements elementUtil) {
         return ImmutableSet.of(elementUtil.getTypeElement(Formattable.class.getCanonicalName()).asType(),
@@ -76,8 +135,23 @@ public class StringFormatConversionType extends FormatConversionType {
                                                "width", String.valueOf(width),
                                                "%precision%", String.valueOf(precision));
 
-        if (FORMATTABLE_TYPE.equals(TypeName.get(argumentType))) {
+        TypeName typeName = TypeName.get(argumentType);
+        if (FORMATTABLE_TYPE.equals(typeName)) {
             return getCode(FORMATTABLE_TEMPLATE, scope);
+        } else if (UUID_TYPE.equals(typeName)) {
+            return getCode(UUID_TEMPLATE, ImmutableMap.of(
+                    "FORMATTER_NAME", UuidFormatter.class.getCanonicalName(),
+                    "ARG", arg,
+                    "flags", String.valueOf(flags.contains(FormatFlag.UPPER_CASE) ?
+                                            HexIntegerFormatter.UPPER_CASE : 0)));
+        } else if (isEnum(argumentType)) {
+            return getCode(ENUM_TEMPLATE, ImmutableMap.of(
+                    "FORMATTER_NAME", EnumFormatter.class.getCanonicalName(),
+                    "ARG", arg));
+        } else if (typeName.isBoxedPrimitive()) {
+            return emitBoxed(arg, width, flags, typeName.unbox());
+        } else if (flags.contains(FormatFlag.UNSIGNED) && !flags.contains(FormatFlag.MINUS)) {
+            return new IntegerFormatConversionType().emit(arg, width, precision, flags, argumentType);
         } else {
             return getCode(STRING_TEMPLATE, scope);
         }
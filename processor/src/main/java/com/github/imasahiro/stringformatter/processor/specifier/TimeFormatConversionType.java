@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.imasahiro.stringformatter.processor.specifier;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.github.imasahiro.stringformatter.processor.FormatFlag;
+import com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter;
+import com.github.imasahiro.stringformatter.runtime.time.TimeFields;
+import com.github.imasahiro.stringformatter.runtime.time.TimeFormatter;
+import com.google.common.collect.ImmutableSet;
+import com.squareup.javapoet.TypeName;
+
+/**
+ * Date/time conversion ({@code %t} and {@code %T}) for {@code long} epoch milliseconds, {@link Instant},
+ * {@link ZonedDateTime} and {@link LocalDateTime} arguments. Epoch milliseconds and {@link Instant} are
+ * formatted in the default time zone.
+ */
+public class TimeFormatConversionType extends FormatConversionType {
+    private static final String SUPPORTED_CONVERSIONS = "HIklMSLNpzZsQBbhAaCYyjmdeRTrDFc";
+    // Conversions which need an instant on the time-line, so are not applicable to LocalDateTime.
+    private static final String ZONED_CONVERSIONS = "zZsQc";
+
+    private static final String TIME_FORMATTER = TimeFormatter.class.getCanonicalName();
+    private static final String TIME_FIELDS = TimeFields.class.getCanonicalName();
+    private static final String INTEGER_FORMATTER = IntegerFormatter.class.getCanonicalName();
+    private static final TypeName INSTANT_TYPE = TypeName.get(Instant.class);
+    private static final TypeName ZONED_DATE_TIME_TYPE = TypeName.get(ZonedDateTime.class);
+    private static final TypeName LOCAL_DATE_TIME_TYPE = TypeName.get(LocalDateTime.class);
+
+    private final char conversion;
+
+    public TimeFormatConversionType(char conversion) {
+        this.conversion = conversion;
+    }
+
+    public static boolean isSupported(char conversion) {
+        return SUPPORTED_CONVERSIONS.indexOf(conversion) >= 0;
+    }
+
+    @Override
+    public Set<TypeMirror> getType(Types typeUtil, Elements elementUtil) {
+        ImmutableSet.Builder<TypeMirror> builder = ImmutableSet.builder();
+        builder.add(typeUtil.getPrimitiveType(TypeKind.LONG),
+                    elementUtil.getTypeElement(Long.class.getCanonicalName()).asType(),
+                    elementUtil.getTypeElement(Instant.class.getCanonicalName()).asType(),
+                    elementUtil.getTypeElement(ZonedDateTime.class.getCanonicalName()).asType());
+        if (ZONED_CONVERSIONS.indexOf(conversion) < 0) {
+            builder.add(elementUtil.getTypeElement(LocalDateTime.class.getCanonicalName()).asType());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String emit(String arg, int width, int precision, Set<FormatFlag> flags, TypeMirror argumentType) {
+        TypeName typeName = TypeName.get(argumentType);
+        String fields = arg + "_time";
+        String fieldsType;
+        String fieldsInitializer;
+        String nanos;
+        String millis;
+        String epochSeconds;
+        String epochMillis;
+        if (INSTANT_TYPE.equals(typeName)) {
+            fieldsType = TIME_FIELDS;
+            fieldsInitializer = TIME_FORMATTER + ".fields(" + arg + ')';
+            nanos = arg + ".getNano()";
+            millis = nanos + " / 1000000";
+            epochSeconds = fields + ".toEpochSecond()";
+            epochMillis = arg + ".toEpochMilli()";
+        } else if (ZONED_DATE_TIME_TYPE.equals(typeName) || LOCAL_DATE_TIME_TYPE.equals(typeName)) {
+            fieldsType = typeName.toString();
+            fieldsInitializer = arg;
+            nanos = fields + ".getNano()";
+            millis = nanos + " / 1000000";
+            epochSeconds = fields + ".toEpochSecond()";
+            epochMillis = epochSeconds + " * 1000 + " + millis;
+        } else {
+            // Epoch milliseconds.
+            fieldsType = TIME_FIELDS;
+            fieldsInitializer = TIME_FORMATTER + ".fields(" + arg + ')';
+            millis = "(int) Math.floorMod(" + arg + ", 1000L)";
+            nanos = millis + " * 1000000";
+            // Rounded toward zero as java.util.Formatter does.
+            epochSeconds = arg + " / 1000L";
+            epochMillis = arg;
+        }
+
+        StringBuilder code = new StringBuilder();
+        if (typeName.isPrimitive()) {
+            code.append("{\n");
+        } else {
+            code.append("if (").append(arg).append(" == null) {\n")
+                .append("    sb.append(\"null\");\n")
+                .append("} else {\n");
+        }
+        code.append("    final ").append(fieldsType).append(' ').append(fields).append(" = ")
+            .append(fieldsInitializer).append(";\n");
+        int formatterFlags = flags.contains(FormatFlag.UPPER_CASE) ? TimeFormatter.UPPER_CASE : 0;
+        emitConversion(code, conversion, new Expressions(fields, millis, nanos, epochSeconds, epochMillis),
+                       formatterFlags);
+        return code.append("}\n").toString();
+    }
+
+    private static void emitConversion(StringBuilder code, char conversion, Expressions e, int flags) {
+        final String t = e.fields;
+        switch (conversion) {
+            case 'H':
+                twoDigits(code, t + ".getHour()");
+                break;
+            case 'I':
+                twoDigits(code, '(' + t + ".getHour() + 11) % 12 + 1");
+                break;
+            case 'k':
+                append(code, t + ".getHour()");
+                break;
+            case 'l':
+                append(code, '(' + t + ".getHour() + 11) % 12 + 1");
+                break;
+            case 'M':
+                twoDigits(code, t + ".getMinute()");
+                break;
+            case 'S':
+                twoDigits(code, t + ".getSecond()");
+                break;
+            case 'L':
+                call(code, "formatThreeDigits", e.millis);
+                break;
+            case 'N':
+                call(code, "formatNanos", e.nanos);
+                break;
+            case 'p':
+                if ((flags & TimeFormatter.UPPER_CASE) == TimeFormatter.UPPER_CASE) {
+                    append(code, t + ".getHour() < 12 ? \"AM\" : \"PM\"");
+                } else {
+                    append(code, t + ".getHour() < 12 ? \"am\" : \"pm\"");
+                }
+                break;
+            case 'z':
+                call(code, "formatZoneOffset", t + ".getOffset()");
+                break;
+            case 'Z':
+                call(code, "formatZoneName", t);
+                break;
+            case 's':
+                append(code, e.epochSeconds);
+                break;
+            case 'Q':
+                append(code, e.epochMillis);
+                break;
+            case 'B':
+                call(code, "formatMonthName", t + ".getMonthValue(), " + flags);
+                break;
+            case 'b':
+            case 'h':
+                call(code, "formatShortMonthName", t + ".getMonthValue(), " + flags);
+                break;
+            case 'A':
+                call(code, "formatDayOfWeekName", t + ".getDayOfWeek().getValue(), " + flags);
+                break;
+            case 'a':
+                call(code, "formatShortDayOfWeekName", t + ".getDayOfWeek().getValue(), " + flags);
+                break;
+            case 'C':
+                code.append("    ").append(INTEGER_FORMATTER).append(".formatTo(sb, ").append(t)
+                    .append(".getYear() / 100, ").append(IntegerFormatter.PADDED_WITH_ZEROS).append(", 2);\n");
+                break;
+            case 'Y':
+                code.append("    ").append(INTEGER_FORMATTER).append(".formatTo(sb, ").append(t)
+                    .append(".getYear(), ").append(IntegerFormatter.PADDED_WITH_ZEROS).append(", 4);\n");
+                break;
+            case 'y':
+                twoDigits(code, "Math.floorMod(" + t + ".getYear(), 100)");
+                break;
+            case 'j':
+                call(code, "formatThreeDigits", t + ".getDayOfYear()");
+                break;
+            case 'm':
+                twoDigits(code, t + ".getMonthValue()");
+                break;
+            case 'd':
+                twoDigits(code, t + ".getDayOfMonth()");
+                break;
+            case 'e':
+                append(code, t + ".getDayOfMonth()");
+                break;
+            case 'R':
+                // %tH:%tM
+                emitComposite(code, "H:M", e, flags);
+                break;
+            case 'T':
+                // %tH:%tM:%tS
+                emitComposite(code, "H:M:S", e, flags);
+                break;
+            case 'r':
+                // %tI:%tM:%tS %Tp
+                emitComposite(code, "I:M:S ", e, flags);
+                emitConversion(code, 'p', e, TimeFormatter.UPPER_CASE);
+                break;
+            case 'D':
+                // %tm/%td/%ty
+                emitComposite(code, "m/d/y", e, flags);
+                break;
+            case 'F':
+                // %tY-%tm-%td
+                emitComposite(code, "Y-m-d", e, flags);
+                break;
+            case 'c':
+                // %ta %tb %td %tT %tZ %tY
+                emitComposite(code, "a b d T Z Y", e, flags);
+                break;
+            default:
+                throw new IllegalArgumentException("Unrecognized time conversion : " + conversion);
+        }
+    }
+
+    /**
+     * Emits a sequence of conversions where letters are conversions and others are literal characters.
+     */
+    private static void emitComposite(StringBuilder code, String composite, Expressions e, int flags) {
+        for (int i = 0; i < composite.length(); i++) {
+            char c = composite.charAt(i);
+            if (Character.isLetter(c)) {
+                emitConversion(code, c, e, flags);
+            } else {
+                code.append("    sb.append('").append(c).append("');\n");
+            }
+        }
+    }
+
+    private static void twoDigits(StringBuilder code, String value) {
+        call(code, "formatTwoDigits", value);
+    }
+
+    private static void call(StringBuilder code, String method, String args) {
+        code.append("    ").append(TIME_FORMATTER).append('.').append(method).append("(sb, ").append(args)
+            .append(");\n");
+    }
+
+    private static void append(StringBuilder code, String value) {
+        code.append("    sb.append(").append(value).append(");\n");
+    }
+
+    /**
+     * Java expressions to read each component of a date/time argument in the generated code.
+     */
+    private static final class Expressions {
+        final String fields;
+        final String millis;
+        final String nanos;
+        final String epochSeconds;
+        final String epochMillis;
+
+        Expressions(String fields, String millis, String nanos, String epochSeconds, String epochMillis) {
+            this.fields = fields;
+            this.millis = millis;
+            this.nanos = nanos;
+            this.epochSeconds = epochSeconds;
+            this.epochMillis = epochMillis;
+        }
+    }
+}
@@ -16,14 +16,32 @@
 
 package com.github.imasahiro.stringformatter.processor;
 
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assert_;
 import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import javax.tools.JavaFileObject;
 
 import org.junit.Ignore;
 import org.junit.Test;
 
 import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;
 import com.github.imasahiro.stringformatter.annotation.Format;
+import com.github.imasahiro.stringformatter.runtime.io.FormatWriter;
+import com.google.common.io.ByteStreams;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.Compiler;
 import com.google.testing.compile.JavaFileObjects;
 
 /**
@@ -114,6 +132,116 @@ public final class StringFormatterTest {
                          "}"));
     }
 
+    @Test
+    public void testProcess_hex_bytes() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.nio.ByteBuffer;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%x/%,X\")",
+                         "    String format(byte[] a, ByteBuffer b);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import java.lang.String;",
+                         "import java.nio.ByteBuffer;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(final byte[] arg0, final ByteBuffer arg1) {",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     com.github.imasahiro.stringformatter.runtime.integers." +
+                         "HexIntegerFormatter.formatTo(sb, arg0, 0);",
+                         "     sb.append(\"/\");",
+                         "     com.github.imasahiro.stringformatter.runtime.integers." +
+                         "HexIntegerFormatter.formatTo(sb, arg1, 2, ':');",
+                         "     return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_radix_integer() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%r/%08.62r\")",
+                         "    String format(long a, int b);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import java.lang.String;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(final long arg0, final int arg1) {",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     com.github.imasahiro.stringformatter.runtime.integers." +
+                         "RadixIntegerFormatter.formatTo(sb, arg0, 36, 0, -1);",
+                         "     sb.append(\"/\");",
+                         "     com.github.imasahiro.stringformatter.runtime.integers." +
+                         "RadixIntegerFormatter.formatTo(sb, arg1, 62, 1, 8);",
+                         "     return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_radix_integer_invalid_radix() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%.64r\")",
+                         "    String format(long a);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("radix must be between 2 and 62.");
+    }
+
     @Test
     public void testProcess_boolean_lowerCase() throws Exception {
         assert_().about(javaSource())
@@ -415,25 +543,2365 @@ public final class StringFormatterTest {
     }
 
     @Test
-    public void testProcess_not_acceptable() throws Exception {
+    public void testProcess_uuid() throws Exception {
         assert_().about(javaSource())
                  .that(JavaFileObjects.forSourceLines(
                          "foo.bar.Baz",
                          "package foo.bar;",
                          "",
-                         "import javax.inject.Qualifier;",
+                         "import java.util.UUID;",
                          "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
                          "import com.github.imasahiro.stringformatter.annotation.Format;",
                          "",
                          "public class Baz {",
                          "  @AutoStringFormatter",
                          "  interface Formatter {",
-                         "    @Format(\"%d\")",
-                         "    String format(String d);",
+                         "    @Format(\"%s%S\")",
+                         "    String format(UUID a, UUID b);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import java.lang.String;",
+                         "import java.util.UUID;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(final UUID arg0, final UUID arg1) {",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     com.github.imasahiro.stringformatter.runtime.integers." +
+                         "UuidFormatter.formatTo(sb, arg0, 0);",
+                         "     com.github.imasahiro.stringformatter.runtime.integers." +
+                         "UuidFormatter.formatTo(sb, arg1, 2);",
+                         "     return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_enum() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.concurrent.TimeUnit;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%s\")",
+                         "    String format(TimeUnit unit);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import java.lang.String;",
+                         "import java.util.concurrent.TimeUnit;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(final TimeUnit arg0) {",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     com.github.imasahiro.stringformatter.runtime.objects." +
+                         "EnumFormatter.formatTo(sb, arg0);",
+                         "     return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_boxed_integer() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%s%8s\")",
+                         "    String format(Integer a, Long b);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import java.lang.Integer;",
+                         "import java.lang.Long;",
+                         "import java.lang.String;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(final Integer arg0, final Long arg1) {",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     if (arg0 == null) {",
+                         "         sb.append(\"null\");",
+                         "     } else {",
+                         "         sb.append(arg0.intValue());",
+                         "     }",
+                         "     if (arg1 == null) {",
+                         "         sb.append(\"null\");",
+                         "     } else {",
+                         "         com.github.imasahiro.stringformatter.runtime.integers." +
+                         "IntegerFormatter.formatTo(sb, arg1.longValue(), 0, 8);",
+                         "     }",
+                         "     return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_enum_width_not_acceptable() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%10s\")",
+                         "    String format(java.util.concurrent.TimeUnit a);",
                          "  }",
                          "}"))
                  .processedWith(new StringFormatterProcessor())
                  .failsToCompile()
-                 .withErrorContaining(" cannot not apply to ");
+                 .withErrorContaining("%s does not support a width, a precision or the '-' flag for ");
+    }
+
+    @Test
+    public void testProcess_uuid_width_not_acceptable() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.UUID;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%-40s\")",
+                         "    String format(UUID a);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("%s does not support a width, a precision or the '-' flag for ");
+    }
+
+    @Test
+    public void testProcess_boxed_left_justified_not_acceptable() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%-8s\")",
+                         "    String format(Integer a);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("%s does not support a width, a precision or the '-' flag for ");
+    }
+
+    @Test
+    public void testProcess_time() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%tF %<tT.%1$tL\")",
+                         "    String format(long millis);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import java.lang.String;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(final long arg0) {",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    {",
+                         "      final com.github.imasahiro.stringformatter.runtime.time.TimeFields arg0_time =",
+                         "          com.github.imasahiro.stringformatter.runtime.time.TimeFormatter" +
+                         ".fields(arg0);",
+                         "      com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter" +
+                         ".formatTo(sb, arg0_time.getYear(), 1, 4);",
+                         "      sb.append('-');",
+                         "      com.github.imasahiro.stringformatter.runtime.time.TimeFormatter" +
+                         ".formatTwoDigits(sb, arg0_time.getMonthValue());",
+                         "      sb.append('-');",
+                         "      com.github.imasahiro.stringformatter.runtime.time.TimeFormatter" +
+                         ".formatTwoDigits(sb, arg0_time.getDayOfMonth());",
+                         "    }",
+                         "    sb.append(\" \");",
+                         "    {",
+                         "      final com.github.imasahiro.stringformatter.runtime.time.TimeFields arg0_time =",
+                         "          com.github.imasahiro.stringformatter.runtime.time.TimeFormatter" +
+                         ".fields(arg0);",
+                         "      com.github.imasahiro.stringformatter.runtime.time.TimeFormatter" +
+                         ".formatTwoDigits(sb, arg0_time.getHour());",
+                         "      sb.append(':');",
+                         "      com.github.imasahiro.stringformatter.runtime.time.TimeFormatter" +
+                         ".formatTwoDigits(sb, arg0_time.getMinute());",
+                         "      sb.append(':');",
+                         "      com.github.imasahiro.stringformatter.runtime.time.TimeFormatter" +
+                         ".formatTwoDigits(sb, arg0_time.getSecond());",
+                         "    }",
+                         "    sb.append(\".\");",
+                         "    {",
+                         "      final com.github.imasahiro.stringformatter.runtime.time.TimeFields arg0_time =",
+                         "          com.github.imasahiro.stringformatter.runtime.time.TimeFormatter" +
+                         ".fields(arg0);",
+                         "      com.github.imasahiro.stringformatter.runtime.time.TimeFormatter" +
+                         ".formatThreeDigits(sb, (int) Math.floorMod(arg0, 1000L));",
+                         "    }",
+                         "    return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_time_two_digit_year_before_common_era() throws Exception {
+        Compilation compilation =
+                Compiler.javac()
+                        .withProcessors(new StringFormatterProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "foo.bar.Baz",
+                                "package foo.bar;",
+                                "",
+                                "import java.time.LocalDateTime;",
+                                "",
+                                "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                                "import com.github.imasahiro.stringformatter.annotation.Format;",
+                                "",
+                                "public class Baz {",
+                                "  @AutoStringFormatter",
+                                "  public interface Formatter {",
+                                "    @Format(\"%ty\")",
+                                "    String format(LocalDateTime a);",
+                                "  }",
+                                "}"));
+        assertThat(compilation.status()).isEqualTo(Compilation.Status.SUCCESS);
+
+        Class<?> formatterClass = new CompiledClassLoader(compilation).loadClass("foo.bar.Baz_Formatter");
+        Object formatter = formatterClass.getConstructor().newInstance();
+        Method format = formatterClass.getMethod("format", LocalDateTime.class);
+        assertThat(format.invoke(formatter, LocalDateTime.of(-43, 3, 15, 0, 0))).isEqualTo("57");
+        assertThat(format.invoke(formatter, LocalDateTime.of(-100, 1, 1, 0, 0))).isEqualTo("00");
+        assertThat(format.invoke(formatter, LocalDateTime.of(2018, 1, 1, 0, 0))).isEqualTo("18");
+    }
+
+    @Test
+    public void testProcess_time_zone_not_acceptable() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.time.LocalDateTime;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%tT %<tz\")",
+                         "    String format(LocalDateTime time);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining(" cannot not apply to ");
+    }
+
+    @Test
+    public void testProcess_unsigned() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "import com.github.imasahiro.stringformatter.annotation.Unsigned;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%d%020d%s\")",
+                         "    String format(@Unsigned int a, @Unsigned long b, @Unsigned long c);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.Unsigned;",
+                         "import java.lang.String;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(@Unsigned final int arg0, @Unsigned final long arg1,",
+                         "                             @Unsigned final long arg2) {",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter",
+                         "        .formatTo(sb, arg0, 2, 0);",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter",
+                         "        .formatTo(sb, arg1, 3, 20);",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter",
+                         "        .formatTo(sb, arg2, 2, 0);",
+                         "     return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_unsigned_not_acceptable() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "import com.github.imasahiro.stringformatter.annotation.Unsigned;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%s\")",
+                         "    String format(@Unsigned String a);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("@Unsigned only applies to int or long.");
+    }
+
+    @Test
+    public void testProcess_scaled() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "import com.github.imasahiro.stringformatter.annotation.Scaled;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%.2f %<s %<010f\")",
+                         "    String format(@Scaled(4) long a);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.Scaled;",
+                         "import java.lang.String;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(@Scaled(4) final long arg0) {",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.FixedPointFormatter",
+                         "        .formatTo(sb, arg0, 4, 2, 0, 0);",
+                         "     sb.append(\" \");",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.FixedPointFormatter",
+                         "        .formatTo(sb, arg0, 4, 4, 0, 0);",
+                         "     sb.append(\" \");",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.FixedPointFormatter",
+                         "        .formatTo(sb, arg0, 4, 6, 1, 10);",
+                         "     return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_scaled_invalid_scale() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "import com.github.imasahiro.stringformatter.annotation.Scaled;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%.2f\")",
+                         "    String format(@Scaled(19) long a);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("@Scaled value must be between 0 and 18.");
+    }
+
+    @Test
+    public void testProcess_big_number() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.math.BigDecimal;",
+                         "import java.math.BigInteger;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%d %,d %.2f %,d\")",
+                         "    String format(BigInteger a, BigInteger b, BigDecimal c, long d);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import java.lang.String;",
+                         "import java.math.BigDecimal;",
+                         "import java.math.BigInteger;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(final BigInteger arg0, final BigInteger arg1,",
+                         "                             final BigDecimal arg2, final long arg3) {",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.BigIntegerFormatter",
+                         "        .formatTo(sb, arg0, 0, 0);",
+                         "     sb.append(\" \");",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.BigIntegerFormatter",
+                         "        .formatTo(sb, arg1, 4, 0);",
+                         "     sb.append(\" \");",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.BigDecimalFormatter",
+                         "        .formatTo(sb, arg2, 2, 0, 0);",
+                         "     sb.append(\" \");",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter",
+                         "        .formatTo(sb, arg3, 4, 0);",
+                         "     return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_message_pattern() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.UUID;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.MessagePattern;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @MessagePattern(\"'{'{0}'}' has {1} messages, id {2,number,#}. \" +",
+                         "                    \"It''s \\\"{3}\\\".\")",
+                         "    String format(String user, int count, long id, UUID uuid);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import java.lang.String;",
+                         "import java.util.UUID;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(final String arg0, final int arg1, final long arg2,",
+                         "                             final UUID arg3) {",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     sb.append(\"{\");",
+                         "     sb.append(String.valueOf(arg0));",
+                         "     sb.append(\"} has \");",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter",
+                         "        .formatTo(sb, arg1, 4, 0);",
+                         "     sb.append(\" messages, id \");",
+                         "     sb.append(arg2);",
+                         "     sb.append(\". It's \\\"\");",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.UuidFormatter",
+                         "        .formatTo(sb, arg3, 0);",
+                         "     sb.append(\"\\\".\");",
+                         "     return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_message_pattern_locale_sensitive() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.MessagePattern;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @MessagePattern(\"{0}\")",
+                         "    String format(double d);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("{0} of double is formatted for the default locale.");
+    }
+
+    @Test
+    public void testProcess_message_pattern_unsupported_style() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.MessagePattern;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @MessagePattern(\"{0,number,percent}\")",
+                         "    String format(int i);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("Unsupported number style : percent");
+    }
+
+    @Test
+    public void testProcess_locale() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.math.BigDecimal;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter(locale = \"de-DE\")",
+                         "  interface Formatter {",
+                         "    @Format(\"%,d items for %.2f (%x)\")",
+                         "    String format(int count, BigDecimal price, int id);",
+                         "    @Format(value = \"%,d\", locale = \"en-US\")",
+                         "    String formatUs(int count);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.runtime.integers.NumberSymbols;",
+                         "import java.lang.String;",
+                         "import java.math.BigDecimal;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(final int arg0, final BigDecimal arg1,",
+                         "                             final int arg2) {",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     int start0 = sb.length();",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter",
+                         "        .formatTo(sb, arg0, 4, 0);",
+                         "     NumberSymbols.localize(sb, start0, '.', ',', '0');",
+                         "     sb.append(\" items for \");",
+                         "     int start2 = sb.length();",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.BigDecimalFormatter",
+                         "        .formatTo(sb, arg1, 2, 0, 0);",
+                         "     NumberSymbols.localize(sb, start2, '.', ',', '0');",
+                         "     sb.append(\" (\");",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.HexIntegerFormatter",
+                         "        .formatTo(sb, arg2, 0, -1);",
+                         "     sb.append(\")\");",
+                         "     return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String formatUs(final int arg0) {",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter",
+                         "        .formatTo(sb, arg0, 4, 0);",
+                         "     return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_locale_parameter() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.Locale;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "import com.github.imasahiro.stringformatter.annotation.Unsigned;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter(locale = \"de-DE\")",
+                         "  interface Formatter {",
+                         "    @Format(\"%s: %,d\")",
+                         "    String format(Locale locale, String name, @Unsigned int count);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.Unsigned;",
+                         "import com.github.imasahiro.stringformatter.runtime.integers.NumberSymbols;",
+                         "import java.lang.String;",
+                         "import java.util.Locale;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(final Locale arg0, final String arg1,",
+                         "                             @Unsigned final int arg2) {",
+                         "     final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "     final StringBuilder sb = new StringBuilder(16);",
+                         "     sb.append(String.valueOf(arg1));",
+                         "     sb.append(\": \");",
+                         "     int start2 = sb.length();",
+                         "     com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter",
+                         "        .formatTo(sb, arg2, 6, 0);",
+                         "     symbols.localize(sb, start2);",
+                         "     return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_locale_with_locale_parameter() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.Locale;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(value = \"%d\", locale = \"de\")",
+                         "    String format(Locale locale, int i);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("locale cannot be specified for a method which takes a Locale.");
+    }
+
+    @Test
+    public void testProcess_invalid_locale() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(value = \"%d\", locale = \"de_DE\")",
+                         "    String format(int i);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("Invalid locale : de_DE");
+    }
+
+    @Test
+    public void testProcess_log_format() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.function.Supplier;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.LogFormat;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter(locale = \"de-DE\")",
+                         "  interface Formatter {",
+                         "    @LogFormat(value = \"{} after {} tries \\\\{} \\\\\\\\{}\", capacity = 64)",
+                         "    CharSequence login(String user, long attempts, double elapsed);",
+                         "    @LogFormat(\"{}: {}\")",
+                         "    Supplier<String> entry(String key, int value);",
+                         "    @LogFormat(\"{}\")",
+                         "    String eager(int value);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.runtime.lazy.LazyMessage;",
+                         "import java.lang.CharSequence;",
+                         "import java.lang.Override;",
+                         "import java.lang.String;",
+                         "import java.lang.StringBuilder;",
+                         "import java.util.function.Supplier;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final CharSequence login(final String arg0, final long arg1,",
+                         "                                  final double arg2) {",
+                         "    return new LazyMessage(64) {",
+                         "      @Override",
+                         "      public StringBuilder appendTo(final StringBuilder sb) {",
+                         "        sb.append(String.valueOf(arg0));",
+                         "        sb.append(\" after \");",
+                         "        sb.append(arg1);",
+                         "        sb.append(\" tries {} \\\\\");",
+                         "        sb.append(String.valueOf(arg2));",
+                         "        return sb;",
+                         "      }",
+                         "    };",
+                         "  }",
+                         "",
+                         "  public final Supplier<String> entry(final String arg0, final int arg1) {",
+                         "    return new LazyMessage(16) {",
+                         "      @Override",
+                         "      public StringBuilder appendTo(final StringBuilder sb) {",
+                         "        sb.append(String.valueOf(arg0));",
+                         "        sb.append(\": \");",
+                         "        sb.append(arg1);",
+                         "        return sb;",
+                         "      }",
+                         "    };",
+                         "  }",
+                         "",
+                         "  public final String eager(final int arg0) {",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(arg0);",
+                         "    return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_log_format_wrong_number_of_placeholders() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.LogFormat;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @LogFormat(\"{} and {}\")",
+                         "    String format(int i);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("The pattern has 2 placeholders for 1 arguments.");
+    }
+
+    @Test
+    public void testProcess_capture() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "import com.github.imasahiro.stringformatter.annotation.Unsigned;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter(capture = true)",
+                         "  interface Formatter {",
+                         "    @Format(value = \"id%08d %s\", capacity = 32)",
+                         "    String format(@Unsigned int id, String name);",
+                         "    @Format(\"%d\")",
+                         "    String format(long id);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.Unsigned;",
+                         "import com.github.imasahiro.stringformatter.runtime.lazy.CapturedFormat;",
+                         "import java.lang.Override;",
+                         "import java.lang.String;",
+                         "import java.lang.StringBuilder;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(@Unsigned final int arg0, final String arg1) {",
+                         "    final StringBuilder sb = new StringBuilder(32);",
+                         "    sb.append(\"id\");",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter",
+                         "       .formatTo(sb, arg0, 3, 8);",
+                         "    sb.append(\" \");",
+                         "    sb.append(String.valueOf(arg1));",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String format(final long arg0) {",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(arg0);",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final FormatCapture captureFormat(@Unsigned final int arg0,",
+                         "                                           final String arg1) {",
+                         "    return new FormatCapture(arg0, arg1);",
+                         "  }",
+                         "",
+                         "  public final Format2Capture captureFormat2(final long arg0) {",
+                         "    return new Format2Capture(arg0);",
+                         "  }",
+                         "",
+                         "  public static final class FormatCapture implements CapturedFormat {",
+                         "    private final int arg0;",
+                         "",
+                         "    private final String arg1;",
+                         "",
+                         "    private FormatCapture(@Unsigned final int arg0, final String arg1) {",
+                         "      this.arg0 = arg0;",
+                         "      this.arg1 = arg1;",
+                         "    }",
+                         "",
+                         "    @Override",
+                         "    public StringBuilder formatTo(final StringBuilder sb) {",
+                         "      sb.append(\"id\");",
+                         "      com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter",
+                         "         .formatTo(sb, arg0, 3, 8);",
+                         "      sb.append(\" \");",
+                         "      sb.append(String.valueOf(arg1));",
+                         "      return sb;",
+                         "    }",
+                         "",
+                         "    @Override",
+                         "    public String toString() {",
+                         "      return formatTo(new StringBuilder(32)).toString();",
+                         "    }",
+                         "  }",
+                         "",
+                         "  public static final class Format2Capture implements CapturedFormat {",
+                         "    private final long arg0;",
+                         "",
+                         "    private Format2Capture(final long arg0) {",
+                         "      this.arg0 = arg0;",
+                         "    }",
+                         "",
+                         "    @Override",
+                         "    public StringBuilder formatTo(final StringBuilder sb) {",
+                         "      sb.append(arg0);",
+                         "      return sb;",
+                         "    }",
+                         "",
+                         "    @Override",
+                         "    public String toString() {",
+                         "      return formatTo(new StringBuilder(16)).toString();",
+                         "    }",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_async() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.List;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter(async = true)",
+                         "  interface Formatter {",
+                         "    @Format(\"%s %d %b %s\")",
+                         "    String format(String name, int id, boolean flag, List<String> tags);",
+                         "    @Format(\"%f\")",
+                         "    String format(double d);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.runtime.async.FormatEventRenderer;",
+                         "import com.github.imasahiro.stringformatter.runtime.async.FormatRingBuffer;",
+                         "import java.lang.Double;",
+                         "import java.lang.IllegalArgumentException;",
+                         "import java.lang.Override;",
+                         "import java.lang.String;",
+                         "import java.lang.StringBuilder;",
+                         "import java.lang.SuppressWarnings;",
+                         "import java.util.List;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter, FormatEventRenderer {",
+                         "  public final String format(final String arg0, final int arg1, final boolean arg2,",
+                         "                             final List<String> arg3) {",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(String.valueOf(arg0));",
+                         "    sb.append(\" \");",
+                         "    sb.append(arg1);",
+                         "    sb.append(\" \");",
+                         "    sb.append(arg2 ? \"true\" : \"false\");",
+                         "    sb.append(\" \");",
+                         "    sb.append(String.valueOf(arg3));",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String format(final double arg0) {",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(arg0);",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final void publishFormat(final FormatRingBuffer ring, final String arg0,",
+                         "                                  final int arg1, final boolean arg2,",
+                         "                                  final List<String> arg3) {",
+                         "    final long sequence = ring.claim();",
+                         "    ring.putObject(sequence, 0, arg0);",
+                         "    ring.putLong(sequence, 0, arg1);",
+                         "    ring.putLong(sequence, 1, arg2 ? 1 : 0);",
+                         "    ring.putObject(sequence, 1, arg3);",
+                         "    ring.publish(sequence, 0);",
+                         "  }",
+                         "",
+                         "  public final void publishFormat2(final FormatRingBuffer ring, final double arg0) {",
+                         "    final long sequence = ring.claim();",
+                         "    ring.putLong(sequence, 0, Double.doubleToRawLongBits(arg0));",
+                         "    ring.publish(sequence, 1);",
+                         "  }",
+                         "",
+                         "  public final FormatRingBuffer newRingBuffer(final int capacity) {",
+                         "    return new FormatRingBuffer(capacity, 2, 2);",
+                         "  }",
+                         "",
+                         "  @Override",
+                         "  public final void render(final FormatRingBuffer ring, final long sequence,",
+                         "                           final StringBuilder sb) {",
+                         "    switch (ring.getMethodId(sequence)) {",
+                         "      case 0:",
+                         "        renderFormat(ring, sequence, sb);",
+                         "        break;",
+                         "      case 1:",
+                         "        renderFormat2(ring, sequence, sb);",
+                         "        break;",
+                         "      default:",
+                         "        throw new IllegalArgumentException(\"Unknown method id: \" +",
+                         "                                           ring.getMethodId(sequence));",
+                         "    }",
+                         "  }",
+                         "",
+                         "  @SuppressWarnings(\"unchecked\")",
+                         "  private static void renderFormat(final FormatRingBuffer ring, final long sequence,",
+                         "                                   final StringBuilder sb) {",
+                         "    final String arg0 = (String) ring.getObject(sequence, 0);",
+                         "    final int arg1 = (int) ring.getLong(sequence, 0);",
+                         "    final boolean arg2 = ring.getLong(sequence, 1) != 0;",
+                         "    final List<String> arg3 = (List<String>) ring.getObject(sequence, 1);",
+                         "    sb.append(String.valueOf(arg0));",
+                         "    sb.append(\" \");",
+                         "    sb.append(arg1);",
+                         "    sb.append(\" \");",
+                         "    sb.append(arg2 ? \"true\" : \"false\");",
+                         "    sb.append(\" \");",
+                         "    sb.append(String.valueOf(arg3));",
+                         "  }",
+                         "",
+                         "  private static void renderFormat2(final FormatRingBuffer ring, " +
+                         "final long sequence,",
+                         "                                    final StringBuilder sb) {",
+                         "    final double arg0 = Double.longBitsToDouble(ring.getLong(sequence, 0));",
+                         "    sb.append(arg0);",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_binary() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter(binary = true)",
+                         "  interface Formatter {",
+                         "    @Format(\"%s %d %b\")",
+                         "    String format(String name, long id, boolean flag);",
+                         "    @Format(\"%c %f\")",
+                         "    String format(char c, double d);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.runtime.binary.BinaryLog;",
+                         "import com.github.imasahiro.stringformatter.runtime.binary.BinaryLogDecoder;",
+                         "import java.lang.IllegalArgumentException;",
+                         "import java.lang.Override;",
+                         "import java.lang.String;",
+                         "import java.lang.StringBuilder;",
+                         "import java.nio.BufferOverflowException;",
+                         "import java.nio.ByteBuffer;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter, BinaryLogDecoder {",
+                         "  public final String format(final String arg0, final long arg1,",
+                         "                             final boolean arg2) {",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(String.valueOf(arg0));",
+                         "    sb.append(\" \");",
+                         "    sb.append(arg1);",
+                         "    sb.append(\" \");",
+                         "    sb.append(arg2 ? \"true\" : \"false\");",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String format(final char arg0, final double arg1) {",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(arg0);",
+                         "    sb.append(\" \");",
+                         "    sb.append(arg1);",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final void encodeFormat(final ByteBuffer buffer, final String arg0,",
+                         "                                 final long arg1,",
+                         "                                 final boolean arg2) {",
+                         "    final int start = buffer.position();",
+                         "    try {",
+                         "      buffer.putInt(899239547);",
+                         "      BinaryLog.putString(buffer, arg0);",
+                         "      buffer.putLong(arg1);",
+                         "      buffer.put((byte) (arg2 ? 1 : 0));",
+                         "    } catch (BufferOverflowException e) {",
+                         "      buffer.position(start);",
+                         "      throw e;",
+                         "    }",
+                         "  }",
+                         "",
+                         "  public final void encodeFormat2(final ByteBuffer buffer, final char arg0,",
+                         "                                  final double arg1) {",
+                         "    final int start = buffer.position();",
+                         "    try {",
+                         "      buffer.putInt(580159411);",
+                         "      buffer.putChar(arg0);",
+                         "      buffer.putDouble(arg1);",
+                         "    } catch (BufferOverflowException e) {",
+                         "      buffer.position(start);",
+                         "      throw e;",
+                         "    }",
+                         "  }",
+                         "",
+                         "  @Override",
+                         "  public final void decode(final ByteBuffer buffer, final StringBuilder sb) {",
+                         "    final int id = buffer.getInt();",
+                         "    switch (id) {",
+                         "      case 899239547: // format(java.lang.String,long,boolean)",
+                         "        decodeFormat(buffer, sb);",
+                         "        break;",
+                         "      case 580159411: // format(char,double)",
+                         "        decodeFormat2(buffer, sb);",
+                         "        break;",
+                         "      default:",
+                         "        throw new IllegalArgumentException(\"Unknown method id: \" + id);",
+                         "    }",
+                         "  }",
+                         "",
+                         "  private static void decodeFormat(final ByteBuffer buffer,",
+                         "                                   final StringBuilder sb) {",
+                         "    final String arg0 = BinaryLog.getString(buffer);",
+                         "    final long arg1 = buffer.getLong();",
+                         "    final boolean arg2 = buffer.get() != 0;",
+                         "    sb.append(String.valueOf(arg0));",
+                         "    sb.append(\" \");",
+                         "    sb.append(arg1);",
+                         "    sb.append(\" \");",
+                         "    sb.append(arg2 ? \"true\" : \"false\");",
+                         "  }",
+                         "",
+                         "  private static void decodeFormat2(final ByteBuffer buffer,",
+                         "                                    final StringBuilder sb) {",
+                         "    final char arg0 = buffer.getChar();",
+                         "    final double arg1 = buffer.getDouble();",
+                         "    sb.append(arg0);",
+                         "    sb.append(\" \");",
+                         "    sb.append(arg1);",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_binary_unsupported_argument() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.List;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter(binary = true)",
+                         "  interface Formatter {",
+                         "    @Format(\"%s\")",
+                         "    String format(List<String> tags);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("binary = true supports only primitive, String and CharSequence " +
+                                      "arguments : java.util.List<java.lang.String>");
+    }
+
+    @Test
+    public void testProcess_parse() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Parse;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Parse(\"%016x%016x\")",
+                         "    boolean parseId(CharSequence input, IdConsumer consumer);",
+                         "    @Parse(\"%s=%d %b\")",
+                         "    boolean parseEntry(String input, Entry entry);",
+                         "  }",
+                         "",
+                         "  interface IdConsumer {",
+                         "    void accept(long upper, long lower);",
+                         "  }",
+                         "",
+                         "  static class Entry {",
+                         "    String key;",
+                         "    int value;",
+                         "    boolean enabled;",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.runtime.parse.ParseUtils;",
+                         "import java.lang.CharSequence;",
+                         "import java.lang.Integer;",
+                         "import java.lang.NumberFormatException;",
+                         "import java.lang.String;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final boolean parseId(final CharSequence input,",
+                         "                               final Baz.IdConsumer target) {",
+                         "    final int length = input.length();",
+                         "    int pos = 0;",
+                         "    int end;",
+                         "    try {",
+                         "      end = pos + 16;",
+                         "      if (end > length || ParseUtils.hexEnd(input, pos, end) != end) {",
+                         "        return false;",
+                         "      }",
+                         "      final long arg0 = ParseUtils.parseHex(input, pos, end, 64);",
+                         "      pos = end;",
+                         "      end = ParseUtils.hexEnd(input, pos, length);",
+                         "      if (end < pos + 16) {",
+                         "        return false;",
+                         "      }",
+                         "      final long arg1 = ParseUtils.parseHex(input, pos, end, 64);",
+                         "      pos = end;",
+                         "      if (pos != length) {",
+                         "        return false;",
+                         "      }",
+                         "      target.accept(arg0, arg1);",
+                         "      return true;",
+                         "    } catch (NumberFormatException e) {",
+                         "      return false;",
+                         "    }",
+                         "  }",
+                         "",
+                         "  public final boolean parseEntry(final String input, final Baz.Entry target) {",
+                         "    final int length = input.length();",
+                         "    int pos = 0;",
+                         "    int end;",
+                         "    try {",
+                         "      end = ParseUtils.indexOf(input, \"=\", pos);",
+                         "      if (end < 0) {",
+                         "        return false;",
+                         "      }",
+                         "      final String arg0 = input.subSequence(pos, end).toString();",
+                         "      pos = end + 1;",
+                         "      end = ParseUtils.decimalEnd(input, pos, length);",
+                         "      if (end < 0) {",
+                         "        return false;",
+                         "      }",
+                         "        final int arg1 = (int) ParseUtils.parseDecimal(input, pos, end,",
+                         "                                                       Integer.MIN_VALUE,",
+                         "                                                       Integer.MAX_VALUE);",
+                         "      pos = end;",
+                         "      if (!ParseUtils.matches(input, pos, \" \")) {",
+                         "        return false;",
+                         "      }",
+                         "      pos += 1;",
+                         "      final boolean arg2;",
+                         "      if (ParseUtils.matches(input, pos, \"true\")) {",
+                         "        arg2 = true;",
+                         "        pos += 4;",
+                         "      } else if (ParseUtils.matches(input, pos, \"false\")) {",
+                         "        arg2 = false;",
+                         "        pos += 5;",
+                         "      } else {",
+                         "        return false;",
+                         "      }",
+                         "      if (pos != length) {",
+                         "        return false;",
+                         "      }",
+                         "      target.key = arg0;",
+                         "      target.value = arg1;",
+                         "      target.enabled = arg2;",
+                         "      return true;",
+                         "    } catch (NumberFormatException e) {",
+                         "      return false;",
+                         "    }",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_parse_unsupported_conversion() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Parse;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Parse(\"%d,%f\")",
+                         "    boolean parse(CharSequence input, PointConsumer consumer);",
+                         "  }",
+                         "",
+                         "  interface PointConsumer {",
+                         "    void accept(int x, int y);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("@Parse supports only %d, %x, %s, %c and %b.");
+    }
+
+    @Test
+    public void testProcess_parse_wrong_number_of_arguments() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Parse;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Parse(\"%d\")",
+                         "    boolean parse(CharSequence input, PointConsumer consumer);",
+                         "  }",
+                         "",
+                         "  interface PointConsumer {",
+                         "    void accept(int x, int y);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("The format must read each of the 2 arguments of the target once.");
+    }
+
+    @Test
+    public void testProcess_parse_string_followed_by_number() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Parse;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Parse(\"%s%d\")",
+                         "    boolean parse(CharSequence input, EntryConsumer consumer);",
+                         "  }",
+                         "",
+                         "  interface EntryConsumer {",
+                         "    void accept(String key, int value);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("%s must be followed by a literal or the end of the format.");
+    }
+
+    @Test
+    public void testProcess_parse_zero_padded_wider_than_width() throws Exception {
+        Compilation compilation =
+                Compiler.javac()
+                        .withProcessors(new StringFormatterProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "foo.bar.Baz",
+                                "package foo.bar;",
+                                "",
+                                "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                                "import com.github.imasahiro.stringformatter.annotation.Format;",
+                                "import com.github.imasahiro.stringformatter.annotation.Parse;",
+                                "",
+                                "public class Baz {",
+                                "  @AutoStringFormatter",
+                                "  public interface Formatter {",
+                                "    @Format(\"%04d-%03x\")",
+                                "    String format(int number, int code);",
+                                "    @Parse(\"%04d-%03x\")",
+                                "    boolean parse(CharSequence input, Id id);",
+                                "  }",
+                                "",
+                                "  public static class Id {",
+                                "    public int number;",
+                                "    public int code;",
+                                "  }",
+                                "}"));
+        assertThat(compilation.status()).isEqualTo(Compilation.Status.SUCCESS);
+
+        ClassLoader loader = new CompiledClassLoader(compilation);
+        Class<?> formatterClass = loader.loadClass("foo.bar.Baz_Formatter");
+        Class<?> idClass = loader.loadClass("foo.bar.Baz$Id");
+        Object formatter = formatterClass.getConstructor().newInstance();
+        Method format = formatterClass.getMethod("format", int.class, int.class);
+        Method parse = formatterClass.getMethod("parse", CharSequence.class, idClass);
+
+        for (int[] values : new int[][] { { 42, 7 }, { 12345, 0xabcd }, { -123, 0x1000 } }) {
+            String formatted = (String) format.invoke(formatter, values[0], values[1]);
+            Object id = idClass.getConstructor().newInstance();
+            assertThat(parse.invoke(formatter, formatted, id)).isEqualTo(true);
+            assertThat(idClass.getField("number").get(id)).isEqualTo(values[0]);
+            assertThat(idClass.getField("code").get(id)).isEqualTo(values[1]);
+        }
+        Object id = idClass.getConstructor().newInstance();
+        assertThat(parse.invoke(formatter, "042-007", id)).isEqualTo(false);
+        assertThat(parse.invoke(formatter, "0042-07", id)).isEqualTo(false);
+    }
+
+    @Test
+    public void testProcess_batch() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.Locale;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter(batch = true)",
+                         "  interface Formatter {",
+                         "    @Format(value = \"%s,%d\", capacity = 32)",
+                         "    String row(String name, int id);",
+                         "    @Format(\"%,d\")",
+                         "    String amount(Locale locale, long amount);",
+                         "    @Format(\"-\")",
+                         "    String none();",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.runtime.batch.BatchCapacity;",
+                         "import com.github.imasahiro.stringformatter.runtime.integers.NumberSymbols;",
+                         "import java.lang.IllegalArgumentException;",
+                         "import java.lang.IndexOutOfBoundsException;",
+                         "import java.lang.String;",
+                         "import java.lang.StringBuilder;",
+                         "import java.util.Locale;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String row(final String arg0, final int arg1) {",
+                         "    final StringBuilder sb = new StringBuilder(32);",
+                         "    sb.append(String.valueOf(arg0));",
+                         "    sb.append(\",\");",
+                         "    sb.append(arg1);",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String amount(final Locale arg0, final long arg1) {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    int start0 = sb.length();",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter." +
+                         "formatTo(sb, arg1, 4, 0);",
+                         "    symbols.localize(sb, start0);",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String none() {",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(\"-\");",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final StringBuilder rowAll(final String[] column0, final int[] column1,",
+                         "      final StringBuilder out, final String rowSeparator) {",
+                         "    final int rows = column0.length;",
+                         "    if (column1.length != rows) {",
+                         "      throw new IllegalArgumentException(\"All columns must have the same length." +
+                         "\");",
+                         "    }",
+                         "    return rowAll(column0, column1, 0, rows, out, rowSeparator);",
+                         "  }",
+                         "",
+                         "  public final StringBuilder rowAll(final String[] column0, final int[] column1," +
+                         " final int fromRow,",
+                         "      final int toRow, final StringBuilder out, final String rowSeparator) {",
+                         "    if (fromRow < 0 || fromRow > toRow || toRow > column0.length || toRow >" +
+                         " column1.length) {",
+                         "      throw new IndexOutOfBoundsException(\"fromRow: \" + fromRow + \", toRow: \"" +
+                         " + toRow);",
+                         "    }",
+                         "    BatchCapacity.reserve(out, toRow - fromRow, 32 + rowSeparator.length());",
+                         "    final StringBuilder sb = out;",
+                         "    for (int row = fromRow; row < toRow; row++) {",
+                         "      final String arg0 = column0[row];",
+                         "      final int arg1 = column1[row];",
+                         "      sb.append(String.valueOf(arg0));",
+                         "      sb.append(\",\");",
+                         "      sb.append(arg1);",
+                         "      sb.append(rowSeparator);",
+                         "    }",
+                         "    return out;",
+                         "  }",
+                         "",
+                         "  public final StringBuilder amountAll(final Locale arg0, final long[] column1,",
+                         "      final StringBuilder out, final String rowSeparator) {",
+                         "    final int rows = column1.length;",
+                         "    return amountAll(arg0, column1, 0, rows, out, rowSeparator);",
+                         "  }",
+                         "",
+                         "  public final StringBuilder amountAll(final Locale arg0, final long[] column1," +
+                         " final int fromRow,",
+                         "      final int toRow, final StringBuilder out, final String rowSeparator) {",
+                         "    if (fromRow < 0 || fromRow > toRow || toRow > column1.length) {",
+                         "      throw new IndexOutOfBoundsException(\"fromRow: \" + fromRow + \", toRow: \"" +
+                         " + toRow);",
+                         "    }",
+                         "    BatchCapacity.reserve(out, toRow - fromRow, 16 + rowSeparator.length());",
+                         "    final StringBuilder sb = out;",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    for (int row = fromRow; row < toRow; row++) {",
+                         "      final long arg1 = column1[row];",
+                         "      int start0 = sb.length();",
+                         "      com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter." +
+                         "formatTo(sb, arg1, 4, 0);",
+                         "      symbols.localize(sb, start0);",
+                         "      sb.append(rowSeparator);",
+                         "    }",
+                         "    return out;",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_gathering() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.Locale;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter(gathering = true)",
+                         "  interface Formatter {",
+                         "    @Format(value = \"<order><id>%d</id><symbol>%s</symbol>" +
+                         "<venue>XNYS</venue></order>\", capacity = 64)",
+                         "    String orderLine(long id, String symbol);",
+                         "    @Format(\"amount: %,d\")",
+                         "    String amount(Locale locale, long amount);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.runtime.integers.NumberSymbols;",
+                         "import com.github.imasahiro.stringformatter.runtime.io.GatheringSink;",
+                         "import java.io.IOException;",
+                         "import java.lang.String;",
+                         "import java.lang.StringBuilder;",
+                         "import java.nio.ByteBuffer;",
+                         "import java.util.Locale;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  private static final ByteBuffer ORDER_LINE_LITERAL4 = GatheringSink.literal(" +
+                         "\"</symbol><venue>XNYS</venue></order>\");",
+                         "",
+                         "  public final String orderLine(final long arg0, final String arg1) {",
+                         "    final StringBuilder sb = new StringBuilder(64);",
+                         "    sb.append(\"<order><id>\");",
+                         "    sb.append(arg0);",
+                         "    sb.append(\"</id><symbol>\");",
+                         "    sb.append(String.valueOf(arg1));",
+                         "    sb.append(\"</symbol><venue>XNYS</venue></order>\");",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String amount(final Locale arg0, final long arg1) {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(\"amount: \");",
+                         "    int start1 = sb.length();",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter." +
+                         "formatTo(sb, arg1, 4, 0);",
+                         "    symbols.localize(sb, start1);",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final void writeOrderLine(final GatheringSink sink, final long arg0," +
+                         " final String arg1)",
+                         "      throws IOException {",
+                         "    final StringBuilder sb = sink.text();",
+                         "    sb.append(\"<order><id>\");",
+                         "    sb.append(arg0);",
+                         "    sb.append(\"</id><symbol>\");",
+                         "    sb.append(String.valueOf(arg1));",
+                         "    sink.putLiteral(ORDER_LINE_LITERAL4);",
+                         "    sink.endRecord();",
+                         "  }",
+                         "",
+                         "  public final void writeAmount(final GatheringSink sink, final Locale arg0," +
+                         " final long arg1) throws",
+                         "      IOException {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = sink.text();",
+                         "    sb.append(\"amount: \");",
+                         "    int start1 = sb.length();",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter." +
+                         "formatTo(sb, arg1, 4, 0);",
+                         "    symbols.localize(sb, start1);",
+                         "    sink.endRecord();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_writer() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.Locale;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter(writer = true)",
+                         "  interface Formatter {",
+                         "    @Format(value = \"%s,%d%n\", capacity = 32)",
+                         "    String row(String name, int id);",
+                         "    @Format(\"%,d\")",
+                         "    String amount(Locale locale, long amount);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.runtime.integers.NumberSymbols;",
+                         "import com.github.imasahiro.stringformatter.runtime.io.FormatWriter;",
+                         "import java.io.IOException;",
+                         "import java.io.Writer;",
+                         "import java.lang.String;",
+                         "import java.lang.StringBuilder;",
+                         "import java.lang.Throwable;",
+                         "import java.util.Locale;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String row(final String arg0, final int arg1) {",
+                         "    final StringBuilder sb = new StringBuilder(32);",
+                         "    sb.append(String.valueOf(arg0));",
+                         "    sb.append(\",\");",
+                         "    sb.append(arg1);",
+                         "    sb.append(\"\\n\");",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String amount(final Locale arg0, final long arg1) {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    int start0 = sb.length();",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter." +
+                         "formatTo(sb, arg1, 4, 0);",
+                         "    symbols.localize(sb, start0);",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final void row(final Writer out, final String arg0, final int arg1)" +
+                         " throws IOException {",
+                         "    final StringBuilder sb = FormatWriter.stage(out);",
+                         "    final int start = sb.length();",
+                         "    try {",
+                         "      sb.append(String.valueOf(arg0));",
+                         "      sb.append(\",\");",
+                         "      sb.append(arg1);",
+                         "      sb.append(\"\\n\");",
+                         "    } catch (Throwable e) {",
+                         "      sb.setLength(start);",
+                         "      throw e;",
+                         "    }",
+                         "    FormatWriter.commit(out, start);",
+                         "  }",
+                         "",
+                         "  public final void amount(final Writer out, final Locale arg0, final long arg1)" +
+                         " throws",
+                         "      IOException {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = FormatWriter.stage(out);",
+                         "    final int start = sb.length();",
+                         "    try {",
+                         "      int start0 = sb.length();",
+                         "      com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter." +
+                         "formatTo(sb, arg1, 4, 0);",
+                         "      symbols.localize(sb, start0);",
+                         "    } catch (Throwable e) {",
+                         "      sb.setLength(start);",
+                         "      throw e;",
+                         "    }",
+                         "    FormatWriter.commit(out, start);",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_writer_discards_record_on_error() throws Exception {
+        Compilation compilation =
+                Compiler.javac()
+                        .withProcessors(new StringFormatterProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "foo.bar.Baz",
+                                "package foo.bar;",
+                                "",
+                                "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                                "import com.github.imasahiro.stringformatter.annotation.Format;",
+                                "",
+                                "public class Baz {",
+                                "  @AutoStringFormatter(writer = true)",
+                                "  public interface Formatter {",
+                                "    @Format(\"[%d:%s]\")",
+                                "    String row(int id, Object value);",
+                                "  }",
+                                "}"));
+        assertThat(compilation.status()).isEqualTo(Compilation.Status.SUCCESS);
+
+        Class<?> formatterClass = new CompiledClassLoader(compilation).loadClass("foo.bar.Baz_Formatter");
+        Object formatter = formatterClass.getConstructor().newInstance();
+        Method row = formatterClass.getMethod("row", Writer.class, int.class, Object.class);
+        Object failing = new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("failing");
+            }
+        };
+
+        StringWriter out = new StringWriter();
+        try (FormatWriter writer = new FormatWriter(out)) {
+            row.invoke(formatter, writer, 1, "a");
+            try {
+                row.invoke(formatter, writer, 2, failing);
+                fail();
+            } catch (InvocationTargetException e) {
+                assertThat(e.getCause()).isInstanceOf(AssertionError.class);
+            }
+            row.invoke(formatter, writer, 3, "c");
+        }
+        assertThat(out.toString()).isEqualTo("[1:a][3:c]");
+    }
+
+    @Test
+    public void testProcess_byteBuffer() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.Locale;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "import com.github.imasahiro.stringformatter.annotation.Unsigned;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter(byteBuffer = true)",
+                         "  interface Formatter {",
+                         "    @Format(value = \"%08x %s - %-5s%5.1f|%d,%05d\", capacity = 64)",
+                         "    String frame(long id, String symbol, String side, double price, @Unsigned int" +
+                         " count, short x);",
+                         "    @Format(\"%,d\")",
+                         "    String amount(Locale locale, long amount);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.Unsigned;",
+                         "import com.github.imasahiro.stringformatter.runtime.integers.AsciiIntegerFormatter;",
+                         "import com.github.imasahiro.stringformatter.runtime.integers.NumberSymbols;",
+                         "import com.github.imasahiro.stringformatter.runtime.io.Utf8;",
+                         "import java.lang.String;",
+                         "import java.lang.StringBuilder;",
+                         "import java.nio.BufferOverflowException;",
+                         "import java.nio.ByteBuffer;",
+                         "import java.nio.charset.StandardCharsets;",
+                         "import java.util.Locale;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  private static final byte[] FRAME_BYTES3 = \" - \".getBytes(StandardCharsets." +
+                         "UTF_8);",
+                         "",
+                         "  public final String frame(final long arg0, final String arg1, final String arg2,",
+                         "      final double arg3, @Unsigned final int arg4, final short arg5) {",
+                         "    final StringBuilder sb = new StringBuilder(64);",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.HexIntegerFormatter." +
+                         "formatTo(sb, arg0, 1, 8);",
+                         "    sb.append(\" \");",
+                         "    sb.append(String.valueOf(arg1));",
+                         "    sb.append(\" - \");",
+                         "    sb.append(String.valueOf(arg2));",
+                         "    sb.append(arg3);",
+                         "    sb.append(\"|\");",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter." +
+                         "formatTo(sb, arg4, 2, 0);",
+                         "    sb.append(\",\");",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter." +
+                         "formatTo(sb, arg5, 1, 5);",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String amount(final Locale arg0, final long arg1) {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    int start0 = sb.length();",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter." +
+                         "formatTo(sb, arg1, 4, 0);",
+                         "    symbols.localize(sb, start0);",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final void frame(final ByteBuffer out, final long arg0, final String arg1,",
+                         "      final String arg2, final double arg3, @Unsigned final int arg4, final short" +
+                         " arg5) {",
+                         "    final StringBuilder sb = new StringBuilder(64);",
+                         "    final int start = out.position();",
+                         "    try {",
+                         "      AsciiIntegerFormatter.formatHexTo(out, arg0, 1, 8);",
+                         "      out.put((byte) ' ');",
+                         "      Utf8.encode(String.valueOf(arg1), out);",
+                         "      out.put(FRAME_BYTES3);",
+                         "      sb.setLength(0);",
+                         "      sb.append(String.valueOf(arg2));",
+                         "      sb.append(arg3);",
+                         "      Utf8.encode(sb, out);",
+                         "      out.put((byte) '|');",
+                         "      AsciiIntegerFormatter.formatTo(out, arg4, 2, 0);",
+                         "      out.put((byte) ',');",
+                         "      AsciiIntegerFormatter.formatTo(out, arg5, 1, 5);",
+                         "    } catch (BufferOverflowException e) {",
+                         "      out.position(start);",
+                         "      throw e;",
+                         "    }",
+                         "  }",
+                         "",
+                         "  public final void amount(final ByteBuffer out, final Locale arg0, final long" +
+                         " arg1) {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    final int start = out.position();",
+                         "    try {",
+                         "      sb.setLength(0);",
+                         "      int start0 = sb.length();",
+                         "      com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter." +
+                         "formatTo(sb, arg1, 4, 0);",
+                         "      symbols.localize(sb, start0);",
+                         "      Utf8.encode(sb, out);",
+                         "    } catch (BufferOverflowException e) {",
+                         "      out.position(start);",
+                         "      throw e;",
+                         "    }",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_big_decimal_grouping() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.math.BigDecimal;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%,.2f|%,015.3f\")",
+                         "    String format(BigDecimal a, BigDecimal b);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Formatter",
+                         "package foo.bar;",
+                         "",
+                         "import java.lang.String;",
+                         "import java.math.BigDecimal;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Formatter implements Baz.Formatter {",
+                         "  public final String format(final BigDecimal arg0, final BigDecimal arg1) {",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.BigDecimalFormatter." +
+                         "formatTo(sb, arg0, 2, 4, 0);",
+                         "    sb.append(\"|\");",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.BigDecimalFormatter." +
+                         "formatTo(sb, arg1, 3, 5, 15);",
+                         "    return sb.toString();",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_format_bundle_log_format() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.Locale;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.FormatBundle;",
+                         "import com.github.imasahiro.stringformatter.annotation.LogFormat;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  @FormatBundle(\"foo.bar.messages\")",
+                         "  interface Messages {",
+                         "    String greeting(Locale locale, String name);",
+                         "    @LogFormat(\"{} after {} tries\")",
+                         "    String retry(String operation, int tries);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Messages",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.runtime.integers.NumberSymbols;",
+                         "import java.lang.String;",
+                         "import java.util.Locale;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Messages implements Baz.Messages {",
+                         "  public final String retry(final String arg0, final int arg1) {",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(String.valueOf(arg0));",
+                         "    sb.append(\" after \");",
+                         "    sb.append(arg1);",
+                         "    sb.append(\" tries\");",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  private String greeting$0(final Locale arg0, final String arg1) {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(\"Hello \");",
+                         "    sb.append(String.valueOf(arg1));",
+                         "    sb.append(\"!\");",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String greeting(final Locale arg0, final String arg1) {",
+                         "    return greeting$0(arg0, arg1);",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_format_bundle() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import java.util.Locale;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.FormatBundle;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  @FormatBundle(value = \"foo.bar.messages\", locales = { \"fr\", \"fr_CA\" })",
+                         "  interface Messages {",
+                         "    String greeting(Locale locale, String name);",
+                         "    String inbox(Locale locale, String user, int count);",
+                         "    String id(int id);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .compilesWithoutError()
+                 .and()
+                 .generatesSources(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz_Messages",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.runtime.bundle.LocaleSwitch;",
+                         "import com.github.imasahiro.stringformatter.runtime.integers.NumberSymbols;",
+                         "import java.lang.String;",
+                         "import java.util.Locale;",
+                         "import javax.annotation.Generated;",
+                         "import javax.inject.Named;",
+                         "",
+                         GENERATED_ANNOTATION,
+                         "@Named",
+                         "public final class Baz_Messages implements Baz.Messages {",
+                         "  private static final LocaleSwitch LOCALES = new LocaleSwitch(\"fr\", \"fr_CA\");",
+                         "",
+                         "  private String greeting$0(final Locale arg0, final String arg1) {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(\"Hello \");",
+                         "    sb.append(String.valueOf(arg1));",
+                         "    sb.append(\"!\");",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  private String greeting$1(final Locale arg0, final String arg1) {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(\"Bonjour \");",
+                         "    sb.append(String.valueOf(arg1));",
+                         "    sb.append(\" !\");",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  private String greeting$2(final Locale arg0, final String arg1) {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(\"Allo \");",
+                         "    sb.append(String.valueOf(arg1));",
+                         "    sb.append(\" !\");",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String greeting(final Locale arg0, final String arg1) {",
+                         "    switch (LOCALES.indexOf(arg0)) {",
+                         "      case 0:",
+                         "        return greeting$1(arg0, arg1);",
+                         "      case 1:",
+                         "        return greeting$2(arg0, arg1);",
+                         "      default:",
+                         "        return greeting$0(arg0, arg1);",
+                         "    }",
+                         "  }",
+                         "",
+                         "  private String inbox$0(final Locale arg0, final String arg1, final int arg2) {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(String.valueOf(arg1));",
+                         "    sb.append(\" has \");",
+                         "    int start2 = sb.length();",
+                         "    sb.append(arg2);",
+                         "    symbols.localize(sb, start2);",
+                         "    sb.append(\" new messages.\");",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  private String inbox$1(final Locale arg0, final String arg1, final int arg2) {",
+                         "    final NumberSymbols symbols = NumberSymbols.of(arg0);",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(String.valueOf(arg1));",
+                         "    sb.append(\" a \");",
+                         "    int start2 = sb.length();",
+                         "    sb.append(arg2);",
+                         "    symbols.localize(sb, start2);",
+                         "    sb.append(\" nouveaux messages.\");",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String inbox(final Locale arg0, final String arg1, final int arg2) {",
+                         "    switch (LOCALES.indexOf(arg0)) {",
+                         "      case 0:",
+                         "      case 1:",
+                         "        return inbox$1(arg0, arg1, arg2);",
+                         "      default:",
+                         "        return inbox$0(arg0, arg1, arg2);",
+                         "    }",
+                         "  }",
+                         "",
+                         "  private String id$0(final int arg0) {",
+                         "    final StringBuilder sb = new StringBuilder(16);",
+                         "    sb.append(\"id\");",
+                         "    com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter." +
+                         "formatTo(sb, arg0, 1, 8);",
+                         "    return sb.toString();",
+                         "  }",
+                         "",
+                         "  public final String id(final int arg0) {",
+                         "    return id$0(arg0);",
+                         "  }",
+                         "}"));
+    }
+
+    @Test
+    public void testProcess_format_bundle_localized() throws Exception {
+        Compilation compilation =
+                Compiler.javac()
+                        .withProcessors(new StringFormatterProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "foo.bar.Baz",
+                                "package foo.bar;",
+                                "",
+                                "import java.util.Locale;",
+                                "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                                "import com.github.imasahiro.stringformatter.annotation.FormatBundle;",
+                                "",
+                                "public class Baz {",
+                                "  @AutoStringFormatter",
+                                "  @FormatBundle(value = \"foo.bar.messages\", locales = \"fr\")",
+                                "  public interface Messages {",
+                                "    String total(Locale locale, long amount);",
+                                "  }",
+                                "",
+                                "  @AutoStringFormatter(locale = \"de-DE\")",
+                                "  @FormatBundle(value = \"foo.bar.messages\", locales = \"fr\")",
+                                "  public interface GermanMessages {",
+                                "    String total(long amount);",
+                                "  }",
+                                "}"));
+        assertThat(compilation.status()).isEqualTo(Compilation.Status.SUCCESS);
+
+        ClassLoader loader = new CompiledClassLoader(compilation);
+        Class<?> messagesClass = loader.loadClass("foo.bar.Baz_Messages");
+        Object messages = messagesClass.getConstructor().newInstance();
+        Method total = messagesClass.getMethod("total", Locale.class, long.class);
+        assertThat(total.invoke(messages, Locale.GERMANY, 1234567L)).isEqualTo("Total: 1.234.567");
+        assertThat(total.invoke(messages, Locale.FRANCE, 1234567L))
+                .isEqualTo(String.format(Locale.FRANCE, "Total : %,d", 1234567L));
+        // A null locale uses the base bundle with no localization.
+        assertThat(total.invoke(messages, null, 1234567L)).isEqualTo("Total: 1,234,567");
+
+        Class<?> germanClass = loader.loadClass("foo.bar.Baz_GermanMessages");
+        Object german = germanClass.getConstructor().newInstance();
+        assertThat(germanClass.getMethod("total", long.class).invoke(german, 1234567L))
+                .isEqualTo("Total: 1.234.567");
+    }
+
+    @Test
+    public void testProcess_format_bundle_missing_key() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.FormatBundle;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  @FormatBundle(\"foo.bar.messages\")",
+                         "  interface Messages {",
+                         "    String farewell(String name);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("messages.properties does not have the key farewell.");
+    }
+
+    @Test
+    public void testProcess_format_bundle_missing_bundle() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.FormatBundle;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  @FormatBundle(value = \"foo.bar.messages\", locales = \"de\")",
+                         "  interface Messages {",
+                         "    String greeting(String name);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining("Cannot find foo/bar/messages_de.properties");
+    }
+
+    @Test
+    public void testProcess_not_acceptable() throws Exception {
+        assert_().about(javaSource())
+                 .that(JavaFileObjects.forSourceLines(
+                         "foo.bar.Baz",
+                         "package foo.bar;",
+                         "",
+                         "import javax.inject.Qualifier;",
+                         "import com.github.imasahiro.stringformatter.annotation.AutoStringFormatter;",
+                         "import com.github.imasahiro.stringformatter.annotation.Format;",
+                         "",
+                         "public class Baz {",
+                         "  @AutoStringFormatter",
+                         "  interface Formatter {",
+                         "    @Format(\"%d\")",
+                         "    String format(String d);",
+                         "  }",
+                         "}"))
+                 .processedWith(new StringFormatterProcessor())
+                 .failsToCompile()
+                 .withErrorContaining(" cannot not apply to ");
+    }
+
+    /**
+     * Loads the classes of a {@link Compilation}, so that a test can run the generated code.
+     */
+    private static final class CompiledClassLoader extends ClassLoader {
+        private final Compilation compilation;
+
+        CompiledClassLoader(Compilation compilation) {
+            super(StringFormatterTest.class.getClassLoader());
+            this.compilation = compilation;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            String path = '/' + name.replace('.', '/') + ".class";
+            for (JavaFileObject file : compilation.generatedFiles()) {
+                if (file.getKind() == JavaFileObject.Kind.CLASS && file.toUri().getPath().endsWith(path)) {
+                    try (InputStream in = file.openInputStream()) {
+                        byte[] bytes = ByteStreams.toByteArray(in);
+                        return defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+            throw new ClassNotFoundException(name);
+        }
     }
 }
@@ -31,8 +31,84 @@ import java.lang.annotation.Target;
  *     String formatTo(int id);
  * }
  * }</pre>
+ * A method may return {@link CharSequence}, {@link java.util.function.Supplier Supplier&lt;String&gt;} or
+ * {@link com.github.imasahiro.stringformatter.runtime.lazy.LazyMessage} instead of {@link String} to format
+ * the arguments when the result is used for the first time.
  */
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.SOURCE)
 public @interface AutoStringFormatter {
+    /**
+     * The IETF BCP 47 language tag of the locale for the numbers of the methods which do not specify
+     * {@link Format#locale()}. Default is no localization, the same as {@link java.util.Locale#ROOT}.
+     */
+    String locale() default "";
+
+    /**
+     * Generates, for each method, an immutable nested class which captures the arguments in fields of the
+     * declared types and implements {@link com.github.imasahiro.stringformatter.runtime.lazy.CapturedFormat},
+     * and a factory method of it, e.g. {@code FormatToCapture captureFormatTo(int id)} for
+     * {@code String formatTo(int id)}. Default is {@code false}.
+     */
+    boolean capture() default false;
+
+    /**
+     * Generates, for each method which has arguments, a method which takes an array per argument and
+     * formats a row per index to a {@link StringBuilder}, followed by a row separator, e.g.
+     * {@code StringBuilder formatToAll(int[] ids, StringBuilder out, String rowSeparator)} for
+     * {@code String formatTo(int id)}. It grows the buffer once, and creates no {@link String} per row.
+     * The arrays must have the same length. An overload formats the rows from {@code fromRow} to
+     * {@code toRow}, e.g. {@code formatToAll(int[] ids, int fromRow, int toRow, StringBuilder out,
+     * String rowSeparator)}. Default is {@code false}.
+     */
+    boolean batch() default false;
+
+    /**
+     * Generates, for each method, a method which publishes the arguments to a
+     * {@link com.github.imasahiro.stringformatter.runtime.async.FormatRingBuffer} without formatting them,
+     * e.g. {@code publishFormatTo(FormatRingBuffer ring, int id)} for {@code String formatTo(int id)}. The
+     * formatter implements {@link com.github.imasahiro.stringformatter.runtime.async.FormatEventRenderer}
+     * to format the events on the thread of an
+     * {@link com.github.imasahiro.stringformatter.runtime.async.AsyncRenderer}, and
+     * {@code newRingBuffer(int capacity)} creates a ring buffer for them. Default is {@code false}.
+     */
+    boolean async() default false;
+
+    /**
+     * Generates, for each method, a method which encodes the arguments to a
+     * {@link com.github.imasahiro.stringformatter.runtime.binary.BinaryLog binary log} without formatting them,
+     * e.g. {@code encodeFormatTo(ByteBuffer buffer, int id)} for {@code String formatTo(int id)}. The formatter
+     * implements {@link com.github.imasahiro.stringformatter.runtime.binary.BinaryLogDecoder} to format the
+     * records later. The arguments must be primitives, {@link String}s or {@link CharSequence}s.
+     * Default is {@code false}.
+     */
+    boolean binary() default false;
+
+    /**
+     * Generates, for each method, a method which writes a record to a
+     * {@link com.github.imasahiro.stringformatter.runtime.io.GatheringSink}, e.g.
+     * {@code writeFormatTo(GatheringSink sink, int id)} for {@code String formatTo(int id)}. The long literals
+     * of the format are encoded once and shared by the records, and only the formatted arguments are copied
+     * per record. Default is {@code false}.
+     */
+    boolean gathering() default false;
+
+    /**
+     * Generates, for each method, an overload which formats to a {@link java.io.Writer} instead of returning
+     * a {@link String}, e.g. {@code void formatTo(Writer out, int id)} for {@code String formatTo(int id)}. It
+     * formats directly into the buffer of a
+     * {@link com.github.imasahiro.stringformatter.runtime.io.FormatWriter}, which writes the records in large
+     * chunks. Default is {@code false}.
+     */
+    boolean writer() default false;
+
+    /**
+     * Generates, for each method, an overload which writes the formatted text in UTF-8 to a
+     * {@link java.nio.ByteBuffer} from its position, e.g. {@code void formatTo(ByteBuffer out, int id)} for
+     * {@code String formatTo(int id)}. The literals are encoded once, and integers and strings are written
+     * as bytes directly, without a {@link String} or a {@link StringBuilder}, so that a direct buffer is
+     * filled in native memory. The position of the buffer is restored if it overflows. Default is
+     * {@code false}.
+     */
+    boolean byteBuffer() default false;
 }
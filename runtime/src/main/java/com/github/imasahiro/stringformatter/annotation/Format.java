@@ -36,7 +36,15 @@ import java.lang.annotation.Target;
 public @interface Format {
     /**
      *  Format string. See <a href="https://docs.oracle.com/javase/8/docs/api/java/util/Formatter.html#syntax">
-     *  format syntax</a> for format string syntax.
+     *  format syntax</a> for format string syntax. The following conversions are also supported:
+     *  <ul>
+     *    <li>{@code %x} on a {@code byte[]} or {@link java.nio.ByteBuffer} argument prints two hex digits
+     *        per byte. The {@code ','} flag separates bytes with {@code ':'}.</li>
+     *    <li>{@code %r} prints an integer in the radix given as the precision (2 to 62, default 36),
+     *        e.g. {@code %.62r}.</li>
+     *    <li>{@code %d} also accepts {@link java.math.BigInteger}, and {@code %f} also accepts
+     *        {@link java.math.BigDecimal}.</li>
+     *  </ul>
      */
     String value();
 
@@ -45,4 +53,16 @@ public @interface Format {
      * ({@code 16}).
      */
     int capacity() default 16;
+
+    /**
+     * The IETF BCP 47 language tag of the locale for the digits, the grouping separator and the decimal
+     * separator of {@code %d}, {@code %e}, {@code %f} and {@code %g}, e.g. {@code "de-DE"}. The symbols are
+     * resolved when the formatter is generated, and then written without any lookup. Default is
+     * {@link AutoStringFormatter#locale()}.
+     *
+     * <p>If the first parameter of a method is a {@link java.util.Locale}, the symbols of it are used
+     * instead, as {@link String#format(java.util.Locale, String, Object...)}, and the other parameters are
+     * the arguments of the format string. The symbols are cached per {@link java.util.Locale}.
+     */
+    String locale() default "";
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.annotation;
+
+import static java.lang.annotation.ElementType.TYPE;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to read the formats of an {@link AutoStringFormatter} interface from properties resource
+ * bundles at compile time. Each method which returns {@link String} and has none of {@link Format},
+ * {@link MessagePattern} and {@link LogFormat} is formatted by the value of the key of its name. If the
+ * first parameter is a {@link java.util.Locale}, the bundle is chosen by it and numbers are localized for
+ * it, and a {@code null} locale uses the base bundle with no localization. Otherwise the bundle is chosen by
+ * {@link java.util.Locale#getDefault()}, and numbers are localized by {@link AutoStringFormatter#locale()}.
+ * A simple example:
+ * <pre>{@code
+ * // com/example/messages.properties:    greeting=Hello %s!
+ * // com/example/messages_fr.properties: greeting=Bonjour %s !
+ * &#64;AutoStringFormatter
+ * &#64;FormatBundle(value = "com.example.messages", locales = "fr")
+ * interface Messages {
+ *     String greeting(Locale locale, String name);
+ * }
+ * }</pre>
+ *
+ * <p>The bundle files are read by {@link javax.annotation.processing.Filer#getResource} from the source
+ * path or the class path of the compilation, or else from the annotation processor path, as ISO 8859-1
+ * with escapes like
+ * {@link java.util.Properties#load(java.io.InputStream)}. A key which a bundle does not have is looked up
+ * in its parents, e.g. {@code messages_fr_CA}, {@code messages_fr} and then {@code messages}. Unlike
+ * {@link java.util.ResourceBundle}, a locale without a bundle uses the base bundle rather than the bundle
+ * of the default locale.
+ */
+@Target(TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface FormatBundle {
+    /**
+     * The base name of the bundles, as given to {@link java.util.ResourceBundle#getBundle(String)}.
+     */
+    String value();
+
+    /**
+     * The locales of the bundles other than the base bundle, e.g. {@code "ja"} and {@code "fr_CA"}.
+     */
+    String[] locales() default {};
+
+    /**
+     * {@code true} if the values are {@link java.text.MessageFormat} patterns as {@link MessagePattern},
+     * otherwise format strings as {@link Format}.
+     */
+    boolean messagePattern() default false;
+
+    /**
+     * The initial capacity of a buffer. Default is the default capacity of {@link StringBuilder} buffer
+     * ({@code 16}).
+     */
+    int capacity() default 16;
+}
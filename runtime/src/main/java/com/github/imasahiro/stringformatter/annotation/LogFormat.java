@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.annotation;
+
+import static java.lang.annotation.ElementType.METHOD;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to specify the string format as an SLF4J message pattern, so that the pattern of a log
+ * statement can be moved to a formatter as it is. With a {@link CharSequence} return type, the message is
+ * formatted only when it is used, e.g. {@code logger.debug("{}", messages.login(user, attempts))}:
+ * <pre>{@code
+ * &#64;AutoStringFormatter
+ * interface LogMessages {
+ *     &#64;LogFormat("{} logged in after {} attempts")
+ *     CharSequence login(String user, int attempts);
+ * }
+ * }</pre>
+ */
+@Target(METHOD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface LogFormat {
+    /**
+     * Message pattern. Each {@code {}} is replaced with the next argument as
+     * {@code org.slf4j.helpers.MessageFormatter} does: {@code \{}} is a literal {@code {}}, and
+     * {@code \\{}} is a literal {@code \} followed by an argument. The number of the placeholders must be
+     * the number of the parameters. An argument is printed by {@link String#valueOf(Object)}, and it is not
+     * localized. Unlike SLF4J, the elements of an array are not printed.
+     */
+    String value();
+
+    /**
+     * The initial capacity of a buffer. Default is the default capacity of {@link StringBuilder} buffer
+     * ({@code 16}).
+     */
+    int capacity() default 16;
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.annotation;
+
+import static java.lang.annotation.ElementType.METHOD;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to specify the string format as a {@link java.text.MessageFormat} pattern. A simple
+ * example:
+ * <pre>{@code
+ * &#64;AutoStringFormatter
+ * interface InboxMessages {
+ *     &#64;MessagePattern("{0} has {1} new messages.")
+ *     String newMessages(String user, int count);
+ * }
+ * }</pre>
+ */
+@Target(METHOD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface MessagePattern {
+    /**
+     * Message pattern. See {@link java.text.MessageFormat} for the pattern syntax, including quoting with
+     * {@code '}. The format of each argument is chosen by the declared type of the parameter, and only
+     * the formats which do not depend on the locale are supported:
+     * <ul>
+     *   <li>{@code {n}}, {@code {n,number}} and {@code {n,number,integer}} on a {@code byte},
+     *       {@code short}, {@code int}, {@code long} or {@link java.math.BigInteger} parameter print the
+     *       number grouped by {@code ','}, e.g. {@code 1,234}.</li>
+     *   <li>{@code {n,number,#}} on such a parameter prints the number without grouping.
+     *       {@code #,##0} is the same as {@code {n,number}}.</li>
+     *   <li>{@code {n}} on any other parameter prints {@link String#valueOf(Object)} of it.</li>
+     * </ul>
+     * Floating point numbers, boxed numbers, {@link java.util.Date}s and the {@code date}, {@code time}
+     * and {@code choice} format types are not supported, because {@link java.text.MessageFormat} formats
+     * them for the default locale. The separators and the digits of numbers follow
+     * {@link AutoStringFormatter#locale()}, or the first {@link java.util.Locale} parameter as
+     * {@link Format#locale()}.
+     */
+    String value();
+
+    /**
+     * The initial capacity of a buffer. Default is the default capacity of {@link StringBuilder} buffer
+     * ({@code 16}).
+     */
+    int capacity() default 16;
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.annotation;
+
+import static java.lang.annotation.ElementType.METHOD;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to generate a parser of the text formatted by a {@link Format} string. The method takes the
+ * text and a target, and returns whether the whole text matches the format. The target is either an object
+ * whose non-static fields receive the arguments in declaration order, or a functional interface which is
+ * called with the arguments. A simple example:
+ * <pre>{@code
+ * &#64;AutoStringFormatter
+ * interface IdFormatter {
+ *     &#64;Format("%016x%016x")
+ *     String format(long upper, long lower);
+ *
+ *     &#64;Parse("%016x%016x")
+ *     boolean parse(CharSequence text, IdConsumer consumer);
+ * }
+ *
+ * interface IdConsumer {
+ *     void accept(long upper, long lower);
+ * }
+ * }</pre>
+ * The parser reads the text with no regular expression, and it creates no substring except for a
+ * {@link String} argument. The target is updated only when the text matches.
+ */
+@Target(METHOD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Parse {
+    /**
+     * Format string in the syntax of {@link Format#value()}, with the following conversions:
+     * <ul>
+     *   <li>{@code %d} for {@code byte}, {@code short}, {@code int} and {@code long}. A sign is optional.</li>
+     *   <li>{@code %x} for {@code byte}, {@code short}, {@code int} and {@code long}, in either case.</li>
+     *   <li>{@code %s} for {@link String} and {@link CharSequence}, which ends at the next literal.</li>
+     *   <li>{@code %c} for {@code char}, and {@code %b} for {@code boolean}.</li>
+     * </ul>
+     * A {@code %s} ends at the next literal, so it must be followed by a literal or the end of the format.
+     * A number is read while digits continue, and a zero-padded width requires at least that many
+     * characters. A zero-padded number followed by another specifier reads exactly its width, so that numbers
+     * can be adjacent as in {@code %016x%016x}. The spaces padded by a width or the
+     * {@code ' '} flag are skipped except for {@code %s}. Numbers are not localized.
+     */
+    String value();
+}
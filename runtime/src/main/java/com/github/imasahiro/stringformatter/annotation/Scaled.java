@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.annotation;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to format an {@code int} or {@code long} parameter {@code v} as the decimal number
+ * {@code v / 10^value()} by {@code %f} and {@code %s}. {@code %s} prints {@link #value()} fractional digits.
+ * A simple example:
+ * <pre>{@code
+ * &#64;AutoStringFormatter
+ * interface PriceFormatter {
+ *     // format(12345) returns "123.45 USD"
+ *     &#64;Format("%.2f USD")
+ *     String format(@Scaled(2) long cents);
+ * }
+ * }</pre>
+ */
+@Target(PARAMETER)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Scaled {
+    /**
+     * The number of fractional digits of the parameter, between {@code 0} and {@code 18}.
+     */
+    int value();
+}
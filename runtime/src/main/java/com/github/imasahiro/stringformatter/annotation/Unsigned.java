@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.annotation;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to format an {@code int} or {@code long} parameter as an unsigned integer by {@code %d}
+ * and {@code %s}. A simple example:
+ * <pre>{@code
+ * &#64;AutoStringFormatter
+ * interface HashFormatter {
+ *     &#64;Format("hash=%d")
+ *     String format(@Unsigned long hash);
+ * }
+ * }</pre>
+ */
+@Target(PARAMETER)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Unsigned {
+}
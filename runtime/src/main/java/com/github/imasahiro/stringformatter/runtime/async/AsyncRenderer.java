@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.async;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Renders the events of a {@link FormatRingBuffer} on a background thread, one line per event, and writes
+ * them to a {@link Writer} in batches. The writer is flushed when the ring has no more events or a batch
+ * is full, so that a burst of events costs a few writes.
+ * <pre>{@code
+ * FormatRingBuffer ring = formatter.newRingBuffer(1024);
+ * try (AsyncRenderer renderer = new AsyncRenderer(ring, formatter, writer, 8192)) {
+ *     formatter.publishOrder(ring, id, quantity);
+ * }
+ * }</pre>
+ * {@link #close()} closes the ring, so that publishing an event afterwards throws
+ * {@link IllegalStateException}, renders every event claimed before, and stops the thread. It does not close
+ * the writer. A failure of rendering or writing drops the events, and is thrown by {@link #close()}.
+ */
+public final class AsyncRenderer implements AutoCloseable {
+    private static final long CONSUMER_PARK_NANOS = 50_000;
+    // How long close() waits for an event which was claimed but is not published yet.
+    private static final long PUBLISH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final FormatRingBuffer ring;
+    private final FormatEventRenderer renderer;
+    private final Writer writer;
+    private final int batchSize;
+    private final StringBuilder batch;
+    private final Thread thread;
+    private volatile boolean running = true;
+    // The number of events to render, set by close() before it clears running.
+    private volatile long end = -1;
+    // The first failure of rendering or writing, thrown by close().
+    private volatile Throwable failure;
+
+    /**
+     * Creates a new instance and starts the background thread.
+     * @param batchSize the number of characters to write at once.
+     */
+    public AsyncRenderer(FormatRingBuffer ring, FormatEventRenderer renderer, Writer writer, int batchSize) {
+        this.ring = ring;
+        this.renderer = renderer;
+        this.writer = writer;
+        this.batchSize = batchSize;
+        batch = new StringBuilder(batchSize + 256);
+        thread = new Thread(this::run, "async-renderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            consume();
+        } catch (Throwable t) {
+            fail(t);
+        } finally {
+            // Producers must not wait for this thread any longer.
+            ring.abandon();
+        }
+    }
+
+    private void consume() {
+        long sequence = 0;
+        // The sequence which close() is waiting to be published, and until when.
+        long waitingFor = -1;
+        long deadline = 0;
+        while (true) {
+            if (ring.isPublished(sequence)) {
+                int length = batch.length();
+                try {
+                    renderer.render(ring, sequence, batch);
+                    batch.append('\n');
+                } catch (Throwable t) {
+                    // Drops the event, but keeps the thread running not to block the producers.
+                    batch.setLength(length);
+                    fail(t);
+                }
+                ring.release(sequence++);
+                if (batch.length() >= batchSize) {
+                    flush();
+                }
+            } else if (batch.length() > 0) {
+                flush();
+            } else if (running) {
+                LockSupport.parkNanos(CONSUMER_PARK_NANOS);
+            } else if (sequence == end) {
+                // Stopped, and rendered all events claimed before close().
+                return;
+            } else {
+                // A producer claimed the event before close(), and is about to publish it.
+                long now = System.nanoTime();
+                if (waitingFor != sequence) {
+                    waitingFor = sequence;
+                    deadline = now + PUBLISH_TIMEOUT_NANOS;
+                } else if (now - deadline > 0) {
+                    fail(new IllegalStateException("The event " + sequence +
+                                                   " was claimed, but not published."));
+                    return;
+                }
+                LockSupport.parkNanos(CONSUMER_PARK_NANOS);
+            }
+        }
+    }
+
+    private void flush() {
+        try {
+            writer.append(batch);
+            writer.flush();
+        } catch (Throwable t) {
+            // Drops the batch, but keeps the thread running not to block the producers.
+            fail(t);
+        }
+        batch.setLength(0);
+    }
+
+    private void fail(Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+    }
+
+    /**
+     * Renders the events which were published before, and stops the background thread.
+     * @throws IOException if the writer failed.
+     * @throws RuntimeException if an event failed to be rendered or written.
+     * @throws Error if rendering or writing threw an {@link Error}.
+     */
+    @Override
+    public void close() throws IOException {
+        end = ring.close();
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable cause = failure;
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.async;
+
+/**
+ * Formats the events of a {@link FormatRingBuffer}. A formatter generated with
+ * {@code @AutoStringFormatter(async = true)} implements this interface for the events published by it.
+ */
+public interface FormatEventRenderer {
+    /**
+     * Formats the published event of {@code sequence} to {@code sb}.
+     */
+    void render(FormatRingBuffer ring, long sequence, StringBuilder sb);
+}
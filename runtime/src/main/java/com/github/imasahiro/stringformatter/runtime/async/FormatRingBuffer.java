@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.async;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A preallocated ring buffer of format events for many producers and one consumer. An event is the id of
+ * a formatter method and its arguments; primitives are stored in a {@code long} slot without boxing, and
+ * references in an {@code Object} slot. A producer claims a sequence, stores the arguments and publishes
+ * the event:
+ * <pre>{@code
+ * long sequence = ring.claim();
+ * ring.putLong(sequence, 0, id);
+ * ring.putObject(sequence, 0, name);
+ * ring.publish(sequence, methodId);
+ * }</pre>
+ * A producer waits for the consumer if the ring is full. The consumer reads the events in the order of
+ * the sequences, and releases each event after reading it. {@link #close()} stops claiming, and tells the
+ * consumer how many events were claimed, so that it reads all of them. Once the consumer stops reading, it
+ * abandons the ring so that no producer waits for it forever.
+ */
+public final class FormatRingBuffer {
+    private static final long PRODUCER_PARK_NANOS = 1000;
+    // Set to the claimed count by close(), so that claiming and closing are atomic to each other.
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final int mask;
+    private final int longsPerEvent;
+    private final int objectsPerEvent;
+    private final long[] longs;
+    private final Object[] objects;
+    private final int[] methodIds;
+    // The sequence published to each slot, or -1.
+    private final AtomicLongArray published;
+    // The next sequence to claim, with CLOSED once the ring is closed.
+    private final AtomicLong claimed = new AtomicLong();
+    // The next sequence to be released by the consumer.
+    private final AtomicLong released = new AtomicLong();
+    private volatile boolean abandoned;
+
+    /**
+     * Creates a new instance.
+     * @param capacity the number of events, a power of 2.
+     * @param longsPerEvent the number of primitive arguments of an event.
+     * @param objectsPerEvent the number of reference arguments of an event.
+     */
+    public FormatRingBuffer(int capacity, int longsPerEvent, int objectsPerEvent) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of 2: " + capacity);
+        }
+        if (longsPerEvent < 0 || objectsPerEvent < 0) {
+            throw new IllegalArgumentException("the number of arguments must be positive or zero: " +
+                                               longsPerEvent + ", " + objectsPerEvent);
+        }
+        mask = capacity - 1;
+        this.longsPerEvent = longsPerEvent;
+        this.objectsPerEvent = objectsPerEvent;
+        longs = new long[capacity * longsPerEvent];
+        objects = new Object[capacity * objectsPerEvent];
+        methodIds = new int[capacity];
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Claims the sequence of a new event, waiting while the ring is full. A claimed event must be published.
+     * @throws IllegalStateException if the ring is closed, or the consumer abandoned it.
+     */
+    public long claim() {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if ((sequence & CLOSED) != 0) {
+                throw new IllegalStateException("The ring buffer is closed.");
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        long wrapPoint = sequence - mask - 1;
+        while (wrapPoint >= released.get()) {
+            if (abandoned) {
+                throw new IllegalStateException("The consumer of the ring buffer stopped.");
+            }
+            LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+        }
+        return sequence;
+    }
+
+    /**
+     * Closes the ring, so that {@link #claim()} throws afterwards, and returns the number of the events
+     * claimed before. The producers which claimed them still publish them, so the consumer reads the events
+     * up to the returned sequence.
+     */
+    public long close() {
+        long sequence;
+        do {
+            sequence = claimed.get();
+        } while ((sequence & CLOSED) == 0 && !claimed.compareAndSet(sequence, sequence | CLOSED));
+        return sequence & ~CLOSED;
+    }
+
+    /**
+     * Closes the ring, and makes the producers waiting for a slot throw, because the consumer no longer
+     * releases events. Only the consumer calls this when it stops reading.
+     */
+    public void abandon() {
+        close();
+        abandoned = true;
+    }
+
+    /**
+     * Stores a primitive argument, e.g. {@link Double#doubleToRawLongBits(double)} of a {@code double}.
+     */
+    public void putLong(long sequence, int index, long value) {
+        longs[(int) (sequence & mask) * longsPerEvent + index] = value;
+    }
+
+    /**
+     * Stores a reference argument.
+     */
+    public void putObject(long sequence, int index, Object value) {
+        objects[(int) (sequence & mask) * objectsPerEvent + index] = value;
+    }
+
+    /**
+     * Publishes the event of {@code sequence} to the consumer.
+     */
+    public void publish(long sequence, int methodId) {
+        int slot = (int) (sequence & mask);
+        methodIds[slot] = methodId;
+        // A release store; the arguments are visible to the consumer which sees the sequence.
+        published.lazySet(slot, sequence);
+    }
+
+    /**
+     * Returns {@code true} if the event of {@code sequence} is published. Only the consumer calls this.
+     */
+    public boolean isPublished(long sequence) {
+        return published.get((int) (sequence & mask)) == sequence;
+    }
+
+    /**
+     * Returns the id of the formatter method of a published event.
+     */
+    public int getMethodId(long sequence) {
+        return methodIds[(int) (sequence & mask)];
+    }
+
+    /**
+     * Returns a primitive argument of a published event.
+     */
+    public long getLong(long sequence, int index) {
+        return longs[(int) (sequence & mask) * longsPerEvent + index];
+    }
+
+    /**
+     * Returns a reference argument of a published event.
+     */
+    public Object getObject(long sequence, int index) {
+        return objects[(int) (sequence & mask) * objectsPerEvent + index];
+    }
+
+    /**
+     * Releases the event of {@code sequence}, which must be the oldest event, so that a producer reuses
+     * the slot. Only the consumer calls this.
+     */
+    public void release(long sequence) {
+        int base = (int) (sequence & mask) * objectsPerEvent;
+        for (int i = 0; i < objectsPerEvent; i++) {
+            // Not to keep the arguments reachable.
+            objects[base + i] = null;
+        }
+        released.lazySet(sequence + 1);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.batch;
+
+/**
+ * Reserves the buffer of a batch method generated with {@code @AutoStringFormatter(batch = true)} before it
+ * formats the rows.
+ */
+public final class BatchCapacity {
+    /**
+     * The most chars reserved at once. The capacity of a row is only a hint, so a large range of rows grows
+     * the buffer as it is filled beyond this, rather than allocating an array that may not be needed or may
+     * exceed the VM limit.
+     */
+    public static final int MAX_RESERVED = 1 << 24;
+
+    private BatchCapacity() {
+    }
+
+    /**
+     * Ensures that {@code out} can hold {@code rows} more rows of {@code rowCapacity} chars, up to
+     * {@link #MAX_RESERVED} chars more than its length.
+     */
+    public static StringBuilder reserve(StringBuilder out, int rows, int rowCapacity) {
+        long reserved = Math.min((long) rows * rowCapacity, MAX_RESERVED);
+        out.ensureCapacity((int) Math.min(out.length() + reserved, Integer.MAX_VALUE - 8));
+        return out;
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.batch;
+
+/**
+ * Formats a range of rows for {@link ParallelExporter}. It is typically a batch method generated with
+ * {@code @AutoStringFormatter(batch = true)}.
+ * <pre>{@code
+ * ChunkFormatter chunk = (fromRow, toRow, out) -> formatter.rowAll(ids, prices, fromRow, toRow, out, "\n");
+ * }</pre>
+ */
+@FunctionalInterface
+public interface ChunkFormatter {
+    /**
+     * Appends the rows from {@code fromRow} (inclusive) to {@code toRow} (exclusive) to {@code out}.
+     */
+    void formatTo(int fromRow, int toRow, StringBuilder out);
+}
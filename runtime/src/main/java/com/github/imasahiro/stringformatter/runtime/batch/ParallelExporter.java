@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.batch;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Formats rows in parallel. The rows are split into chunks of a fixed number of rows, each chunk is formatted
+ * into its own buffer by a task of a {@link ForkJoinPool}, and the chunks are written in order. At most twice
+ * the parallelism of the pool of chunks are formatted or waiting to be written at a time, so that the memory
+ * does not grow with the number of rows.
+ * <pre>{@code
+ * ParallelExporter exporter = new ParallelExporter(ForkJoinPool.commonPool(), 65536);
+ * exporter.writeTo(channel, StandardCharsets.UTF_8, ids.length,
+ *                  (fromRow, toRow, out) -> formatter.rowAll(ids, prices, fromRow, toRow, out, "\n"));
+ * }</pre>
+ */
+public final class ParallelExporter {
+    private final ForkJoinPool pool;
+    private final int rowsPerChunk;
+    private final int maxChunksInFlight;
+
+    /**
+     * Creates a new instance.
+     * @param rowsPerChunk the number of the rows formatted by a task.
+     */
+    public ParallelExporter(ForkJoinPool pool, int rowsPerChunk) {
+        if (rowsPerChunk <= 0) {
+            throw new IllegalArgumentException("rowsPerChunk must be positive : " + rowsPerChunk);
+        }
+        this.pool = pool;
+        this.rowsPerChunk = rowsPerChunk;
+        maxChunksInFlight = pool.getParallelism() * 2;
+    }
+
+    /**
+     * Formats {@code rows} rows with {@code formatter}, and writes them to {@code channel} in
+     * {@code charset}.
+     */
+    public void writeTo(WritableByteChannel channel, Charset charset, int rows, ChunkFormatter formatter)
+            throws IOException {
+        export(rows, formatter, chunk -> charset.encode(CharBuffer.wrap(chunk)), buffer -> {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    /**
+     * Formats {@code rows} rows with {@code formatter}, and appends them to {@code out}.
+     */
+    public void appendTo(Appendable out, int rows, ChunkFormatter formatter) throws IOException {
+        export(rows, formatter, Function.identity(), out::append);
+    }
+
+    private <T> void export(int rows, ChunkFormatter formatter, Function<StringBuilder, T> finisher,
+                            ChunkWriter<T> writer) throws IOException {
+        final int chunks = (int) ((rows + (long) rowsPerChunk - 1) / rowsPerChunk);
+        final ArrayDeque<ForkJoinTask<T>> inFlight = new ArrayDeque<>(maxChunksInFlight);
+        int nextChunk = 0;
+        try {
+            for (int i = 0; i < chunks; i++) {
+                while (nextChunk < chunks && inFlight.size() < maxChunksInFlight) {
+                    final int fromRow = nextChunk++ * rowsPerChunk;
+                    final int toRow = (int) Math.min(rows, (long) fromRow + rowsPerChunk);
+                    inFlight.add(pool.submit(() -> {
+                        final StringBuilder chunk = new StringBuilder();
+                        formatter.formatTo(fromRow, toRow, chunk);
+                        return finisher.apply(chunk);
+                    }));
+                }
+                // Throws the exception of the task, if any.
+                writer.write(inFlight.poll().join());
+            }
+        } finally {
+            // Cancels the remaining tasks on a failure.
+            inFlight.forEach(task -> task.cancel(false));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(T chunk) throws IOException;
+    }
+}
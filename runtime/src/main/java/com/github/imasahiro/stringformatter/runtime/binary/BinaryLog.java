@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.binary;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.github.imasahiro.stringformatter.runtime.io.Utf8;
+
+/**
+ * Reads and writes a binary log, to which a formatter generated with
+ * {@code @AutoStringFormatter(binary = true)} encodes the arguments of its methods instead of formatting them.
+ * A record is the {@code int} id of the method followed by the arguments: primitive values in their own sizes
+ * and the byte order of the buffer, a {@code boolean} in a byte, and strings by {@link #putString}.
+ * The id of a method is the hash code of its signature, e.g. {@code "order(long,java.lang.String)".hashCode()},
+ * so that the records remain readable while other methods are added or removed.
+ * <pre>{@code
+ * formatter.encodeOrder(buffer, id, symbol);
+ * ...
+ * buffer.flip();
+ * BinaryLog.render(buffer, formatter, writer);
+ * }</pre>
+ */
+public final class BinaryLog {
+    private static final int MAX_LENGTH_BYTES = 5;
+
+    private BinaryLog() {
+    }
+
+    /**
+     * Writes {@code value} in UTF-8, prefixed with the number of the bytes plus one, or {@code 0} for
+     * {@code null}, in an unsigned variable-length integer of 7 bits per byte. A lone surrogate is written as
+     * {@code '?'}.
+     */
+    public static void putString(ByteBuffer buffer, CharSequence value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        putLength(buffer, Utf8.length(value) + 1);
+        Utf8.encode(value, buffer);
+    }
+
+    /**
+     * Reads a string written by {@link #putString}.
+     * @throws BufferUnderflowException if the string is truncated.
+     */
+    public static String getString(ByteBuffer buffer) {
+        final int length = getLength(buffer) - 1;
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("Malformed string length");
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                               StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            final byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    /**
+     * Decodes the records from the position to the limit of {@code buffer} with {@code decoder}, and appends
+     * them to {@code out}, one line per record.
+     */
+    public static void render(ByteBuffer buffer, BinaryLogDecoder decoder, Appendable out) throws IOException {
+        final StringBuilder sb = new StringBuilder(256);
+        while (buffer.hasRemaining()) {
+            sb.setLength(0);
+            decoder.decode(buffer, sb);
+            out.append(sb.append('\n'));
+        }
+    }
+
+    private static void putLength(ByteBuffer buffer, int length) {
+        while ((length & ~0x7F) != 0) {
+            buffer.put((byte) (length & 0x7F | 0x80));
+            length >>>= 7;
+        }
+        buffer.put((byte) length);
+    }
+
+    private static int getLength(ByteBuffer buffer) {
+        int length = 0;
+        for (int i = 0; i < MAX_LENGTH_BYTES; i++) {
+            final byte b = buffer.get();
+            length |= (b & 0x7F) << 7 * i;
+            if (b >= 0) {
+                return length;
+            }
+        }
+        throw new IllegalArgumentException("Malformed string length");
+    }
+}
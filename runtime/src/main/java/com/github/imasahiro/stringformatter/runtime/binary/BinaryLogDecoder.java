@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.binary;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes the records of a binary log. A formatter generated with {@code @AutoStringFormatter(binary = true)}
+ * implements this interface for the records encoded by it.
+ */
+public interface BinaryLogDecoder {
+    /**
+     * Reads a record from the position of {@code buffer} and formats it to {@code sb}.
+     * @throws IllegalArgumentException if the record was not encoded by this decoder.
+     * @throws java.nio.BufferUnderflowException if the record is truncated.
+     */
+    void decode(ByteBuffer buffer, StringBuilder sb);
+}
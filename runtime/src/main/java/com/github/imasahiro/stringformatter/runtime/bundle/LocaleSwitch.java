@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.bundle;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selects the bundle for a {@link Locale} from the locales of the bundles a formatter was generated from,
+ * in the order of {@link java.util.ResourceBundle} candidates: {@code language_COUNTRY_variant},
+ * {@code language_COUNTRY} and {@code language}. The result is cached per {@link Locale}.
+ */
+public final class LocaleSwitch {
+    private static final int ROOT = -1;
+
+    // "ja_JP" -> index
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final Map<Locale, Integer> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance.
+     * @param locales the suffixes of the bundle names, e.g. {@code "ja"} for {@code messages_ja.properties}.
+     */
+    public LocaleSwitch(String... locales) {
+        for (int i = 0; i < locales.length; i++) {
+            indexes.put(locales[i], i);
+        }
+    }
+
+    /**
+     * Returns the index of the bundle for {@code locale}, or {@code -1} if the base bundle is used. A
+     * {@code null} locale uses the base bundle, as it gives no localization to {@link String#format}.
+     */
+    public int indexOf(Locale locale) {
+        if (locale == null) {
+            return ROOT;
+        }
+        Integer index = cache.get(locale);
+        if (index == null) {
+            index = lookup(locale);
+            cache.put(locale, index);
+        }
+        return index;
+    }
+
+    private int lookup(Locale locale) {
+        String language = locale.getLanguage();
+        String country = locale.getCountry();
+        String variant = locale.getVariant();
+        if (!variant.isEmpty()) {
+            Integer index = indexes.get(language + '_' + country + '_' + variant);
+            if (index != null) {
+                return index;
+            }
+        }
+        if (!country.isEmpty()) {
+            Integer index = indexes.get(language + '_' + country);
+            if (index != null) {
+                return index;
+            }
+        }
+        Integer index = indexes.get(language);
+        return index != null ? index : ROOT;
+    }
+}
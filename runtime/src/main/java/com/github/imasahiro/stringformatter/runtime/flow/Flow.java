@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.flow;
+
+/**
+ * The interfaces of the reactive streams with demand, which mirror {@code java.util.concurrent.Flow} of
+ * Java 9 on Java 8. A component written against them is adapted to {@code java.util.concurrent.Flow} by
+ * delegating each method of the same name.
+ */
+public final class Flow {
+    private Flow() {
+    }
+
+    /**
+     * A producer of items received by {@link Subscriber}s.
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+        /**
+         * Adds {@code subscriber}, which receives {@link Subscriber#onSubscribe} first.
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * A receiver of items, which are signaled serially and no more than requested.
+     */
+    public interface Subscriber<T> {
+        /**
+         * Called before any other method, with the subscription to request items.
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Called with the next item.
+         */
+        void onNext(T item);
+
+        /**
+         * Called when the subscription failed. No other method is called after it.
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called when no more item is signaled. No other method is called after it.
+         */
+        void onComplete();
+    }
+
+    /**
+     * The link between a {@link Publisher} and a {@link Subscriber}.
+     */
+    public interface Subscription {
+        /**
+         * Adds {@code n} items to the demand of the subscriber.
+         */
+        void request(long n);
+
+        /**
+         * Stops the subscriber receiving items.
+         */
+        void cancel();
+    }
+
+    /**
+     * A stage which is both a {@link Subscriber} and a {@link Publisher}.
+     */
+    public interface Processor<T, R> extends Subscriber<T>, Publisher<R> {
+    }
+}
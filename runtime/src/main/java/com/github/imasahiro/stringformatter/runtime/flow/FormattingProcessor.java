@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.flow;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.github.imasahiro.stringformatter.runtime.io.Utf8;
+import com.github.imasahiro.stringformatter.runtime.lazy.CapturedFormat;
+
+/**
+ * A {@link Flow.Processor} which formats captured arguments, e.g. created by a formatter generated with
+ * {@code @AutoStringFormatter(capture = true)}, into {@link ByteBuffer}s of UTF-8 text. The records are
+ * formatted into a pool of buffers, and a buffer is published when the next record does not fit in it, or all
+ * the records requested from the upstream have been formatted. The records are requested from the upstream
+ * in batches, only while the downstream has demand and a buffer is free, so that the memory is bounded by
+ * the pool and a batch.
+ * <pre>{@code
+ * FormattingProcessor processor = new FormattingProcessor(65536, 4, 1024);
+ * publisher.subscribe(processor);
+ * processor.subscribe(new Flow.Subscriber<ByteBuffer>() {
+ *     public void onNext(ByteBuffer buffer) {
+ *         channel.write(buffer);
+ *         processor.release(buffer);
+ *         subscription.request(1);
+ *     }
+ *     ...
+ * });
+ * }</pre>
+ * A subscriber must {@link #release} each buffer when it has been consumed. Only one subscriber is supported.
+ */
+public final class FormattingProcessor implements Flow.Processor<CapturedFormat, ByteBuffer> {
+    private static final Flow.Subscription EMPTY_SUBSCRIPTION = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final int bufferSize;
+    private final int batchSize;
+    private final BlockingQueue<ByteBuffer> free;
+    private final BlockingQueue<CapturedFormat> pending;
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final AtomicReference<Flow.Subscriber<? super ByteBuffer>> downstream = new AtomicReference<>();
+    private final AtomicLong demand = new AtomicLong();
+    // The number of the records requested from the upstream and not received yet.
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private volatile Throwable error;
+
+    // Accessed only by the thread draining.
+    private final ArrayDeque<ByteBuffer> ready;
+    private final StringBuilder sb = new StringBuilder(256);
+    private ByteBuffer current;
+    // Whether the head of pending has been formatted to sb.
+    private boolean formatted;
+    private int recordLength;
+    private boolean terminated;
+
+    /**
+     * Creates a new instance.
+     * @param bufferSize the number of the bytes of a buffer, which limits the length of a record.
+     * @param poolSize the number of the buffers.
+     * @param batchSize the number of the records requested from the upstream at a time.
+     */
+    public FormattingProcessor(int bufferSize, int poolSize, int batchSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive : " + bufferSize);
+        }
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("poolSize must be positive : " + poolSize);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive : " + batchSize);
+        }
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        free = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            free.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+        pending = new ArrayBlockingQueue<>(batchSize);
+        ready = new ArrayDeque<>(poolSize);
+    }
+
+    /**
+     * Returns {@code buffer} published by this processor to the pool, to format other records into it.
+     * @throws IllegalArgumentException if the pool is full, e.g. {@code buffer} has been released already.
+     */
+    public void release(ByteBuffer buffer) {
+        buffer.clear();
+        if (!free.offer(buffer)) {
+            throw new IllegalArgumentException("Buffer pool is full");
+        }
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "subscription");
+        if (!upstream.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(CapturedFormat item) {
+        Objects.requireNonNull(item, "item");
+        if (!pending.offer(item)) {
+            fail(new IllegalStateException("Received more records than requested"));
+            return;
+        }
+        // After the record is added, so that all records have been added when it becomes zero.
+        outstanding.decrementAndGet();
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable, "throwable");
+        error = throwable;
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(EMPTY_SUBSCRIPTION);
+            subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("n must be positive : " + n));
+                    return;
+                }
+                demand.accumulateAndGet(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                cancelUpstream();
+                drain();
+            }
+        });
+        drain();
+    }
+
+    private void fail(Throwable throwable) {
+        error = throwable;
+        cancelUpstream();
+        drain();
+    }
+
+    private void cancelUpstream() {
+        final Flow.Subscription subscription = upstream.get();
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Runs {@link #drainOnce()} on one thread at a time, again if another thread signaled while running it.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            drainOnce();
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainOnce() {
+        final Flow.Subscriber<? super ByteBuffer> subscriber = downstream.get();
+        if (terminated || subscriber == null) {
+            return;
+        }
+        if (cancelled) {
+            terminate();
+            return;
+        }
+        if (error != null) {
+            terminate();
+            subscriber.onError(error);
+            return;
+        }
+        // Read before pending, so that all records have been received if it is true.
+        final boolean completed = done;
+        try {
+            formatPending();
+        } catch (RuntimeException e) {
+            cancelUpstream();
+            terminate();
+            subscriber.onError(e);
+            return;
+        }
+        if (pending.isEmpty() && current != null && current.position() > 0 &&
+            (completed || outstanding.get() == 0)) {
+            current.flip();
+            ready.add(current);
+            current = null;
+        }
+
+        long requested = demand.get();
+        while (requested > 0 && !ready.isEmpty()) {
+            subscriber.onNext(ready.poll());
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            requested = requested == Long.MAX_VALUE ? requested : demand.decrementAndGet();
+        }
+
+        if (completed) {
+            if (pending.isEmpty() && ready.isEmpty() && (current == null || current.position() == 0)) {
+                terminate();
+                subscriber.onComplete();
+            }
+            return;
+        }
+        final Flow.Subscription subscription = upstream.get();
+        if (subscription != null && requested > 0 && ready.isEmpty() && pending.isEmpty() &&
+            outstanding.get() == 0 && (current != null || !free.isEmpty())) {
+            outstanding.set(batchSize);
+            subscription.request(batchSize);
+        }
+    }
+
+    /**
+     * Formats the pending records into the current buffer, until no buffer is free.
+     */
+    private void formatPending() {
+        CapturedFormat item;
+        while ((item = pending.peek()) != null) {
+            if (!formatted) {
+                sb.setLength(0);
+                item.formatTo(sb);
+                recordLength = Utf8.length(sb);
+                if (recordLength > bufferSize) {
+                    throw new IllegalArgumentException(
+                            "Record of " + recordLength + " bytes is longer than bufferSize " + bufferSize);
+                }
+                formatted = true;
+            }
+            if (current != null && current.remaining() < recordLength) {
+                current.flip();
+                ready.add(current);
+                current = null;
+            }
+            if (current == null && (current = free.poll()) == null) {
+                return;
+            }
+            Utf8.encode(sb, current);
+            pending.poll();
+            formatted = false;
+        }
+    }
+
+    private void terminate() {
+        terminated = true;
+        pending.clear();
+        ready.clear();
+        current = null;
+    }
+}
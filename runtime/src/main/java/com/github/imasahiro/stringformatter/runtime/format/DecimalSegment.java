@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+
+import com.github.imasahiro.stringformatter.runtime.integers.BigDecimalFormatter;
+
+/**
+ * Decimal float conversion ({@code %f}). {@link BigDecimal} arguments are written by
+ * {@link BigDecimalFormatter}, and others by {@link java.util.Formatter}.
+ */
+final class DecimalSegment extends SpecifierSegment {
+    static final int DEFAULT_PRECISION = 6;
+
+    private final int precision;
+    private final int formatterFlags;
+
+    DecimalSegment(Specifier specifier) {
+        super(specifier);
+        precision = specifier.precision >= 0 ? specifier.precision : DEFAULT_PRECISION;
+        formatterFlags = specifier.has(Specifier.ZERO) ? BigDecimalFormatter.PADDED_WITH_ZEROS : 0;
+    }
+
+    static boolean supports(Specifier specifier) {
+        return specifier.hasOnly(Specifier.ZERO) &&
+               (!specifier.has(Specifier.ZERO) || specifier.width >= 0);
+    }
+
+    @Override
+    MethodHandle specialize(Class<?> type) {
+        if (type != BigDecimal.class) {
+            return null;
+        }
+        MethodHandle kernel = FormatCompiler.findStatic(
+                BigDecimalFormatter.class, "formatTo",
+                MethodType.methodType(StringBuilder.class, StringBuilder.class, BigDecimal.class, int.class,
+                                      int.class, int.class));
+        return MethodHandles.insertArguments(kernel, 2, precision, formatterFlags, specifier.width);
+    }
+
+    @Override
+    void formatArgument(StringBuilder sb, Object arg) {
+        if (arg instanceof BigDecimal) {
+            BigDecimalFormatter.formatTo(sb, (BigDecimal) arg, precision, formatterFlags, specifier.width);
+        } else {
+            fallback(sb, arg);
+        }
+    }
+}
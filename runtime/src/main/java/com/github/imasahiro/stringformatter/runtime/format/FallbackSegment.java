@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+/**
+ * A format specifier which is always formatted by {@link java.util.Formatter}, e.g. {@code %e} and
+ * {@code %tY}.
+ */
+final class FallbackSegment extends SpecifierSegment {
+    FallbackSegment(Specifier specifier) {
+        super(specifier);
+    }
+
+    @Override
+    void formatArgument(StringBuilder sb, Object arg) {
+        fallback(sb, arg);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.MissingFormatArgumentException;
+
+/**
+ * Compiles a format string and the types of its arguments into a {@link MethodHandle}. Each specifier is
+ * bound to the formatter for the declared type of its argument, e.g.
+ * {@link com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter#formatTo(StringBuilder, int,
+ * int, int)} for {@code %05d} and {@code int}, with the flags and the width as constants, so the handle
+ * does the same as the code generated by the annotation processor. Specifiers whose argument type has no
+ * dedicated formatter are formatted as {@link Formats#format(String, Object...)} does.
+ *
+ * <p>The JIT compiler inlines the whole handle when it is a constant, e.g. in a {@code static final}
+ * field, so compile a format once and keep the handle rather than compiling it per call.
+ */
+public final class FormatCompiler {
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private static final MethodHandle APPEND_STRING =
+            findVirtual(StringBuilder.class, "append",
+                        MethodType.methodType(StringBuilder.class, String.class));
+    private static final MethodHandle FORMAT_ARGUMENT =
+            findVirtual(SpecifierSegment.class, "formatArgument",
+                        MethodType.methodType(void.class, StringBuilder.class, Object.class));
+    private static final MethodHandle TO_STRING =
+            findVirtual(StringBuilder.class, "toString", MethodType.methodType(String.class));
+    private static final MethodHandle NEW_STRING_BUILDER;
+    private static final MethodType APPENDER_TYPE = MethodType.methodType(void.class, StringBuilder.class);
+    // (StringBuilder)void which does nothing.
+    private static final MethodHandle NOOP =
+            MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, StringBuilder.class)
+                         .asType(APPENDER_TYPE);
+
+    static {
+        try {
+            NEW_STRING_BUILDER = lookup.findConstructor(StringBuilder.class,
+                                                        MethodType.methodType(void.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private FormatCompiler() {
+    }
+
+    /**
+     * Compiles {@code format} into a {@link MethodHandle} of type {@code (argumentTypes...)String}, e.g.
+     * {@code compile("%s=%d", String.class, int.class)} returns a handle which can be invoked by
+     * {@code (String) handle.invokeExact("answer", 42)}.
+     * @throws java.util.IllegalFormatException if {@code format} is invalid, or it refers to an argument
+     *                                          which {@code argumentTypes} does not have.
+     */
+    public static MethodHandle compile(String format, Class<?>... argumentTypes) {
+        List<Segment> segments = FormatPlanParser.parse(format);
+        int estimatedLength = 0;
+        for (Segment segment : segments) {
+            estimatedLength += segment.estimatedLength();
+        }
+        MethodHandle toString = MethodHandles.dropArguments(TO_STRING, 1, argumentTypes);
+        MethodHandle body = MethodHandles.foldArguments(toString, appender(segments, argumentTypes));
+        return MethodHandles.foldArguments(body, MethodHandles.insertArguments(NEW_STRING_BUILDER, 0,
+                                                                               estimatedLength));
+    }
+
+    /**
+     * Returns a {@link MethodHandle} of type {@code (StringBuilder, argumentTypes...)void} which appends
+     * {@code segments} to the {@link StringBuilder}.
+     */
+    static MethodHandle appender(List<Segment> segments, Class<?>[] argumentTypes) {
+        MethodType type = MethodType.methodType(void.class, StringBuilder.class, argumentTypes);
+        MethodHandle appender = MethodHandles.permuteArguments(NOOP, type, 0);
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            appender = MethodHandles.foldArguments(appender, segmentAppender(segments.get(i), type));
+        }
+        return appender;
+    }
+
+    private static MethodHandle segmentAppender(Segment segment, MethodType type) {
+        if (segment instanceof LiteralSegment) {
+            MethodHandle append = MethodHandles.insertArguments(APPEND_STRING, 1,
+                                                                ((LiteralSegment) segment).text());
+            return MethodHandles.permuteArguments(append.asType(APPENDER_TYPE), type, 0);
+        }
+
+        SpecifierSegment specifierSegment = (SpecifierSegment) segment;
+        Specifier specifier = specifierSegment.specifier;
+        MethodHandle generic = FORMAT_ARGUMENT.bindTo(specifierSegment);
+        if (specifier.index < 0) {
+            return MethodHandles.permuteArguments(MethodHandles.insertArguments(generic, 1, (Object) null),
+                                                  type, 0);
+        }
+        if (specifier.index >= type.parameterCount() - 1) {
+            throw new MissingFormatArgumentException(specifier.text);
+        }
+
+        Class<?> argumentType = type.parameterType(specifier.index + 1);
+        MethodHandle kernel = specifierSegment.specialize(argumentType);
+        if (kernel == null) {
+            kernel = generic;
+        }
+        kernel = kernel.asType(MethodType.methodType(void.class, StringBuilder.class, argumentType));
+        return MethodHandles.permuteArguments(kernel, type, 0, specifier.index + 1);
+    }
+
+    static MethodHandle findStatic(Class<?> type, String name, MethodType methodType) {
+        try {
+            return lookup.findStatic(type, name, methodType);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static MethodHandle findVirtual(Class<?> type, String name, MethodType methodType) {
+        try {
+            return lookup.findVirtual(type, name, methodType);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Bootstrap methods for {@code invokedynamic} call sites which format their arguments with a constant format
+ * string, as {@code java.lang.invoke.StringConcatFactory} does for string concatenation. A call site is linked
+ * once to the {@link java.lang.invoke.MethodHandle} compiled by {@link FormatCompiler} for the format string
+ * and the static types of the arguments, e.g. {@code String.format("%s=%d", key, 42)} can be compiled to
+ * <pre>{@code
+ * invokedynamic format(Ljava/lang/String;I)Ljava/lang/String;
+ *     FormatFactory.bootstrap("%s=%d")
+ * }</pre>
+ */
+public final class FormatFactory {
+    private FormatFactory() {
+    }
+
+    /**
+     * Links a call site of {@code type} to the formatter of {@code format}. The return type of {@code type}
+     * must be {@link String} or one of its super types.
+     * @param lookup ignored, the formatters are public.
+     * @param name ignored.
+     * @throws IllegalArgumentException if the return type of {@code type} is not assignable from
+     *                                  {@link String}.
+     * @throws java.util.IllegalFormatException if {@code format} is invalid, or it refers to an argument
+     *                                          which {@code type} does not have.
+     */
+    public static CallSite bootstrap(MethodHandles.Lookup lookup, String name, MethodType type, String format) {
+        if (!type.returnType().isAssignableFrom(String.class)) {
+            throw new IllegalArgumentException("type: " + type + " (expected: a return type assignable from " +
+                                               "String)");
+        }
+        return new ConstantCallSite(FormatCompiler.compile(format, type.parameterArray()).asType(type));
+    }
+}
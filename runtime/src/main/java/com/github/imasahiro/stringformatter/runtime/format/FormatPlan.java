@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import java.util.List;
+
+/**
+ * A format string parsed once into literal and specifier segments, which can be formatted many times. An
+ * instance is immutable and thread-safe.
+ */
+public final class FormatPlan {
+    private final String format;
+    private final Segment[] segments;
+    private final int estimatedLength;
+
+    private FormatPlan(String format, List<Segment> segments) {
+        this.format = format;
+        this.segments = segments.toArray(new Segment[0]);
+        int length = 0;
+        for (Segment segment : this.segments) {
+            length += segment.estimatedLength();
+        }
+        estimatedLength = length;
+    }
+
+    /**
+     * Parses {@code format}.
+     * @throws java.util.IllegalFormatException if {@code format} is invalid.
+     */
+    public static FormatPlan parse(String format) {
+        return new FormatPlan(format, FormatPlanParser.parse(format));
+    }
+
+    /**
+     * Returns the format string of this plan.
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Formats {@code args} to {@link String}.
+     */
+    public String format(Object... args) {
+        StringBuilder sb = new StringBuilder(estimatedLength);
+        formatTo(sb, args);
+        return sb.toString();
+    }
+
+    /**
+     * Formats {@code args} to {@code sb}.
+     */
+    public StringBuilder formatTo(StringBuilder sb, Object... args) {
+        for (Segment segment : segments) {
+            segment.formatTo(sb, args);
+        }
+        return sb;
+    }
+
+    @Override
+    public String toString() {
+        return "FormatPlan(" + format + ')';
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import java.util.ArrayList;
+import java.util.DuplicateFormatFlagsException;
+import java.util.FormatFlagsConversionMismatchException;
+import java.util.IllegalFormatPrecisionException;
+import java.util.List;
+import java.util.MissingFormatArgumentException;
+import java.util.UnknownFormatConversionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.imasahiro.stringformatter.runtime.integers.IntegerUtils;
+
+/**
+ * Parses a format string into {@link Segment}s. The syntax is the same as the one the annotation processor
+ * accepts, and the errors are the ones {@link java.util.Formatter} throws.
+ */
+final class FormatPlanParser {
+    // %[index][flags][width][.precision][t]conversion
+    private static final String FORMAT_SPECIFIER =
+            "%(\\d+\\$)?([-#+ 0,(\\<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])";
+
+    private static final Pattern FORMAT_SPECIFIER_PATTERN = Pattern.compile(FORMAT_SPECIFIER);
+
+    private static final String FLAGS = "-#+ 0,(";
+    private static final String CONVERSIONS = "bBhHsScCdoxXeEfgGaA%nrR";
+    private static final int RADIX_FLAGS = Specifier.ZERO | Specifier.UPPER_CASE;
+
+    private FormatPlanParser() {
+    }
+
+    /**
+     * Parse format specifiers in the format string.
+     */
+    static List<Segment> parse(String fmt) {
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        Matcher m = FORMAT_SPECIFIER_PATTERN.matcher(fmt);
+        int ordinaryIndex = 0;
+        int lastIndex = -1;
+        for (int i = 0; i < fmt.length();) {
+            int end = m.find(i) ? m.start() : fmt.length();
+            appendText(literal, fmt, i, end);
+            if (end == fmt.length()) {
+                break;
+            }
+            i = m.end();
+
+            char conversion = m.group(6).charAt(0);
+            boolean time = m.group(5) != null;
+            String flagText = m.group(2) != null ? m.group(2) : "";
+            boolean noOptions = m.group(1) == null && flagText.isEmpty() && m.group(3) == null &&
+                                m.group(4) == null;
+            if (!time && noOptions && (conversion == '%' || conversion == 'n')) {
+                literal.append(conversion == '%' ? "%" : System.lineSeparator());
+                continue;
+            }
+            if (!time && CONVERSIONS.indexOf(conversion) < 0) {
+                throw new UnknownFormatConversionException(String.valueOf(conversion));
+            }
+
+            boolean previous = flagText.indexOf('<') >= 0;
+            int flags = parseFlags(flagText);
+            if (time ? Character.isUpperCase(m.group(5).charAt(0)) : Character.isUpperCase(conversion)) {
+                flags |= Specifier.UPPER_CASE;
+            }
+            int width = m.group(3) != null ? Integer.parseInt(m.group(3)) : -1;
+            int precision = m.group(4) != null ? Integer.parseInt(m.group(4).substring(1)) : -1;
+            char lowerConversion = time ? conversion : Character.toLowerCase(conversion);
+
+            int index;
+            if (!time && (lowerConversion == '%' || lowerConversion == 'n')) {
+                index = -1;
+            } else if (previous) {
+                if (lastIndex < 0) {
+                    throw new MissingFormatArgumentException(m.group());
+                }
+                index = lastIndex;
+            } else if (m.group(1) != null && !"0$".equals(m.group(1))) {
+                String explicit = m.group(1);
+                index = Integer.parseInt(explicit.substring(0, explicit.length() - 1)) - 1;
+            } else {
+                index = ordinaryIndex++;
+            }
+            if (index >= 0) {
+                lastIndex = index;
+            }
+
+            String fallbackFormat = '%' + flagText.replace("<", "") + (m.group(3) != null ? m.group(3) : "") +
+                                    (m.group(4) != null ? m.group(4) : "") +
+                                    (time ? m.group(5) : "") + conversion;
+            Specifier specifier = new Specifier(m.group(), index, flags, width, precision, time,
+                                                lowerConversion, fallbackFormat);
+            if (literal.length() > 0) {
+                segments.add(new LiteralSegment(literal.toString()));
+                literal.setLength(0);
+            }
+            segments.add(newSegment(specifier));
+        }
+        if (literal.length() > 0) {
+            segments.add(new LiteralSegment(literal.toString()));
+        }
+        return segments;
+    }
+
+    private static void appendText(StringBuilder literal, String fmt, int start, int end) {
+        int percent = fmt.indexOf('%', start);
+        if (percent >= 0 && percent < end) {
+            char c = percent + 1 < fmt.length() ? fmt.charAt(percent + 1) : '%';
+            throw new UnknownFormatConversionException(String.valueOf(c));
+        }
+        literal.append(fmt, start, end);
+    }
+
+    private static int parseFlags(String flagText) {
+        int flags = 0;
+        for (int i = 0; i < flagText.length(); i++) {
+            char c = flagText.charAt(i);
+            if (c == '<') {
+                continue;
+            }
+            int flag = 1 << FLAGS.indexOf(c);
+            if ((flags & flag) != 0) {
+                throw new DuplicateFormatFlagsException(String.valueOf(c));
+            }
+            flags |= flag;
+        }
+        return flags;
+    }
+
+    private static Segment newSegment(Specifier specifier) {
+        if (specifier.time) {
+            return new FallbackSegment(specifier);
+        }
+        switch (specifier.conversion) {
+            case 'd':
+                checkNoPrecision(specifier);
+                return IntegerSegment.supports(specifier) ? new IntegerSegment(specifier)
+                                                          : new FallbackSegment(specifier);
+            case 'x':
+                checkNoPrecision(specifier);
+                return HexIntegerSegment.supports(specifier) ? new HexIntegerSegment(specifier)
+                                                             : new FallbackSegment(specifier);
+            case 'c':
+                checkNoPrecision(specifier);
+                return new FallbackSegment(specifier);
+            case 'r':
+                if (!specifier.hasOnly(RADIX_FLAGS)) {
+                    throw new FormatFlagsConversionMismatchException(specifier.text, 'r');
+                }
+                if (specifier.precision >= 0 && (specifier.precision < IntegerUtils.MIN_RADIX ||
+                                                 specifier.precision > IntegerUtils.MAX_RADIX)) {
+                    throw new IllegalFormatPrecisionException(specifier.precision);
+                }
+                return new RadixIntegerSegment(specifier);
+            case 's':
+                return StringSegment.supports(specifier) ? new StringSegment(specifier)
+                                                         : new FallbackSegment(specifier);
+            case 'f':
+                return DecimalSegment.supports(specifier) ? new DecimalSegment(specifier)
+                                                          : new FallbackSegment(specifier);
+            default:
+                return new FallbackSegment(specifier);
+        }
+    }
+
+    private static void checkNoPrecision(Specifier specifier) {
+        if (specifier.precision >= 0) {
+            throw new IllegalFormatPrecisionException(specifier.precision);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+/**
+ * A replacement of {@link String#format(String, Object...)} for format strings which are not known at
+ * compile time. Each format string is parsed once into a {@link FormatPlan}, and the plans of the last
+ * {@value #MAXIMUM_CACHE_SIZE} or so format strings are cached.
+ *
+ * <p>Integers, strings and {@link java.math.BigDecimal}s are written by the formatters of this library,
+ * and other conversions by {@link java.util.Formatter}. As the generated formatters, the output does not
+ * depend on the default locale; it is the same as {@link String#format(java.util.Locale, String, Object...)}
+ * with {@link java.util.Locale#ROOT}. {@code %r} is also supported.
+ */
+public final class Formats {
+    static final int MAXIMUM_CACHE_SIZE = 1024;
+
+    private static final PlanCache cache = new PlanCache(MAXIMUM_CACHE_SIZE);
+
+    private Formats() {
+    }
+
+    /**
+     * Formats {@code args} with {@code format} to {@link String}.
+     * @throws java.util.IllegalFormatException if {@code format} is invalid.
+     */
+    public static String format(String format, Object... args) {
+        return cache.get(format).format(args);
+    }
+
+    /**
+     * Formats {@code args} with {@code format} to {@code sb}.
+     * @throws java.util.IllegalFormatException if {@code format} is invalid.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, String format, Object... args) {
+        return cache.get(format).formatTo(sb, args);
+    }
+
+    /**
+     * Returns the cached {@link FormatPlan} of {@code format}, parsing it if it is not cached.
+     * @throws java.util.IllegalFormatException if {@code format} is invalid.
+     */
+    public static FormatPlan plan(String format) {
+        return cache.get(format);
+    }
+}
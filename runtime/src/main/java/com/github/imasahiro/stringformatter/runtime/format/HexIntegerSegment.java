@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+
+import com.github.imasahiro.stringformatter.runtime.integers.HexIntegerFormatter;
+
+/**
+ * Hexadecimal integer conversion ({@code %x}) with the {@code '0'} flag. As the generated formatters do,
+ * {@code byte[]} and {@link ByteBuffer} arguments are written as hex bytes, separated by {@code ':'} with
+ * the {@code ','} flag.
+ */
+final class HexIntegerSegment extends SpecifierSegment {
+    private static final char BYTE_SEPARATOR = ':';
+    private static final MethodHandle TO_UNSIGNED_LONG =
+            FormatCompiler.findStatic(Byte.class, "toUnsignedLong",
+                                      MethodType.methodType(long.class, byte.class));
+
+    private final int formatterFlags;
+
+    HexIntegerSegment(Specifier specifier) {
+        super(specifier);
+        int flags = 0;
+        if (specifier.has(Specifier.ZERO)) {
+            flags |= HexIntegerFormatter.PADDED_WITH_ZEROS;
+        }
+        if (specifier.has(Specifier.UPPER_CASE)) {
+            flags |= HexIntegerFormatter.UPPER_CASE;
+        }
+        formatterFlags = flags;
+    }
+
+    static boolean supports(Specifier specifier) {
+        return specifier.precision < 0 &&
+               specifier.hasOnly(Specifier.ZERO | Specifier.COMMA | Specifier.UPPER_CASE) &&
+               (!specifier.has(Specifier.ZERO) || specifier.width >= 0);
+    }
+
+    @Override
+    MethodHandle specialize(Class<?> type) {
+        boolean separated = specifier.has(Specifier.COMMA);
+        if (type == byte[].class || type == ByteBuffer.class) {
+            if (separated) {
+                MethodHandle kernel = kernel(type, int.class, char.class);
+                return MethodHandles.insertArguments(kernel, 2, formatterFlags, BYTE_SEPARATOR);
+            }
+            return MethodHandles.insertArguments(kernel(type, int.class), 2, formatterFlags);
+        }
+        if (separated) {
+            return null;
+        }
+        if (type == int.class || type == long.class || type == short.class) {
+            return MethodHandles.insertArguments(kernel(type, int.class, int.class), 2, formatterFlags,
+                                                 specifier.width);
+        }
+        if (type == byte.class) {
+            MethodHandle kernel = MethodHandles.insertArguments(kernel(long.class, int.class, int.class), 2,
+                                                                formatterFlags, specifier.width);
+            return MethodHandles.filterArguments(kernel, 1, TO_UNSIGNED_LONG);
+        }
+        return null;
+    }
+
+    private static MethodHandle kernel(Class<?>... parameterTypes) {
+        return FormatCompiler.findStatic(HexIntegerFormatter.class, "formatTo",
+                                         MethodType.methodType(StringBuilder.class, StringBuilder.class,
+                                                               parameterTypes));
+    }
+
+    @Override
+    void formatArgument(StringBuilder sb, Object arg) {
+        int width = specifier.width;
+        boolean separated = specifier.has(Specifier.COMMA);
+        if (arg instanceof byte[]) {
+            if (separated) {
+                HexIntegerFormatter.formatTo(sb, (byte[]) arg, formatterFlags, BYTE_SEPARATOR);
+            } else {
+                HexIntegerFormatter.formatTo(sb, (byte[]) arg, formatterFlags);
+            }
+        } else if (arg instanceof ByteBuffer) {
+            if (separated) {
+                HexIntegerFormatter.formatTo(sb, (ByteBuffer) arg, formatterFlags, BYTE_SEPARATOR);
+            } else {
+                HexIntegerFormatter.formatTo(sb, (ByteBuffer) arg, formatterFlags);
+            }
+        } else if (separated) {
+            // Let java.util.Formatter report the flag mismatch.
+            fallback(sb, arg);
+        } else if (arg instanceof Integer) {
+            HexIntegerFormatter.formatTo(sb, (int) (Integer) arg, formatterFlags, width);
+        } else if (arg instanceof Long) {
+            HexIntegerFormatter.formatTo(sb, (long) (Long) arg, formatterFlags, width);
+        } else if (arg instanceof Short) {
+            HexIntegerFormatter.formatTo(sb, (short) (Short) arg, formatterFlags, width);
+        } else if (arg instanceof Byte) {
+            HexIntegerFormatter.formatTo(sb, (long) ((Byte) arg & 0xff), formatterFlags, width);
+        } else {
+            fallback(sb, arg);
+        }
+    }
+}
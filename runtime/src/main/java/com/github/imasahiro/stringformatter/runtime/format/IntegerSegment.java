@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigInteger;
+
+import com.github.imasahiro.stringformatter.runtime.integers.BigIntegerFormatter;
+import com.github.imasahiro.stringformatter.runtime.integers.IntegerFormatter;
+
+/**
+ * Decimal integer conversion ({@code %d}) with the {@code '0'} and {@code ','} flags.
+ */
+final class IntegerSegment extends SpecifierSegment {
+    private final int formatterFlags;
+
+    IntegerSegment(Specifier specifier) {
+        super(specifier);
+        int flags = 0;
+        if (specifier.has(Specifier.ZERO)) {
+            flags |= IntegerFormatter.PADDED_WITH_ZEROS;
+        }
+        if (specifier.has(Specifier.COMMA)) {
+            flags |= IntegerFormatter.GROUPING;
+        }
+        formatterFlags = flags;
+    }
+
+    static boolean supports(Specifier specifier) {
+        return specifier.precision < 0 &&
+               specifier.hasOnly(Specifier.ZERO | Specifier.COMMA) &&
+               (!specifier.has(Specifier.ZERO) || specifier.width >= 0);
+    }
+
+    @Override
+    MethodHandle specialize(Class<?> type) {
+        if (type == BigInteger.class) {
+            return MethodHandles.insertArguments(kernel(BigIntegerFormatter.class, type), 2, formatterFlags,
+                                                 specifier.width);
+        }
+        Class<?> kernelType = type == byte.class ? int.class : type;
+        if (kernelType != int.class && kernelType != long.class && kernelType != short.class) {
+            return null;
+        }
+        return MethodHandles.insertArguments(kernel(IntegerFormatter.class, kernelType), 2, formatterFlags,
+                                             specifier.width);
+    }
+
+    private static MethodHandle kernel(Class<?> formatter, Class<?> type) {
+        return FormatCompiler.findStatic(formatter, "formatTo",
+                                         MethodType.methodType(StringBuilder.class, StringBuilder.class, type,
+                                                               int.class, int.class));
+    }
+
+    @Override
+    void formatArgument(StringBuilder sb, Object arg) {
+        int width = specifier.width;
+        if (arg instanceof Integer) {
+            IntegerFormatter.formatTo(sb, (int) (Integer) arg, formatterFlags, width);
+        } else if (arg instanceof Long) {
+            IntegerFormatter.formatTo(sb, (long) (Long) arg, formatterFlags, width);
+        } else if (arg instanceof Short) {
+            IntegerFormatter.formatTo(sb, (short) (Short) arg, formatterFlags, width);
+        } else if (arg instanceof Byte) {
+            IntegerFormatter.formatTo(sb, (int) (Byte) arg, formatterFlags, width);
+        } else if (arg instanceof BigInteger) {
+            BigIntegerFormatter.formatTo(sb, (BigInteger) arg, formatterFlags, width);
+        } else {
+            fallback(sb, arg);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+final class LiteralSegment implements Segment {
+    private final String text;
+
+    LiteralSegment(String text) {
+        this.text = text;
+    }
+
+    String text() {
+        return text;
+    }
+
+    @Override
+    public void formatTo(StringBuilder sb, Object[] args) {
+        sb.append(text);
+    }
+
+    @Override
+    public int estimatedLength() {
+        return text.length();
+    }
+
+    @Override
+    public String toString() {
+        return "LiteralSegment(text:" + text + ')';
+    }
+}
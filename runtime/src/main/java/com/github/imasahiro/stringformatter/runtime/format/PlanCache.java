@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A bounded cache of {@link FormatPlan}s. A hit only sets a reference bit, and the entries over
+ * {@code maximumSize} are evicted by the CLOCK (second chance) algorithm: the hand walks the entries,
+ * clearing the bit of referenced ones and removing the first unreferenced one.
+ */
+final class PlanCache {
+    private static final class Entry {
+        final FormatPlan plan;
+        volatile boolean referenced;
+
+        Entry(FormatPlan plan) {
+            this.plan = plan;
+        }
+    }
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    // Guarded by evicting.
+    private Iterator<Map.Entry<String, Entry>> hand;
+
+    PlanCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize: " + maximumSize + " (expected: > 0)");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    FormatPlan get(String format) {
+        Entry entry = entries.get(format);
+        if (entry != null) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.plan;
+        }
+        Entry newEntry = new Entry(FormatPlan.parse(format));
+        entry = entries.putIfAbsent(format, newEntry);
+        if (entry != null) {
+            entry.referenced = true;
+            return entry.plan;
+        }
+        if (entries.size() > maximumSize) {
+            evict();
+        }
+        return newEntry.plan;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    boolean contains(String format) {
+        return entries.containsKey(format);
+    }
+
+    private void evict() {
+        // Other threads do not wait; the cache may exceed maximumSize by a few entries meanwhile.
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (entries.size() > maximumSize) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = entries.entrySet().iterator();
+                }
+                Map.Entry<String, Entry> e = hand.next();
+                if (e.getValue().referenced) {
+                    e.getValue().referenced = false;
+                } else {
+                    entries.remove(e.getKey(), e.getValue());
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
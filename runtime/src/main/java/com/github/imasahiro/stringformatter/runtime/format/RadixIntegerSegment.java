@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.IllegalFormatConversionException;
+
+import com.github.imasahiro.stringformatter.runtime.integers.RadixIntegerFormatter;
+
+/**
+ * Radix integer conversion ({@code %r}), which {@link java.util.Formatter} does not have. The precision
+ * specifies the radix and defaults to {@value #DEFAULT_RADIX}.
+ */
+final class RadixIntegerSegment extends SpecifierSegment {
+    static final int DEFAULT_RADIX = 36;
+
+    private final int radix;
+    private final int formatterFlags;
+
+    RadixIntegerSegment(Specifier specifier) {
+        super(specifier);
+        radix = specifier.precision >= 0 ? specifier.precision : DEFAULT_RADIX;
+        int flags = 0;
+        if (specifier.has(Specifier.ZERO)) {
+            flags |= RadixIntegerFormatter.PADDED_WITH_ZEROS;
+        }
+        if (specifier.has(Specifier.UPPER_CASE)) {
+            flags |= RadixIntegerFormatter.UPPER_CASE;
+        }
+        formatterFlags = flags;
+    }
+
+    @Override
+    MethodHandle specialize(Class<?> type) {
+        Class<?> kernelType = type == byte.class ? int.class : type;
+        if (kernelType != int.class && kernelType != long.class && kernelType != short.class) {
+            return null;
+        }
+        MethodHandle kernel = FormatCompiler.findStatic(
+                RadixIntegerFormatter.class, "formatTo",
+                MethodType.methodType(StringBuilder.class, StringBuilder.class, kernelType, int.class,
+                                      int.class, int.class));
+        return MethodHandles.insertArguments(kernel, 2, radix, formatterFlags, specifier.width);
+    }
+
+    @Override
+    void formatArgument(StringBuilder sb, Object arg) {
+        int width = specifier.width;
+        if (arg instanceof Integer) {
+            RadixIntegerFormatter.formatTo(sb, (int) (Integer) arg, radix, formatterFlags, width);
+        } else if (arg instanceof Long) {
+            RadixIntegerFormatter.formatTo(sb, (long) (Long) arg, radix, formatterFlags, width);
+        } else if (arg instanceof Short) {
+            RadixIntegerFormatter.formatTo(sb, (short) (Short) arg, radix, formatterFlags, width);
+        } else if (arg instanceof Byte) {
+            RadixIntegerFormatter.formatTo(sb, (int) (Byte) arg, radix, formatterFlags, width);
+        } else if (arg == null) {
+            sb.append("null");
+        } else {
+            throw new IllegalFormatConversionException('r', arg.getClass());
+        }
+    }
+}
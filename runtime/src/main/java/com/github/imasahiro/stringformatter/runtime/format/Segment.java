@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+/**
+ * A part of a {@link FormatPlan}, either a literal text or a format specifier.
+ */
+interface Segment {
+    /**
+     * Appends this segment formatted with {@code args} to {@code sb}.
+     */
+    void formatTo(StringBuilder sb, Object[] args);
+
+    /**
+     * Returns the expected number of characters appended by {@link #formatTo(StringBuilder, Object[])}.
+     */
+    int estimatedLength();
+}
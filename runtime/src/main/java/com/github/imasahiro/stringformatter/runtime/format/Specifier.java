@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+/**
+ * A parsed format specifier, {@code %[index$][flags][width][.precision][t]conversion}.
+ */
+final class Specifier {
+    static final int MINUS = 1;
+    static final int SHARP = 1 << 1;
+    static final int PLUS = 1 << 2;
+    static final int SPACE = 1 << 3;
+    static final int ZERO = 1 << 4;
+    static final int COMMA = 1 << 5;
+    static final int PARENTHESIS = 1 << 6;
+    static final int UPPER_CASE = 1 << 7;
+
+    // The original text, e.g. "%1$-10s".
+    final String text;
+    // Zero-based argument index, or -1 if the specifier does not take an argument.
+    final int index;
+    final int flags;
+    final int width;
+    final int precision;
+    final boolean time;
+    // Lower-case conversion character.
+    final char conversion;
+    // The specifier without the argument index, to be given to java.util.Formatter with one argument.
+    final String fallbackFormat;
+
+    Specifier(String text, int index, int flags, int width, int precision, boolean time, char conversion,
+              String fallbackFormat) {
+        this.text = text;
+        this.index = index;
+        this.flags = flags;
+        this.width = width;
+        this.precision = precision;
+        this.time = time;
+        this.conversion = conversion;
+        this.fallbackFormat = fallbackFormat;
+    }
+
+    boolean has(int flag) {
+        return (flags & flag) == flag;
+    }
+
+    /**
+     * Returns {@code true} if this specifier has no flags other than {@code allowed}.
+     */
+    boolean hasOnly(int allowed) {
+        return (flags & ~allowed) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Specifier(" + text + ')';
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Formatter;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+
+/**
+ * A format specifier. Subclasses write the arguments they know with the formatters of this library, and
+ * delegate others to {@link Formatter} so that the result and the errors are the same as
+ * {@link String#format(String, Object...)}.
+ */
+abstract class SpecifierSegment implements Segment {
+    private static final int ESTIMATED_LENGTH = 16;
+
+    final Specifier specifier;
+
+    SpecifierSegment(Specifier specifier) {
+        this.specifier = specifier;
+    }
+
+    @Override
+    public final void formatTo(StringBuilder sb, Object[] args) {
+        formatArgument(sb, argument(args));
+    }
+
+    /**
+     * Appends {@code arg} formatted by this specifier to {@code sb}.
+     */
+    abstract void formatArgument(StringBuilder sb, Object arg);
+
+    /**
+     * Returns a {@link MethodHandle} which appends an argument of {@code type} to a {@link StringBuilder}
+     * like {@link #formatArgument(StringBuilder, Object)} but without checking the class of the argument,
+     * or {@code null} if there is no dedicated formatter for {@code type}. The handle takes
+     * {@code (StringBuilder, type)} after {@link MethodHandle#asType} conversion, and its result is ignored.
+     */
+    MethodHandle specialize(Class<?> type) {
+        return null;
+    }
+
+    final Object argument(Object[] args) {
+        int index = specifier.index;
+        if (index < 0 || args == null) {
+            return null;
+        }
+        if (index >= args.length) {
+            throw new MissingFormatArgumentException(specifier.text);
+        }
+        return args[index];
+    }
+
+    final void fallback(StringBuilder sb, Object arg) {
+        new Formatter(sb, Locale.ROOT).format(specifier.fallbackFormat, arg);
+    }
+
+    @Override
+    public int estimatedLength() {
+        return Math.max(specifier.width, ESTIMATED_LENGTH);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + '(' + specifier.text + ')';
+    }
+}
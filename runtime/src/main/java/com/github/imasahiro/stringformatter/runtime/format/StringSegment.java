@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Formattable;
+import java.util.UUID;
+
+import com.github.imasahiro.stringformatter.runtime.integers.UuidFormatter;
+import com.github.imasahiro.stringformatter.runtime.objects.EnumFormatter;
+
+/**
+ * String conversion ({@code %s}) with the {@code '-'} flag. {@link Formattable} arguments are given to
+ * {@link java.util.Formatter}.
+ */
+final class StringSegment extends SpecifierSegment {
+    StringSegment(Specifier specifier) {
+        super(specifier);
+    }
+
+    static boolean supports(Specifier specifier) {
+        return specifier.hasOnly(Specifier.MINUS) &&
+               (!specifier.has(Specifier.MINUS) || specifier.width >= 0);
+    }
+
+    @Override
+    MethodHandle specialize(Class<?> type) {
+        if (specifier.width >= 0 || specifier.precision >= 0 || Formattable.class.isAssignableFrom(type)) {
+            return null;
+        }
+        if (type == UUID.class) {
+            MethodHandle kernel = FormatCompiler.findStatic(
+                    UuidFormatter.class, "formatTo",
+                    MethodType.methodType(StringBuilder.class, StringBuilder.class, UUID.class, int.class));
+            return MethodHandles.insertArguments(kernel, 2, 0);
+        }
+        if (Enum.class.isAssignableFrom(type)) {
+            return FormatCompiler.findStatic(EnumFormatter.class, "formatTo",
+                                             MethodType.methodType(StringBuilder.class, StringBuilder.class,
+                                                                   Enum.class));
+        }
+        Class<?> appendType;
+        if (type == String.class || type == int.class || type == long.class || type == char.class ||
+            type == boolean.class) {
+            appendType = type;
+        } else if (CharSequence.class.isAssignableFrom(type)) {
+            appendType = CharSequence.class;
+        } else {
+            return null;
+        }
+        return FormatCompiler.findVirtual(StringBuilder.class, "append",
+                                          MethodType.methodType(StringBuilder.class, appendType));
+    }
+
+    @Override
+    void formatArgument(StringBuilder sb, Object arg) {
+        if (arg instanceof Formattable) {
+            fallback(sb, arg);
+            return;
+        }
+        int start = sb.length();
+        if (arg instanceof CharSequence) {
+            sb.append((CharSequence) arg);
+        } else if (arg instanceof Integer) {
+            sb.append((int) (Integer) arg);
+        } else if (arg instanceof Long) {
+            sb.append((long) (Long) arg);
+        } else if (arg instanceof UUID) {
+            UuidFormatter.formatTo(sb, (UUID) arg, 0);
+        } else if (arg instanceof Enum) {
+            EnumFormatter.formatTo(sb, (Enum<?>) arg);
+        } else {
+            sb.append(arg);
+        }
+        int precision = specifier.precision;
+        if (precision >= 0 && sb.length() - start > precision) {
+            sb.setLength(start + precision);
+        }
+        int padding = specifier.width - (sb.length() - start);
+        if (padding <= 0) {
+            return;
+        }
+        if (specifier.has(Specifier.MINUS)) {
+            for (int i = 0; i < padding; i++) {
+                sb.append(' ');
+            }
+        } else {
+            char[] spaces = new char[padding];
+            Arrays.fill(spaces, ' ');
+            sb.insert(start, spaces);
+        }
+    }
+}
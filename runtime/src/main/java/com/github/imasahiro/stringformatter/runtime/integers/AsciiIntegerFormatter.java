@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Integer to ASCII format helpers, which write the digits directly to a {@link ByteBuffer}, e.g. a direct
+ * buffer in native memory, from its position. The digits are written from the last one by absolute puts,
+ * two at a time for decimal, after the length has been computed, so that nothing is written if the buffer
+ * does not have enough bytes remaining.
+ */
+public final class AsciiIntegerFormatter {
+    private static final byte[] digits99 = new byte[200];
+    private static final byte[] hexDigits = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
+                                              'a', 'b', 'c', 'd', 'e', 'f' };
+    private static final byte[] upperHexDigits = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
+                                                   'A', 'B', 'C', 'D', 'E', 'F' };
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            digits99[i * 2] = (byte) ('0' + i / 10);
+            digits99[i * 2 + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private AsciiIntegerFormatter() {
+    }
+
+    /**
+     * Writes {@code v} in decimal to {@code out}. {@code flags} are {@link IntegerFormatter#PADDED_WITH_ZEROS}
+     * and {@link IntegerFormatter#UNSIGNED}.
+     * @throws BufferOverflowException if {@code out} does not have enough bytes remaining.
+     */
+    public static ByteBuffer formatTo(ByteBuffer out, short v, int flags, int width) {
+        if ((flags & IntegerFormatter.UNSIGNED) == IntegerFormatter.UNSIGNED) {
+            return formatDecimal(out, Short.toUnsignedLong(v), false, flags, width);
+        }
+        return formatDecimal(out, Math.abs((long) v), v < 0, flags, width);
+    }
+
+    /**
+     * Writes {@code v} in decimal to {@code out}. {@code flags} are {@link IntegerFormatter#PADDED_WITH_ZEROS}
+     * and {@link IntegerFormatter#UNSIGNED}.
+     * @throws BufferOverflowException if {@code out} does not have enough bytes remaining.
+     */
+    public static ByteBuffer formatTo(ByteBuffer out, int v, int flags, int width) {
+        if ((flags & IntegerFormatter.UNSIGNED) == IntegerFormatter.UNSIGNED) {
+            return formatDecimal(out, Integer.toUnsignedLong(v), false, flags, width);
+        }
+        return formatDecimal(out, Math.abs((long) v), v < 0, flags, width);
+    }
+
+    /**
+     * Writes {@code v} in decimal to {@code out}. {@code flags} are {@link IntegerFormatter#PADDED_WITH_ZEROS}
+     * and {@link IntegerFormatter#UNSIGNED}.
+     * @throws BufferOverflowException if {@code out} does not have enough bytes remaining.
+     */
+    public static ByteBuffer formatTo(ByteBuffer out, long v, int flags, int width) {
+        if ((flags & IntegerFormatter.UNSIGNED) == IntegerFormatter.UNSIGNED || v >= 0) {
+            return formatDecimal(out, v, false, flags, width);
+        }
+        // -Long.MIN_VALUE is 2^63 as an unsigned long.
+        return formatDecimal(out, -v, true, flags, width);
+    }
+
+    /**
+     * Writes {@code v} in hex to {@code out}. {@code flags} are {@link HexIntegerFormatter#PADDED_WITH_ZEROS}
+     * and {@link HexIntegerFormatter#UPPER_CASE}.
+     * @throws BufferOverflowException if {@code out} does not have enough bytes remaining.
+     */
+    public static ByteBuffer formatHexTo(ByteBuffer out, short v, int flags, int width) {
+        return formatHex(out, Short.toUnsignedLong(v), flags, width);
+    }
+
+    /**
+     * Writes {@code v} in hex to {@code out}. {@code flags} are {@link HexIntegerFormatter#PADDED_WITH_ZEROS}
+     * and {@link HexIntegerFormatter#UPPER_CASE}.
+     * @throws BufferOverflowException if {@code out} does not have enough bytes remaining.
+     */
+    public static ByteBuffer formatHexTo(ByteBuffer out, int v, int flags, int width) {
+        return formatHex(out, Integer.toUnsignedLong(v), flags, width);
+    }
+
+    /**
+     * Writes {@code v} in hex to {@code out}. {@code flags} are {@link HexIntegerFormatter#PADDED_WITH_ZEROS}
+     * and {@link HexIntegerFormatter#UPPER_CASE}.
+     * @throws BufferOverflowException if {@code out} does not have enough bytes remaining.
+     */
+    public static ByteBuffer formatHexTo(ByteBuffer out, long v, int flags, int width) {
+        return formatHex(out, v, flags, width);
+    }
+
+    private static ByteBuffer formatDecimal(ByteBuffer out, long unsigned, boolean negative, int flags,
+                                            int width) {
+        final int digits = IntegerUtils.log10(unsigned);
+        final int start = out.position();
+        final int end = writeLeftPadding(out, start, digits + (negative ? 1 : 0), negative,
+                                         (flags & IntegerFormatter.PADDED_WITH_ZEROS) != 0, width);
+        int index = end;
+        long v = unsigned;
+        if (v < 0) {
+            // v >= 2^63: floor(v / 10) == floor((v >>> 1) / 5).
+            final long q = (v >>> 1) / 5;
+            out.put(--index, (byte) ('0' + (v - q * 10)));
+            v = q;
+        }
+        while (v >= 100) {
+            final int idx = (int) (v % 100) * 2;
+            v /= 100;
+            out.put(--index, digits99[idx + 1]);
+            out.put(--index, digits99[idx]);
+        }
+        if (v >= 10) {
+            out.put(--index, digits99[(int) v * 2 + 1]);
+            out.put(--index, digits99[(int) v * 2]);
+        } else {
+            out.put(--index, (byte) ('0' + v));
+        }
+        out.position(end);
+        return out;
+    }
+
+    private static ByteBuffer formatHex(ByteBuffer out, long v, int flags, int width) {
+        final int digits = (IntegerUtils.log2(v) + 3) / 4;
+        final byte[] table = (flags & HexIntegerFormatter.UPPER_CASE) != 0 ? upperHexDigits : hexDigits;
+        final int start = out.position();
+        final int end = writeLeftPadding(out, start, digits, false,
+                                         (flags & HexIntegerFormatter.PADDED_WITH_ZEROS) != 0, width);
+        for (int i = 1; i <= digits; i++) {
+            out.put(end - i, table[(int) (v >>> (i - 1) * 4) & 0xf]);
+        }
+        out.position(end);
+        return out;
+    }
+
+    /**
+     * Writes the padding and the sign of a number of {@code length} bytes including the sign from
+     * {@code start}, and returns the end of the number.
+     */
+    private static int writeLeftPadding(ByteBuffer out, int start, int length, boolean negative,
+                                        boolean zeros, int width) {
+        final int padding = Math.max(width - length, 0);
+        final int end = start + padding + length;
+        if (end > out.limit()) {
+            throw new BufferOverflowException();
+        }
+        int index = start;
+        if (zeros) {
+            if (negative) {
+                out.put(index++, (byte) '-');
+            }
+            for (int i = 0; i < padding; i++) {
+                out.put(index++, (byte) '0');
+            }
+        } else {
+            for (int i = 0; i < padding; i++) {
+                out.put(index++, (byte) ' ');
+            }
+            if (negative) {
+                out.put(index, (byte) '-');
+            }
+        }
+        return end;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * {@link BigDecimal} to string format helpers for {@code %.Nf}. A value whose unscaled value fits in a
+ * {@code long} is written by {@link FixedPointFormatter}, and others by {@link BigIntegerFormatter} chunks.
+ * The fraction is rounded half up as {@link java.util.Formatter} does. With {@link #GROUPING}, the integer
+ * part is grouped by {@code ','}, which {@link NumberSymbols} replaces for a locale.
+ */
+public final class BigDecimalFormatter {
+    public static final int PADDED_WITH_ZEROS = FixedPointFormatter.PADDED_WITH_ZEROS;
+    public static final int GROUPING = IntegerFormatter.GROUPING;
+
+    private BigDecimalFormatter() {
+    }
+
+    /**
+     * Formats {@code v} with {@code precision} fractional digits to {@link String}.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, BigDecimal v, int precision, int flags, int width) {
+        if (v == null) {
+            return sb.append("null");
+        }
+        if ((flags & GROUPING) == GROUPING) {
+            return formatGrouped(sb, v, precision, flags, width);
+        }
+        int scale = v.scale();
+        if (scale >= 0 && scale <= FixedPointFormatter.MAX_SCALE) {
+            BigInteger unscaled = v.unscaledValue();
+            if (unscaled.bitLength() < Long.SIZE) {
+                return FixedPointFormatter.formatTo(sb, unscaled.longValue(), scale, precision, flags, width);
+            }
+        }
+
+        boolean negative = v.signum() < 0;
+        long[] chunks = BigIntegerFormatter.toChunks(v.setScale(precision, RoundingMode.HALF_UP)
+                                                      .unscaledValue()
+                                                      .abs());
+        int digits = BigIntegerFormatter.digits(chunks);
+        int len = (negative ? 1 : 0) + Math.max(digits - precision, 1) + (precision > 0 ? precision + 1 : 0);
+        sb.ensureCapacity(sb.length() + Math.max(len, width));
+        if ((flags & PADDED_WITH_ZEROS) != PADDED_WITH_ZEROS) {
+            for (int i = len; i < width; i++) {
+                sb.append(' ');
+            }
+        }
+        if (negative) {
+            sb.append('-');
+        }
+        if ((flags & PADDED_WITH_ZEROS) == PADDED_WITH_ZEROS) {
+            for (int i = len; i < width; i++) {
+                sb.append('0');
+            }
+        }
+        if (digits > precision) {
+            int start = sb.length();
+            BigIntegerFormatter.formatChunks(sb, chunks);
+            if (precision > 0) {
+                sb.insert(start + digits - precision, '.');
+            }
+        } else {
+            sb.append("0.");
+            for (int i = digits; i < precision; i++) {
+                sb.append('0');
+            }
+            BigIntegerFormatter.formatChunks(sb, chunks);
+        }
+        return sb;
+    }
+
+    private static StringBuilder formatGrouped(StringBuilder sb, BigDecimal v, int precision, int flags,
+                                               int width) {
+        int start = sb.length();
+        formatTo(sb, v, precision, 0, 0);
+        int digitsStart = v.signum() < 0 ? start + 1 : start;
+        int point = sb.indexOf(".", digitsStart);
+        if (point < 0) {
+            IntegerFormatter.insertGroupingSeparators(sb, digitsStart);
+        } else {
+            String fraction = sb.substring(point);
+            sb.setLength(point);
+            IntegerFormatter.insertGroupingSeparators(sb, digitsStart);
+            sb.append(fraction);
+        }
+        int padding = width - (sb.length() - start);
+        if (padding > 0) {
+            // Zeros go after the sign and are not grouped, as java.util.Formatter does.
+            boolean zeros = (flags & PADDED_WITH_ZEROS) == PADDED_WITH_ZEROS;
+            char[] pad = new char[padding];
+            Arrays.fill(pad, zeros ? '0' : ' ');
+            sb.insert(zeros ? digitsStart : start, pad);
+        }
+        return sb;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * {@link BigInteger} to string format helpers. A value which does not fit in a {@code long} is split into
+ * base 10^18 chunks, and each chunk is written by {@link IntegerFormatter} instead of creating a temporary
+ * string by {@link BigInteger#toString()}.
+ */
+public final class BigIntegerFormatter {
+    public static final int PADDED_WITH_ZEROS = IntegerFormatter.PADDED_WITH_ZEROS;
+    public static final int GROUPING = IntegerFormatter.GROUPING;
+
+    private static final int CHUNK_DIGITS = 18;
+    private static final long CHUNK_BASE = IntegerUtils.powerOf10(CHUNK_DIGITS);
+    private static final BigInteger BIG_CHUNK_BASE = BigInteger.valueOf(CHUNK_BASE);
+
+    private BigIntegerFormatter() {
+    }
+
+    /**
+     * Formats {@code v} to {@link String}.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, BigInteger v, int flags, int width) {
+        if (v == null) {
+            return sb.append("null");
+        }
+        if (v.bitLength() < Long.SIZE) {
+            return IntegerFormatter.formatTo(sb, v.longValue(), flags, width);
+        }
+        boolean negative = v.signum() < 0;
+        long[] chunks = toChunks(v.abs());
+        int digits = digits(chunks);
+        int len = digits + (negative ? 1 : 0);
+        if ((flags & GROUPING) == GROUPING) {
+            len += (digits - 1) / 3;
+        }
+        sb.ensureCapacity(sb.length() + Math.max(len, width));
+        if ((flags & PADDED_WITH_ZEROS) != PADDED_WITH_ZEROS) {
+            for (int i = len; i < width; i++) {
+                sb.append(' ');
+            }
+        }
+        if (negative) {
+            sb.append('-');
+        }
+        if ((flags & PADDED_WITH_ZEROS) == PADDED_WITH_ZEROS) {
+            for (int i = len; i < width; i++) {
+                sb.append('0');
+            }
+        }
+        int start = sb.length();
+        formatChunks(sb, chunks);
+        if ((flags & GROUPING) == GROUPING) {
+            IntegerFormatter.insertGroupingSeparators(sb, start);
+        }
+        return sb;
+    }
+
+    /**
+     * Splits a non-negative value into base 10^18 chunks, the least significant chunk first.
+     */
+    static long[] toChunks(BigInteger abs) {
+        // 10^18 > 2^59, so a chunk holds at least 59 bits.
+        long[] chunks = new long[abs.bitLength() / 59 + 2];
+        int n = 0;
+        BigInteger rest = abs;
+        while (rest.bitLength() >= Long.SIZE) {
+            BigInteger[] qr = rest.divideAndRemainder(BIG_CHUNK_BASE);
+            chunks[n++] = qr[1].longValue();
+            rest = qr[0];
+        }
+        long top = rest.longValue();
+        if (top >= CHUNK_BASE) {
+            chunks[n++] = top % CHUNK_BASE;
+            top /= CHUNK_BASE;
+        }
+        chunks[n++] = top;
+        return Arrays.copyOf(chunks, n);
+    }
+
+    /**
+     * Returns the number of digits of chunks given by {@link #toChunks(BigInteger)}.
+     */
+    static int digits(long[] chunks) {
+        return IntegerUtils.log10(chunks[chunks.length - 1]) + (chunks.length - 1) * CHUNK_DIGITS;
+    }
+
+    /**
+     * Writes chunks given by {@link #toChunks(BigInteger)}.
+     */
+    static void formatChunks(StringBuilder sb, long[] chunks) {
+        IntegerFormatter.formatTo(sb, chunks[chunks.length - 1], 0, 0);
+        for (int i = chunks.length - 2; i >= 0; i--) {
+            IntegerFormatter.formatTo(sb, chunks[i], PADDED_WITH_ZEROS, CHUNK_DIGITS);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+/**
+ * Formats a scaled integer, e.g. an amount in cents, as a fixed-point decimal number without converting it
+ * to {@link java.math.BigDecimal}. {@code formatTo(sb, -12345, 2, 3, 0, 0)} writes {@code -123.450}.
+ * The fraction is rounded half up as {@link java.util.Formatter} does for {@link java.math.BigDecimal}.
+ */
+public final class FixedPointFormatter {
+    public static final int PADDED_WITH_ZEROS = 1;
+    public static final int MAX_SCALE = 18;
+
+    private FixedPointFormatter() {
+    }
+
+    /**
+     * Formats {@code v / 10^scale} with {@code precision} fractional digits to {@link String}.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, int v, int scale, int precision, int flags,
+                                         int width) {
+        return formatTo(sb, (long) v, scale, precision, flags, width);
+    }
+
+    /**
+     * Formats {@code v / 10^scale} with {@code precision} fractional digits to {@link String}.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, long v, int scale, int precision, int flags,
+                                         int width) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("scale must be between 0 and " + MAX_SCALE + ": " + scale);
+        }
+        boolean negative = v < 0;
+        long unit = IntegerUtils.powerOf10(scale);
+        // Unsigned; only Long.MIN_VALUE with scale 0 does not fit in a signed long.
+        long integer = negative ? -(v / unit) : v / unit;
+        long fraction = Math.abs(v % unit);
+
+        int fractionDigits = Math.min(scale, precision);
+        if (fractionDigits < scale) {
+            long roundingUnit = IntegerUtils.powerOf10(scale - fractionDigits);
+            long remainder = fraction % roundingUnit;
+            fraction /= roundingUnit;
+            if (remainder >= roundingUnit - remainder) {
+                fraction++;
+                if (fraction == IntegerUtils.powerOf10(fractionDigits)) {
+                    // Carried into the integer part, which cannot overflow because scale > 0 here.
+                    fraction = 0;
+                    integer++;
+                }
+            }
+        }
+
+        int len = (negative ? 1 : 0) + IntegerUtils.log10(integer) + (precision > 0 ? precision + 1 : 0);
+        sb.ensureCapacity(sb.length() + Math.max(len, width));
+        if ((flags & PADDED_WITH_ZEROS) != PADDED_WITH_ZEROS) {
+            for (int i = len; i < width; i++) {
+                sb.append(' ');
+            }
+        }
+        if (negative) {
+            sb.append('-');
+        }
+        if ((flags & PADDED_WITH_ZEROS) == PADDED_WITH_ZEROS) {
+            for (int i = len; i < width; i++) {
+                sb.append('0');
+            }
+        }
+        IntegerFormatter.formatTo(sb, integer, IntegerFormatter.UNSIGNED, 0);
+        if (precision > 0) {
+            sb.append('.');
+            if (fractionDigits > 0) {
+                IntegerFormatter.formatTo(sb, fraction, IntegerFormatter.PADDED_WITH_ZEROS, fractionDigits);
+            }
+            for (int i = fractionDigits; i < precision; i++) {
+                sb.append('0');
+            }
+        }
+        return sb;
+    }
+}
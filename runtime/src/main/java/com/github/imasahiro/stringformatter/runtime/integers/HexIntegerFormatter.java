@@ -15,11 +15,27 @@
  */
 package com.github.imasahiro.stringformatter.runtime.integers;
 
+import java.nio.ByteBuffer;
+
 /**
  * HexInteger to string format helpers.
  */
 public final class HexIntegerFormatter {
     public static final int PADDED_WITH_ZEROS = 1;
+    public static final int UPPER_CASE = 2;
+
+    static final char[] digits = {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+    static final char[] upperDigits = {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'
+    };
+
+    // bytePairs[b * 2] and bytePairs[b * 2 + 1] are the hex digits of an unsigned byte b.
+    private static final char[] bytePairs = buildBytePairs(digits);
+    private static final char[] upperBytePairs = buildBytePairs(upperDigits);
+
+    private static final String NULL = "null";
 
     private HexIntegerFormatter() {
     }
@@ -28,18 +44,14 @@ public final class HexIntegerFormatter {
      * Formats {@code v} to {@link String}.
      */
     public static StringBuilder formatTo(StringBuilder sb, short v, int flags, int width) {
-        long unsigned = Math.abs(v);
-        unsigned += v < 0 ? 1L << 16 : 0;
-        return format0(sb, unsigned, flags, width);
+        return format0(sb, Short.toUnsignedLong(v), flags, width);
     }
 
     /**
      * Formats {@code v} to {@link String}.
      */
     public static StringBuilder formatTo(StringBuilder sb, int v, int flags, int width) {
-        long unsigned = Math.abs(v);
-        unsigned += v < 0 ? 1L << 32 : 0;
-        return format0(sb, unsigned, flags, width);
+        return format0(sb, Integer.toUnsignedLong(v), flags, width);
     }
 
     /**
@@ -49,6 +61,112 @@ public final class HexIntegerFormatter {
         return format0(sb, v, flags, width);
     }
 
+    /**
+     * Formats each byte of {@code v} as two hex digits to {@link String}.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, byte[] v, int flags) {
+        if (v == null) {
+            return sb.append(NULL);
+        }
+        return formatBytes(sb, v, 0, v.length, flags);
+    }
+
+    /**
+     * Formats each byte of {@code v} as two hex digits to {@link String}, inserting {@code separator}
+     * between bytes.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, byte[] v, int flags, char separator) {
+        if (v == null) {
+            return sb.append(NULL);
+        }
+        return formatBytes(sb, v, 0, v.length, flags, separator);
+    }
+
+    /**
+     * Formats each remaining byte of {@code v} as two hex digits to {@link String}. The position of
+     * {@code v} is not changed.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, ByteBuffer v, int flags) {
+        if (v == null) {
+            return sb.append(NULL);
+        }
+        if (v.hasArray()) {
+            return formatBytes(sb, v.array(), v.arrayOffset() + v.position(), v.remaining(), flags);
+        }
+        char[] table = selectBytePairs(flags);
+        sb.ensureCapacity(sb.length() + v.remaining() * 2);
+        for (int i = v.position(); i < v.limit(); i++) {
+            int idx = (v.get(i) & 0xff) * 2;
+            sb.append(table[idx]);
+            sb.append(table[idx + 1]);
+        }
+        return sb;
+    }
+
+    /**
+     * Formats each remaining byte of {@code v} as two hex digits to {@link String}, inserting
+     * {@code separator} between bytes. The position of {@code v} is not changed.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, ByteBuffer v, int flags, char separator) {
+        if (v == null) {
+            return sb.append(NULL);
+        }
+        if (v.hasArray()) {
+            return formatBytes(sb, v.array(), v.arrayOffset() + v.position(), v.remaining(), flags,
+                               separator);
+        }
+        char[] table = selectBytePairs(flags);
+        sb.ensureCapacity(sb.length() + v.remaining() * 3);
+        for (int i = v.position(); i < v.limit(); i++) {
+            if (i != v.position()) {
+                sb.append(separator);
+            }
+            int idx = (v.get(i) & 0xff) * 2;
+            sb.append(table[idx]);
+            sb.append(table[idx + 1]);
+        }
+        return sb;
+    }
+
+    private static StringBuilder formatBytes(StringBuilder sb, byte[] v, int offset, int length, int flags) {
+        char[] table = selectBytePairs(flags);
+        sb.ensureCapacity(sb.length() + length * 2);
+        for (int i = offset; i < offset + length; i++) {
+            int idx = (v[i] & 0xff) * 2;
+            sb.append(table[idx]);
+            sb.append(table[idx + 1]);
+        }
+        return sb;
+    }
+
+    private static StringBuilder formatBytes(StringBuilder sb, byte[] v, int offset, int length, int flags,
+                                             char separator) {
+        char[] table = selectBytePairs(flags);
+        sb.ensureCapacity(sb.length() + length * 3);
+        for (int i = offset; i < offset + length; i++) {
+            if (i != offset) {
+                sb.append(separator);
+            }
+            int idx = (v[i] & 0xff) * 2;
+            sb.append(table[idx]);
+            sb.append(table[idx + 1]);
+        }
+        return sb;
+    }
+
+    private static char[] selectBytePairs(int flags) {
+        return (flags & UPPER_CASE) == UPPER_CASE ? upperBytePairs : bytePairs;
+    }
+
+    private static char[] buildBytePairs(char[] table) {
+        char[] pairs = new char[256 * 2];
+        for (int i = 0; i < 256; i++) {
+            pairs[i * 2] = table[i >> 4];
+            pairs[i * 2 + 1] = table[i & 0xf];
+        }
+        return pairs;
+    }
+
     private static StringBuilder format0(StringBuilder sb, long val, int flags, int width) {
         int len = (IntegerUtils.log2(val) + 3) / 4;
         if ((flags & PADDED_WITH_ZEROS) != PADDED_WITH_ZEROS) {
@@ -61,10 +179,11 @@ public final class HexIntegerFormatter {
                 sb.append('0');
             }
         }
+        char[] table = (flags & UPPER_CASE) == UPPER_CASE ? upperDigits : digits;
         len *= 4;
         do {
             len -= 4;
-            sb.append(Character.forDigit((int) (val >> len) & 0xf, 16));
+            sb.append(table[(int) (val >> len) & 0xf]);
         } while (len != 0);
         return sb;
     }
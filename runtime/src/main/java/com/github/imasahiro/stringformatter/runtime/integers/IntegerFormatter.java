@@ -20,6 +20,15 @@ package com.github.imasahiro.stringformatter.runtime.integers;
  */
 public final class IntegerFormatter {
     public static final int PADDED_WITH_ZEROS = 1;
+    /**
+     * Formats {@code int} and {@code long} values as unsigned integers, e.g. {@code -1} to
+     * {@code 18446744073709551615}.
+     */
+    public static final int UNSIGNED = 2;
+    /**
+     * Separates every three digits with {@code ','}, e.g. {@code 1,234,567}.
+     */
+    public static final int GROUPING = 4;
     private static final boolean ENSURE_CAPACITY = true;
     private static final boolean DISABLE_INT_TO_ASCII_UNROLLING = false;
 
@@ -38,6 +47,9 @@ public final class IntegerFormatter {
 
     // Long.toString(-1 * Long.MIN_VALUE)
     private static final String LONG_MIN_ABS_VALUE = "9223372036854775808";
+    private static final long TEN_QUADRILLION = 10000000000000000L;
+    // TEN_QUADRILLION == 5^16 * 2^16
+    private static final long TEN_QUADRILLION_WITHOUT_POWER_OF_2 = 152587890625L;
 
     private IntegerFormatter() {
     }
@@ -46,6 +58,12 @@ public final class IntegerFormatter {
      * Formats {@code v} to {@link String}.
      */
     public static StringBuilder formatTo(StringBuilder sb, short v, int flags, int width) {
+        if ((flags & UNSIGNED) == UNSIGNED) {
+            return formatTo(sb, Short.toUnsignedLong(v), flags, width);
+        }
+        if ((flags & GROUPING) == GROUPING) {
+            return formatGrouped(sb, v, flags, width);
+        }
         long abs = writeLeftPadding(sb, v, flags, width);
         return formatTo0(sb, abs);
     }
@@ -54,6 +72,12 @@ public final class IntegerFormatter {
      * Formats {@code v} to {@link String}.
      */
     public static StringBuilder formatTo(StringBuilder sb, int v, int flags, int width) {
+        if ((flags & UNSIGNED) == UNSIGNED) {
+            return formatTo(sb, Integer.toUnsignedLong(v), flags, width);
+        }
+        if ((flags & GROUPING) == GROUPING) {
+            return formatGrouped(sb, v, flags, width);
+        }
         long abs = writeLeftPadding(sb, v, flags, width);
         return formatTo0(sb, abs);
     }
@@ -62,6 +86,12 @@ public final class IntegerFormatter {
      * Formats {@code v} to {@link String}.
      */
     public static StringBuilder formatTo(StringBuilder sb, long v, int flags, int width) {
+        if ((flags & GROUPING) == GROUPING) {
+            return formatGrouped(sb, v, flags, width);
+        }
+        if ((flags & UNSIGNED) == UNSIGNED) {
+            return formatUnsigned(sb, v, flags, width);
+        }
         long abs = writeLeftPadding(sb, v, flags, width);
         if (v == Long.MIN_VALUE) {
             return sb.append(LONG_MIN_ABS_VALUE);
@@ -77,10 +107,60 @@ public final class IntegerFormatter {
         }
     }
 
+    private static StringBuilder formatUnsigned(StringBuilder sb, long unsigned, int flags, int width) {
+        writeLeftPadding(sb, IntegerUtils.log10(unsigned), false, flags, width);
+        if (unsigned >= 0) {
+            return formatTo0(sb, unsigned);
+        }
+        // unsigned >= 2^63. Divides by 10^16 without Long.divideUnsigned, which falls back to BigInteger
+        // on JDK 8: floor(v / (5^16 * 2^16)) == floor((v >>> 16) / 5^16).
+        int a = (int) ((unsigned >>> 16) / TEN_QUADRILLION_WITHOUT_POWER_OF_2);
+        formatMoreThan10Quadrillion(sb, a, unsigned - a * TEN_QUADRILLION);
+        return sb;
+    }
+
+    private static StringBuilder formatGrouped(StringBuilder sb, long v, int flags, int width) {
+        boolean negative = v < 0 && (flags & UNSIGNED) != UNSIGNED;
+        long abs = negative ? -v : v;
+        int digits = IntegerUtils.log10(abs);
+        writeLeftPadding(sb, digits + (digits - 1) / 3 + (negative ? 1 : 0), negative, flags, width);
+        int start = sb.length();
+        formatUnsigned(sb, abs, 0, 0);
+        insertGroupingSeparators(sb, start);
+        return sb;
+    }
+
+    /**
+     * Inserts {@code ','} between every three digits of {@code sb} from {@code start} to the end.
+     */
+    static void insertGroupingSeparators(StringBuilder sb, int start) {
+        int end = sb.length();
+        int separators = (end - start - 1) / 3;
+        if (separators <= 0) {
+            return;
+        }
+        sb.setLength(end + separators);
+        int dst = end + separators;
+        int src = end;
+        int n = 0;
+        while (src > start) {
+            if (n == 3) {
+                sb.setCharAt(--dst, ',');
+                n = 0;
+            }
+            sb.setCharAt(--dst, sb.charAt(--src));
+            n++;
+        }
+    }
+
     private static long writeLeftPadding(StringBuilder sb, long val, int flags, int width) {
         long abs = Math.abs(val);
         boolean negative = val < 0;
-        int len = IntegerUtils.log10(abs) + (negative ? 1 : 0);
+        writeLeftPadding(sb, IntegerUtils.log10(abs) + (negative ? 1 : 0), negative, flags, width);
+        return abs;
+    }
+
+    private static void writeLeftPadding(StringBuilder sb, int len, boolean negative, int flags, int width) {
         if (ENSURE_CAPACITY) {
             sb.ensureCapacity(sb.length() + len + width);
         }
@@ -97,7 +177,6 @@ public final class IntegerFormatter {
                 sb.append('0');
             }
         }
-        return abs;
     }
 
     private static StringBuilder formatToStringUnrolled(StringBuilder sb, long val) {
@@ -114,8 +193,10 @@ public final class IntegerFormatter {
 
     private static void formatMoreThan10Quadrillion(StringBuilder sb, long val) {
         // val = aaaabbbbccccddddeeee
-        int a = (int) (val / 10000000000000000L);
-        long bcde = val % 10000000000000000L;
+        formatMoreThan10Quadrillion(sb, (int) (val / TEN_QUADRILLION), val % TEN_QUADRILLION);
+    }
+
+    private static void formatMoreThan10Quadrillion(StringBuilder sb, int a, long bcde) {
         int a1 = a / 100 * 2;
         int a2 = a % 100 * 2;
         int bc = (int) (bcde / 100000000);
@@ -16,6 +16,8 @@
 
 package com.github.imasahiro.stringformatter.runtime.integers;
 
+import java.util.Arrays;
+
 /**
  * Integer utilities.
  */
@@ -40,7 +42,8 @@ public final class IntegerUtils {
             10000000000000000L,
             100000000000000000L,
             1000000000000000000L,
-            Long.MAX_VALUE
+            // 10^19 as an unsigned long
+            -8446744073709551616L
     };
     // maxLog10ForLeadingZeros[i] == floor(log10(2^(Long.SIZE - i)))
     private static final int[] maxLog10ForLeadingZeros = {
@@ -49,6 +52,47 @@ public final class IntegerUtils {
             3, 3, 3, 3, 2, 2, 2, 1, 1, 1, 0, 0, 0
     };
 
+    public static final int MIN_RADIX = 2;
+    public static final int MAX_RADIX = 62;
+
+    // powersOfRadix[radix][k] == radix^k, or 0 if radix^k does not fit in an unsigned long.
+    private static final long[][] powersOfRadix = new long[MAX_RADIX + 1][];
+    // maxLogForLeadingZeros[radix][i] == floor(log_radix(2^(Long.SIZE - i)))
+    private static final int[][] maxLogForLeadingZeros = new int[MAX_RADIX + 1][];
+
+    static {
+        for (int radix = MIN_RADIX; radix <= MAX_RADIX; radix++) {
+            long[] powers = new long[Long.SIZE + 1];
+            int n = 0;
+            long p = 1;
+            powers[n++] = p;
+            while (Long.compareUnsigned(p, Long.divideUnsigned(-1L, radix)) <= 0) {
+                p *= radix;
+                powers[n++] = p;
+            }
+            powers[n++] = 0;
+            powersOfRadix[radix] = Arrays.copyOf(powers, n);
+
+            // radix^(n - 1) == 2^64 only if radix is 2^k and k divides 64.
+            boolean exact = Integer.bitCount(radix) == 1 &&
+                            Long.SIZE % Integer.numberOfTrailingZeros(radix) == 0;
+            int[] maxLog = new int[Long.SIZE];
+            for (int i = 0; i < Long.SIZE; i++) {
+                int bits = Long.SIZE - i;
+                int k = 0;
+                while (k + 1 < n - 1 &&
+                       (bits == Long.SIZE || Long.compareUnsigned(powers[k + 1], 1L << bits) <= 0)) {
+                    k++;
+                }
+                if (bits == Long.SIZE && exact) {
+                    k = n - 1;
+                }
+                maxLog[i] = k;
+            }
+            maxLogForLeadingZeros[radix] = maxLog;
+        }
+    }
+
     private IntegerUtils() {
     }
 
@@ -71,7 +115,29 @@ public final class IntegerUtils {
     public static int log10(long unsigned) {
         if (unsigned != 0) {
             int digits = maxLog10ForLeadingZeros[Long.numberOfLeadingZeros(unsigned)];
-            return digits + (unsigned >= powersOf10[digits] ? 1 : 0);
+            return digits + (Long.compareUnsigned(unsigned, powersOf10[digits]) >= 0 ? 1 : 0);
+        } else {
+            return 1;
+        }
+    }
+
+    /**
+     * Returns {@code 10^exponent} for {@code 0 <= exponent <= 18}.
+     */
+    static long powerOf10(int exponent) {
+        return powersOf10[exponent];
+    }
+
+    /**
+     * Returns the number of digits of a {@code long} value in {@code radix}.
+     * @param unsigned unsigned {@code long} value.
+     * @param radix the radix, between {@link #MIN_RADIX} and {@link #MAX_RADIX}.
+     */
+    public static int log(long unsigned, int radix) {
+        if (unsigned != 0) {
+            int digits = maxLogForLeadingZeros[radix][Long.numberOfLeadingZeros(unsigned)];
+            long power = powersOfRadix[radix][digits];
+            return digits + (power != 0 && Long.compareUnsigned(unsigned, power) >= 0 ? 1 : 0);
         } else {
             return 1;
         }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The locale-specific symbols of a number, applied after a number is written by the formatters of this
+ * library with {@code '0'} to {@code '9'}, {@code ','} and {@code '.'}. As {@link java.util.Formatter}, the
+ * symbols are taken from {@link DecimalFormatSymbols}, and the instance for a {@link Locale} is cached.
+ */
+public final class NumberSymbols {
+    /**
+     * The symbols which {@link #localize(StringBuilder, int)} does not change, used for a {@code null}
+     * locale as {@link java.util.Formatter} does not localize the output for it.
+     */
+    public static final NumberSymbols ROOT = new NumberSymbols(',', '.', '0');
+
+    private static final Map<Locale, NumberSymbols> cache = new ConcurrentHashMap<>();
+
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    private final char zeroDigit;
+
+    private NumberSymbols(char groupingSeparator, char decimalSeparator, char zeroDigit) {
+        this.groupingSeparator = groupingSeparator;
+        this.decimalSeparator = decimalSeparator;
+        this.zeroDigit = zeroDigit;
+    }
+
+    /**
+     * Returns the symbols of {@code locale}, or {@link #ROOT} if {@code locale} is {@code null}.
+     */
+    public static NumberSymbols of(Locale locale) {
+        if (locale == null) {
+            return ROOT;
+        }
+        NumberSymbols symbols = cache.get(locale);
+        if (symbols == null) {
+            DecimalFormatSymbols dfs = DecimalFormatSymbols.getInstance(locale);
+            symbols = new NumberSymbols(dfs.getGroupingSeparator(), dfs.getDecimalSeparator(),
+                                        dfs.getZeroDigit());
+            if (symbols.isRoot()) {
+                symbols = ROOT;
+            }
+            cache.put(locale, symbols);
+        }
+        return symbols;
+    }
+
+    public char getGroupingSeparator() {
+        return groupingSeparator;
+    }
+
+    public char getDecimalSeparator() {
+        return decimalSeparator;
+    }
+
+    public char getZeroDigit() {
+        return zeroDigit;
+    }
+
+    /**
+     * Returns {@code true} if {@link #localize(StringBuilder, int)} does not change a number.
+     */
+    public boolean isRoot() {
+        return groupingSeparator == ',' && decimalSeparator == '.' && zeroDigit == '0';
+    }
+
+    /**
+     * Replaces the digits and the separators of a number in {@code sb} from {@code start} to the end with
+     * these symbols.
+     */
+    public StringBuilder localize(StringBuilder sb, int start) {
+        if (this == ROOT) {
+            return sb;
+        }
+        return localize(sb, start, groupingSeparator, decimalSeparator, zeroDigit);
+    }
+
+    /**
+     * Replaces the digits and the separators of a number in {@code sb} from {@code start} to the end with
+     * the given symbols. A formatter generated for a fixed locale calls this with the symbols resolved at
+     * compile time.
+     */
+    public static StringBuilder localize(StringBuilder sb, int start, char groupingSeparator,
+                                         char decimalSeparator, char zeroDigit) {
+        int offset = zeroDigit - '0';
+        for (int i = start; i < sb.length(); i++) {
+            char c = sb.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (offset != 0) {
+                    sb.setCharAt(i, (char) (c + offset));
+                }
+            } else if (c == ',') {
+                sb.setCharAt(i, groupingSeparator);
+            } else if (c == '.') {
+                sb.setCharAt(i, decimalSeparator);
+            }
+        }
+        return sb;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+/**
+ * Integer to string format helpers for an arbitrary radix between {@link IntegerUtils#MIN_RADIX} and
+ * {@link IntegerUtils#MAX_RADIX}. Digits are {@code 0-9}, {@code a-z} and then {@code A-Z}, so the output
+ * for a radix up to 36 is identical to {@link Long#toString(long, int)}.
+ */
+public final class RadixIntegerFormatter {
+    public static final int PADDED_WITH_ZEROS = 1;
+    public static final int UPPER_CASE = 2;
+
+    private static final char[] digits = {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
+            'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm',
+            'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z',
+            'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M',
+            'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z'
+    };
+    private static final char[] upperDigits = {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
+            'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M',
+            'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z'
+    };
+
+    // pairs[v * 2] and pairs[v * 2 + 1] are the two digits of v (0 <= v < radix * radix).
+    private static final char[] base36Pairs = buildPairs(digits, 36);
+    private static final char[] upperBase36Pairs = buildPairs(upperDigits, 36);
+    private static final char[] base62Pairs = buildPairs(digits, 62);
+
+    private RadixIntegerFormatter() {
+    }
+
+    /**
+     * Formats {@code v} in {@code radix} to {@link String}.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, short v, int radix, int flags, int width) {
+        return formatTo(sb, (long) v, radix, flags, width);
+    }
+
+    /**
+     * Formats {@code v} in {@code radix} to {@link String}.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, int v, int radix, int flags, int width) {
+        return formatTo(sb, (long) v, radix, flags, width);
+    }
+
+    /**
+     * Formats {@code v} in {@code radix} to {@link String}.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, long v, int radix, int flags, int width) {
+        if (radix < IntegerUtils.MIN_RADIX || radix > IntegerUtils.MAX_RADIX) {
+            throw new IllegalArgumentException("radix: " + radix + " (expected: " + IntegerUtils.MIN_RADIX +
+                                               " - " + IntegerUtils.MAX_RADIX + ')');
+        }
+        boolean negative = v < 0;
+        // -Long.MIN_VALUE overflows to itself, which is 2^63 as an unsigned value.
+        long abs = negative ? -v : v;
+        int digitLength = IntegerUtils.log(abs, radix);
+        int len = digitLength + (negative ? 1 : 0);
+        sb.ensureCapacity(sb.length() + Math.max(len, width));
+        if ((flags & PADDED_WITH_ZEROS) != PADDED_WITH_ZEROS) {
+            for (int i = len; i < width; i++) {
+                sb.append(' ');
+            }
+        }
+        if (negative) {
+            sb.append('-');
+        }
+        if ((flags & PADDED_WITH_ZEROS) == PADDED_WITH_ZEROS) {
+            for (int i = len; i < width; i++) {
+                sb.append('0');
+            }
+        }
+        return formatUnsigned(sb, abs, digitLength, radix, flags);
+    }
+
+    private static StringBuilder formatUnsigned(StringBuilder sb, long val, int len, int radix, int flags) {
+        boolean upperCase = (flags & UPPER_CASE) == UPPER_CASE && radix <= upperDigits.length;
+        char[] table = upperCase ? upperDigits : digits;
+        char[] pairs = null;
+        if (radix == 36) {
+            pairs = upperCase ? upperBase36Pairs : base36Pairs;
+        } else if (radix == 62) {
+            pairs = base62Pairs;
+        }
+
+        // Reserves the digits and fills them from the least significant one.
+        int pos = sb.length() + len;
+        sb.setLength(pos);
+        if (val < 0) {
+            long quotient = Long.divideUnsigned(val, radix);
+            sb.setCharAt(--pos, table[(int) (val - quotient * radix)]);
+            val = quotient;
+        }
+        if (pairs != null) {
+            int square = radix * radix;
+            while (val >= square) {
+                int idx = (int) (val % square) * 2;
+                val /= square;
+                sb.setCharAt(--pos, pairs[idx + 1]);
+                sb.setCharAt(--pos, pairs[idx]);
+            }
+        }
+        while (val >= radix) {
+            sb.setCharAt(--pos, table[(int) (val % radix)]);
+            val /= radix;
+        }
+        sb.setCharAt(--pos, table[(int) val]);
+        return sb;
+    }
+
+    private static char[] buildPairs(char[] table, int radix) {
+        char[] pairs = new char[radix * radix * 2];
+        for (int i = 0; i < radix * radix; i++) {
+            pairs[i * 2] = table[i / radix];
+            pairs[i * 2 + 1] = table[i % radix];
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import java.util.UUID;
+
+/**
+ * {@link UUID} to string format helpers.
+ */
+public final class UuidFormatter {
+    private static final String NULL = "null";
+    private static final int UUID_LENGTH = 36;
+
+    private UuidFormatter() {
+    }
+
+    /**
+     * Formats {@code v} to {@link String}. The output is identical to {@link UUID#toString()}.
+     * @param flags {@link HexIntegerFormatter#UPPER_CASE} or {@code 0}.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, UUID v, int flags) {
+        if (v == null) {
+            return sb.append(NULL);
+        }
+        char[] table = (flags & HexIntegerFormatter.UPPER_CASE) == HexIntegerFormatter.UPPER_CASE ?
+                       HexIntegerFormatter.upperDigits : HexIntegerFormatter.digits;
+        long msb = v.getMostSignificantBits();
+        long lsb = v.getLeastSignificantBits();
+        sb.ensureCapacity(sb.length() + UUID_LENGTH);
+        // xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx
+        formatHex(sb, table, msb >>> 32, 8);
+        sb.append('-');
+        formatHex(sb, table, msb >>> 16, 4);
+        sb.append('-');
+        formatHex(sb, table, msb, 4);
+        sb.append('-');
+        formatHex(sb, table, lsb >>> 48, 4);
+        sb.append('-');
+        formatHex(sb, table, lsb, 12);
+        return sb;
+    }
+
+    private static void formatHex(StringBuilder sb, char[] table, long val, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            sb.append(table[(int) (val >>> shift) & 0xf]);
+        }
+    }
+}
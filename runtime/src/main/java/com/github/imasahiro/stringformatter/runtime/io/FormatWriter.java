@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * A {@link Writer} which stages the chars written to it in a buffer, and writes them to another writer in
+ * chunks of at least the flush threshold. A formatter generated with
+ * {@code @AutoStringFormatter(writer = true)} formats directly into the buffer, so that a record creates no
+ * {@link String}, e.g.
+ * <pre>{@code
+ * FormatWriter out = new FormatWriter(System.out, StandardCharsets.UTF_8, 8192);
+ * for (Order order : orders) {
+ *     formatter.order(out, order.id, order.symbol);
+ * }
+ * out.flush();
+ * }</pre>
+ * A formatter also accepts any other {@link Writer}, to which it writes a record by a single call from a
+ * buffer of the current thread. An instance is not thread-safe.
+ */
+public final class FormatWriter extends Writer {
+    /**
+     * The default number of the chars staged before they are written.
+     */
+    public static final int DEFAULT_FLUSH_THRESHOLD = 8192;
+
+    private static final ThreadLocal<Staging> staging = ThreadLocal.withInitial(Staging::new);
+
+    private final Writer out;
+    private final int flushThreshold;
+    private final Staging buffer;
+
+    /**
+     * Creates a new instance with {@link #DEFAULT_FLUSH_THRESHOLD}.
+     */
+    public FormatWriter(Writer out) {
+        this(out, DEFAULT_FLUSH_THRESHOLD);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param flushThreshold the number of the chars staged before they are written to {@code out}.
+     */
+    public FormatWriter(Writer out, int flushThreshold) {
+        if (flushThreshold <= 0) {
+            throw new IllegalArgumentException("flushThreshold must be positive : " + flushThreshold);
+        }
+        this.out = out;
+        this.flushThreshold = flushThreshold;
+        buffer = new Staging(flushThreshold + 256);
+    }
+
+    /**
+     * Creates a new instance which encodes the chars to {@code out}, e.g. a {@link java.io.PrintStream}, in
+     * {@code charset}.
+     * @param flushThreshold the number of the chars staged before they are encoded to {@code out}.
+     */
+    public FormatWriter(OutputStream out, Charset charset, int flushThreshold) {
+        this(new OutputStreamWriter(out, charset), flushThreshold);
+    }
+
+    /**
+     * Returns the buffer to format a record written to {@code out}: the buffer of {@code out} if it is a
+     * {@link FormatWriter}, or else the buffer of the current thread. The record is appended from the current
+     * length of the buffer, and must be committed by {@link #commit}.
+     */
+    public static StringBuilder stage(Writer out) {
+        if (out instanceof FormatWriter) {
+            return ((FormatWriter) out).buffer.chars;
+        }
+        return staging.get().chars;
+    }
+
+    /**
+     * Commits a record formatted from {@code start} of the buffer returned by {@link #stage}. It is written to
+     * {@code out} if {@code out} is not a {@link FormatWriter}, or when the staged chars reach the flush
+     * threshold.
+     */
+    public static void commit(Writer out, int start) throws IOException {
+        if (out instanceof FormatWriter) {
+            ((FormatWriter) out).flushIfFull();
+        } else {
+            // A record formatted while formatting another one, e.g. by toString(), is written first.
+            staging.get().writeTo(out, start);
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        buffer.chars.append((char) c);
+        flushIfFull();
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        buffer.chars.append(cbuf, off, len);
+        flushIfFull();
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        buffer.chars.append(str, off, off + len);
+        flushIfFull();
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        buffer.chars.append(csq);
+        flushIfFull();
+        return this;
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        buffer.chars.append(csq, start, end);
+        flushIfFull();
+        return this;
+    }
+
+    /**
+     * Writes the staged chars, and flushes the underlying writer.
+     */
+    @Override
+    public void flush() throws IOException {
+        buffer.writeTo(out, 0);
+        out.flush();
+    }
+
+    /**
+     * Writes the staged chars, and closes the underlying writer.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            buffer.writeTo(out, 0);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void flushIfFull() throws IOException {
+        if (buffer.chars.length() >= flushThreshold) {
+            buffer.writeTo(out, 0);
+        }
+    }
+
+    private static final class Staging {
+        final StringBuilder chars;
+        private char[] chunk;
+
+        Staging() {
+            this(256);
+        }
+
+        Staging(int capacity) {
+            chars = new StringBuilder(capacity);
+            chunk = new char[capacity];
+        }
+
+        /**
+         * Writes the chars from {@code start} to {@code out} by a single call, and removes them.
+         */
+        void writeTo(Writer out, int start) throws IOException {
+            final int length = chars.length() - start;
+            if (length <= 0) {
+                return;
+            }
+            if (chunk.length < length) {
+                chunk = new char[Math.max(length, chunk.length * 2)];
+            }
+            chars.getChars(start, start + length, chunk, 0);
+            chars.setLength(start);
+            out.write(chunk, 0, length);
+        }
+    }
+}
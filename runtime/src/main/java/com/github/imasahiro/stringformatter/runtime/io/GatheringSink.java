@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.io;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes records to a {@link GatheringByteChannel} in batches of segments. The long literals of a format are
+ * encoded once to read-only buffers, which are shared by all records instead of being copied per record;
+ * only the formatted arguments and short literals of a record are encoded in UTF-8 into a buffer of the sink.
+ * A formatter generated with {@code @AutoStringFormatter(gathering = true)} writes records to it, e.g.
+ * <pre>{@code
+ * GatheringSink sink = new GatheringSink(channel, 1024, 65536);
+ * for (Order order : orders) {
+ *     formatter.writeOrder(sink, order.id, order.symbol);
+ * }
+ * sink.flush();
+ * }</pre>
+ * The segments are written with {@link GatheringByteChannel#write(ByteBuffer[], int, int)} when the batch is
+ * full or the sink is flushed. An instance is not thread-safe.
+ */
+public final class GatheringSink implements Flushable {
+    // The maximum number of the bytes of a char in UTF-8.
+    private static final int MAX_BYTES_PER_CHAR = 3;
+
+    private final GatheringByteChannel channel;
+    private final ByteBuffer buffer;
+    private final ByteBuffer[] views;
+    private final ByteBuffer[] segments;
+    private final StringBuilder text = new StringBuilder(256);
+    private int count;
+
+    /**
+     * Creates a new instance.
+     * @param maxSegments the number of the segments written at a time.
+     * @param bufferSize the number of the bytes of the formatted text buffered at a time.
+     */
+    public GatheringSink(GatheringByteChannel channel, int maxSegments, int bufferSize) {
+        if (maxSegments <= 0) {
+            throw new IllegalArgumentException("maxSegments must be positive : " + maxSegments);
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive : " + bufferSize);
+        }
+        this.channel = channel;
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+        // A view of the buffer per segment, so that a segment of the formatted text allocates nothing.
+        views = new ByteBuffer[maxSegments];
+        for (int i = 0; i < maxSegments; i++) {
+            views[i] = buffer.duplicate();
+        }
+        segments = new ByteBuffer[maxSegments];
+    }
+
+    /**
+     * Returns a read-only buffer of {@code text} in UTF-8 to be passed to {@link #putLiteral}.
+     */
+    public static ByteBuffer literal(String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer literal = ByteBuffer.allocateDirect(bytes.length);
+        literal.put(bytes).flip();
+        return literal.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the buffer of the text of the current segment. Text appended to it is written before the next
+     * literal.
+     */
+    public StringBuilder text() {
+        return text;
+    }
+
+    /**
+     * Writes {@code literal}, from its position to its limit, after the text appended so far. The position of
+     * {@code literal} is not changed, so that it can be shared by records and threads.
+     */
+    public void putLiteral(ByteBuffer literal) throws IOException {
+        putText();
+        if (literal.hasRemaining()) {
+            add(literal.duplicate());
+        }
+    }
+
+    /**
+     * Ends a record, writing the text appended since the last literal.
+     */
+    public void endRecord() throws IOException {
+        putText();
+    }
+
+    /**
+     * Writes the records written so far to the channel.
+     */
+    @Override
+    public void flush() throws IOException {
+        putText();
+        writeSegments();
+    }
+
+    private void writeSegments() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        try {
+            final ByteBuffer last = segments[count - 1];
+            while (last.hasRemaining()) {
+                channel.write(segments, 0, count);
+            }
+        } finally {
+            // Releases the literals, and discards the segments not written on a failure.
+            for (int i = 0; i < count; i++) {
+                segments[i] = null;
+            }
+            count = 0;
+            buffer.clear();
+        }
+    }
+
+    private void add(ByteBuffer segment) throws IOException {
+        if (count == segments.length) {
+            writeSegments();
+        }
+        segments[count++] = segment;
+    }
+
+    private void putText() throws IOException {
+        final int length = text.length();
+        if (length == 0) {
+            return;
+        }
+        if (buffer.remaining() < length * MAX_BYTES_PER_CHAR || count == segments.length) {
+            writeSegments();
+        }
+        if (buffer.remaining() < length * MAX_BYTES_PER_CHAR) {
+            // Too long for the buffer.
+            segments[count++] = StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+            text.setLength(0);
+            return;
+        }
+        final int start = buffer.position();
+        Utf8.encode(text, buffer);
+        text.setLength(0);
+        final ByteBuffer view = views[count];
+        view.limit(buffer.position());
+        view.position(start);
+        segments[count++] = view;
+    }
+}
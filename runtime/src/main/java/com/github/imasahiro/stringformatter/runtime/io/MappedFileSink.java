@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.io;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes records to a file through a {@link MappedByteBuffer}, so that the records are encoded directly into
+ * the page cache without copying through a stream. The file is mapped by windows of a fixed size; a window is
+ * mapped after the records written so far when a record does not fit in the current one, and the file is
+ * truncated to the written length on {@link #close()}.
+ * <pre>{@code
+ * try (MappedFileSink sink = new MappedFileSink(path, 1 << 20)) {
+ *     for (Order order : orders) {
+ *         formatter.encodeOrder(sink.reserve(64), order.id, order.symbol);
+ *     }
+ * }
+ * }</pre>
+ * An instance is not thread-safe.
+ */
+public final class MappedFileSink implements AutoCloseable {
+    private final FileChannel channel;
+    private final int windowSize;
+    private long windowStart;
+    private MappedByteBuffer buffer;
+
+    /**
+     * Creates a new instance which truncates or creates {@code path}.
+     * @param windowSize the number of the bytes mapped at a time, which limits the length of a record.
+     */
+    public MappedFileSink(Path path, int windowSize) throws IOException {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive : " + windowSize);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                   StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.windowSize = windowSize;
+        try {
+            buffer = channel.map(MapMode.READ_WRITE, 0, windowSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the buffer of the current window with at least {@code length} bytes remaining, mapping the next
+     * window if needed. Bytes put to the buffer are written to the file.
+     */
+    public ByteBuffer reserve(int length) throws IOException {
+        ensureOpen();
+        if (length > windowSize) {
+            throw new IllegalArgumentException(
+                    "length must not be greater than windowSize " + windowSize + " : " + length);
+        }
+        if (buffer.remaining() < length) {
+            remap();
+        }
+        return buffer;
+    }
+
+    /**
+     * Writes a record with {@code encoder}. If the record does not fit in the current window, the bytes written
+     * by {@code encoder} are discarded and it writes the record again to the next window.
+     * @throws IllegalArgumentException if the record is longer than the window.
+     */
+    public void write(RecordEncoder encoder) throws IOException {
+        ensureOpen();
+        final int start = buffer.position();
+        try {
+            encoder.encodeTo(buffer);
+            return;
+        } catch (BufferOverflowException e) {
+            buffer.position(start);
+        }
+        remap();
+        try {
+            encoder.encodeTo(buffer);
+        } catch (BufferOverflowException e) {
+            buffer.position(0);
+            throw new IllegalArgumentException("Record is longer than windowSize " + windowSize, e);
+        }
+    }
+
+    /**
+     * Returns the number of the bytes written to the file.
+     */
+    public long position() {
+        return windowStart + (buffer != null ? buffer.position() : 0);
+    }
+
+    /**
+     * Forces the records written to the current window to the storage device.
+     */
+    public void force() throws IOException {
+        ensureOpen();
+        buffer.force();
+    }
+
+    /**
+     * Truncates the file to the written length and closes it.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            final long length = position();
+            // The mapping cannot be released explicitly; it is unmapped when the buffer is collected.
+            buffer = null;
+            windowStart = length;
+            channel.truncate(length);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void remap() throws IOException {
+        windowStart += buffer.position();
+        buffer = channel.map(MapMode.READ_WRITE, windowStart, windowSize);
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!channel.isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes a record to the buffer of a {@link MappedFileSink}. It is typically an encoder generated with
+ * {@code @AutoStringFormatter(binary = true)}.
+ * <pre>{@code
+ * RecordEncoder record = buffer -> formatter.encodeOrder(buffer, id, symbol);
+ * }</pre>
+ */
+@FunctionalInterface
+public interface RecordEncoder {
+    /**
+     * Writes a record from the position of {@code buffer}.
+     * @throws java.nio.BufferOverflowException if the record does not fit in the remaining of
+     *                                          {@code buffer}.
+     */
+    void encodeTo(ByteBuffer buffer);
+}
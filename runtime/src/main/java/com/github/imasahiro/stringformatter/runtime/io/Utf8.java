@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes chars in UTF-8 directly to a {@link ByteBuffer}, without creating a {@link String} or a
+ * {@link java.nio.CharBuffer}. A lone surrogate is encoded as {@code '?'}, as {@link String#getBytes} does.
+ */
+public final class Utf8 {
+    private Utf8() {
+    }
+
+    /**
+     * Returns the number of the bytes of {@code value} in UTF-8.
+     */
+    public static int length(CharSequence value) {
+        final int length = value.length();
+        int utf8Length = length;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                utf8Length += 1;
+            } else if (!Character.isSurrogate(c)) {
+                utf8Length += 2;
+            } else if (isSurrogatePair(value, i)) {
+                // 4 bytes for 2 chars.
+                utf8Length += 2;
+                i++;
+            }
+        }
+        return utf8Length;
+    }
+
+    /**
+     * Writes {@code value} in UTF-8 from the position of {@code buffer}.
+     * @throws java.nio.BufferOverflowException if {@code buffer} has less than {@link #length} bytes
+     *                                          remaining.
+     */
+    public static void encode(CharSequence value, ByteBuffer buffer) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >>> 6))
+                      .put((byte) (0x80 | c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                buffer.put((byte) (0xE0 | c >>> 12))
+                      .put((byte) (0x80 | c >>> 6 & 0x3F))
+                      .put((byte) (0x80 | c & 0x3F));
+            } else if (isSurrogatePair(value, i)) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | codePoint >>> 18))
+                      .put((byte) (0x80 | codePoint >>> 12 & 0x3F))
+                      .put((byte) (0x80 | codePoint >>> 6 & 0x3F))
+                      .put((byte) (0x80 | codePoint & 0x3F));
+            } else {
+                buffer.put((byte) '?');
+            }
+        }
+    }
+
+    private static boolean isSurrogatePair(CharSequence value, int index) {
+        return Character.isHighSurrogate(value.charAt(index)) && index + 1 < value.length() &&
+               Character.isLowSurrogate(value.charAt(index + 1));
+    }
+}
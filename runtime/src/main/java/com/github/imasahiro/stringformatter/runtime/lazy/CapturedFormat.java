@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.lazy;
+
+/**
+ * The arguments of a formatter method captured without boxing, to be formatted later, e.g. by another
+ * thread. A formatter generated with {@code @AutoStringFormatter(capture = true)} has an immutable
+ * implementation of this interface and a factory method for each formatter method.
+ */
+public interface CapturedFormat {
+    /**
+     * Formats the captured arguments to {@code sb}.
+     */
+    StringBuilder formatTo(StringBuilder sb);
+}
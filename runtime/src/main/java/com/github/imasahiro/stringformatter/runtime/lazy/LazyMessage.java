@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.lazy;
+
+import java.util.function.Supplier;
+
+/**
+ * A message which is formatted when it is used for the first time, e.g. by a logger which passed the level
+ * filter. A generated formatter returns a subclass which captures the arguments of a method, so a message
+ * which is dropped costs only the allocation of it. The formatted string is cached.
+ */
+public abstract class LazyMessage implements CharSequence, Supplier<String> {
+    private final int capacity;
+    // Racy single-check like String.hashCode(); String is immutable, so it is safe to publish.
+    private String string;
+
+    /**
+     * Creates a new instance.
+     * @param capacity the initial capacity of the buffer to format the message with.
+     */
+    protected LazyMessage(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Formats the message to {@code sb}.
+     */
+    public abstract StringBuilder appendTo(StringBuilder sb);
+
+    @Override
+    public String get() {
+        return toString();
+    }
+
+    @Override
+    public int length() {
+        return toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        String s = string;
+        if (s == null) {
+            s = appendTo(new StringBuilder(capacity)).toString();
+            string = s;
+        }
+        return s;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.objects;
+
+/**
+ * {@link Enum} to string format helpers.
+ */
+public final class EnumFormatter {
+    private static final String NULL = "null";
+
+    private static final ClassValue<String[]> names = new ClassValue<String[]>() {
+        @Override
+        protected String[] computeValue(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            String[] table = new String[constants.length];
+            for (int i = 0; i < constants.length; i++) {
+                table[i] = constants[i].toString();
+            }
+            return table;
+        }
+    };
+
+    private EnumFormatter() {
+    }
+
+    /**
+     * Formats {@code v} to {@link String}. The string representation of each constant is computed once
+     * per enum type by {@link Enum#toString()}, so it must not change after the first call.
+     */
+    public static StringBuilder formatTo(StringBuilder sb, Enum<?> v) {
+        if (v == null) {
+            return sb.append(NULL);
+        }
+        return sb.append(names.get(v.getDeclaringClass())[v.ordinal()]);
+    }
+}
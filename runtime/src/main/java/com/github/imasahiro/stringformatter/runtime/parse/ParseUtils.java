@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.parse;
+
+/**
+ * Utilities for the parsers generated for {@link com.github.imasahiro.stringformatter.annotation.Parse},
+ * which read a region of a {@link CharSequence} without creating substrings.
+ */
+public final class ParseUtils {
+    private ParseUtils() {
+    }
+
+    /**
+     * Returns {@code true} if {@code text} appears at {@code index} of {@code input}.
+     */
+    public static boolean matches(CharSequence input, int index, String text) {
+        final int length = text.length();
+        if (length > input.length() - index) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (input.charAt(index + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the non-empty {@code text} in {@code input}, starting at
+     * {@code from}, or {@code -1} if there is no such occurrence.
+     */
+    public static int indexOf(CharSequence input, String text, int from) {
+        if (input instanceof String) {
+            return ((String) input).indexOf(text, from);
+        }
+        final char first = text.charAt(0);
+        final int last = input.length() - text.length();
+        for (int i = from; i <= last; i++) {
+            if (input.charAt(i) == first && matches(input, i, text)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first character which is not a space, between {@code start} and
+     * {@code limit}, or {@code limit}.
+     */
+    public static int skipSpaces(CharSequence input, int start, int limit) {
+        int i = start;
+        while (i < limit && input.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the end of the decimal digits with an optional sign at {@code start}, which are before
+     * {@code limit}, or {@code -1} if there is no digit.
+     */
+    public static int decimalEnd(CharSequence input, int start, int limit) {
+        int i = start;
+        if (i < limit && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+            i++;
+        }
+        final int digits = i;
+        while (i < limit && isDecimalDigit(input.charAt(i))) {
+            i++;
+        }
+        return i > digits ? i : -1;
+    }
+
+    /**
+     * Returns the end of the hex digits at {@code start}, which are before {@code limit}, or {@code -1} if
+     * there is no digit.
+     */
+    public static int hexEnd(CharSequence input, int start, int limit) {
+        int i = start;
+        while (i < limit && hexDigit(input.charAt(i)) >= 0) {
+            i++;
+        }
+        return i > start ? i : -1;
+    }
+
+    /**
+     * Parses the decimal number with an optional sign between {@code start} and {@code end}, as
+     * {@link Long#parseLong(String)} does.
+     * @throws NumberFormatException if the region is not a number between {@code min} and {@code max}.
+     */
+    public static long parseDecimal(CharSequence input, int start, int end, long min, long max) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+            negative = input.charAt(i++) == '-';
+        }
+        if (i == end) {
+            throw numberFormatException(input, start, end);
+        }
+        // Accumulates negatively not to overflow at Long.MIN_VALUE, as Long.parseLong().
+        final long limit = negative ? min : -max;
+        final long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            final char c = input.charAt(i);
+            if (!isDecimalDigit(c) || result < multiplyLimit) {
+                throw numberFormatException(input, start, end);
+            }
+            result *= 10;
+            final int digit = c - '0';
+            if (result < limit + digit) {
+                throw numberFormatException(input, start, end);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses the hex digits between {@code start} and {@code end} as an unsigned integer of {@code bits}
+     * bits, so that a negative value printed by {@code %x} is parsed back, e.g. {@code ffffffff} is
+     * {@code -1} of 32 bits.
+     * @throws NumberFormatException if the region has a non hex digit, or the number overflows.
+     */
+    public static long parseHex(CharSequence input, int start, int end, int bits) {
+        if (start >= end) {
+            throw numberFormatException(input, start, end);
+        }
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            final int digit = hexDigit(input.charAt(i));
+            if (digit < 0 || result >>> bits - 4 != 0) {
+                throw numberFormatException(input, start, end);
+            }
+            result = result << 4 | digit;
+        }
+        return result;
+    }
+
+    private static boolean isDecimalDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static NumberFormatException numberFormatException(CharSequence input, int start, int end) {
+        return new NumberFormatException("For input string: \"" + input.subSequence(start, end) + '"');
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.time;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Date and time fields of an epoch second in a time zone. The accessors follow
+ * {@link java.time.ZonedDateTime}, so that generated code can read fields from either of them.
+ */
+public final class TimeFields {
+    private final long epochSecond;
+    private final ZoneId zone;
+    private final ZoneOffset offset;
+    private final LocalDateTime dateTime;
+    private String zoneName;
+
+    TimeFields(long epochSecond, ZoneId zone) {
+        this.epochSecond = epochSecond;
+        this.zone = zone;
+        offset = zone.getRules().getOffset(Instant.ofEpochSecond(epochSecond));
+        dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, offset);
+    }
+
+    boolean isSameSecond(long epochSecond, ZoneId zone) {
+        return this.epochSecond == epochSecond && this.zone.equals(zone);
+    }
+
+    public long toEpochSecond() {
+        return epochSecond;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public ZoneOffset getOffset() {
+        return offset;
+    }
+
+    public int getYear() {
+        return dateTime.getYear();
+    }
+
+    public int getMonthValue() {
+        return dateTime.getMonthValue();
+    }
+
+    public int getDayOfMonth() {
+        return dateTime.getDayOfMonth();
+    }
+
+    public int getDayOfYear() {
+        return dateTime.getDayOfYear();
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dateTime.getDayOfWeek();
+    }
+
+    public int getHour() {
+        return dateTime.getHour();
+    }
+
+    public int getMinute() {
+        return dateTime.getMinute();
+    }
+
+    public int getSecond() {
+        return dateTime.getSecond();
+    }
+
+    /**
+     * Returns the short display name of the time zone, e.g. {@code PST}.
+     */
+    public String getZoneName() {
+        String zoneName = this.zoneName;
+        if (zoneName == null) {
+            zoneName = TimeFormatter.zoneName(zone, Instant.ofEpochSecond(epochSecond));
+            this.zoneName = zoneName;
+        }
+        return zoneName;
+    }
+}
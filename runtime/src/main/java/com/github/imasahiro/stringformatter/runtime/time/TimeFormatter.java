@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.time;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Date/time to string format helpers. Names of months, days and time zones are the ones of
+ * {@link Locale#US}.
+ */
+public final class TimeFormatter {
+    public static final int UPPER_CASE = 2;
+
+    private static final String[] monthNames = {
+            "January", "February", "March", "April", "May", "June",
+            "July", "August", "September", "October", "November", "December"
+    };
+    private static final String[] upperMonthNames = toUpperCase(monthNames);
+    private static final String[] shortMonthNames = toShortNames(monthNames);
+    private static final String[] upperShortMonthNames = toUpperCase(shortMonthNames);
+
+    // Indexed by DayOfWeek.getValue() - 1.
+    private static final String[] dayOfWeekNames = {
+            "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"
+    };
+    private static final String[] upperDayOfWeekNames = toUpperCase(dayOfWeekNames);
+    private static final String[] shortDayOfWeekNames = toShortNames(dayOfWeekNames);
+    private static final String[] upperShortDayOfWeekNames = toUpperCase(shortDayOfWeekNames);
+
+    // The fields of the last formatted second in the default time zone. TimeFields is immutable except
+    // for its lazily computed zone name, so racy updates only cost an extra computation.
+    private static TimeFields lastFields = new TimeFields(0, ZoneId.systemDefault());
+
+    private TimeFormatter() {
+    }
+
+    /**
+     * Returns the fields of {@code epochMillis} in the default time zone. Consecutive calls within the same
+     * second share the fields computed by the first call.
+     */
+    public static TimeFields fields(long epochMillis) {
+        return fields0(Math.floorDiv(epochMillis, 1000L));
+    }
+
+    /**
+     * Returns the fields of {@code instant} in the default time zone. Consecutive calls within the same
+     * second share the fields computed by the first call.
+     */
+    public static TimeFields fields(Instant instant) {
+        return fields0(instant.getEpochSecond());
+    }
+
+    private static TimeFields fields0(long epochSecond) {
+        TimeFields fields = lastFields;
+        if (fields.toEpochSecond() == epochSecond) {
+            // The default time zone is looked up only when the second changes, so a change of the default
+            // time zone takes effect from the next second.
+            return fields;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        if (!fields.isSameSecond(epochSecond, zone)) {
+            fields = new TimeFields(epochSecond, zone);
+            lastFields = fields;
+        }
+        return fields;
+    }
+
+    /**
+     * Formats {@code 0 <= v < 100} as two digits, padded with a zero.
+     */
+    public static StringBuilder formatTwoDigits(StringBuilder sb, int v) {
+        return sb.append((char) ('0' + v / 10))
+                 .append((char) ('0' + v % 10));
+    }
+
+    /**
+     * Formats {@code 0 <= v < 1000} as three digits, padded with zeros.
+     */
+    public static StringBuilder formatThreeDigits(StringBuilder sb, int v) {
+        sb.append((char) ('0' + v / 100));
+        return formatTwoDigits(sb, v % 100);
+    }
+
+    /**
+     * Formats nano-of-second as nine digits, padded with zeros.
+     */
+    public static StringBuilder formatNanos(StringBuilder sb, int nano) {
+        formatThreeDigits(sb, nano / 1000000);
+        formatThreeDigits(sb, nano / 1000 % 1000);
+        return formatThreeDigits(sb, nano % 1000);
+    }
+
+    /**
+     * Formats a zone offset in RFC 822 style, e.g. {@code -0800}.
+     */
+    public static StringBuilder formatZoneOffset(StringBuilder sb, ZoneOffset offset) {
+        int minutes = offset.getTotalSeconds() / 60;
+        if (minutes < 0) {
+            sb.append('-');
+            minutes = -minutes;
+        } else {
+            sb.append('+');
+        }
+        formatTwoDigits(sb, minutes / 60);
+        return formatTwoDigits(sb, minutes % 60);
+    }
+
+    /**
+     * Formats the short display name of the time zone of {@code fields}.
+     */
+    public static StringBuilder formatZoneName(StringBuilder sb, TimeFields fields) {
+        return sb.append(fields.getZoneName());
+    }
+
+    /**
+     * Formats the short display name of the time zone of {@code dateTime}.
+     */
+    public static StringBuilder formatZoneName(StringBuilder sb, ZonedDateTime dateTime) {
+        return sb.append(zoneName(dateTime.getZone(), dateTime.toInstant()));
+    }
+
+    /**
+     * Formats the name of {@code month} (1-12), e.g. {@code January}.
+     */
+    public static StringBuilder formatMonthName(StringBuilder sb, int month, int flags) {
+        return sb.append(((flags & UPPER_CASE) == UPPER_CASE ? upperMonthNames : monthNames)[month - 1]);
+    }
+
+    /**
+     * Formats the abbreviated name of {@code month} (1-12), e.g. {@code Jan}.
+     */
+    public static StringBuilder formatShortMonthName(StringBuilder sb, int month, int flags) {
+        return sb.append(((flags & UPPER_CASE) == UPPER_CASE ? upperShortMonthNames
+                                                              : shortMonthNames)[month - 1]);
+    }
+
+    /**
+     * Formats the name of {@code dayOfWeek} (1 is Monday), e.g. {@code Monday}.
+     */
+    public static StringBuilder formatDayOfWeekName(StringBuilder sb, int dayOfWeek, int flags) {
+        return sb.append(((flags & UPPER_CASE) == UPPER_CASE ? upperDayOfWeekNames
+                                                              : dayOfWeekNames)[dayOfWeek - 1]);
+    }
+
+    /**
+     * Formats the abbreviated name of {@code dayOfWeek} (1 is Monday), e.g. {@code Mon}.
+     */
+    public static StringBuilder formatShortDayOfWeekName(StringBuilder sb, int dayOfWeek, int flags) {
+        return sb.append(((flags & UPPER_CASE) == UPPER_CASE ? upperShortDayOfWeekNames
+                                                              : shortDayOfWeekNames)[dayOfWeek - 1]);
+    }
+
+    static String zoneName(ZoneId zone, Instant instant) {
+        if (zone instanceof ZoneOffset) {
+            return zone.getId();
+        }
+        return TimeZone.getTimeZone(zone).getDisplayName(zone.getRules().isDaylightSavings(instant),
+                                                         TimeZone.SHORT, Locale.US);
+    }
+
+    private static String[] toShortNames(String[] names) {
+        String[] shortNames = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            shortNames[i] = names[i].substring(0, 3);
+        }
+        return shortNames;
+    }
+
+    private static String[] toUpperCase(String[] names) {
+        String[] upperNames = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            upperNames[i] = names[i].toUpperCase(Locale.ROOT);
+        }
+        return upperNames;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class AsyncRendererTest {
+    // Renders "id=<long 0>" for method 0 and "<object 0>" for method 1, and throws an Error for method 3.
+    private static final FormatEventRenderer renderer = (ring, sequence, sb) -> {
+        switch (ring.getMethodId(sequence)) {
+            case 0:
+                sb.append("id=").append(ring.getLong(sequence, 0));
+                break;
+            case 1:
+                sb.append(ring.getObject(sequence, 0));
+                break;
+            case 3:
+                throw new AssertionError("render error");
+            default:
+                throw new IllegalArgumentException("Unknown method id: " + ring.getMethodId(sequence));
+        }
+    };
+
+    private static void publishId(FormatRingBuffer ring, long id) {
+        long sequence = ring.claim();
+        ring.putLong(sequence, 0, id);
+        ring.publish(sequence, 0);
+    }
+
+    private static void publishName(FormatRingBuffer ring, String name) {
+        long sequence = ring.claim();
+        ring.putObject(sequence, 0, name);
+        ring.publish(sequence, 1);
+    }
+
+    @Test
+    public void render() throws IOException {
+        FormatRingBuffer ring = new FormatRingBuffer(4, 1, 1);
+        StringWriter writer = new StringWriter();
+        StringBuilder expected = new StringBuilder();
+        try (AsyncRenderer ignored = new AsyncRenderer(ring, renderer, writer, 16)) {
+            for (int i = 0; i < 100; i++) {
+                publishId(ring, i);
+                publishName(ring, "name" + i);
+                expected.append("id=").append(i).append('\n')
+                        .append("name").append(i).append('\n');
+            }
+        }
+        assertEquals(expected.toString(), writer.toString());
+    }
+
+    @Test
+    public void renderFailure() throws IOException {
+        FormatRingBuffer ring = new FormatRingBuffer(4, 1, 1);
+        StringWriter writer = new StringWriter();
+        AsyncRenderer asyncRenderer = new AsyncRenderer(ring, renderer, writer, 16);
+        publishId(ring, 1);
+        long sequence = ring.claim();
+        ring.publish(sequence, 2);
+        publishId(ring, 3);
+        try {
+            asyncRenderer.close();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unknown method id: 2", e.getMessage());
+        }
+        assertEquals("id=1\nid=3\n", writer.toString());
+    }
+
+    @Test
+    public void writeFailure() {
+        FormatRingBuffer ring = new FormatRingBuffer(4, 1, 1);
+        Writer failing = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AsyncRenderer asyncRenderer = new AsyncRenderer(ring, renderer, failing, 16);
+        publishId(ring, 1);
+        try {
+            asyncRenderer.close();
+            fail();
+        } catch (IOException e) {
+            assertEquals("disk full", e.getMessage());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void writerRuntimeFailureDoesNotBlockProducers() throws IOException {
+        FormatRingBuffer ring = new FormatRingBuffer(4, 1, 1);
+        Writer failing = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                throw new IllegalStateException("writer closed");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AsyncRenderer asyncRenderer = new AsyncRenderer(ring, renderer, failing, 16);
+        // Many times the capacity of the ring, which a dead consumer would never release.
+        for (int i = 0; i < 1000; i++) {
+            publishId(ring, i);
+        }
+        try {
+            asyncRenderer.close();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("writer closed", e.getMessage());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void renderErrorDoesNotBlockProducers() throws IOException {
+        FormatRingBuffer ring = new FormatRingBuffer(4, 1, 1);
+        StringWriter writer = new StringWriter();
+        AsyncRenderer asyncRenderer = new AsyncRenderer(ring, renderer, writer, 16);
+        long sequence = ring.claim();
+        ring.publish(sequence, 3);
+        for (int i = 0; i < 1000; i++) {
+            publishId(ring, i);
+        }
+        try {
+            asyncRenderer.close();
+            fail();
+        } catch (AssertionError e) {
+            assertEquals("render error", e.getMessage());
+        }
+        assertTrue(writer.toString().endsWith("id=999\n"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void publishAfterClose() throws IOException {
+        FormatRingBuffer ring = new FormatRingBuffer(4, 1, 1);
+        new AsyncRenderer(ring, renderer, new StringWriter(), 16).close();
+        publishId(ring, 1);
+    }
+
+    @Test(timeout = 60000)
+    public void closeWhilePublishing() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            FormatRingBuffer ring = new FormatRingBuffer(4, 1, 1);
+            StringWriter writer = new StringWriter();
+            AsyncRenderer asyncRenderer = new AsyncRenderer(ring, renderer, writer, 16);
+            int producers = 4;
+            AtomicLong published = new AtomicLong();
+            CountDownLatch started = new CountDownLatch(producers);
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                Thread thread = new Thread(() -> {
+                    started.countDown();
+                    try {
+                        for (long i = 0; ; i++) {
+                            publishId(ring, i);
+                            published.incrementAndGet();
+                        }
+                    } catch (IllegalStateException expected) {
+                        // Closed.
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            started.await();
+            asyncRenderer.close();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            // Every event which a producer published was rendered.
+            String output = writer.toString();
+            long lines = output.chars().filter(c -> c == '\n').count();
+            assertEquals(published.get(), lines);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void closeWithUnpublishedEvent() throws IOException {
+        FormatRingBuffer ring = new FormatRingBuffer(4, 1, 1);
+        StringWriter writer = new StringWriter();
+        AsyncRenderer asyncRenderer = new AsyncRenderer(ring, renderer, writer, 16);
+        publishId(ring, 1);
+        // Never published.
+        ring.claim();
+        try {
+            asyncRenderer.close();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("The event 1 was claimed, but not published.", e.getMessage());
+        }
+        assertEquals("id=1\n", writer.toString());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.async;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class FormatRingBufferTest {
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePowerOf2() {
+        new FormatRingBuffer(12, 1, 1);
+    }
+
+    @Test
+    public void publishAndRelease() {
+        FormatRingBuffer ring = new FormatRingBuffer(2, 2, 1);
+        for (int i = 0; i < 5; i++) {
+            long sequence = ring.claim();
+            assertEquals(i, sequence);
+            assertFalse(ring.isPublished(sequence));
+            ring.putLong(sequence, 0, i);
+            ring.putLong(sequence, 1, -i);
+            ring.putObject(sequence, 0, "event" + i);
+            ring.publish(sequence, i % 2);
+
+            assertTrue(ring.isPublished(sequence));
+            assertEquals(i % 2, ring.getMethodId(sequence));
+            assertEquals(i, ring.getLong(sequence, 0));
+            assertEquals(-i, ring.getLong(sequence, 1));
+            assertEquals("event" + i, ring.getObject(sequence, 0));
+            ring.release(sequence);
+            assertNull(ring.getObject(sequence, 0));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void multipleProducers() throws InterruptedException {
+        int producers = 4;
+        int events = 100000;
+        FormatRingBuffer ring = new FormatRingBuffer(64, 2, 0);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < events; i++) {
+                    long sequence = ring.claim();
+                    ring.putLong(sequence, 0, producer);
+                    ring.putLong(sequence, 1, i);
+                    ring.publish(sequence, 0);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // Events of a producer are consumed in the order of publishing.
+        long[] next = new long[producers];
+        for (long sequence = 0; sequence < (long) producers * events; sequence++) {
+            while (!ring.isPublished(sequence)) {
+                Thread.yield();
+            }
+            int producer = (int) ring.getLong(sequence, 0);
+            assertEquals(next[producer]++, ring.getLong(sequence, 1));
+            ring.release(sequence);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long[] expected = new long[producers];
+        Arrays.fill(expected, events);
+        assertArrayEquals(expected, next);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void claimAfterClose() {
+        FormatRingBuffer ring = new FormatRingBuffer(2, 1, 0);
+        ring.close();
+        ring.claim();
+    }
+
+    @Test
+    public void closeReturnsClaimed() {
+        FormatRingBuffer ring = new FormatRingBuffer(4, 1, 0);
+        ring.claim();
+        ring.claim();
+        assertEquals(2, ring.close());
+        // Idempotent.
+        assertEquals(2, ring.close());
+    }
+
+    @Test(timeout = 10000)
+    public void abandonWakesWaitingProducer() throws InterruptedException {
+        FormatRingBuffer ring = new FormatRingBuffer(1, 1, 0);
+        ring.claim();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            try {
+                // The ring is full, and nothing releases the first event.
+                ring.claim();
+            } catch (Throwable t) {
+                thrown.set(t);
+            }
+        });
+        producer.start();
+        ring.abandon();
+        producer.join();
+        assertTrue(thrown.get() instanceof IllegalStateException);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BatchCapacityTest {
+    @Test
+    public void reserve() {
+        StringBuilder out = new StringBuilder("header");
+        BatchCapacity.reserve(out, 100, 17);
+        assertTrue(out.capacity() >= 6 + 100 * 17);
+        assertEquals("header", out.toString());
+    }
+
+    @Test
+    public void reserveLargeRange() {
+        // 100M rows of 32 chars overflow an int, and would be 6.4GB at once.
+        StringBuilder out = new StringBuilder();
+        BatchCapacity.reserve(out, 100_000_000, 32);
+        assertTrue(out.capacity() >= BatchCapacity.MAX_RESERVED);
+        assertTrue(out.capacity() <= 2 * BatchCapacity.MAX_RESERVED + 2);
+
+        StringBuilder most = new StringBuilder();
+        BatchCapacity.reserve(most, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertTrue(most.capacity() <= 2 * BatchCapacity.MAX_RESERVED + 2);
+    }
+}
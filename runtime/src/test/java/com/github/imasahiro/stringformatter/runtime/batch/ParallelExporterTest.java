@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class ParallelExporterTest {
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+    private static final ChunkFormatter rowFormatter = (fromRow, toRow, out) -> {
+        for (int row = fromRow; row < toRow; row++) {
+            out.append("row ").append(row).append(" é\n");
+        }
+    };
+
+    @AfterClass
+    public static void shutdown() {
+        pool.shutdown();
+    }
+
+    private static String expected(int rows) {
+        StringBuilder sb = new StringBuilder();
+        rowFormatter.formatTo(0, rows, sb);
+        return sb.toString();
+    }
+
+    @Test
+    public void appendTo() throws IOException {
+        for (int rows : new int[] { 0, 1, 7, 8, 9, 1000 }) {
+            StringBuilder out = new StringBuilder();
+            new ParallelExporter(pool, 8).appendTo(out, rows, rowFormatter);
+            assertEquals(expected(rows), out.toString());
+        }
+    }
+
+    @Test
+    public void writeTo() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ParallelExporter(pool, 3).writeTo(Channels.newChannel(out), StandardCharsets.UTF_8, 1000,
+                                              rowFormatter);
+        assertEquals(expected(1000), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void boundedChunksInFlight() throws IOException {
+        AtomicInteger formatted = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        ParallelExporter exporter = new ParallelExporter(pool, 1);
+        exporter.appendTo(new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) {
+                written.incrementAndGet();
+                assertTrue(formatted.get() - written.get() < pool.getParallelism() * 2);
+                return this;
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Appendable append(char c) {
+                throw new UnsupportedOperationException();
+            }
+        }, 100, (fromRow, toRow, out) -> formatted.incrementAndGet());
+        assertEquals(100, written.get());
+    }
+
+    @Test
+    public void formatFailure() throws IOException {
+        StringBuilder out = new StringBuilder();
+        try {
+            new ParallelExporter(pool, 10).appendTo(out, 100, (fromRow, toRow, sb) -> {
+                if (fromRow == 50) {
+                    throw new IllegalStateException("chunk " + fromRow);
+                }
+                rowFormatter.formatTo(fromRow, toRow, sb);
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // ForkJoinTask.join() may throw a copy of the exception, which has the original as the cause.
+            Throwable cause = e.getCause() instanceof IllegalStateException ? e.getCause() : e;
+            assertEquals("chunk 50", cause.getMessage());
+        }
+        assertEquals(expected(50), out.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRowsPerChunk() {
+        new ParallelExporter(pool, 0);
+    }
+}
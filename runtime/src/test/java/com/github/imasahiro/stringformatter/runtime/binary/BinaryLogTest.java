@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class BinaryLogTest {
+    // Decodes "id=<long>" for method 1 and "<string> <int>" for method 2.
+    private static final BinaryLogDecoder decoder = (buffer, sb) -> {
+        final int id = buffer.getInt();
+        switch (id) {
+            case 1:
+                sb.append("id=").append(buffer.getLong());
+                break;
+            case 2:
+                sb.append(BinaryLog.getString(buffer)).append(' ').append(buffer.getInt());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown method id: " + id);
+        }
+    };
+
+    private static void assertRoundTrip(ByteBuffer buffer, String value) {
+        buffer.clear();
+        BinaryLog.putString(buffer, value);
+        buffer.flip();
+        if (value == null) {
+            assertNull(BinaryLog.getString(buffer));
+        } else {
+            assertEquals(value, BinaryLog.getString(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void string() {
+        for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(1024),
+                                                    ByteBuffer.allocateDirect(1024) }) {
+            assertRoundTrip(buffer, null);
+            assertRoundTrip(buffer, "");
+            assertRoundTrip(buffer, "abc");
+            assertRoundTrip(buffer, "café 日本 😀");
+            assertRoundTrip(buffer, new String(new char[300]).replace('\0', 'x'));
+        }
+    }
+
+    @Test
+    public void stringEncoding() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        BinaryLog.putString(buffer, "é😀");
+        buffer.flip();
+        byte[] expected = "é😀".getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected.length + 1, buffer.get());
+        for (byte b : expected) {
+            assertEquals(b, buffer.get());
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void loneSurrogate() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        BinaryLog.putString(buffer, "a\ud83db\ude00"); // lone surrogates
+        buffer.flip();
+        assertEquals("a?b?", BinaryLog.getString(buffer));
+    }
+
+    @Test
+    public void longLength() {
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        BinaryLog.putString(buffer, new String(new char[200]).replace('\0', 'x'));
+        // 201 in two bytes.
+        assertEquals(202, buffer.position());
+        assertEquals((byte) 0xC9, buffer.get(0));
+        assertEquals(0x01, buffer.get(1));
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void truncatedString() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        BinaryLog.putString(buffer, "abcdef");
+        buffer.flip().limit(4);
+        BinaryLog.getString(buffer);
+    }
+
+    @Test
+    public void render() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer.putInt(1).putLong(42);
+        buffer.putInt(2);
+        BinaryLog.putString(buffer, "name");
+        buffer.putInt(7);
+        buffer.putInt(2);
+        BinaryLog.putString(buffer, null);
+        buffer.putInt(-1);
+        buffer.flip();
+        StringBuilder out = new StringBuilder();
+        BinaryLog.render(buffer, decoder, out);
+        assertEquals("id=42\nname 7\nnull -1\n", out.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void renderUnknownMethod() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putInt(3).flip();
+        BinaryLog.render(buffer, decoder, new StringBuilder());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.bundle;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+public class LocaleSwitchTest {
+    @Test
+    public void indexOf() {
+        LocaleSwitch locales = new LocaleSwitch("ja", "fr_CA", "en_US_POSIX");
+        assertEquals(0, locales.indexOf(Locale.JAPANESE));
+        assertEquals(0, locales.indexOf(Locale.JAPAN));
+        assertEquals(1, locales.indexOf(Locale.CANADA_FRENCH));
+        assertEquals(-1, locales.indexOf(Locale.FRENCH));
+        assertEquals(2, locales.indexOf(new Locale("en", "US", "POSIX")));
+        assertEquals(-1, locales.indexOf(Locale.US));
+        assertEquals(-1, locales.indexOf(Locale.ROOT));
+        // Cached.
+        assertEquals(0, locales.indexOf(Locale.JAPAN));
+    }
+
+    @Test
+    public void indexOf_null() {
+        LocaleSwitch locales = new LocaleSwitch("ja");
+        assertEquals(-1, locales.indexOf(null));
+    }
+}
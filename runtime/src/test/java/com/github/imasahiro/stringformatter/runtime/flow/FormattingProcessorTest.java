@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.flow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.github.imasahiro.stringformatter.runtime.lazy.CapturedFormat;
+
+public class FormattingProcessorTest {
+    private static String expected(int records) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < records; i++) {
+            sb.append("record ").append(i).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void formatAll() {
+        for (int batchSize : new int[] { 1, 7, 64 }) {
+            FormattingProcessor processor = new FormattingProcessor(64, 2, batchSize);
+            RangePublisher publisher = new RangePublisher(1000);
+            CollectingSubscriber subscriber = new CollectingSubscriber(processor, 1, true);
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            assertEquals(expected(1000), subscriber.toString());
+            assertTrue(subscriber.completed);
+            assertNull(subscriber.error);
+        }
+    }
+
+    @Test
+    public void releaseOnAnotherThread() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            FormattingProcessor processor = new FormattingProcessor(64, 2, 16);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            CountDownLatch completed = new CountDownLatch(1);
+            new RangePublisher(100000).subscribe(processor);
+            processor.subscribe(new Flow.Subscriber<ByteBuffer>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(2);
+                }
+
+                @Override
+                public void onNext(ByteBuffer buffer) {
+                    executor.execute(() -> {
+                        byte[] bytes = new byte[buffer.remaining()];
+                        buffer.get(bytes);
+                        out.write(bytes, 0, bytes.length);
+                        processor.release(buffer);
+                        subscription.request(1);
+                    });
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                    executor.execute(completed::countDown);
+                }
+            });
+            assertTrue(completed.await(10, TimeUnit.SECONDS));
+            assertEquals(expected(100000), new String(out.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void requestOnDemand() {
+        FormattingProcessor processor = new FormattingProcessor(64, 2, 16);
+        RangePublisher publisher = new RangePublisher(1000);
+        CollectingSubscriber subscriber = new CollectingSubscriber(processor, 0, false);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        assertEquals(0, publisher.requested);
+
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.buffers.size());
+        assertEquals(16, publisher.requested);
+    }
+
+    @Test
+    public void boundedByPool() {
+        FormattingProcessor processor = new FormattingProcessor(32, 2, 4);
+        RangePublisher publisher = new RangePublisher(1000);
+        CollectingSubscriber subscriber = new CollectingSubscriber(processor, Long.MAX_VALUE, false);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        // No more records are requested until a buffer is released.
+        assertEquals(2, subscriber.buffers.size());
+        long requested = publisher.requested;
+        assertTrue(requested < 1000);
+
+        processor.release(subscriber.buffers.get(0));
+        assertTrue(publisher.requested > requested);
+        assertEquals(3, subscriber.buffers.size());
+    }
+
+    @Test
+    public void emptyStream() {
+        FormattingProcessor processor = new FormattingProcessor(64, 2, 16);
+        CollectingSubscriber subscriber = new CollectingSubscriber(processor, 1, true);
+        new RangePublisher(0).subscribe(processor);
+        processor.subscribe(subscriber);
+        assertTrue(subscriber.completed);
+        assertTrue(subscriber.buffers.isEmpty());
+    }
+
+    @Test
+    public void upstreamError() {
+        FormattingProcessor processor = new FormattingProcessor(64, 2, 16);
+        CollectingSubscriber subscriber = new CollectingSubscriber(processor, 0, false);
+        processor.subscribe(subscriber);
+        RuntimeException error = new RuntimeException();
+        RangePublisher publisher = new RangePublisher(1000);
+        publisher.subscribe(processor);
+        processor.onError(error);
+        assertSame(error, subscriber.error);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void recordLongerThanBuffer() {
+        FormattingProcessor processor = new FormattingProcessor(8, 2, 16);
+        RangePublisher publisher = new RangePublisher(1000);
+        CollectingSubscriber subscriber = new CollectingSubscriber(processor, 1, true);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertTrue(publisher.cancelled);
+    }
+
+    @Test
+    public void invalidRequest() {
+        FormattingProcessor processor = new FormattingProcessor(64, 2, 16);
+        RangePublisher publisher = new RangePublisher(1000);
+        CollectingSubscriber subscriber = new CollectingSubscriber(processor, 0, false);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertTrue(publisher.cancelled);
+    }
+
+    @Test
+    public void cancel() {
+        FormattingProcessor processor = new FormattingProcessor(64, 2, 16);
+        RangePublisher publisher = new RangePublisher(1000);
+        CollectingSubscriber subscriber = new CollectingSubscriber(processor, 0, false);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(1);
+        assertTrue(publisher.cancelled);
+        assertTrue(subscriber.buffers.isEmpty());
+    }
+
+    @Test
+    public void secondSubscriber() {
+        FormattingProcessor processor = new FormattingProcessor(64, 2, 16);
+        processor.subscribe(new CollectingSubscriber(processor, 0, false));
+        CollectingSubscriber second = new CollectingSubscriber(processor, 1, false);
+        processor.subscribe(second);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    /**
+     * Publishes {@code "record <i>\n"} for each {@code i} from zero on the thread requesting them.
+     */
+    private static final class RangePublisher implements Flow.Publisher<CapturedFormat> {
+        private final int count;
+        private long requested;
+        private boolean cancelled;
+
+        RangePublisher(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super CapturedFormat> subscriber) {
+            RangeSubscription subscription = new RangeSubscription(subscriber);
+            subscriber.onSubscribe(subscription);
+            subscription.emit();
+        }
+
+        private final class RangeSubscription implements Flow.Subscription {
+            private final Flow.Subscriber<? super CapturedFormat> subscriber;
+            private long demand;
+            private int next;
+            private boolean emitting;
+            private boolean completed;
+
+            RangeSubscription(Flow.Subscriber<? super CapturedFormat> subscriber) {
+                this.subscriber = subscriber;
+            }
+
+            @Override
+            public void request(long n) {
+                requested += n;
+                demand += n;
+                emit();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+            }
+
+            void emit() {
+                if (emitting) {
+                    return;
+                }
+                emitting = true;
+                while (demand > 0 && next < count && !cancelled) {
+                    demand--;
+                    final int i = next++;
+                    final CapturedFormat record = sb -> sb.append("record ").append(i).append('\n');
+                    subscriber.onNext(record);
+                }
+                emitting = false;
+                if (next == count && !completed && !cancelled) {
+                    completed = true;
+                    subscriber.onComplete();
+                }
+            }
+        }
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<ByteBuffer> {
+        private final FormattingProcessor processor;
+        private final long initialRequest;
+        // Whether to release and request another buffer when one is received.
+        private final boolean release;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final List<ByteBuffer> buffers = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private boolean completed;
+        private Throwable error;
+
+        CollectingSubscriber(FormattingProcessor processor, long initialRequest, boolean release) {
+            this.processor = processor;
+            this.initialRequest = initialRequest;
+            this.release = release;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(ByteBuffer buffer) {
+            buffers.add(buffer);
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            out.write(bytes, 0, bytes.length);
+            if (release) {
+                processor.release(buffer);
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        @Override
+        public String toString() {
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class FormatCompilerTest {
+    private static String run(String format, Class<?>[] types, Object... args) throws Throwable {
+        MethodHandle handle = FormatCompiler.compile(format, types);
+        assertEquals(MethodType.methodType(String.class, types), handle.type());
+        return (String) handle.invokeWithArguments(Arrays.asList(args));
+    }
+
+    private static void assertSame(String format, Class<?>[] types, Object... args) throws Throwable {
+        assertEquals(String.format(Locale.ROOT, format, args), run(format, types, args));
+    }
+
+    private static Class<?>[] types(Class<?>... types) {
+        return types;
+    }
+
+    @Test
+    public void invokeExact() throws Throwable {
+        MethodHandle handle = FormatCompiler.compile("%s=%05d (%x)%n", String.class, int.class, long.class);
+        assertEquals(String.format("answer=00042 (ff)%n"), (String) handle.invokeExact("answer", 42, 255L));
+        assertEquals("", (String) FormatCompiler.compile("").invokeExact());
+    }
+
+    @Test
+    public void compileIntegers() throws Throwable {
+        for (long v : new long[] { 0, 1, -1, 42, -1234567, Long.MAX_VALUE, Long.MIN_VALUE }) {
+            assertSame("%d|%5d|%05d|%,d|%x|%08X", types(long.class, long.class, long.class, long.class,
+                                                         long.class, long.class), v, v, v, v, v, v);
+            assertSame("%d|%,d|%x|%5x", types(int.class, int.class, int.class, int.class),
+                       (int) v, (int) v, (int) v, (int) v);
+            assertSame("%d|%x|%04x", types(short.class, short.class, short.class),
+                       (short) v, (short) v, (short) v);
+            assertSame("%d|%x|%4x", types(byte.class, byte.class, byte.class), (byte) v, (byte) v, (byte) v);
+            assertSame("%d|%+d|%x", types(Long.class, int.class, Integer.class), v, (int) v, (int) v);
+            assertSame("%,d", types(BigInteger.class), BigInteger.valueOf(v).pow(3));
+        }
+        assertEquals("zz|-11|7F", run("%r|%.2r|%.16R", types(int.class, byte.class, short.class),
+                                      36 * 36 - 1, (byte) -3, (short) 127));
+        assertEquals("null", run("%d", types(Integer.class), (Object) null));
+    }
+
+    @Test
+    public void compileObjects() throws Throwable {
+        UUID uuid = UUID.randomUUID();
+        assertSame("%s|%s|%s|%s|%s|%s", types(String.class, StringBuilder.class, UUID.class, TimeUnit.class,
+                                              char.class, boolean.class),
+                   "a", new StringBuilder("b"), uuid, TimeUnit.DAYS, 'c', true);
+        assertSame("%s|%s|%-4s|%3.1s|%S", types(String.class, Object.class, int.class, String.class,
+                                                String.class), null, 1.5, 12, "xyz", "abc");
+        assertSame("%.3f|%08.2f|%f|%e", types(BigDecimal.class, BigDecimal.class, double.class, double.class),
+                   new BigDecimal("2.0005"), new BigDecimal("-1.5"), 0.1, 1e10);
+        assertSame("%2$s %1$s %<s %3$5%%%", types(String.class, String.class), "a", "b");
+    }
+
+    @Test
+    public void compileBytes() throws Throwable {
+        byte[] bytes = { 0, (byte) 0xab, (byte) 0xff };
+        assertEquals("00abff|00:AB:FF|ab:ff",
+                     run("%x|%,X|%,x", types(byte[].class, byte[].class, ByteBuffer.class),
+                         bytes, bytes, ByteBuffer.wrap(bytes, 1, 2)));
+    }
+
+    @Test(expected = MissingFormatArgumentException.class)
+    public void missingArgument() {
+        FormatCompiler.compile("%s %s", String.class);
+    }
+}
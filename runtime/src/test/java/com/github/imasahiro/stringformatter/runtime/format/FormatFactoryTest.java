@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import org.junit.Test;
+
+public class FormatFactoryTest {
+    private static MethodHandle link(String format, MethodType type) {
+        CallSite callSite = FormatFactory.bootstrap(MethodHandles.lookup(), "format", type, format);
+        assertEquals(type, callSite.type());
+        return callSite.dynamicInvoker();
+    }
+
+    @Test
+    public void bootstrap() throws Throwable {
+        MethodHandle handle = link("%s=%05d",
+                                   MethodType.methodType(String.class, String.class, int.class));
+        assertEquals("key=00042", (String) handle.invokeExact("key", 42));
+        assertEquals("key=-0042", (String) handle.invokeExact("key", -42));
+    }
+
+    @Test
+    public void bootstrapObjectReturnType() throws Throwable {
+        MethodHandle handle = link("%x", MethodType.methodType(CharSequence.class, long.class));
+        assertEquals("ff", ((CharSequence) handle.invokeExact(255L)).toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bootstrapInvalidReturnType() {
+        link("%d", MethodType.methodType(int.class, int.class));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.DuplicateFormatFlagsException;
+import java.util.IllegalFormatConversionException;
+import java.util.IllegalFormatException;
+import java.util.IllegalFormatPrecisionException;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+import java.util.MissingFormatWidthException;
+import java.util.UUID;
+import java.util.UnknownFormatConversionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class FormatsTest {
+    private static void assertSame(String format, Object... args) {
+        assertEquals(String.format(Locale.ROOT, format, args), Formats.format(format, args));
+    }
+
+    private static void assertThrows(Class<? extends IllegalFormatException> expected, String format,
+                                     Object... args) {
+        try {
+            Formats.format(format, args);
+            fail(format);
+        } catch (IllegalFormatException e) {
+            assertEquals(expected, e.getClass());
+        }
+        try {
+            String.format(Locale.ROOT, format, args);
+            fail(format);
+        } catch (IllegalFormatException e) {
+            assertEquals(expected, e.getClass());
+        }
+    }
+
+    @Test
+    public void format() {
+        assertSame("");
+        assertSame("Hello");
+        assertSame("Hello %s!", "world");
+        assertSame("%d%%%n%s", 42, "x");
+        assertSame("%s %s %s", null, 1L, TimeUnit.SECONDS);
+        assertSame("%s", (Object[]) null);
+        assertSame("%s", UUID.randomUUID());
+    }
+
+    @Test
+    public void formatInteger() {
+        for (long v : new long[] { 0, 1, -1, 42, -42, 1234567, -1234567, Long.MAX_VALUE, Long.MIN_VALUE }) {
+            assertSame("%d|%5d|%05d|%,d|%,015d", v, v, v, v, v);
+            assertSame("%d|%5d|%05d|%,d", (int) v, (int) v, (int) v, (int) v);
+            assertSame("%d|%x|%X|%08x", (short) v, (short) v, (short) v, (short) v);
+            assertSame("%d|%x|%5x", (byte) v, (byte) v, (byte) v);
+            assertSame("%x|%X|%020x|%4x", v, v, v, v);
+            assertSame("%x|%X|%012x|%4x", (int) v, (int) v, (int) v, (int) v);
+            assertSame("%d|%,30d", BigInteger.valueOf(v).multiply(BigInteger.TEN.pow(20)),
+                       BigInteger.valueOf(v).pow(3));
+        }
+        assertSame("%+d|% d|%(d|%-5d|%o", 1, 2, -3, 4, 5);
+    }
+
+    @Test
+    public void formatString() {
+        assertSame("[%10s][%-10s][%.3s][%5.2s][%-5.2s]", "abc", "abc", "abcdef", "abc", "abc");
+        assertSame("[%S][%10S]", "abc", null);
+        assertSame("[%3s][%-3s]", 123456, -1L);
+        assertSame("%2$s %1$s %<s %s", "a", "b");
+    }
+
+    @Test
+    public void formatDecimal() {
+        assertSame("%f|%.2f|%10.3f|%010.1f|%.0f", new BigDecimal("3.14159"), new BigDecimal("-2.005"),
+                   new BigDecimal("1e30"), new BigDecimal("-0.05"), new BigDecimal("2.5"));
+        assertSame("%f|%.2f|%e|%g|%a", 3.14159, -2.005f, 1e30, 0.05, 1.0);
+        assertSame("%s|%b|%c|%h|%tY", null, true, 'c', "h", 0L);
+    }
+
+    @Test
+    public void formatBytes() {
+        byte[] bytes = { 0, 1, (byte) 0xab, (byte) 0xff };
+        assertEquals("0001abff|0001ABFF|00:01:ab:ff", Formats.format("%x|%X|%,x", bytes, bytes, bytes));
+        assertEquals("01:AB", Formats.format("%,X", ByteBuffer.wrap(bytes, 1, 2)));
+    }
+
+    @Test
+    public void formatRadix() {
+        assertEquals("zz|ZZ|000zz", Formats.format("%r|%R|%05r", 36 * 36 - 1, 36 * 36 - 1, 36 * 36 - 1L));
+        assertEquals("-11|ff|null", Formats.format("%.2r|%.16r|%r", (byte) -3, (short) 255, null));
+        try {
+            Formats.format("%r", "1");
+            fail();
+        } catch (IllegalFormatConversionException expected) {
+            // Expected.
+        }
+        try {
+            Formats.format("%.63r", 1);
+            fail();
+        } catch (IllegalFormatPrecisionException expected) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void formatTo() {
+        StringBuilder sb = new StringBuilder("x=");
+        assertEquals("x=42, y=-1", Formats.formatTo(sb, "%d, y=%s", 42, -1).toString());
+        assertEquals("x=42, y=-1;7", Formats.plan("%s;%d").formatTo(sb, "", 7).toString());
+    }
+
+    @Test
+    public void invalidFormat() {
+        assertThrows(UnknownFormatConversionException.class, "100%");
+        assertThrows(UnknownFormatConversionException.class, "%q", 1);
+        assertThrows(UnknownFormatConversionException.class, "%D", 1);
+        assertThrows(DuplicateFormatFlagsException.class, "%--5s", 1);
+        assertThrows(IllegalFormatPrecisionException.class, "%.2d", 1);
+        assertThrows(IllegalFormatPrecisionException.class, "%.2x", 1);
+        assertThrows(MissingFormatWidthException.class, "%-s", 1);
+        assertThrows(MissingFormatWidthException.class, "%0d", 1);
+        assertThrows(MissingFormatArgumentException.class, "%s %s", 1);
+        assertThrows(MissingFormatArgumentException.class, "%<s", 1);
+        assertThrows(IllegalFormatConversionException.class, "%d", "1");
+        assertThrows(IllegalFormatConversionException.class, "%x", 1.0);
+    }
+}
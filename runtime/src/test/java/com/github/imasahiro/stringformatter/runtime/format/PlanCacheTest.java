@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PlanCacheTest {
+    @Test
+    public void get() {
+        PlanCache cache = new PlanCache(4);
+        FormatPlan plan = cache.get("%d");
+        assertEquals("%d", plan.getFormat());
+        assertSame(plan, cache.get("%d"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void evict() {
+        PlanCache cache = new PlanCache(4);
+        for (int i = 0; i < 100; i++) {
+            cache.get("%d" + i);
+            // A referenced entry gets a second chance.
+            cache.get("%s");
+            assertTrue(cache.size() <= 4);
+        }
+        assertTrue(cache.contains("%s"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSize() {
+        new PlanCache(0);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class AsciiIntegerFormatterTest {
+    private static final long[] values = {
+            0, 1, -1, 9, 10, 99, 100, 12345, -12345, Short.MIN_VALUE, Short.MAX_VALUE, Integer.MIN_VALUE,
+            Integer.MAX_VALUE, 99999999L, 100000000L, 9999999999999999L, 10000000000000000L, Long.MIN_VALUE,
+            Long.MAX_VALUE, -1234567890123456789L
+    };
+    private static final int[] decimalFlags = {
+            0, IntegerFormatter.PADDED_WITH_ZEROS, IntegerFormatter.UNSIGNED,
+            IntegerFormatter.PADDED_WITH_ZEROS | IntegerFormatter.UNSIGNED
+    };
+    private static final int[] hexFlags = {
+            0, HexIntegerFormatter.PADDED_WITH_ZEROS, HexIntegerFormatter.UPPER_CASE,
+            HexIntegerFormatter.PADDED_WITH_ZEROS | HexIntegerFormatter.UPPER_CASE
+    };
+    private static final int[] widths = { 0, 1, 5, 25 };
+
+    private static String toString(ByteBuffer buffer, int start) {
+        byte[] bytes = new byte[buffer.position() - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void decimal() {
+        for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64) }) {
+            for (long v : values) {
+                for (int flags : decimalFlags) {
+                    for (int width : widths) {
+                        buffer.clear().position(3);
+                        AsciiIntegerFormatter.formatTo(buffer, v, flags, width);
+                        assertEquals(IntegerFormatter.formatTo(new StringBuilder(), v, flags, width).toString(),
+                                     toString(buffer, 3));
+
+                        buffer.clear().position(3);
+                        AsciiIntegerFormatter.formatTo(buffer, (int) v, flags, width);
+                        assertEquals(IntegerFormatter.formatTo(new StringBuilder(), (int) v, flags, width)
+                                                     .toString(),
+                                     toString(buffer, 3));
+
+                        buffer.clear().position(3);
+                        AsciiIntegerFormatter.formatTo(buffer, (short) v, flags, width);
+                        assertEquals(IntegerFormatter.formatTo(new StringBuilder(), (short) v, flags, width)
+                                                     .toString(),
+                                     toString(buffer, 3));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void hex() {
+        for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64) }) {
+            for (long v : values) {
+                for (int flags : hexFlags) {
+                    for (int width : widths) {
+                        buffer.clear();
+                        AsciiIntegerFormatter.formatHexTo(buffer, v, flags, width);
+                        assertEquals(HexIntegerFormatter.formatTo(new StringBuilder(), v, flags, width)
+                                                        .toString(),
+                                     toString(buffer, 0));
+
+                        buffer.clear();
+                        AsciiIntegerFormatter.formatHexTo(buffer, (int) v, flags, width);
+                        assertEquals(HexIntegerFormatter.formatTo(new StringBuilder(), (int) v, flags, width)
+                                                        .toString(),
+                                     toString(buffer, 0));
+
+                        buffer.clear();
+                        AsciiIntegerFormatter.formatHexTo(buffer, (short) v, flags, width);
+                        assertEquals(HexIntegerFormatter.formatTo(new StringBuilder(), (short) v, flags, width)
+                                                        .toString(),
+                                     toString(buffer, 0));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void overflow() {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.position(4);
+        try {
+            AsciiIntegerFormatter.formatTo(buffer, 12345, 0, 0);
+            fail();
+        } catch (BufferOverflowException expected) {
+        }
+        try {
+            AsciiIntegerFormatter.formatHexTo(buffer, 1, 0, 5);
+            fail();
+        } catch (BufferOverflowException expected) {
+        }
+        assertEquals(4, buffer.position());
+        AsciiIntegerFormatter.formatTo(buffer, -123, 0, 0);
+        assertEquals(8, buffer.position());
+    }
+}
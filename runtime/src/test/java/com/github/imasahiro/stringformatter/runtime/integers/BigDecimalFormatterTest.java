@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BigDecimalFormatterTest {
+    private static List<BigDecimal> values() {
+        List<BigDecimal> values = new ArrayList<>();
+        Random random = new Random(0);
+        int[] scales = { -5, 0, 1, 2, 3, 8, 18, 19, 30 };
+        for (int scale : scales) {
+            if (scale >= 0) {
+                // Formatter of JDK 8 prints "000000" for 0E+5.
+                values.add(BigDecimal.valueOf(0, scale));
+            }
+            values.add(BigDecimal.valueOf(5, scale));
+            values.add(BigDecimal.valueOf(Long.MAX_VALUE, scale));
+            values.add(BigDecimal.valueOf(Long.MIN_VALUE, scale));
+            for (int i = 0; i < 20; i++) {
+                values.add(new BigDecimal(new BigInteger(random.nextInt(200) + 1, random), scale));
+                values.add(new BigDecimal(BigInteger.valueOf(random.nextLong()), scale));
+            }
+        }
+        values.add(new BigDecimal("0.005"));
+        values.add(new BigDecimal("0.0049999999999999999999999"));
+        values.add(new BigDecimal("99999999999999999999.995"));
+        List<BigDecimal> withNegatives = new ArrayList<>();
+        for (BigDecimal v : values) {
+            withNegatives.add(v);
+            withNegatives.add(v.negate());
+        }
+        return withNegatives;
+    }
+
+    private static String run(BigDecimal v, int precision, int flags, int width) {
+        StringBuilder sb = new StringBuilder();
+        BigDecimalFormatter.formatTo(sb, v, precision, flags, width);
+        return sb.toString();
+    }
+
+    @Test
+    public void testFormatTo() {
+        for (BigDecimal v : values()) {
+            for (int precision : new int[] { 0, 1, 2, 6, 20, 40 }) {
+                assertEquals(v + " precision: " + precision,
+                             String.format("%." + precision + 'f', v), run(v, precision, 0, 0));
+            }
+            assertEquals(String.format("%80.2f", v), run(v, 2, 0, 80));
+            assertEquals(String.format("%080.2f", v), run(v, 2, BigDecimalFormatter.PADDED_WITH_ZEROS, 80));
+        }
+    }
+
+    @Test
+    public void testFormatTo_grouping() {
+        int grouping = BigDecimalFormatter.GROUPING;
+        int zeros = grouping | BigDecimalFormatter.PADDED_WITH_ZEROS;
+        for (BigDecimal v : values()) {
+            for (int precision : new int[] { 0, 2, 20 }) {
+                assertEquals(v + " precision: " + precision,
+                             String.format("%,." + precision + 'f', v), run(v, precision, grouping, 0));
+            }
+            assertEquals(String.format("%,80.2f", v), run(v, 2, grouping, 80));
+            assertEquals(String.format("%,080.2f", v), run(v, 2, zeros, 80));
+        }
+        assertEquals("1,234,567.89", run(new BigDecimal("1234567.891"), 2, grouping, 0));
+        assertEquals("-999.00", run(new BigDecimal("-999"), 2, grouping, 0));
+    }
+
+    @Test
+    public void testFormatTo_zeroWithNegativeScale() {
+        assertEquals("0.00", run(new BigDecimal("0E+5"), 2, 0, 0));
+    }
+
+    @Test
+    public void testFormatTo_null() {
+        assertEquals("null", run(null, 2, 0, 0));
+    }
+}
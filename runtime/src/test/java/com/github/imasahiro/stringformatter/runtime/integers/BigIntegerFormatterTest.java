@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BigIntegerFormatterTest {
+    private static List<BigInteger> values() {
+        List<BigInteger> values = new ArrayList<>();
+        BigInteger ten = BigInteger.TEN;
+        for (int exp = 0; exp <= 60; exp++) {
+            BigInteger p = ten.pow(exp);
+            values.add(p);
+            values.add(p.subtract(BigInteger.ONE));
+            values.add(p.add(BigInteger.ONE));
+        }
+        values.add(BigInteger.valueOf(Long.MAX_VALUE));
+        values.add(BigInteger.valueOf(Long.MIN_VALUE));
+        values.add(BigInteger.ONE.shiftLeft(63));
+        values.add(BigInteger.ONE.shiftLeft(64));
+        values.add(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE));
+        Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            values.add(new BigInteger(random.nextInt(300) + 1, random));
+        }
+        List<BigInteger> withNegatives = new ArrayList<>();
+        for (BigInteger v : values) {
+            withNegatives.add(v);
+            withNegatives.add(v.negate());
+        }
+        return withNegatives;
+    }
+
+    private static String run(BigInteger v, int flags, int width) {
+        StringBuilder sb = new StringBuilder();
+        BigIntegerFormatter.formatTo(sb, v, flags, width);
+        return sb.toString();
+    }
+
+    @Test
+    public void testFormatTo() {
+        for (BigInteger v : values()) {
+            assertEquals(v.toString(), run(v, 0, 0));
+            assertEquals(String.format("%,d", v), run(v, BigIntegerFormatter.GROUPING, 0));
+            assertEquals(String.format("%100d", v), run(v, 0, 100));
+            assertEquals(String.format("%0100d", v), run(v, BigIntegerFormatter.PADDED_WITH_ZEROS, 100));
+            assertEquals(String.format("%0,100d", v),
+                         run(v, BigIntegerFormatter.PADDED_WITH_ZEROS | BigIntegerFormatter.GROUPING, 100));
+        }
+    }
+
+    @Test
+    public void testFormatTo_null() {
+        assertEquals("null", run(null, 0, 0));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+public class FixedPointFormatterTest {
+    private static final long[] VALUES = {
+            0L, 1L, -1L, 5L, -5L, 9L, 10L, 49L, 50L, -50L, 99L, 995L, -995L, 12345L, -12345L,
+            999999999999999999L, 1000000000000000000L, Long.MAX_VALUE, Long.MIN_VALUE
+    };
+
+    private static String run(long v, int scale, int precision, int flags, int width) {
+        StringBuilder sb = new StringBuilder();
+        FixedPointFormatter.formatTo(sb, v, scale, precision, flags, width);
+        return sb.toString();
+    }
+
+    @Test
+    public void testFormatTo() {
+        for (int scale = 0; scale <= FixedPointFormatter.MAX_SCALE; scale++) {
+            for (int precision = 0; precision <= 20; precision++) {
+                for (long v : VALUES) {
+                    assertEquals("value: " + v + ", scale: " + scale + ", precision: " + precision,
+                                 String.format("%." + precision + 'f', BigDecimal.valueOf(v, scale)),
+                                 run(v, scale, precision, 0, 0));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFormatTo_width() {
+        for (long v : VALUES) {
+            assertEquals(String.format("%30.2f", BigDecimal.valueOf(v, 3)), run(v, 3, 2, 0, 30));
+            assertEquals(String.format("%030.2f", BigDecimal.valueOf(v, 3)),
+                         run(v, 3, 2, FixedPointFormatter.PADDED_WITH_ZEROS, 30));
+        }
+    }
+
+    @Test
+    public void testFormatTo_int() {
+        StringBuilder sb = new StringBuilder();
+        FixedPointFormatter.formatTo(sb, Integer.MIN_VALUE, 2, 2, 0, 0);
+        assertEquals(BigDecimal.valueOf(Integer.MIN_VALUE, 2).toPlainString(), sb.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFormatTo_invalidScale() {
+        run(1, FixedPointFormatter.MAX_SCALE + 1, 2, 0, 0);
+    }
+}
@@ -18,6 +18,8 @@ package com.github.imasahiro.stringformatter.runtime.integers;
 
 import static org.junit.Assert.assertEquals;
 
+import java.nio.ByteBuffer;
+
 import org.junit.Test;
 
 public class HexIntegerFormatterTest {
@@ -42,13 +44,22 @@ public class HexIntegerFormatterTest {
     @Test
     public void formatTo() {
         assertEquals(Integer.toHexString(Short.MAX_VALUE), run(Short.MAX_VALUE, 0, false));
-        assertEquals("18000", run(Short.MIN_VALUE, 0, false));
+        assertEquals("8000", run(Short.MIN_VALUE, 0, false));
         assertEquals(Integer.toHexString(Integer.MAX_VALUE), run(Integer.MAX_VALUE, 0, false));
         assertEquals(Integer.toHexString(Integer.MIN_VALUE), run(Integer.MIN_VALUE, 0, false));
         assertEquals(Long.toHexString(Long.MAX_VALUE), run(Long.MAX_VALUE, 0, false));
         assertEquals(Long.toHexString(Long.MIN_VALUE), run(Long.MIN_VALUE, 0, false));
     }
 
+    @Test
+    public void formatToNegative() {
+        assertEquals("ffff", run((short) -1, 0, false));
+        assertEquals(String.format("%x", (short) -12345), run((short) -12345, 0, false));
+        assertEquals("ffffffff", run(-1, 0, false));
+        assertEquals(Integer.toHexString(-123456789), run(-123456789, 0, false));
+        assertEquals(Integer.toHexString(Integer.MIN_VALUE + 1), run(Integer.MIN_VALUE + 1, 0, false));
+    }
+
     @Test
     public void testFormatToLong() {
         assertEquals(Long.toHexString(1234567890123456789L), run(1234567890123456789L, 0, false));
@@ -189,4 +200,53 @@ public class HexIntegerFormatterTest {
         assertEquals(String.format("%030x", -12L), run(-12L, 30, true));
         assertEquals(String.format("%030x", -1L), run(-1L, 30, true));
     }
+
+    @Test
+    public void testFormatTo_upperCase() {
+        StringBuilder sb = new StringBuilder();
+        HexIntegerFormatter.formatTo(sb, 0xabcdef0123L, HexIntegerFormatter.UPPER_CASE, 0);
+        assertEquals(String.format("%X", 0xabcdef0123L), sb.toString());
+
+        sb.setLength(0);
+        HexIntegerFormatter.formatTo(sb, 0xabcd, HexIntegerFormatter.UPPER_CASE |
+                                                 HexIntegerFormatter.PADDED_WITH_ZEROS, 8);
+        assertEquals(String.format("%08X", 0xabcd), sb.toString());
+    }
+
+    @Test
+    public void testFormatTo_bytes() {
+        byte[] bytes = { 0x00, 0x01, 0x7f, (byte) 0x80, (byte) 0xab, (byte) 0xff };
+        StringBuilder sb = new StringBuilder();
+        assertEquals("00017f80abff", HexIntegerFormatter.formatTo(sb, bytes, 0).toString());
+
+        sb.setLength(0);
+        assertEquals("00:01:7F:80:AB:FF",
+                     HexIntegerFormatter.formatTo(sb, bytes, HexIntegerFormatter.UPPER_CASE, ':').toString());
+
+        sb.setLength(0);
+        assertEquals("", HexIntegerFormatter.formatTo(sb, new byte[0], 0, ':').toString());
+
+        sb.setLength(0);
+        assertEquals("null", HexIntegerFormatter.formatTo(sb, (byte[]) null, 0).toString());
+    }
+
+    @Test
+    public void testFormatTo_byteBuffer() {
+        byte[] bytes = { 0x00, 0x01, 0x7f, (byte) 0x80, (byte) 0xab, (byte) 0xff };
+        ByteBuffer heap = ByteBuffer.wrap(bytes, 1, 4).slice();
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip().position(1);
+
+        StringBuilder sb = new StringBuilder();
+        assertEquals("017f80ab", HexIntegerFormatter.formatTo(sb, heap, 0).toString());
+        assertEquals(0, heap.position());
+
+        sb.setLength(0);
+        assertEquals("01-7f-80-ab-ff", HexIntegerFormatter.formatTo(sb, direct, 0, '-').toString());
+        assertEquals(1, direct.position());
+
+        sb.setLength(0);
+        assertEquals("017F80ABFF",
+                     HexIntegerFormatter.formatTo(sb, direct, HexIntegerFormatter.UPPER_CASE).toString());
+    }
 }
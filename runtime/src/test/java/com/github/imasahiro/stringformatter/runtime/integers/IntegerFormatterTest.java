@@ -18,6 +18,8 @@ package com.github.imasahiro.stringformatter.runtime.integers;
 
 import static org.junit.Assert.assertEquals;
 
+import java.math.BigInteger;
+
 import org.junit.Test;
 
 public class IntegerFormatterTest {
@@ -189,4 +191,56 @@ public class IntegerFormatterTest {
         assertEquals(String.format("%030d", -12L), run(-12L, 30, true));
         assertEquals(String.format("%030d", -1L), run(-1L, 30, true));
     }
+
+    @Test
+    public void formatToUnsigned() {
+        long[] values = {
+                0L, 1L, 9L, 10L, 99999999L, 100000000L, 9999999999999999L, 10000000000000000L,
+                Long.MAX_VALUE, Long.MIN_VALUE, Long.parseUnsignedLong("9999999999999999999"),
+                Long.parseUnsignedLong("10000000000000000000"), Long.parseUnsignedLong("10000000000000000001"),
+                -10000000000000000L, -1L
+        };
+        for (long v : values) {
+            StringBuilder sb = new StringBuilder();
+            IntegerFormatter.formatTo(sb, v, IntegerFormatter.UNSIGNED, 0);
+            assertEquals(Long.toUnsignedString(v), sb.toString());
+
+            sb.setLength(0);
+            IntegerFormatter.formatTo(sb, v, IntegerFormatter.UNSIGNED | IntegerFormatter.PADDED_WITH_ZEROS,
+                                      24);
+            assertEquals(String.format("%024d", new BigInteger(Long.toUnsignedString(v))), sb.toString());
+        }
+    }
+
+    @Test
+    public void formatToUnsignedInt() {
+        int[] values = { 0, 1, Integer.MAX_VALUE, Integer.MIN_VALUE, -1 };
+        for (int v : values) {
+            StringBuilder sb = new StringBuilder();
+            IntegerFormatter.formatTo(sb, v, IntegerFormatter.UNSIGNED, 12);
+            assertEquals(String.format("%12s", Integer.toUnsignedString(v)), sb.toString());
+        }
+    }
+
+    @Test
+    public void formatToGrouping() {
+        long[] values = {
+                0L, 1L, 12L, 123L, 1234L, 12345L, 123456L, 1234567L, Long.MAX_VALUE, Long.MIN_VALUE,
+                -1L, -1234L
+        };
+        for (long v : values) {
+            StringBuilder sb = new StringBuilder();
+            IntegerFormatter.formatTo(sb, v, IntegerFormatter.GROUPING, 0);
+            assertEquals(String.format("%,d", v), sb.toString());
+
+            sb.setLength(0);
+            int flags = IntegerFormatter.GROUPING | IntegerFormatter.PADDED_WITH_ZEROS;
+            IntegerFormatter.formatTo(sb, (int) v, flags, 20);
+            assertEquals(String.format("%0,20d", (int) v), sb.toString());
+
+            sb.setLength(0);
+            IntegerFormatter.formatTo(sb, v, IntegerFormatter.GROUPING | IntegerFormatter.UNSIGNED, 30);
+            assertEquals(String.format("%,30d", new BigInteger(Long.toUnsignedString(v))), sb.toString());
+        }
+    }
 }
@@ -18,9 +18,20 @@ package com.github.imasahiro.stringformatter.runtime.integers;
 
 import static org.junit.Assert.assertEquals;
 
+import java.math.BigInteger;
+
 import org.junit.Test;
 
 public class IntegerUtilsTest {
+    private static int digits(long unsigned, int radix) {
+        BigInteger v = new BigInteger(Long.toUnsignedString(unsigned));
+        int digits = 1;
+        while (v.compareTo(BigInteger.valueOf(radix)) >= 0) {
+            v = v.divide(BigInteger.valueOf(radix));
+            digits++;
+        }
+        return digits;
+    }
 
     @Test
     public void testLog10() throws Exception {
@@ -46,5 +57,30 @@ public class IntegerUtilsTest {
         assertEquals(19, IntegerUtils.log10(1000000000000000000L));
         assertEquals(19, IntegerUtils.log10(5555555555555555555L));
         assertEquals(19, IntegerUtils.log10(Long.MAX_VALUE));
+        assertEquals(19, IntegerUtils.log10(Long.MIN_VALUE));
+        assertEquals(19, IntegerUtils.log10(Long.parseUnsignedLong("9999999999999999999")));
+        assertEquals(20, IntegerUtils.log10(Long.parseUnsignedLong("10000000000000000000")));
+        assertEquals(20, IntegerUtils.log10(-1L));
+    }
+
+    @Test
+    public void testLog() throws Exception {
+        long[] values = {
+                0L, 1L, 2L, 9L, 10L, 35L, 36L, 61L, 62L, 1295L, 1296L, 3843L, 3844L,
+                1L << 31, 1L << 32, Long.MAX_VALUE, Long.MIN_VALUE, -1L, 0x8000000000000001L
+        };
+        for (int radix = IntegerUtils.MIN_RADIX; radix <= IntegerUtils.MAX_RADIX; radix++) {
+            for (long v : values) {
+                assertEquals("radix: " + radix + ", value: " + Long.toUnsignedString(v),
+                             digits(v, radix),
+                             IntegerUtils.log(v, radix));
+            }
+        }
+        for (int bits = 0; bits < Long.SIZE; bits++) {
+            long v = 1L << bits;
+            assertEquals(Long.toUnsignedString(v - 1, 10).length(), IntegerUtils.log(v - 1, 10));
+            assertEquals(Long.toUnsignedString(v, 7).length(), IntegerUtils.log(v, 7));
+            assertEquals(Long.toUnsignedString(v, 36).length(), IntegerUtils.log(v, 36));
+        }
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+import org.junit.Test;
+
+public class NumberSymbolsTest {
+    private static String format(Locale locale, long v) {
+        StringBuilder sb = new StringBuilder("n=");
+        IntegerFormatter.formatTo(sb, v, IntegerFormatter.GROUPING | IntegerFormatter.PADDED_WITH_ZEROS, 12);
+        return NumberSymbols.of(locale).localize(sb, 2).toString();
+    }
+
+    private static String format(Locale locale, BigDecimal v) {
+        StringBuilder sb = new StringBuilder("n=");
+        BigDecimalFormatter.formatTo(sb, v, 2, 0, 0);
+        return NumberSymbols.of(locale).localize(sb, 2).toString();
+    }
+
+    @Test
+    public void localize() {
+        Locale thai = Locale.forLanguageTag("th-TH-u-nu-thai");
+        for (Locale locale : new Locale[] { Locale.US, Locale.GERMANY, Locale.FRANCE, thai }) {
+            assertEquals(String.format(locale, "n=%,012d", -1234567L), format(locale, -1234567L));
+            assertEquals(String.format(locale, "n=%.2f", new BigDecimal("-1234.567")),
+                         format(locale, new BigDecimal("-1234.567")));
+        }
+    }
+
+    @Test
+    public void root() {
+        assertSame(NumberSymbols.ROOT, NumberSymbols.of(null));
+        assertSame(NumberSymbols.ROOT, NumberSymbols.of(Locale.US));
+        assertTrue(NumberSymbols.ROOT.isRoot());
+        assertEquals("1,234.5", NumberSymbols.ROOT.localize(new StringBuilder("1,234.5"), 0).toString());
+    }
+
+    @Test
+    public void localizeWithSymbols() {
+        StringBuilder sb = new StringBuilder("1,234.5 ");
+        int start = sb.length();
+        sb.append("1,234.5");
+        assertEquals("1,234.5 1.234,5", NumberSymbols.localize(sb, start, '.', ',', '0').toString());
+    }
+}
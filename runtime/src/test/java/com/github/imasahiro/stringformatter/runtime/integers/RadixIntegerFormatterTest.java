@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class RadixIntegerFormatterTest {
+    private static String run(long v, int radix, int flags, int width) {
+        StringBuilder sb = new StringBuilder("x");
+        RadixIntegerFormatter.formatTo(sb, v, radix, flags, width);
+        return sb.substring(1);
+    }
+
+    private static String base62(long v) {
+        String digits = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        BigInteger radix = BigInteger.valueOf(62);
+        BigInteger abs = BigInteger.valueOf(v).abs();
+        StringBuilder sb = new StringBuilder();
+        do {
+            BigInteger[] qr = abs.divideAndRemainder(radix);
+            sb.append(digits.charAt(qr[1].intValue()));
+            abs = qr[0];
+        } while (abs.signum() != 0);
+        return (v < 0 ? "-" : "") + sb.reverse();
+    }
+
+    @Test
+    public void formatToMaxMin() {
+        for (int radix = 2; radix <= 36; radix++) {
+            assertEquals(Long.toString(Long.MAX_VALUE, radix), run(Long.MAX_VALUE, radix, 0, 0));
+            assertEquals(Long.toString(Long.MIN_VALUE, radix), run(Long.MIN_VALUE, radix, 0, 0));
+            assertEquals(Long.toString(0, radix), run(0, radix, 0, 0));
+        }
+        assertEquals(base62(Long.MAX_VALUE), run(Long.MAX_VALUE, 62, 0, 0));
+        assertEquals(base62(Long.MIN_VALUE), run(Long.MIN_VALUE, 62, 0, 0));
+        assertEquals(Integer.toString(Integer.MIN_VALUE, 36),
+                     RadixIntegerFormatter.formatTo(new StringBuilder(), Integer.MIN_VALUE, 36, 0, 0)
+                                          .toString());
+    }
+
+    @Test
+    public void formatTo() {
+        long v = 1;
+        for (int i = 0; i < 62; i++) {
+            for (long n : new long[] { v - 1, v, v + 1, -v, v * 7 + 3 }) {
+                assertEquals(Long.toString(n, 36), run(n, 36, 0, 0));
+                assertEquals(Long.toString(n, 16), run(n, 16, 0, 0));
+                assertEquals(Long.toString(n, 7), run(n, 7, 0, 0));
+                assertEquals(base62(n), run(n, 62, 0, 0));
+            }
+            v <<= 1;
+        }
+    }
+
+    @Test
+    public void formatTo_width() {
+        assertEquals("     zz", run(1295, 36, 0, 7));
+        assertEquals("00000ZZ", run(1295, 36, RadixIntegerFormatter.UPPER_CASE |
+                                              RadixIntegerFormatter.PADDED_WITH_ZEROS, 7));
+        assertEquals("-0000zz", run(-1295, 36, RadixIntegerFormatter.PADDED_WITH_ZEROS, 7));
+        assertEquals("    -zz", run(-1295, 36, 0, 7));
+        assertEquals("ZZ", run(3843, 62, RadixIntegerFormatter.UPPER_CASE, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void formatTo_invalidRadix() {
+        run(1, 63, 0, 0);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.integers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class UuidFormatterTest {
+    private static String run(UUID uuid, int flags) {
+        StringBuilder sb = new StringBuilder();
+        UuidFormatter.formatTo(sb, uuid, flags);
+        return sb.toString();
+    }
+
+    @Test
+    public void formatTo() {
+        UUID uuid = UUID.fromString("0123e567-89ab-cdef-0123-456789abcdef");
+        assertEquals(uuid.toString(), run(uuid, 0));
+        assertEquals(new UUID(0, 0).toString(), run(new UUID(0, 0), 0));
+        assertEquals(new UUID(-1, -1).toString(), run(new UUID(-1, -1), 0));
+        for (int i = 0; i < 100; i++) {
+            UUID random = UUID.randomUUID();
+            assertEquals(random.toString(), run(random, 0));
+        }
+    }
+
+    @Test
+    public void formatTo_upperCase() {
+        UUID uuid = UUID.fromString("0123e567-89ab-cdef-0123-456789abcdef");
+        assertEquals(String.format("%S", uuid), run(uuid, HexIntegerFormatter.UPPER_CASE));
+    }
+
+    @Test
+    public void formatTo_null() {
+        assertEquals("null", run(null, 0));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class FormatWriterTest {
+    private static void writeRecord(Writer out, int id) throws IOException {
+        StringBuilder sb = FormatWriter.stage(out);
+        int start = sb.length();
+        sb.append("id=").append(id).append('\n');
+        FormatWriter.commit(out, start);
+    }
+
+    @Test
+    public void flushThreshold() throws IOException {
+        CountingWriter counting = new CountingWriter();
+        FormatWriter out = new FormatWriter(counting, 64);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            writeRecord(out, i);
+            expected.append("id=").append(i).append('\n');
+        }
+        // Only chunks of at least the threshold are written.
+        assertTrue(counting.writes > 0);
+        assertTrue(counting.minLength >= 64);
+        out.flush();
+        assertEquals(expected.toString(), counting.out.toString());
+    }
+
+    @Test
+    public void otherWriter() throws IOException {
+        CountingWriter counting = new CountingWriter();
+        writeRecord(counting, 1);
+        writeRecord(counting, 2);
+        assertEquals("id=1\nid=2\n", counting.out.toString());
+        // A call per record.
+        assertEquals(2, counting.writes);
+        assertEquals(0, FormatWriter.stage(counting).length());
+    }
+
+    @Test
+    public void nestedRecord() throws IOException {
+        StringWriter out = new StringWriter();
+        StringBuilder sb = FormatWriter.stage(out);
+        int start = sb.length();
+        sb.append("outer ");
+        // e.g. by toString() of an argument.
+        writeRecord(out, 1);
+        sb.append("record\n");
+        FormatWriter.commit(out, start);
+        assertEquals("id=1\nouter record\n", out.toString());
+    }
+
+    @Test
+    public void writerMethods() throws IOException {
+        StringWriter sw = new StringWriter();
+        try (FormatWriter out = new FormatWriter(sw)) {
+            out.write('a');
+            out.write(new char[] { 'b', 'c', 'd' }, 1, 2);
+            out.write("efg", 1, 1);
+            assertSame(out, out.append("h").append("xiy", 1, 2));
+            assertEquals("", sw.toString());
+        }
+        assertEquals("acdfhi", sw.toString());
+    }
+
+    @Test
+    public void outputStream() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        FormatWriter out = new FormatWriter(bytes, StandardCharsets.UTF_8, 16);
+        out.append("é€");
+        out.flush();
+        assertEquals("é€", new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidThreshold() {
+        new FormatWriter(new StringWriter(), 0);
+    }
+
+    private static final class CountingWriter extends Writer {
+        private final StringBuilder out = new StringBuilder();
+        private int writes;
+        private int minLength = Integer.MAX_VALUE;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            writes++;
+            minLength = Math.min(minLength, len);
+            out.append(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class GatheringSinkTest {
+    private static final ByteBuffer literal = GatheringSink.literal("</symbol><venue>XNYS</venue></order>\n");
+
+    private static void writeRecord(GatheringSink sink, int id, String symbol) throws IOException {
+        sink.text().append("<order><id>").append(id).append("</id><symbol>").append(symbol);
+        sink.putLiteral(literal);
+        sink.endRecord();
+    }
+
+    private static String expected(int records, String symbol) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < records; i++) {
+            sb.append("<order><id>").append(i).append("</id><symbol>").append(symbol)
+              .append("</symbol><venue>XNYS</venue></order>\n");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void write() throws IOException {
+        for (String symbol : new String[] { "ACME", "é€😀" }) {
+            for (int maxSegments : new int[] { 1, 2, 3, 64 }) {
+                RecordingChannel channel = new RecordingChannel(7);
+                GatheringSink sink = new GatheringSink(channel, maxSegments, 64);
+                for (int i = 0; i < 100; i++) {
+                    writeRecord(sink, i, symbol);
+                }
+                sink.flush();
+                assertEquals(expected(100, symbol), channel.toString());
+            }
+        }
+        // The literal is not consumed.
+        assertEquals(37, literal.remaining());
+    }
+
+    @Test
+    public void batch() throws IOException {
+        RecordingChannel channel = new RecordingChannel(Integer.MAX_VALUE);
+        GatheringSink sink = new GatheringSink(channel, 20, 4096);
+        for (int i = 0; i < 100; i++) {
+            writeRecord(sink, i, "ACME");
+        }
+        assertEquals(expected(100, "ACME").substring(0, channel.toString().length()), channel.toString());
+        sink.flush();
+        assertEquals(expected(100, "ACME"), channel.toString());
+        // 2 segments per record.
+        assertEquals(10, channel.writes);
+    }
+
+    @Test
+    public void textLongerThanBuffer() throws IOException {
+        RecordingChannel channel = new RecordingChannel(Integer.MAX_VALUE);
+        GatheringSink sink = new GatheringSink(channel, 4, 16);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append(i);
+        }
+        sink.text().append(text);
+        sink.putLiteral(literal);
+        sink.text().append("ok");
+        sink.flush();
+        assertEquals(text + "</symbol><venue>XNYS</venue></order>\nok", channel.toString());
+    }
+
+    @Test
+    public void loneSurrogate() throws IOException {
+        RecordingChannel channel = new RecordingChannel(Integer.MAX_VALUE);
+        GatheringSink sink = new GatheringSink(channel, 4, 64);
+        sink.text().append("a\uD800b\uDC00"); // lone surrogates
+        sink.flush();
+        assertEquals("a?b?", channel.toString());
+    }
+
+    @Test
+    public void flushEmpty() throws IOException {
+        RecordingChannel channel = new RecordingChannel(Integer.MAX_VALUE);
+        new GatheringSink(channel, 4, 64).flush();
+        assertEquals(0, channel.writes);
+    }
+
+    private static final class RecordingChannel implements GatheringByteChannel {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final int maxBytesPerWrite;
+        private int writes;
+
+        RecordingChannel(int maxBytesPerWrite) {
+            this.maxBytesPerWrite = maxBytesPerWrite;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            writes++;
+            long written = 0;
+            for (int i = offset; i < offset + length && written < maxBytesPerWrite; i++) {
+                while (srcs[i].hasRemaining() && written < maxBytesPerWrite) {
+                    out.write(srcs[i].get());
+                    written++;
+                }
+            }
+            assertTrue(written > 0);
+            return written;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return (int) write(new ByteBuffer[] { src });
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.imasahiro.stringformatter.runtime.binary.BinaryLog;
+
+public class MappedFileSinkTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static void assertRecords(Path path, int records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        for (int i = 0; i < records; i++) {
+            assertEquals(i, buffer.getInt());
+            assertEquals("record " + i, BinaryLog.getString(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void write() throws IOException {
+        Path path = folder.newFile().toPath();
+        try (MappedFileSink sink = new MappedFileSink(path, 64)) {
+            for (int i = 0; i < 1000; i++) {
+                final int id = i;
+                sink.write(buffer -> BinaryLog.putString(buffer.putInt(id), "record " + id));
+            }
+        }
+        assertRecords(path, 1000);
+    }
+
+    @Test
+    public void reserve() throws IOException {
+        Path path = folder.newFile().toPath();
+        try (MappedFileSink sink = new MappedFileSink(path, 64)) {
+            for (int i = 0; i < 1000; i++) {
+                BinaryLog.putString(sink.reserve(32).putInt(i), "record " + i);
+            }
+        }
+        assertRecords(path, 1000);
+    }
+
+    @Test
+    public void truncateOnClose() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, new byte[4096]);
+        MappedFileSink sink = new MappedFileSink(path, 1024);
+        sink.write(buffer -> buffer.putInt(1));
+        assertEquals(4, sink.position());
+        sink.close();
+        sink.close();
+        assertEquals(4, Files.size(path));
+        try {
+            sink.write(buffer -> buffer.putInt(2));
+            fail();
+        } catch (ClosedChannelException expected) {
+        }
+    }
+
+    @Test
+    public void recordLongerThanWindow() throws IOException {
+        Path path = folder.newFile().toPath();
+        try (MappedFileSink sink = new MappedFileSink(path, 16)) {
+            sink.write(buffer -> buffer.putLong(1));
+            try {
+                sink.write(buffer -> buffer.putLong(2).putLong(3).putLong(4));
+                fail();
+            } catch (IllegalArgumentException expected) {
+            }
+            try {
+                sink.reserve(17);
+                fail();
+            } catch (IllegalArgumentException expected) {
+            }
+            sink.write(buffer -> buffer.putLong(5));
+            assertEquals(16, sink.position());
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        assertEquals(1, buffer.getLong());
+        assertEquals(5, buffer.getLong());
+        assertFalse(buffer.hasRemaining());
+    }
+}
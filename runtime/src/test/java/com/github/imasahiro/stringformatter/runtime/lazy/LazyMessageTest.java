@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.lazy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class LazyMessageTest {
+    private static final class CountingMessage extends LazyMessage {
+        private final int value;
+        private int formatted;
+
+        CountingMessage(int value) {
+            super(16);
+            this.value = value;
+        }
+
+        @Override
+        public StringBuilder appendTo(StringBuilder sb) {
+            formatted++;
+            return sb.append("value=").append(value);
+        }
+    }
+
+    @Test
+    public void formatOnce() {
+        CountingMessage message = new CountingMessage(42);
+        assertEquals(0, message.formatted);
+        String s = message.toString();
+        assertEquals("value=42", s);
+        assertSame(s, message.get());
+        assertEquals(8, message.length());
+        assertEquals('4', message.charAt(6));
+        assertEquals("42", message.subSequence(6, 8));
+        assertEquals(1, message.formatted);
+    }
+
+    @Test
+    public void appendTo() {
+        CountingMessage message = new CountingMessage(1);
+        StringBuilder sb = new StringBuilder("[");
+        assertEquals("[value=1", message.appendTo(sb).toString());
+        assertEquals("value=1", message.toString());
+        assertEquals(2, message.formatted);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.objects;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class EnumFormatterTest {
+    private enum Color {
+        RED,
+        GREEN {
+            @Override
+            public String toString() {
+                return "green";
+            }
+        }
+    }
+
+    private static String run(Enum<?> v) {
+        StringBuilder sb = new StringBuilder();
+        EnumFormatter.formatTo(sb, v);
+        return sb.toString();
+    }
+
+    @Test
+    public void formatTo() {
+        assertEquals(TimeUnit.SECONDS.toString(), run(TimeUnit.SECONDS));
+        assertEquals("RED", run(Color.RED));
+        assertEquals("green", run(Color.GREEN));
+        assertEquals("null", run(null));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.parse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ParseUtilsTest {
+    private static long decimal(String s, long min, long max) {
+        return ParseUtils.parseDecimal(s, 0, s.length(), min, max);
+    }
+
+    private static long hex(String s, int bits) {
+        return ParseUtils.parseHex(s, 0, s.length(), bits);
+    }
+
+    @Test
+    public void matches() {
+        assertTrue(ParseUtils.matches("id=42", 0, "id="));
+        assertTrue(ParseUtils.matches("id=42", 3, "42"));
+        assertFalse(ParseUtils.matches("id=42", 3, "421"));
+        assertFalse(ParseUtils.matches("id=42", 1, "id"));
+    }
+
+    @Test
+    public void indexOf() {
+        assertEquals(3, ParseUtils.indexOf("abc, def", ", ", 0));
+        assertEquals(3, ParseUtils.indexOf(new StringBuilder("abc, def"), ", ", 0));
+        assertEquals(-1, ParseUtils.indexOf(new StringBuilder("abc, def"), ", ", 4));
+        assertEquals(-1, ParseUtils.indexOf(new StringBuilder("abc,"), ", ", 0));
+    }
+
+    @Test
+    public void skipSpaces() {
+        assertEquals(3, ParseUtils.skipSpaces("   42", 0, 5));
+        assertEquals(2, ParseUtils.skipSpaces("   42", 0, 2));
+        assertEquals(3, ParseUtils.skipSpaces("   42", 3, 5));
+    }
+
+    @Test
+    public void decimalEnd() {
+        assertEquals(2, ParseUtils.decimalEnd("42 x", 0, 4));
+        assertEquals(3, ParseUtils.decimalEnd("-42", 0, 3));
+        assertEquals(3, ParseUtils.decimalEnd("+42", 0, 3));
+        assertEquals(2, ParseUtils.decimalEnd("-42", 0, 2));
+        assertEquals(-1, ParseUtils.decimalEnd("-x", 0, 2));
+        assertEquals(-1, ParseUtils.decimalEnd("x", 0, 1));
+    }
+
+    @Test
+    public void hexEnd() {
+        assertEquals(4, ParseUtils.hexEnd("0aF9-", 0, 5));
+        assertEquals(2, ParseUtils.hexEnd("0aF9-", 0, 2));
+        assertEquals(-1, ParseUtils.hexEnd("-1", 0, 2));
+    }
+
+    @Test
+    public void parseDecimal() {
+        assertEquals(42, decimal("42", Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(-42, decimal("-0042", Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(42, decimal("+42", Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, decimal("9223372036854775807", Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(Long.MIN_VALUE, decimal("-9223372036854775808", Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(Integer.MIN_VALUE, decimal("-2147483648", Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(17, ParseUtils.parseDecimal("id=17;", 3, 5, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void parseDecimalInvalid() {
+        for (String s : new String[] { "", "-", "+", "4x", "9223372036854775808", "-9223372036854775809" }) {
+            try {
+                decimal(s, Long.MIN_VALUE, Long.MAX_VALUE);
+                throw new AssertionError(s);
+            } catch (NumberFormatException expected) {
+            }
+        }
+        for (String s : new String[] { "2147483648", "-2147483649" }) {
+            try {
+                decimal(s, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                throw new AssertionError(s);
+            } catch (NumberFormatException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void parseHex() {
+        assertEquals(0x0123456789abcdefL, hex("0123456789abcdef", 64));
+        assertEquals(-1L, hex("ffffffffffffffff", 64));
+        assertEquals(-1, (int) hex("FFFFFFFF", 32));
+        assertEquals(-1, (byte) hex("ff", 8));
+        assertEquals(0xff, hex("00ff", 8));
+    }
+
+    @Test
+    public void parseHexInvalid() {
+        for (String s : new String[] { "", "g", "1ffffffff" }) {
+            try {
+                hex(s, 32);
+                throw new AssertionError(s);
+            } catch (NumberFormatException expected) {
+            }
+        }
+    }
+}
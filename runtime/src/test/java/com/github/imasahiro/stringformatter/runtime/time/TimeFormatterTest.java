@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2018 Masahiro Ide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.imasahiro.stringformatter.runtime.time;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+
+import org.junit.Test;
+
+public class TimeFormatterTest {
+    @Test
+    public void fields() {
+        long millis = 1546300800123L;
+        TimeFields fields = TimeFormatter.fields(millis);
+        ZonedDateTime expected = ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        assertEquals(expected.getYear(), fields.getYear());
+        assertEquals(expected.getMonthValue(), fields.getMonthValue());
+        assertEquals(expected.getDayOfMonth(), fields.getDayOfMonth());
+        assertEquals(expected.getDayOfYear(), fields.getDayOfYear());
+        assertEquals(expected.getDayOfWeek(), fields.getDayOfWeek());
+        assertEquals(expected.getHour(), fields.getHour());
+        assertEquals(expected.getMinute(), fields.getMinute());
+        assertEquals(expected.getSecond(), fields.getSecond());
+        assertEquals(expected.getOffset(), fields.getOffset());
+        assertEquals(expected.toEpochSecond(), fields.toEpochSecond());
+        assertEquals(String.format(Locale.US, "%tZ", millis), fields.getZoneName());
+
+        // The same second shares the fields.
+        assertSame(fields, TimeFormatter.fields(millis + 876));
+        assertSame(fields, TimeFormatter.fields(Instant.ofEpochMilli(millis - 123)));
+    }
+
+    @Test
+    public void fields_negative() {
+        long millis = -1L;
+        TimeFields fields = TimeFormatter.fields(millis);
+        assertEquals(-1, fields.toEpochSecond());
+        assertEquals(String.format("%tS", millis), String.format("%02d", fields.getSecond()));
+    }
+
+    @Test
+    public void formatDigits() {
+        StringBuilder sb = new StringBuilder();
+        TimeFormatter.formatTwoDigits(sb, 7);
+        TimeFormatter.formatTwoDigits(sb, 59);
+        TimeFormatter.formatThreeDigits(sb, 5);
+        TimeFormatter.formatThreeDigits(sb, 999);
+        TimeFormatter.formatNanos(sb, 12345);
+        assertEquals("0759005999000012345", sb.toString());
+    }
+
+    @Test
+    public void formatZoneOffset() {
+        StringBuilder sb = new StringBuilder();
+        TimeFormatter.formatZoneOffset(sb, ZoneOffset.ofHoursMinutes(-8, -30));
+        sb.append(' ');
+        TimeFormatter.formatZoneOffset(sb, ZoneOffset.UTC);
+        sb.append(' ');
+        TimeFormatter.formatZoneOffset(sb, ZoneOffset.ofHours(9));
+        assertEquals("-0830 +0000 +0900", sb.toString());
+    }
+
+    @Test
+    public void formatNames() {
+        ZonedDateTime dateTime = ZonedDateTime.of(2019, 2, 3, 4, 5, 6, 0, ZoneId.of("America/Los_Angeles"));
+        StringBuilder sb = new StringBuilder();
+        TimeFormatter.formatMonthName(sb, dateTime.getMonthValue(), 0);
+        sb.append(' ');
+        TimeFormatter.formatShortMonthName(sb, dateTime.getMonthValue(), TimeFormatter.UPPER_CASE);
+        sb.append(' ');
+        TimeFormatter.formatDayOfWeekName(sb, dateTime.getDayOfWeek().getValue(), 0);
+        sb.append(' ');
+        TimeFormatter.formatShortDayOfWeekName(sb, dateTime.getDayOfWeek().getValue(), 0);
+        sb.append(' ');
+        TimeFormatter.formatZoneName(sb, dateTime);
+        assertEquals(String.format(Locale.US, "%1$tB %1$Tb %1$tA %1$ta %1$tZ", dateTime), sb.toString());
+    }
+}